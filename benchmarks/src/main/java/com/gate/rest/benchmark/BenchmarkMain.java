@@ -0,0 +1,32 @@
+package com.gate.rest.benchmark;
+
+import org.openjdk.jmh.Main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/24 上午9:30
+ * @description：benchmarks.jar 入口. 与 org.openjdk.jmh.Main 参数相同, 未指定 -rf 时结果默认输出为 JSON
+ * (jmh-result.json), 便于不同提交之间对比, 如:
+ * java -jar target/benchmarks.jar -prof gc -rff jmh-$(git rev-parse --short HEAD).json
+ * @modified By：
+ * @version: $
+ */
+public class BenchmarkMain {
+
+	public static void main(String[] args) throws Exception {
+		List<String> argList = new ArrayList<>(Arrays.asList(args));
+		if (!argList.contains("-rf")) {
+			argList.add("-rf");
+			argList.add("json");
+		}
+		if (!argList.contains("-rff")) {
+			argList.add("-rff");
+			argList.add("jmh-result.json");
+		}
+		Main.main(argList.toArray(new String[0]));
+	}
+}
@@ -0,0 +1,69 @@
+package com.gate.rest.benchmark;
+
+import com.gate.rest.util.DateUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/24 上午10:35
+ * @description：DateUtil 格式化与解析
+ * @modified By：
+ * @version: $
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DateUtilBenchmark {
+
+	long timestamp = 1604887517919L;
+	Date date = new Date(timestamp);
+	String dateTime = "2020-11-09 02:05:17";
+	String solr = "2020-11-09T02:05:17Z";
+	String timestampString = "1604887517919";
+
+	@Benchmark
+	public String toUTCDateTime() {
+		return DateUtil.toUTCDateTime(timestamp);
+	}
+
+	@Benchmark
+	public String toUTCSolrFormat() {
+		return DateUtil.toUTCSolrFormat(date);
+	}
+
+	@Benchmark
+	public Date fromUTCDateTime() {
+		return DateUtil.fromUTCDateTime(dateTime);
+	}
+
+	@Benchmark
+	public long fromUTCSolrFormat() {
+		return DateUtil.fromUTCSolrFormat(solr);
+	}
+
+	/** 时间戳字符串, toDate 的第一个分支 **/
+	@Benchmark
+	public Date toDateTimestamp() {
+		return DateUtil.toDate(timestampString);
+	}
+
+	/** 日期字符串, toDate 先尝试按时间戳解析失败后再按格式解析 **/
+	@Benchmark
+	public Date toDateDateTime() {
+		return DateUtil.toDate(dateTime);
+	}
+}
@@ -0,0 +1,116 @@
+package com.gate.rest.benchmark;
+
+import com.gate.rest.util.Decimal64;
+import com.gate.rest.util.FixedPoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/25 下午7:40
+ * @description：下单数量计算, BigDecimal 与 Decimal64 对比. 按可用余额的一定比例买入:
+ * 数量 = 余额 * 比例 / 价格, 向下取整到 8 位并检查最小下单数量, 再把价格和数量写入请求体
+ * @modified By：
+ * @version: $
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class Decimal64Benchmark {
+
+	static final int PRICE_SCALE = 2;
+	static final int AMOUNT_SCALE = 8;
+	static final int RATIO_SCALE = 4;
+	static final byte[] RATE = "rate=".getBytes(StandardCharsets.US_ASCII);
+	static final byte[] AMOUNT = "&amount=".getBytes(StandardCharsets.US_ASCII);
+
+	BigDecimal balance = new BigDecimal("12345.678901");
+	BigDecimal ratio = new BigDecimal("0.25");
+	BigDecimal price = new BigDecimal("1795.47");
+	BigDecimal minAmount = new BigDecimal("0.0001");
+
+	long balanceFixed = FixedPoint.parse("12345.678901", AMOUNT_SCALE);
+	long ratioFixed = FixedPoint.parse("0.25", RATIO_SCALE);
+	long priceFixed = FixedPoint.parse("1795.47", PRICE_SCALE);
+	long minAmountFixed = FixedPoint.parse("0.0001", AMOUNT_SCALE);
+
+	byte[] body = new byte[128];
+
+	@Benchmark
+	public BigDecimal multiplyBigDecimal() {
+		return balance.multiply(ratio).setScale(AMOUNT_SCALE, RoundingMode.DOWN);
+	}
+
+	@Benchmark
+	public long multiplyDecimal64() {
+		return Decimal64.multiply(balanceFixed, AMOUNT_SCALE, ratioFixed, RATIO_SCALE, AMOUNT_SCALE, RoundingMode.DOWN);
+	}
+
+	@Benchmark
+	public BigDecimal divideBigDecimal() {
+		return balance.divide(price, AMOUNT_SCALE, RoundingMode.DOWN);
+	}
+
+	@Benchmark
+	public long divideDecimal64() {
+		return Decimal64.divide(balanceFixed, AMOUNT_SCALE, priceFixed, PRICE_SCALE, AMOUNT_SCALE, RoundingMode.DOWN);
+	}
+
+	@Benchmark
+	public int formatBigDecimal() {
+		byte[] text = price.stripTrailingZeros().toPlainString().getBytes(StandardCharsets.US_ASCII);
+		System.arraycopy(text, 0, body, 0, text.length);
+		return text.length;
+	}
+
+	@Benchmark
+	public int formatDecimal64() {
+		return Decimal64.format(priceFixed, PRICE_SCALE, body, 0);
+	}
+
+	/** 计算数量并写入 rate=...&amount=... **/
+	@Benchmark
+	public int sizeOrderBigDecimal() {
+		BigDecimal amount = balance.multiply(ratio).divide(price, AMOUNT_SCALE, RoundingMode.DOWN);
+		if (amount.compareTo(minAmount) < 0) {
+			return 0;
+		}
+		int length = put(0, RATE);
+		length = put(length, price.stripTrailingZeros().toPlainString().getBytes(StandardCharsets.US_ASCII));
+		length = put(length, AMOUNT);
+		return put(length, amount.stripTrailingZeros().toPlainString().getBytes(StandardCharsets.US_ASCII));
+	}
+
+	@Benchmark
+	public int sizeOrderDecimal64() {
+		long notional = Decimal64.multiply(balanceFixed, AMOUNT_SCALE, ratioFixed, RATIO_SCALE, AMOUNT_SCALE, RoundingMode.DOWN);
+		long amount = Decimal64.divide(notional, AMOUNT_SCALE, priceFixed, PRICE_SCALE, AMOUNT_SCALE, RoundingMode.DOWN);
+		if (amount < minAmountFixed) {
+			return 0;
+		}
+		int length = put(0, RATE);
+		length = Decimal64.format(priceFixed, PRICE_SCALE, body, length);
+		length = put(length, AMOUNT);
+		return Decimal64.format(amount, AMOUNT_SCALE, body, length);
+	}
+
+	private int put(int offset, byte[] bytes) {
+		System.arraycopy(bytes, 0, body, offset, bytes.length);
+		return offset + bytes.length;
+	}
+}
@@ -0,0 +1,76 @@
+package com.gate.rest.benchmark;
+
+import com.gate.rest.util.JsonObject;
+import com.gate.rest.util.JsonTool;
+import com.google.gson.reflect.TypeToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/24 上午10:05
+ * @description：JsonTool 解析录制的 tickers / orderBook / marketList 报文
+ * @modified By：
+ * @version: $
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonParseBenchmark {
+
+	static final Type MAP_TYPE = new TypeToken<Map<String, Object>>() {
+	}.getType();
+
+	@Param({"tickers", "orderBook", "marketList"})
+	String payload;
+
+	byte[] bytes;
+	String json;
+
+	@Setup
+	public void setup() {
+		bytes = Payloads.load(payload);
+		json = new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public JsonObject toObject() {
+		return JsonTool.toObject(json);
+	}
+
+	@Benchmark
+	public Map<String, Object> jsonToObject() {
+		return JsonTool.jsonToObject(json);
+	}
+
+	/** 响应体先读成 String 再解析, 即 IOUtils.toString 之后的 jsonToObject **/
+	@Benchmark
+	public Map<String, Object> bufferedString() {
+		return JsonTool.jsonToObject(new String(bytes, StandardCharsets.UTF_8), MAP_TYPE);
+	}
+
+	/** 响应体输入流直接解析 **/
+	@Benchmark
+	public Map<String, Object> streamed() throws IOException {
+		return JsonTool.jsonToObject(new ByteArrayInputStream(bytes), MAP_TYPE);
+	}
+}
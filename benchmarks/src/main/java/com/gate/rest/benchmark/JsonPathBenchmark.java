@@ -0,0 +1,64 @@
+package com.gate.rest.benchmark;
+
+import com.gate.rest.util.JsonTool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/24 上午10:20
+ * @description：JsonTool.getValue 按路径取值, 如 eth_usdt.last / asks.0.0 / data.10.rate
+ * @modified By：
+ * @version: $
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonPathBenchmark {
+
+	Map<String, Object> tickers;
+	Map<String, Object> orderBook;
+	Map<String, Object> marketList;
+
+	@Setup
+	public void setup() {
+		tickers = JsonTool.jsonToObject(new String(Payloads.load("tickers"), StandardCharsets.UTF_8));
+		orderBook = JsonTool.jsonToObject(new String(Payloads.load("orderBook"), StandardCharsets.UTF_8));
+		marketList = JsonTool.jsonToObject(new String(Payloads.load("marketList"), StandardCharsets.UTF_8));
+	}
+
+	@Benchmark
+	public String tickerLast() {
+		return JsonTool.getValue("eth_usdt.last", tickers);
+	}
+
+	@Benchmark
+	public String bestAsk() {
+		return JsonTool.getValue("asks.0.0", orderBook);
+	}
+
+	@Benchmark
+	public String marketRate() {
+		return JsonTool.getValue("data.10.rate", marketList);
+	}
+
+	@Benchmark
+	public Double tickerLastDouble() {
+		return JsonTool.getDouble("eth_usdt.last", tickers);
+	}
+}
@@ -0,0 +1,52 @@
+package com.gate.rest.benchmark;
+
+import com.gate.rest.util.MD5Util;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/24 上午9:50
+ * @description：MD5Util.buildMysign 参数排序拼接 + MD5
+ * @modified By：
+ * @version: $
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class Md5SignBenchmark {
+
+	Map<String, String> params;
+	String secretKey;
+
+	@Setup
+	public void setup() {
+		params = new HashMap<>();
+		params.put("api_key", "0a1b2c3d-4e5f-6a7b-8c9d-0e1f2a3b4c5d");
+		params.put("symbol", "eth_btc");
+		params.put("type", "buy");
+		params.put("price", "0.03275");
+		params.put("amount", "1.5");
+		secretKey = "6f1e2d3c4b5a69788796a5b4c3d2e1f0";
+	}
+
+	@Benchmark
+	public String buildMysign() {
+		return MD5Util.buildMysign(params, secretKey);
+	}
+}
@@ -0,0 +1,138 @@
+package com.gate.rest.benchmark;
+
+import com.gate.rest.entity.PairScale;
+import com.gate.rest.market.LevelChanges;
+import com.gate.rest.market.OrderBook;
+import com.gate.rest.market.OrderBookSnapshot;
+import com.gate.rest.market.Side;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/27 上午10:30
+ * @description：1000 档(每侧 500)盘口的快照差分. 两个快照之间有 changeRate 比例的档位变化(数量变化、新增、删除各占三分之一),
+ * 每次调用交替应用两个快照. diff 输出 LevelChanges, apply 只更新盘口, diffHashMap 为按价格建 HashMap 再逐一比较的做法
+ * @modified By：
+ * @version: $
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OrderBookDiffBenchmark {
+
+	static final int LEVELS = 500;
+
+	@Param({"0.05"})
+	double changeRate;
+
+	OrderBookSnapshot[] snapshots = new OrderBookSnapshot[2];
+	OrderBook book = new OrderBook("eth_usdt");
+	LevelChanges changes = new LevelChanges();
+	Map<Long, Long>[] previous;
+	int round;
+
+	@Setup
+	@SuppressWarnings("unchecked")
+	public void setup() {
+		Random random = new Random(42);
+		PairScale scale = PairScale.of(2);
+		long[][] asks = new long[LEVELS][2];
+		long[][] bids = new long[LEVELS][2];
+		for (int i = 0; i < LEVELS; i++) {
+			asks[i][0] = 180_001 + i * 2L;
+			asks[i][1] = 1 + random.nextInt(100_000_000);
+			bids[i][0] = 180_000 - i * 2L;
+			bids[i][1] = 1 + random.nextInt(100_000_000);
+		}
+		snapshots[0] = snapshot(scale, asks, bids);
+		for (int i = 0; i < LEVELS; i++) {
+			if (random.nextDouble() < changeRate) {
+				mutate(asks[i], random, 1);
+			}
+			if (random.nextDouble() < changeRate) {
+				mutate(bids[i], random, -1);
+			}
+		}
+		snapshots[1] = snapshot(scale, asks, bids);
+		previous = new Map[]{new HashMap<>(), new HashMap<>()};
+		book.apply(snapshots[0]);
+	}
+
+	/** 数量变化, 或把价格移到相邻的空档(原价格删除, 新价格插入) **/
+	private static void mutate(long[] level, Random random, int direction) {
+		if (random.nextInt(3) == 0) {
+			level[1] = 1 + random.nextInt(100_000_000);
+		} else {
+			level[0] += direction;
+		}
+	}
+
+	private static OrderBookSnapshot snapshot(PairScale scale, long[][] asks, long[][] bids) {
+		OrderBookSnapshot snapshot = new OrderBookSnapshot(LEVELS);
+		snapshot.clear(scale);
+		snapshot.setResult(true);
+		// 与响应一致, 卖盘从高到低
+		for (int i = LEVELS - 1; i >= 0; i--) {
+			snapshot.add(Side.ASK, asks[i][0], asks[i][1]);
+		}
+		for (long[] level : bids) {
+			snapshot.add(Side.BID, level[0], level[1]);
+		}
+		return snapshot;
+	}
+
+	@Benchmark
+	public int diff() {
+		book.apply(snapshots[++round & 1], changes);
+		return changes.count();
+	}
+
+	@Benchmark
+	public int apply() {
+		return book.apply(snapshots[++round & 1]);
+	}
+
+	@Benchmark
+	public int diffHashMap() {
+		OrderBookSnapshot snapshot = snapshots[++round & 1];
+		int changed = 0;
+		for (Side side : Side.values()) {
+			Map<Long, Long> last = previous[side.ordinal()];
+			Map<Long, Long> current = new HashMap<>();
+			for (int i = 0; i < snapshot.count(side); i++) {
+				long price = snapshot.price(side, i);
+				long size = snapshot.size(side, i);
+				current.put(price, size);
+				Long old = last.get(price);
+				if (old == null || old != size) {
+					changed++;
+				}
+			}
+			for (Long price : last.keySet()) {
+				if (!current.containsKey(price)) {
+					changed++;
+				}
+			}
+			previous[side.ordinal()] = current;
+		}
+		return changed;
+	}
+}
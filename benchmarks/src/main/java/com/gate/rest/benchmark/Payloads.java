@@ -0,0 +1,26 @@
+package com.gate.rest.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/24 上午9:40
+ * @description：录制的行情报文, 与单元测试共用 src/test/resources/payload, 打包在 benchmarks.jar 中
+ * @modified By：
+ * @version: $
+ */
+public class Payloads {
+
+	public static byte[] load(String name) {
+		try (InputStream in = Payloads.class.getResourceAsStream("/payload/" + name + ".json")) {
+			if (in == null) {
+				throw new IllegalArgumentException("no payload " + name);
+			}
+			return in.readAllBytes();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package com.gate.rest.benchmark;
+
+import com.gate.rest.util.HttpUtilManager;
+import com.gate.rest.util.RequestSigner;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.message.BasicNameValuePair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/23 下午2:20
+ * @description：私有接口签名及请求构建: 每次新建 Mac + 字符串拼接 与 RequestSigner 对比.
+ * 分配字节数使用 -prof gc 查看 gc.alloc.rate.norm
+ * @modified By：
+ * @version: $
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SignBenchmark {
+
+	static final String URL = "https://data.gateio.io/api2/1/private/buy";
+
+	Map<String, String> params;
+	RequestSigner signer;
+	ByteArrayOutputStream sink = new ByteArrayOutputStream(1024);
+
+	@Setup
+	public void setup() {
+		params = new LinkedHashMap<>();
+		params.put("key", "0a1b2c3d-4e5f-6a7b-8c9d-0e1f2a3b4c5d");
+		params.put("secret", "6f1e2d3c4b5a69788796a5b4c3d2e1f00f1e2d3c4b5a69788796a5b4c3d2e1f0");
+		params.put("currencyPair", "eth_btc");
+		params.put("rate", "0.03275");
+		params.put("amount", "1.5");
+		signer = RequestSigner.of(params.get("key"), params.get("secret"));
+	}
+
+	/** 原 doRequest 的签名方式 **/
+	@Benchmark
+	public String legacy() {
+		return HttpUtilManager.sign(params.get("secret"), HttpUtilManager.buildPostData(params));
+	}
+
+	@Benchmark
+	public int requestSigner() {
+		try (RequestSigner.SignedBody body = signer.sign(params)) {
+			return body.length() + body.signHeader().getBuffer().charAt(6);
+		}
+	}
+
+	/** 原 doRequest 构建下单请求: 参数列表 + UrlEncodedFormEntity + 签名头 **/
+	@Benchmark
+	public HttpPost legacyPost() throws IOException {
+		List<NameValuePair> urlParameters = new ArrayList<>();
+		for (Map.Entry<String, String> argument : params.entrySet()) {
+			urlParameters.add(new BasicNameValuePair(argument.getKey(), argument.getValue()));
+		}
+		HttpPost post = new HttpPost(URL);
+		post.setEntity(new UrlEncodedFormEntity(urlParameters));
+		post.setHeader(new BasicHeader("Key", params.get("key")));
+		post.setHeader(new BasicHeader("Sign", legacy()));
+		// 发送时实体会被完整写出
+		post.getEntity().writeTo(sink);
+		sink.reset();
+		return post;
+	}
+
+	/** doRequest 当前构建下单请求的方式 **/
+	@Benchmark
+	public HttpPost signedPost() throws IOException {
+		HttpPost post = new HttpPost(URL);
+		try (RequestSigner.SignedBody body = signer.sign(params)) {
+			post.setEntity(body.entity());
+			post.setHeader(new BasicHeader("Key", signer.getKey()));
+			post.setHeader(body.signHeader());
+			post.getEntity().writeTo(sink);
+			sink.reset();
+		}
+		return post;
+	}
+}
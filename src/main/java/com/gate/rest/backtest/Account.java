@@ -0,0 +1,251 @@
+package com.gate.rest.backtest;
+
+import com.gate.rest.base.BacktestConfig;
+import com.gate.rest.util.Decimal64;
+import com.gate.rest.util.FixedPoint;
+
+import java.math.RoundingMode;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/11/05 上午10:30
+ * @description：一次回测运行的资金, 持仓, 挂单与统计, 只有基本类型字段, 不跨线程共享.
+ * <pre>
+ * - 资金, 成交额与手续费为 CASH_SCALE 位小数的定点数, 与价格小数位数无关, long 可表示约 9.2e10 计价币种;
+ *   超出时抛出 ArithmeticException 而不是回绕. 持仓为数量小数位数的定点数
+ * - 同时最多一个挂单. 下单后经过 latencyMillis 才在交易所生效, 之前的行情不会使其成交, 期间可以撤单
+ * - 生效时可以立即成交的订单按对手价(卖一 / 买一)以 taker 成交, 否则挂在限价上, 之后卖一不高于限价
+ *   或有低于限价的成交时以限价按 maker 成交(卖单相反), 一次全部成交
+ * - 成交额按成交价 * 数量计算, 买入向上取整, 卖出向下取整; 手续费为成交额 * 费率向上取整, 从资金中扣除
+ * - 下单时资金或持仓不足的订单被拒绝, 计入 getRejects()
+ * - 权益 = 资金 + 持仓 * 最新价, 每个事件之后计算一次, 最大回撤为权益相对之前最高点的最大跌幅(计价币种)
+ * </pre>
+ * @modified By：
+ * @version: $
+ */
+public final class Account {
+
+	/** 资金的小数位数 **/
+	public static final int CASH_SCALE = 8;
+
+	private final MarketTape tape;
+	private final int priceScale;
+	private final int volumeScale;
+	private final int cashScale;
+	private final double cashUnit;
+	private final double volumeUnit;
+	private final long initialCash;
+	private final int makerFeeBps;
+	private final int takerFeeBps;
+	private final long latencyMillis;
+
+	private long cash;
+	private long position;
+	/** 当前事件 **/
+	private int index;
+
+	/** 挂单方向, 1 买, -1 卖, 0 没有挂单 **/
+	private int orderSide;
+	private long orderPrice;
+	private long orderAmount;
+	private long orderActiveAt;
+	private boolean resting;
+
+	private long turnover;
+	private long fees;
+	private int fills;
+	private int rejects;
+	private double equity;
+	private double peak;
+	private double maxDrawdown;
+
+	public Account(MarketTape tape, BacktestConfig config) {
+		this.tape = tape;
+		this.priceScale = tape.getPriceScale();
+		this.volumeScale = tape.getVolumeScale();
+		this.cashScale = CASH_SCALE;
+		this.cashUnit = FixedPoint.pow10(cashScale);
+		this.volumeUnit = FixedPoint.pow10(volumeScale);
+		if (config.getInitialCash() < 0 || config.getInitialCash() > Long.MAX_VALUE / FixedPoint.pow10(cashScale)) {
+			throw new IllegalArgumentException("initialCash out of range: " + config.getInitialCash());
+		}
+		this.initialCash = config.getInitialCash() * FixedPoint.pow10(cashScale);
+		this.makerFeeBps = config.getMakerFeeBps();
+		this.takerFeeBps = config.getTakerFeeBps();
+		this.latencyMillis = config.getLatencyMillis();
+		this.cash = initialCash;
+		this.equity = initialCash / cashUnit;
+		this.peak = equity;
+	}
+
+	/**
+	 * 撮合事件 i 之前的挂单, 由 Backtest 在调用 Strategy 之前调用
+	 */
+	void match(int i) {
+		index = i;
+		if (orderSide == 0 || tape.time(i) < orderActiveAt) {
+			return;
+		}
+		if (!resting) {
+			resting = true;
+			if (orderSide > 0 && tape.ask(i) <= orderPrice) {
+				fill(tape.ask(i), takerFeeBps);
+			} else if (orderSide < 0 && tape.bid(i) >= orderPrice) {
+				fill(tape.bid(i), takerFeeBps);
+			}
+			return;
+		}
+		long trade = tape.tradePrice(i);
+		if (orderSide > 0) {
+			if (tape.ask(i) <= orderPrice || (trade != MarketTape.NO_TRADE && trade < orderPrice)) {
+				fill(orderPrice, makerFeeBps);
+			}
+		} else if (tape.bid(i) >= orderPrice || (trade != MarketTape.NO_TRADE && trade > orderPrice)) {
+			fill(orderPrice, makerFeeBps);
+		}
+	}
+
+	private void fill(long price, int feeBps) {
+		long notional = notional(price, orderAmount, orderSide > 0);
+		long fee = fee(notional, feeBps);
+		if (orderSide > 0) {
+			cash = Math.subtractExact(cash, Math.addExact(notional, fee));
+			position = Math.addExact(position, orderAmount);
+		} else {
+			cash = Math.addExact(cash, notional - fee);
+			position -= orderAmount;
+		}
+		turnover = Math.addExact(turnover, notional);
+		fees = Math.addExact(fees, fee);
+		fills++;
+		orderSide = 0;
+	}
+
+	private long notional(long price, long amount, boolean buy) {
+		return Decimal64.multiply(price, priceScale, amount, volumeScale, cashScale, buy ? RoundingMode.UP : RoundingMode.DOWN);
+	}
+
+	private static long fee(long notional, int feeBps) {
+		return -Math.floorDiv(-Math.multiplyExact(notional, feeBps), 10_000L);
+	}
+
+	/**
+	 * 事件 i 之后按最新价计算权益与回撤, 由 Backtest 在调用 Strategy 之后调用
+	 */
+	void mark(int i) {
+		equity = cash / cashUnit + position / volumeUnit * tape.mark(i);
+		if (equity > peak) {
+			peak = equity;
+		} else if (peak - equity > maxDrawdown) {
+			maxDrawdown = peak - equity;
+		}
+	}
+
+	/**
+	 * 限价买入, 资金不足以按 taker 费率成交时拒绝
+	 *
+	 * @return 是否已下单
+	 */
+	public boolean buy(long price, long amount) {
+		if (orderSide != 0) {
+			throw new IllegalStateException("order pending");
+		}
+		if (price <= 0 || amount <= 0) {
+			throw new IllegalArgumentException("price and amount must be positive: " + price + " " + amount);
+		}
+		long notional = notional(price, amount, true);
+		if (Math.addExact(notional, fee(notional, Math.max(makerFeeBps, takerFeeBps))) > cash) {
+			rejects++;
+			return false;
+		}
+		place(1, price, amount);
+		return true;
+	}
+
+	/**
+	 * 限价卖出, 持仓不足时拒绝
+	 *
+	 * @return 是否已下单
+	 */
+	public boolean sell(long price, long amount) {
+		if (orderSide != 0) {
+			throw new IllegalStateException("order pending");
+		}
+		if (price <= 0 || amount <= 0) {
+			throw new IllegalArgumentException("price and amount must be positive: " + price + " " + amount);
+		}
+		if (amount > position) {
+			rejects++;
+			return false;
+		}
+		place(-1, price, amount);
+		return true;
+	}
+
+	private void place(int side, long price, long amount) {
+		orderSide = side;
+		orderPrice = price;
+		orderAmount = amount;
+		orderActiveAt = tape.time(index) + latencyMillis;
+		resting = false;
+	}
+
+	public void cancel() {
+		orderSide = 0;
+	}
+
+	public boolean hasOrder() {
+		return orderSide != 0;
+	}
+
+	public int getOrderSide() {
+		return orderSide;
+	}
+
+	public long getOrderPrice() {
+		return orderPrice;
+	}
+
+	public int getCashScale() {
+		return cashScale;
+	}
+
+	public long getCash() {
+		return cash;
+	}
+
+	public long getPosition() {
+		return position;
+	}
+
+	/** 盈亏(计价币种), 持仓按最后一个事件的最新价计算 **/
+	public double getPnl() {
+		return equity - initialCash / cashUnit;
+	}
+
+	public double getEquity() {
+		return equity;
+	}
+
+	public double getMaxDrawdown() {
+		return maxDrawdown;
+	}
+
+	/** 累计成交额, getCashScale() 位小数 **/
+	public long getTurnover() {
+		return turnover;
+	}
+
+	/** 累计手续费, getCashScale() 位小数 **/
+	public long getFees() {
+		return fees;
+	}
+
+	public int getFills() {
+		return fills;
+	}
+
+	public int getRejects() {
+		return rejects;
+	}
+}
@@ -0,0 +1,119 @@
+package com.gate.rest.backtest;
+
+import com.gate.rest.base.BacktestConfig;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/11/05 上午11:00
+ * @description：在历史行情上运行 Strategy, 撮合, 手续费与延迟的假设见 Account 与 BacktestConfig.
+ * <pre>
+ * - 每个事件依次: 撮合之前的挂单, 调用 Strategy, 按最新价计算权益
+ * - sweep() 在自己的 ForkJoinPool 中把参数组合二分后并行运行, 所有运行共用同一个只读的 MarketTape,
+ *   每次运行只分配一个 Account; 结果与逐个调用 run() 相同, 与并行度无关
+ * </pre>
+ * <pre>
+ * MarketTape tape = MarketTape.load(query, "supe_usdt", from, to);
+ * try (Backtest backtest = new Backtest(backtestConfig)) {
+ *     SweepResult result = backtest.sweep(tape, new ThresholdStrategy(), Backtest.grid(buyBelow, buyRate, sellAbove, amount));
+ *     log.info("\n{}", result.table(20));
+ * }
+ * </pre>
+ * @modified By：
+ * @version: $
+ */
+public class Backtest implements AutoCloseable {
+
+	/** 一个子任务至少运行的组合数 **/
+	private static final int LEAF = 4;
+
+	private final BacktestConfig config;
+	private final ForkJoinPool pool;
+
+	public Backtest(BacktestConfig config) {
+		this.config = config;
+		int parallelism = config.getParallelism();
+		this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * 在当前线程运行一个参数组合
+	 */
+	public Account run(MarketTape tape, Strategy strategy, long[] params) {
+		Account account = new Account(tape, config);
+		for (int i = 0, n = tape.size(); i < n; i++) {
+			account.match(i);
+			strategy.onTick(tape, i, params, account);
+			account.mark(i);
+		}
+		return account;
+	}
+
+	/**
+	 * 并行运行全部参数组合
+	 */
+	public SweepResult sweep(MarketTape tape, Strategy strategy, long[][] params) {
+		SweepResult result = new SweepResult(strategy.parameters(), strategy.scales(tape), params);
+		if (params.length > 0) {
+			pool.invoke(new Slice(tape, strategy, result, params, 0, params.length));
+		}
+		return result;
+	}
+
+	/**
+	 * 各参数取值的笛卡尔积, 最后一个参数变化最快
+	 */
+	public static long[][] grid(long[]... axes) {
+		int n = 1;
+		for (long[] axis : axes) {
+			n = Math.multiplyExact(n, axis.length);
+		}
+		long[][] params = new long[n][axes.length];
+		for (int k = 0; k < n; k++) {
+			int rest = k;
+			for (int j = axes.length - 1; j >= 0; j--) {
+				params[k][j] = axes[j][rest % axes[j].length];
+				rest /= axes[j].length;
+			}
+		}
+		return params;
+	}
+
+	private final class Slice extends RecursiveAction {
+		private final MarketTape tape;
+		private final Strategy strategy;
+		private final SweepResult result;
+		private final long[][] params;
+		private final int from;
+		private final int to;
+
+		Slice(MarketTape tape, Strategy strategy, SweepResult result, long[][] params, int from, int to) {
+			this.tape = tape;
+			this.strategy = strategy;
+			this.result = result;
+			this.params = params;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= LEAF) {
+				for (int k = from; k < to; k++) {
+					result.set(k, run(tape, strategy, params[k]));
+				}
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			invokeAll(new Slice(tape, strategy, result, params, from, mid),
+					new Slice(tape, strategy, result, params, mid, to));
+		}
+	}
+
+	@Override
+	public void close() {
+		pool.shutdown();
+	}
+}
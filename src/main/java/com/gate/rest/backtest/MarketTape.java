@@ -0,0 +1,226 @@
+package com.gate.rest.backtest;
+
+import com.gate.rest.store.TickQuery;
+import com.gate.rest.store.TickResult;
+import com.gate.rest.store.TickType;
+import com.gate.rest.util.FixedPoint;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/11/05 上午9:30
+ * @description：一个交易对的历史行情, 按列存放的基本类型数组, 加载后只读, 所有回测运行共用一份.
+ * 事件按时间排序, 每个事件(ticker / 买一卖一 / 成交)之后的买一, 卖一, 最新价向前填充; 三者都有值之前的事件不保留.
+ * 价格与数量为该交易对小数位数的定点数
+ * @modified By：
+ * @version: $
+ */
+public final class MarketTape {
+
+	/** tradePrice() 的值, 表示该事件不是成交 **/
+	public static final long NO_TRADE = -1;
+
+	private final String symbol;
+	private final int priceScale;
+	private final int volumeScale;
+	private int size;
+	private long[] times = new long[1024];
+	private long[] bids = new long[1024];
+	private long[] asks = new long[1024];
+	private long[] lasts = new long[1024];
+	private long[] tradePrices = new long[1024];
+	private long[] tradeAmounts = new long[1024];
+	/** 最新价的浮点数, 只用于按市值计算权益与回撤 **/
+	private double[] marks = new double[1024];
+
+	private MarketTape(String symbol, int priceScale, int volumeScale) {
+		this.symbol = symbol;
+		this.priceScale = priceScale;
+		this.volumeScale = volumeScale;
+	}
+
+	/**
+	 * 读取 [fromMillis, toMillis) 内该交易对的全部记录. 存储中的记录按写入顺序排列, 时间并不单调
+	 * (ticker 为轮询时间, 成交为交易所时间, 迟到的成交写在之后的段中), 先按时间稳定排序再向前填充
+	 */
+	public static MarketTape load(TickQuery query, String symbol, long fromMillis, long toMillis) throws IOException {
+		Events events = new Events();
+		int priceScale = 0;
+		int volumeScale = 0;
+		try (TickResult r = query.select(Collections.singleton(symbol), fromMillis, toMillis)) {
+			while (r.next()) {
+				if (events.size == 0) {
+					priceScale = r.priceScale();
+					volumeScale = r.volumeScale();
+				}
+				switch (r.type()) {
+					case TICKER:
+						events.add(r.timestampMillis(), TickType.TICKER, r.last(), r.highestBid(), r.lowestAsk());
+						break;
+					case TOP_OF_BOOK:
+						events.add(r.timestampMillis(), TickType.TOP_OF_BOOK, 0, r.bidPrice(), r.askPrice());
+						break;
+					case TRADE:
+						events.add(r.timestampMillis(), TickType.TRADE, r.price(), r.amount(), 0);
+						break;
+					default:
+						break;
+				}
+			}
+		}
+		if (events.size == 0) {
+			throw new IllegalArgumentException("no ticks for " + symbol + " in [" + fromMillis + ", " + toMillis + ")");
+		}
+		MarketTape tape = new MarketTape(symbol, priceScale, volumeScale);
+		long bid = 0;
+		long ask = 0;
+		long last = 0;
+		for (int k : events.byTime()) {
+			long tradePrice = NO_TRADE;
+			long tradeAmount = 0;
+			switch (events.types[k]) {
+				case TICKER:
+					last = events.a[k];
+					bid = events.b[k];
+					ask = events.c[k];
+					break;
+				case TOP_OF_BOOK:
+					bid = events.b[k];
+					ask = events.c[k];
+					break;
+				default:
+					last = events.a[k];
+					tradePrice = events.a[k];
+					tradeAmount = events.b[k];
+					break;
+			}
+			if (bid > 0 && ask > 0 && last > 0) {
+				tape.add(events.times[k], bid, ask, last, tradePrice, tradeAmount);
+			}
+		}
+		tape.trim();
+		return tape;
+	}
+
+	/** 加载时暂存的原始记录, 按读取顺序 **/
+	private static final class Events {
+		int size;
+		long[] times = new long[1024];
+		TickType[] types = new TickType[1024];
+		long[] a = new long[1024];
+		long[] b = new long[1024];
+		long[] c = new long[1024];
+
+		void add(long time, TickType type, long a, long b, long c) {
+			if (size == times.length) {
+				int n = size * 2;
+				times = Arrays.copyOf(times, n);
+				types = Arrays.copyOf(types, n);
+				this.a = Arrays.copyOf(this.a, n);
+				this.b = Arrays.copyOf(this.b, n);
+				this.c = Arrays.copyOf(this.c, n);
+			}
+			times[size] = time;
+			types[size] = type;
+			this.a[size] = a;
+			this.b[size] = b;
+			this.c[size] = c;
+			size++;
+		}
+
+		/** 按时间排序的下标, 同一时间保持读取顺序 **/
+		int[] byTime() {
+			Integer[] order = new Integer[size];
+			for (int k = 0; k < size; k++) {
+				order[k] = k;
+			}
+			Arrays.sort(order, Comparator.comparingLong(k -> times[k]));
+			int[] sorted = new int[size];
+			for (int k = 0; k < size; k++) {
+				sorted[k] = order[k];
+			}
+			return sorted;
+		}
+	}
+
+	private void add(long time, long bid, long ask, long last, long tradePrice, long tradeAmount) {
+		if (size == times.length) {
+			int n = size * 2;
+			times = Arrays.copyOf(times, n);
+			bids = Arrays.copyOf(bids, n);
+			asks = Arrays.copyOf(asks, n);
+			lasts = Arrays.copyOf(lasts, n);
+			tradePrices = Arrays.copyOf(tradePrices, n);
+			tradeAmounts = Arrays.copyOf(tradeAmounts, n);
+			marks = Arrays.copyOf(marks, n);
+		}
+		times[size] = time;
+		bids[size] = bid;
+		asks[size] = ask;
+		lasts[size] = last;
+		tradePrices[size] = tradePrice;
+		tradeAmounts[size] = tradeAmount;
+		marks[size] = FixedPoint.toDouble(last, priceScale);
+		size++;
+	}
+
+	private void trim() {
+		times = Arrays.copyOf(times, size);
+		bids = Arrays.copyOf(bids, size);
+		asks = Arrays.copyOf(asks, size);
+		lasts = Arrays.copyOf(lasts, size);
+		tradePrices = Arrays.copyOf(tradePrices, size);
+		tradeAmounts = Arrays.copyOf(tradeAmounts, size);
+		marks = Arrays.copyOf(marks, size);
+	}
+
+	public String getSymbol() {
+		return symbol;
+	}
+
+	public int getPriceScale() {
+		return priceScale;
+	}
+
+	public int getVolumeScale() {
+		return volumeScale;
+	}
+
+	/** 事件数 **/
+	public int size() {
+		return size;
+	}
+
+	public long time(int i) {
+		return times[i];
+	}
+
+	public long bid(int i) {
+		return bids[i];
+	}
+
+	public long ask(int i) {
+		return asks[i];
+	}
+
+	public long last(int i) {
+		return lasts[i];
+	}
+
+	/** 成交价, 不是成交时为 NO_TRADE **/
+	public long tradePrice(int i) {
+		return tradePrices[i];
+	}
+
+	public long tradeAmount(int i) {
+		return tradeAmounts[i];
+	}
+
+	double mark(int i) {
+		return marks[i];
+	}
+}
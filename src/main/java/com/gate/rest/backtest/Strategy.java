@@ -0,0 +1,25 @@
+package com.gate.rest.backtest;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/11/05 上午10:00
+ * @description：回测的交易逻辑. 实现不保存状态, 同一实例在参数扫描中被多个线程同时调用,
+ * 一次运行的全部状态(资金, 持仓, 挂单)都在 Account 中
+ * @modified By：
+ * @version: $
+ */
+public interface Strategy {
+
+	/** 参数名, 与 params 的下标对应 **/
+	String[] parameters();
+
+	/** 每个参数的小数位数, 只用于输出 **/
+	int[] scales(MarketTape tape);
+
+	/**
+	 * 每个事件在撮合之后调用一次, 可以通过 account 下单或撤单
+	 *
+	 * @param i 事件在 tape 中的下标
+	 */
+	void onTick(MarketTape tape, int i, long[] params, Account account);
+}
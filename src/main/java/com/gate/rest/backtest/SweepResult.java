@@ -0,0 +1,117 @@
+package com.gate.rest.backtest;
+
+import com.gate.rest.util.FixedPoint;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/11/05 上午11:00
+ * @description：参数扫描的结果, 每个参数组合一行, 按列存放. 盈亏, 回撤, 成交额与手续费以计价币种计
+ * @modified By：
+ * @version: $
+ */
+public final class SweepResult {
+
+	private final String[] parameters;
+	private final int[] scales;
+	private final long[][] params;
+	final double[] pnl;
+	final double[] maxDrawdown;
+	final double[] turnover;
+	final double[] fees;
+	final int[] fills;
+	final int[] rejects;
+
+	SweepResult(String[] parameters, int[] scales, long[][] params) {
+		this.parameters = parameters;
+		this.scales = scales;
+		this.params = params;
+		int n = params.length;
+		this.pnl = new double[n];
+		this.maxDrawdown = new double[n];
+		this.turnover = new double[n];
+		this.fees = new double[n];
+		this.fills = new int[n];
+		this.rejects = new int[n];
+	}
+
+	void set(int k, Account account) {
+		double unit = FixedPoint.pow10(account.getCashScale());
+		pnl[k] = account.getPnl();
+		maxDrawdown[k] = account.getMaxDrawdown();
+		turnover[k] = account.getTurnover() / unit;
+		fees[k] = account.getFees() / unit;
+		fills[k] = account.getFills();
+		rejects[k] = account.getRejects();
+	}
+
+	public int size() {
+		return params.length;
+	}
+
+	public long[] params(int k) {
+		return params[k].clone();
+	}
+
+	public double pnl(int k) {
+		return pnl[k];
+	}
+
+	public double maxDrawdown(int k) {
+		return maxDrawdown[k];
+	}
+
+	public double turnover(int k) {
+		return turnover[k];
+	}
+
+	public double fees(int k) {
+		return fees[k];
+	}
+
+	public int fills(int k) {
+		return fills[k];
+	}
+
+	public int rejects(int k) {
+		return rejects[k];
+	}
+
+	/** 盈亏最高的组合, 相同时取下标小的 **/
+	public int best() {
+		int best = 0;
+		for (int k = 1; k < pnl.length; k++) {
+			if (pnl[k] > pnl[best]) {
+				best = k;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * 按盈亏从高到低输出前 limit 个组合的表格
+	 */
+	public String table(int limit) {
+		Integer[] order = new Integer[params.length];
+		for (int k = 0; k < order.length; k++) {
+			order[k] = k;
+		}
+		Arrays.sort(order, Comparator.comparingDouble((Integer k) -> -pnl[k]).thenComparingInt(k -> k));
+		StringBuilder out = new StringBuilder();
+		for (String name : parameters) {
+			out.append(String.format("%12s", name));
+		}
+		out.append(String.format("%14s%12s%14s%10s%8s%8s%n", "pnl", "drawdown", "turnover", "fees", "fills", "rejects"));
+		for (int r = 0; r < Math.min(limit, order.length); r++) {
+			int k = order[r];
+			for (int j = 0; j < parameters.length; j++) {
+				out.append(String.format("%12s", FixedPoint.toString(params[k][j], scales[j])));
+			}
+			out.append(String.format("%14.4f%12.4f%14.4f%10.4f%8d%8d%n",
+					pnl[k], maxDrawdown[k], turnover[k], fees[k], fills[k], rejects[k]));
+		}
+		return out.toString();
+	}
+}
@@ -0,0 +1,53 @@
+package com.gate.rest.backtest;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/11/05 上午10:00
+ * @description：StockClientTest.buy 中的逻辑(最新价低于 8.5 时以 8.4 买入 1 个)加上对称的卖出:
+ * <pre>
+ * - 空仓且没有挂单: 最新价 &lt; buyBelow 时以 buyRate 买入 amount
+ * - 买单未成交而最新价回到 buyBelow 以上: 撤单
+ * - 有持仓且没有挂单: 最新价 &gt; sellAbove 时以 sellAbove 卖出全部持仓
+ * </pre>
+ * buyBelow / buyRate / sellAbove 为价格小数位数的定点数, amount 为数量小数位数的定点数
+ * @modified By：
+ * @version: $
+ */
+public final class ThresholdStrategy implements Strategy {
+
+	public static final int BUY_BELOW = 0;
+	public static final int BUY_RATE = 1;
+	public static final int SELL_ABOVE = 2;
+	public static final int AMOUNT = 3;
+
+	private static final String[] PARAMETERS = {"buyBelow", "buyRate", "sellAbove", "amount"};
+
+	@Override
+	public String[] parameters() {
+		return PARAMETERS.clone();
+	}
+
+	@Override
+	public int[] scales(MarketTape tape) {
+		int p = tape.getPriceScale();
+		return new int[]{p, p, p, tape.getVolumeScale()};
+	}
+
+	@Override
+	public void onTick(MarketTape tape, int i, long[] params, Account account) {
+		long last = tape.last(i);
+		if (account.hasOrder()) {
+			if (account.getOrderSide() > 0 && last >= params[BUY_BELOW]) {
+				account.cancel();
+			}
+			return;
+		}
+		if (account.getPosition() == 0) {
+			if (last < params[BUY_BELOW]) {
+				account.buy(params[BUY_RATE], params[AMOUNT]);
+			}
+		} else if (last > params[SELL_ABOVE]) {
+			account.sell(params[SELL_ABOVE], account.getPosition());
+		}
+	}
+}
@@ -0,0 +1,32 @@
+package com.gate.rest.base;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/11/05 上午9:00
+ * @description：回测的撮合假设, 见 Backtest
+ * @modified By：
+ * @version: v1.0.0$
+ */
+@Data
+@ConfigurationProperties(prefix = "gate.backtest")
+@Component
+public class BacktestConfig {
+    /** 每次运行的初始资金, 计价币种的整数单位 **/
+    long initialCash = 10_000;
+
+    /** 挂单成交(maker)手续费, 万分之一 **/
+    int makerFeeBps = 20;
+
+    /** 吃单成交(taker)手续费, 万分之一 **/
+    int takerFeeBps = 20;
+
+    /** 下单到交易所生效的延迟, 期间的行情变化不影响该订单 **/
+    long latencyMillis = 50;
+
+    /** 参数扫描的并行线程数, 0 为 CPU 数 **/
+    int parallelism = 0;
+}
@@ -0,0 +1,50 @@
+package com.gate.rest.base;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/27 下午2:00
+ * @description：行情缓存配置, 见 CachingStockRestApi. 有效期为 0 的接口不缓存
+ * @modified By：
+ * @version: v1.0.0$
+ */
+@Data
+@ConfigurationProperties(prefix = "gate.cache")
+@Component
+public class CacheConfig {
+    /** 交易对列表, 很少变化 **/
+    long pairsTtlMillis = 3_600_000;
+
+    /** 交易对小数位数与最小下单量 **/
+    long marketInfoTtlMillis = 3_600_000;
+
+    long marketListTtlMillis = 60_000;
+
+    /** 交易所每 20 秒更新一次 **/
+    long tickersTtlMillis = 20_000;
+
+    long tickerTtlMillis = 5_000;
+
+    /** 盘口与成交记录默认不缓存 **/
+    long orderBookTtlMillis = 0;
+
+    long tradeHistoryTtlMillis = 0;
+
+    /** 已过有效期的该比例后, 读取时在后台提前刷新 **/
+    double refreshAheadRatio = 0.8;
+
+    /** 后台刷新失败后, 间隔多久再次尝试 **/
+    long refreshRetryMillis = 1_000;
+
+    /** 过期后重新加载失败时, 在有效期之外继续返回旧值的最长时间 **/
+    long maxStaleMillis = 600_000;
+
+    /** 最多缓存的条目数, 超出时淘汰最久未读取的 **/
+    int maxEntries = 1024;
+
+    /** pairs / marketInfo 的落盘目录, 为空时不落盘 **/
+    String persistDir = "";
+}
@@ -0,0 +1,33 @@
+package com.gate.rest.base;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/31 上午9:10
+ * @description：K 线聚合配置, 见 CandleAggregator. 每个交易对占用的内存为 周期数 × bars × 68 字节
+ * @modified By：
+ * @version: v1.0.0$
+ */
+@Data
+@ConfigurationProperties(prefix = "gate.candle")
+@Component
+public class CandleConfig {
+    /** 同时聚合的周期, 毫秒 **/
+    List<Long> intervalsMillis = new ArrayList<>(Arrays.asList(1_000L, 60_000L, 300_000L, 3_600_000L));
+
+    /** 每个周期保留的 K 线数, 向上取整为 2 的幂 **/
+    int bars = 256;
+
+    /** K 线结束后再等待迟到成交的时长, 之后由定时器收盘. 由 TradeSync 同步的交易对从最近一次同步的时间起算, 需覆盖请求耗时 **/
+    long latenessMillis = 2_000;
+
+    /** 定时收盘的检查间隔 **/
+    long timerMillis = 200;
+}
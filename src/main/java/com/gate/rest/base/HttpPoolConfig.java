@@ -0,0 +1,70 @@
+package com.gate.rest.base;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/18 上午10:12
+ * @description：HTTP 连接池配置. 公共行情接口与签名私有接口使用两个独立的连接池
+ * @modified By：
+ * @version: v1.0.0$
+ */
+@Data
+@ConfigurationProperties(prefix = "gate.http")
+@Component
+public class HttpPoolConfig {
+    /** 阻塞调用是否运行在虚拟线程上, 仅 Java 21 生效(jdk21 构建profile 默认开启) **/
+    boolean virtualThreads;
+
+    /** 公共行情接口(requestHttpGet / HttpGet / requestHttpPost) 连接池 **/
+    Pool publicPool = new Pool(200, 50);
+
+    /** 签名私有接口(doRequest) 连接池, 下单/撤单/余额等 **/
+    Pool privatePool = new Pool(20, 10);
+
+    /** 空闲/过期连接清理 **/
+    Evictor evictor = new Evictor();
+
+    /** 相同公共行情 GET 请求合并 **/
+    Coalesce coalesce = new Coalesce();
+
+    @Data
+    public static class Coalesce {
+        /** 是否合并并发的相同请求(相同 url 与参数) **/
+        boolean enabled = true;
+
+        /** 请求成功后结果的复用时长, 0 表示只合并正在执行的请求 **/
+        long reuseWindowMillis = 0;
+    }
+
+    @Data
+    public static class Evictor {
+        /** 清理间隔 **/
+        long intervalMillis = 5000;
+
+        /** 空闲超过该时长的连接将被关闭 **/
+        long idleMillis = 30000;
+
+        /** 服务端未返回 Keep-Alive 时连接的保持时长, 超过即视为过期 **/
+        long keepAliveMillis = 5000;
+    }
+
+    @Data
+    public static class Pool {
+        /** 连接池最大连接数 **/
+        int maxTotal;
+
+        /** 每个路由(host)最大连接数 **/
+        int maxPerRoute;
+
+        public Pool() {
+        }
+
+        public Pool(int maxTotal, int maxPerRoute) {
+            this.maxTotal = maxTotal;
+            this.maxPerRoute = maxPerRoute;
+        }
+    }
+}
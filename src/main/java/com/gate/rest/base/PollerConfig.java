@@ -0,0 +1,63 @@
+package com.gate.rest.base;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/29 上午9:20
+ * @description：多交易对行情轮询配置, 见 MarketPoller. 总请求速率应低于 gate.rate-limit.public-market
+ * @modified By：
+ * @version: v1.0.0$
+ */
+@Data
+@ConfigurationProperties(prefix = "gate.poller")
+@Component
+public class PollerConfig {
+    /** 所有交易对与接口共享的每秒请求数, 请求按该速率均匀发出 **/
+    double requestsPerSecond = 20;
+
+    Cadence ticker = new Cadence(1_000, 500, 15_000);
+
+    Cadence orderBook = new Cadence(2_000, 500, 30_000);
+
+    Cadence tradeHistory = new Cadence(5_000, 1_000, 60_000);
+
+    /** 数据有变化时间隔乘以该系数 **/
+    double speedUp = 0.7;
+
+    /** 数据没有变化时间隔乘以该系数 **/
+    double slowDown = 1.25;
+
+    /** 最新价波动(EWMA, 基点)达到该值时, 该交易对所有接口的间隔减半 **/
+    double volatilityReferenceBps = 10;
+
+    /** 波动与实际间隔的 EWMA 平滑系数 **/
+    double ewmaAlpha = 0.2;
+
+    /** 每个交易对保留的最近成交数(TradeSync), 向上取整为 2 的幂 **/
+    int tradeTapeCapacity = 4096;
+
+    /** TradeSync 按成交速率选择间隔, 使每次 tradeHistory 窗口中新成交约占该比例, 其余与上次重叠 **/
+    double tradeWindowFill = 0.5;
+
+    @Data
+    public static class Cadence {
+        /** 初始间隔 **/
+        long initialMillis;
+
+        long minMillis;
+
+        long maxMillis;
+
+        public Cadence() {
+        }
+
+        public Cadence(long initialMillis, long minMillis, long maxMillis) {
+            this.initialMillis = initialMillis;
+            this.minMillis = minMillis;
+            this.maxMillis = maxMillis;
+        }
+    }
+}
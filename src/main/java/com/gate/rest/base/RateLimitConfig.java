@@ -0,0 +1,74 @@
+package com.gate.rest.base;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/22 下午3:10
+ * @description：客户端限流配置. 每个接口分组一个令牌桶, 所有分组再共享一个交易所总限额
+ * @modified By：
+ * @version: v1.0.0$
+ */
+@Data
+@ConfigurationProperties(prefix = "gate.rate-limit")
+@Component
+public class RateLimitConfig {
+    /** 是否开启客户端限流 **/
+    boolean enabled = true;
+
+    /** 交易所总限额, 所有分组共享 **/
+    Bucket global = new Bucket(80, 80);
+
+    /** 总限额中为交易请求(下单/撤单)保留的令牌数, 行情轮询不能使用. 取值 [0, global.burst) **/
+    int tradingReserve = 20;
+
+    /** 公共行情接口 **/
+    Limit publicMarket = new Limit(50, 50, 200, 5000);
+
+    /** 私有查询接口: 余额/订单/成交记录等 **/
+    Limit privateQuery = new Limit(20, 20, 50, 5000);
+
+    /** 私有交易接口: 下单/撤单/提现 **/
+    Limit privateTrading = new Limit(20, 20, 50, 2000);
+
+    @Data
+    public static class Bucket {
+        /** 每秒令牌数 **/
+        double permitsPerSecond;
+
+        /** 桶容量, 即允许的突发请求数 **/
+        int burst;
+
+        public Bucket() {
+        }
+
+        public Bucket(double permitsPerSecond, int burst) {
+            this.permitsPerSecond = permitsPerSecond;
+            this.burst = burst;
+        }
+    }
+
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    @ToString(callSuper = true)
+    public static class Limit extends Bucket {
+        /** 等待令牌的最大请求数, 超出直接拒绝 **/
+        int maxQueue;
+
+        /** 等待令牌的最长时间 **/
+        long maxWaitMillis;
+
+        public Limit() {
+        }
+
+        public Limit(double permitsPerSecond, int burst, int maxQueue, long maxWaitMillis) {
+            super(permitsPerSecond, burst);
+            this.maxQueue = maxQueue;
+            this.maxWaitMillis = maxWaitMillis;
+        }
+    }
+}
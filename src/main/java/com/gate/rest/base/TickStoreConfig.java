@@ -0,0 +1,23 @@
+package com.gate.rest.base;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/11/01 上午9:00
+ * @description：行情落盘配置, 见 TickStore
+ * @modified By：
+ * @version: v1.0.0$
+ */
+@Data
+@ConfigurationProperties(prefix = "gate.store")
+@Component
+public class TickStoreConfig {
+    /** 段文件目录, 为空时不落盘 **/
+    String dir = "";
+
+    /** 每个段文件的大小, 按 64 字节一条记录向下取整 **/
+    long segmentBytes = 64L * 1024 * 1024;
+}
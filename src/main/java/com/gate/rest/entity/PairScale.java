@@ -0,0 +1,110 @@
+package com.gate.rest.entity;
+
+import com.gate.rest.util.Decimal64;
+import com.gate.rest.util.FixedPoint;
+import com.gate.rest.util.JsonTool;
+import com.google.gson.reflect.TypeToken;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/25 上午10:15
+ * @description：交易对的定点数小数位数. 价格取 marketinfo 的 decimal_places(即最小价格单位), 成交量统一使用 DEFAULT_VOLUME_SCALE,
+ * 最小下单数量取 min_amount_a. long 可表示的绝对值约为 9.2e18 / 10^scale:
+ * <pre>
+ * - 单笔数量(成交, 挂单, 下单)使用 volumeScale, 默认 8 位时上限约 9.2e10
+ * - ticker 的 24 小时成交量(baseVolume / quoteVolume)使用 TICKER_VOLUME_SCALE, 4 位时上限约 9.2e14,
+ *   SHIB / PEPE 等交易对的成交量在 1e12 以上, 不能使用 8 位
+ * </pre>
+ * marketinfo 没有数量精度, volumeScale 无法按交易对取得. 解码时超出范围的数值抛出 IOException, 见 JsonScanner.readFixed
+ * @modified By：
+ * @version: $
+ */
+@Getter
+public final class PairScale {
+
+    public static final int DEFAULT_VOLUME_SCALE = 8;
+    /** ticker 24 小时成交量的小数位数, 所有交易对相同 **/
+    public static final int TICKER_VOLUME_SCALE = 4;
+    /** percentChange 的小数位数 **/
+    public static final int PERCENT_SCALE = 4;
+
+    private final int priceScale;
+    private final int volumeScale;
+    /** 最小下单数量(min_amount_a), 小数位数为 volumeScale **/
+    private final long minAmount;
+
+    public PairScale(int priceScale, int volumeScale) {
+        this(priceScale, volumeScale, 0);
+    }
+
+    public PairScale(int priceScale, int volumeScale, long minAmount) {
+        this.priceScale = FixedPoint.checkScale(priceScale);
+        this.volumeScale = FixedPoint.checkScale(volumeScale);
+        this.minAmount = minAmount;
+    }
+
+    public static PairScale of(int priceScale) {
+        return new PairScale(priceScale, DEFAULT_VOLUME_SCALE);
+    }
+
+    /**
+     * 价格取整到交易对的最小价格单位(10^-priceScale)
+     *
+     * @param scale price 的小数位数
+     */
+    public long roundPrice(long price, int scale, RoundingMode mode) {
+        return Decimal64.rescale(price, scale, priceScale, mode);
+    }
+
+    /**
+     * 数量取整到 volumeScale, 不足最小下单数量时返回 0
+     *
+     * @param scale amount 的小数位数
+     */
+    public long roundAmount(long amount, int scale, RoundingMode mode) {
+        long rounded = Decimal64.rescale(amount, scale, volumeScale, mode);
+        return Math.abs(rounded) < minAmount ? 0 : rounded;
+    }
+
+    /**
+     * 解析 marketInfo() 的返回
+     * <pre>
+     * {"result":"true","pairs":[{"eth_btc":{"decimal_places":7,"min_amount":0.0006102,...}},...]}
+     * </pre>
+     *
+     * @return 交易对 -> 小数位数
+     */
+    public static Map<String, PairScale> fromMarketInfo(String marketInfo) {
+        Map<String, Object> info = JsonTool.jsonToObject(marketInfo, new TypeToken<Map<String, Object>>() {
+        }.getType());
+        Map<String, PairScale> scales = new HashMap<>();
+        Object pairs = info.get("pairs");
+        if (!(pairs instanceof List)) {
+            throw new IllegalStateException("marketinfo 缺少 pairs: " + marketInfo);
+        }
+        for (Object pair : (List<?>) pairs) {
+            ((Map<?, ?>) pair).forEach((name, detail) -> {
+                Object decimals = ((Map<?, ?>) detail).get("decimal_places");
+                Object minAmount = ((Map<?, ?>) detail).get("min_amount_a");
+                long min = minAmount instanceof Number
+                        ? FixedPoint.parse(BigDecimal.valueOf(((Number) minAmount).doubleValue()).toPlainString(), DEFAULT_VOLUME_SCALE)
+                        : 0;
+                scales.put((String) name, new PairScale(((Number) decimals).intValue(), DEFAULT_VOLUME_SCALE, min));
+            });
+        }
+        return scales;
+    }
+
+    @Override
+    public String toString() {
+        return "PairScale(price=" + priceScale + ", volume=" + volumeScale + ", minAmount="
+                + FixedPoint.toString(minAmount, volumeScale) + ")";
+    }
+}
@@ -0,0 +1,78 @@
+package com.gate.rest.entity;
+
+import com.gate.rest.util.FixedPoint;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/25 上午10:30
+ * @description：定点数行情, 与 Price 对应的字段均为 long:
+ * 价格 = 值 / 10^priceScale, 成交量 = 值 / 10^volumeScale(PairScale.TICKER_VOLUME_SCALE), 涨跌幅 = 值 / 10^PairScale.PERCENT_SCALE.
+ * 由 TickerDecoder 直接从响应字节填充, 同一个实例可以反复填充
+ * @modified By：
+ * @version: $
+ */
+@NoArgsConstructor
+@Data
+public class Ticker {
+
+    private int priceScale;
+    private int volumeScale;
+
+    private long last;
+    private long lowestAsk;
+    private long highestBid;
+    private long high24hr;
+    private long low24hr;
+    private long baseVolume;
+    private long quoteVolume;
+    private long percentChange;
+    /** 服务端耗时, 微秒 **/
+    private long elapsedMicros;
+    private boolean result;
+
+    /**
+     * 清空上一次填充的值
+     */
+    public void reset(PairScale scale) {
+        priceScale = scale.getPriceScale();
+        volumeScale = PairScale.TICKER_VOLUME_SCALE;
+        last = lowestAsk = highestBid = high24hr = low24hr = 0;
+        baseVolume = quoteVolume = percentChange = elapsedMicros = 0;
+        result = false;
+    }
+
+    /** 卖一 - 买一 **/
+    public long spread() {
+        return lowestAsk - highestBid;
+    }
+
+    public BigDecimal lastDecimal() {
+        return FixedPoint.toBigDecimal(last, priceScale);
+    }
+
+    public BigDecimal baseVolumeDecimal() {
+        return FixedPoint.toBigDecimal(baseVolume, volumeScale);
+    }
+
+    /**
+     * 转为字符串形式的 Price, 供原有代码使用
+     */
+    public Price toPrice() {
+        Price price = new Price();
+        price.setLast(FixedPoint.toString(last, priceScale));
+        price.setLowestAsk(FixedPoint.toString(lowestAsk, priceScale));
+        price.setHighestBid(FixedPoint.toString(highestBid, priceScale));
+        price.setHigh24hr(FixedPoint.toString(high24hr, priceScale));
+        price.setLow24hr(FixedPoint.toString(low24hr, priceScale));
+        price.setBaseVolume(FixedPoint.toString(baseVolume, volumeScale));
+        price.setQuoteVolume(FixedPoint.toString(quoteVolume, volumeScale));
+        price.setPercentChange(FixedPoint.toString(percentChange, PairScale.PERCENT_SCALE));
+        price.setElapsed(elapsedMicros % 1000 == 0 ? elapsedMicros / 1000 + "ms" : elapsedMicros + "us");
+        price.setResult(String.valueOf(result));
+        return price;
+    }
+}
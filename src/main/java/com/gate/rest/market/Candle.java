@@ -0,0 +1,78 @@
+package com.gate.rest.market;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/31 上午9:30
+ * @description：一根 K 线的副本, 由 CandleAggregator.read / latest 填充, 可以复用.
+ * 价格与成交量按交易对的小数位数保存; 没有成交的 K 线 OHLC 都等于上一根的收盘价, 成交量为 0
+ * @modified By：
+ * @version: $
+ */
+public final class Candle {
+
+	long startMillis;
+	long intervalMillis;
+	long open;
+	long high;
+	long low;
+	long close;
+	long volume;
+	/** Σ 价格 × 数量, 均为定点数 **/
+	double turnover;
+	int trades;
+	boolean closed;
+
+	public long getStartMillis() {
+		return startMillis;
+	}
+
+	public long getEndMillis() {
+		return startMillis + intervalMillis;
+	}
+
+	public long getIntervalMillis() {
+		return intervalMillis;
+	}
+
+	public long getOpen() {
+		return open;
+	}
+
+	public long getHigh() {
+		return high;
+	}
+
+	public long getLow() {
+		return low;
+	}
+
+	public long getClose() {
+		return close;
+	}
+
+	public long getVolume() {
+		return volume;
+	}
+
+	public int getTrades() {
+		return trades;
+	}
+
+	/** 已收盘, 之后不再变化 **/
+	public boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * 成交量加权均价, 与价格同一小数位数; 没有成交时为收盘价
+	 */
+	public long vwap() {
+		return volume == 0 ? close : Math.round(turnover / volume);
+	}
+
+	@Override
+	public String toString() {
+		return "Candle{start=" + startMillis + ", o=" + open + ", h=" + high + ", l=" + low + ", c=" + close
+				+ ", v=" + volume + ", vwap=" + vwap() + ", trades=" + trades + (closed ? ", closed" : "") + "}";
+	}
+}
@@ -0,0 +1,422 @@
+package com.gate.rest.market;
+
+import com.gate.rest.base.CandleConfig;
+import com.gate.rest.util.DateUtil;
+import lombok.extern.log4j.Log4j2;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/31 上午10:00
+ * @description：由成交流式聚合 OHLCV / VWAP K 线, 多个周期(默认 1s / 1m / 5m / 1h)同时计算.
+ * <pre>
+ * - 每个交易对第一次有成交时一次性分配所有周期的环形缓冲(基本类型数组, 每个周期 bars 根), 之后不再分配
+ * - K 线按成交时间归入 [start, start + interval), 结束后再等待 latenessMillis 接收迟到的成交, 然后由定时器收盘;
+ *   收盘后才到的成交丢弃并计入 getDroppedTrades()
+ * - 由 TradeSync 轮询的交易对, 定时器只收盘到该交易对最近一次成功同步的时间 - latenessMillis: 两次轮询之间(1 ~ 60 秒)
+ *   还没取到的成交不会落在已收盘的 K 线中. 只通过 onTrade 写入的交易对按当前时间 - latenessMillis 收盘
+ * - 两次成交之间没有成交的 K 线以上一根的收盘价补齐, 成交量为 0, 定时器同样会为没有新成交的交易对补齐并收盘;
+ *   一次补齐超过 bars 根时只保留并回调最近的 bars 根
+ * - 收盘时回调 Listener, 同一交易对的回调不会并发
+ * </pre>
+ * <pre>
+ * CandleAggregator candles = new CandleAggregator(symbols, candleConfig, listener);
+ * tradeSync.setListener(candles);
+ * candles.start();
+ * </pre>
+ * @modified By：
+ * @version: $
+ */
+@Log4j2
+public class CandleAggregator implements TradeSync.Listener, AutoCloseable {
+
+	/**
+	 * 在收盘的线程上回调(定时器或写入成交的线程), candle 在回调返回后会被复用
+	 */
+	public interface Listener {
+		void onClose(int symbolId, int interval, Candle candle);
+	}
+
+	private static final long NONE = Long.MIN_VALUE;
+
+	/**
+	 * 一个交易对所有周期的 K 线, 第 k 个周期占用数组中 [k * bars, (k + 1) * bars) 的位置
+	 */
+	private static final class Series {
+		final long[] open;
+		final long[] high;
+		final long[] low;
+		final long[] close;
+		final long[] volume;
+		final double[] turnover;
+		final int[] trades;
+		final long[] firstMillis;
+		final long[] lastMillis;
+		/** 最新一根 K 线的序号(开始时间 / 周期) **/
+		final long[] current;
+		/** 已收盘的最后一根 K 线的序号 **/
+		final long[] closedThrough;
+		/** 第一根 K 线的序号 **/
+		final long[] first;
+		/** 已读取到的 TradeTape 序号 **/
+		long cursor;
+		/** 最近一次 tradeHistory 同步的时间, 没有经过 TradeSync 时为 NONE **/
+		long syncedMillis = NONE;
+		/** 收盘回调时复用 **/
+		final Candle closing = new Candle();
+
+		Series(int intervals, int bars) {
+			int n = intervals * bars;
+			open = new long[n];
+			high = new long[n];
+			low = new long[n];
+			close = new long[n];
+			volume = new long[n];
+			turnover = new double[n];
+			trades = new int[n];
+			firstMillis = new long[n];
+			lastMillis = new long[n];
+			current = new long[intervals];
+			closedThrough = new long[intervals];
+			first = new long[intervals];
+			Arrays.fill(current, NONE);
+		}
+	}
+
+	private final SymbolRegistry symbols;
+	private final long[] intervals;
+	private final int bars;
+	private final int mask;
+	private final long latenessMillis;
+	private final long timerMillis;
+	private final Listener listener;
+	private final Series[] series;
+	private final LongAdder droppedTrades = new LongAdder();
+	private final LongAdder missedTrades = new LongAdder();
+	private ScheduledExecutorService timer;
+
+	public CandleAggregator(SymbolRegistry symbols, CandleConfig config, Listener listener) {
+		List<Long> list = config.getIntervalsMillis();
+		if (list == null || list.isEmpty()) {
+			throw new IllegalArgumentException("intervalsMillis is empty");
+		}
+		intervals = new long[list.size()];
+		for (int k = 0; k < intervals.length; k++) {
+			intervals[k] = list.get(k);
+			if (intervals[k] <= 0) {
+				throw new IllegalArgumentException("interval must be positive: " + intervals[k]);
+			}
+		}
+		if (config.getBars() <= 0) {
+			throw new IllegalArgumentException("bars must be positive: " + config.getBars());
+		}
+		this.symbols = symbols;
+		this.bars = Integer.highestOneBit(Math.max(2, config.getBars()) * 2 - 1);
+		this.mask = bars - 1;
+		this.latenessMillis = Math.max(0, config.getLatenessMillis());
+		this.timerMillis = config.getTimerMillis();
+		this.listener = listener;
+		this.series = new Series[symbols.size()];
+	}
+
+	public SymbolRegistry getSymbols() {
+		return symbols;
+	}
+
+	/** 周期数, 周期按配置的顺序编号 **/
+	public int intervals() {
+		return intervals.length;
+	}
+
+	public long intervalMillis(int interval) {
+		return intervals[interval];
+	}
+
+	/** 每个周期保留的 K 线数 **/
+	public int bars() {
+		return bars;
+	}
+
+	private synchronized Series series(int symbolId, boolean create) {
+		Series s = series[symbolId];
+		if (s == null && create) {
+			s = new Series(intervals.length, bars);
+			series[symbolId] = s;
+		}
+		return s;
+	}
+
+	private int slot(int k, long bar) {
+		return k * bars + (int) (bar & mask);
+	}
+
+	/**
+	 * 写入一笔成交, 价格与数量为该交易对小数位数的定点数
+	 */
+	public void onTrade(int symbolId, long timestampMillis, long price, long amount) {
+		Series s = series(symbolId, true);
+		synchronized (s) {
+			add(s, symbolId, timestampMillis, price, amount);
+		}
+	}
+
+	/**
+	 * 读取 tape 中上次之后的新成交, 返回读取数. 上次之后被环形缓冲覆盖而没有读到的成交计入 getMissedTrades()
+	 */
+	public int consume(int symbolId, TradeTape tape) {
+		Series s = series(symbolId, true);
+		synchronized (s) {
+			long total = tape.getTotal();
+			long seq = s.cursor;
+			if (seq < tape.firstSequence()) {
+				missedTrades.add(tape.firstSequence() - seq);
+				seq = tape.firstSequence();
+			}
+			int n = 0;
+			for (; seq < total; seq++, n++) {
+				add(s, symbolId, tape.timestampMillis(seq), tape.price(seq), tape.amount(seq));
+			}
+			s.cursor = seq;
+			return n;
+		}
+	}
+
+	@Override
+	public void onTrades(int symbolId, TradeTape tape, int fresh) {
+		consume(symbolId, tape);
+	}
+
+	/**
+	 * 读取新成交并推进该交易对的收盘进度, 两者在同一把锁内完成, 定时器不会在中间收盘
+	 */
+	@Override
+	public void onSynced(int symbolId, TradeTape tape, int fresh, long syncedMillis) {
+		// 还没有成交的交易对没有 K 线可收盘, 等第一次有成交时再分配
+		Series s = series(symbolId, fresh > 0);
+		if (s == null) {
+			return;
+		}
+		synchronized (s) {
+			consume(symbolId, tape);
+			if (syncedMillis > s.syncedMillis) {
+				s.syncedMillis = syncedMillis;
+			}
+		}
+	}
+
+	private void add(Series s, int symbolId, long timestamp, long price, long amount) {
+		for (int k = 0; k < intervals.length; k++) {
+			long bar = Math.floorDiv(timestamp, intervals[k]);
+			if (s.current[k] == NONE) {
+				s.current[k] = bar;
+				s.first[k] = bar;
+				s.closedThrough[k] = bar - 1;
+				reset(s, slot(k, bar), price);
+			} else if (bar <= s.closedThrough[k]) {
+				droppedTrades.increment();
+				continue;
+			} else if (bar > s.current[k]) {
+				advance(s, symbolId, k, bar);
+			}
+			int i = slot(k, bar);
+			if (s.trades[i] == 0) {
+				s.open[i] = price;
+				s.high[i] = price;
+				s.low[i] = price;
+				s.close[i] = price;
+				s.firstMillis[i] = timestamp;
+				s.lastMillis[i] = timestamp;
+			} else {
+				if (price > s.high[i]) {
+					s.high[i] = price;
+				}
+				if (price < s.low[i]) {
+					s.low[i] = price;
+				}
+				// 迟到的成交按成交时间决定是否改变开盘/收盘价
+				if (timestamp < s.firstMillis[i]) {
+					s.open[i] = price;
+					s.firstMillis[i] = timestamp;
+				}
+				if (timestamp >= s.lastMillis[i]) {
+					s.close[i] = price;
+					s.lastMillis[i] = timestamp;
+				}
+			}
+			s.volume[i] += amount;
+			s.turnover[i] += (double) price * amount;
+			s.trades[i]++;
+		}
+	}
+
+	private void reset(Series s, int i, long price) {
+		s.open[i] = price;
+		s.high[i] = price;
+		s.low[i] = price;
+		s.close[i] = price;
+		s.volume[i] = 0;
+		s.turnover[i] = 0;
+		s.trades[i] = 0;
+	}
+
+	/**
+	 * 新开 K 线到 bar, 中间没有成交的以上一根收盘价补齐. 将被覆盖的槽位上还没收盘的 K 线先收盘
+	 */
+	private void advance(Series s, int symbolId, int k, long bar) {
+		long current = s.current[k];
+		long previousClose = s.close[slot(k, current)];
+		closeThrough(s, symbolId, k, Math.min(current, bar - bars));
+		for (long b = Math.max(current + 1, bar - bars + 1); b <= bar; b++) {
+			reset(s, slot(k, b), previousClose);
+		}
+		s.current[k] = bar;
+		if (s.closedThrough[k] < bar - bars) {
+			s.closedThrough[k] = bar - bars;
+		}
+		if (s.first[k] <= bar - bars) {
+			s.first[k] = bar - bars + 1;
+		}
+	}
+
+	private void closeThrough(Series s, int symbolId, int k, long bar) {
+		long from = Math.max(s.closedThrough[k] + 1, s.current[k] - bars + 1);
+		for (long b = from; b <= bar; b++) {
+			if (listener != null) {
+				fill(s, k, b, s.closing, true);
+				try {
+					listener.onClose(symbolId, k, s.closing);
+				} catch (RuntimeException e) {
+					log.warn("candle listener failed for {}: {}", symbols.name(symbolId), e.toString());
+				}
+			}
+		}
+		if (bar > s.closedThrough[k]) {
+			s.closedThrough[k] = bar;
+		}
+	}
+
+	/**
+	 * 收盘所有结束时间早于 nowMillis - latenessMillis 的 K 线, 由 TradeSync 同步的交易对不晚于同步时间 - latenessMillis,
+	 * 由定时器调用
+	 */
+	public void closeBars(long nowMillis) {
+		for (int id = 0; id < series.length; id++) {
+			Series s = series(id, false);
+			if (s == null) {
+				continue;
+			}
+			synchronized (s) {
+				long watermark = (s.syncedMillis == NONE ? nowMillis : Math.min(nowMillis, s.syncedMillis)) - latenessMillis;
+				for (int k = 0; k < intervals.length; k++) {
+					if (s.current[k] == NONE) {
+						continue;
+					}
+					// watermark 所在的 K 线之前的都已结束
+					long last = Math.floorDiv(watermark, intervals[k]) - 1;
+					if (last <= s.closedThrough[k]) {
+						continue;
+					}
+					if (last > s.current[k]) {
+						advance(s, id, k, last);
+					}
+					closeThrough(s, id, k, last);
+				}
+			}
+		}
+	}
+
+	private void fill(Series s, int k, long bar, Candle into, boolean closed) {
+		int i = slot(k, bar);
+		into.startMillis = bar * intervals[k];
+		into.intervalMillis = intervals[k];
+		into.open = s.open[i];
+		into.high = s.high[i];
+		into.low = s.low[i];
+		into.close = s.close[i];
+		into.volume = s.volume[i];
+		into.turnover = s.turnover[i];
+		into.trades = s.trades[i];
+		into.closed = closed;
+	}
+
+	/**
+	 * 读取开始时间所在的 K 线, 不在缓冲中(太早或还没有)时返回 false
+	 */
+	public boolean read(int symbolId, int interval, long startMillis, Candle into) {
+		Series s = series(symbolId, false);
+		if (s == null) {
+			return false;
+		}
+		long bar = Math.floorDiv(startMillis, intervals[interval]);
+		synchronized (s) {
+			if (s.current[interval] == NONE || bar > s.current[interval] || bar < s.first[interval]
+					|| bar <= s.current[interval] - bars) {
+				return false;
+			}
+			fill(s, interval, bar, into, bar <= s.closedThrough[interval]);
+			return true;
+		}
+	}
+
+	/**
+	 * 读取最新一根 K 线(可能还没收盘), 没有时返回 false
+	 */
+	public boolean latest(int symbolId, int interval, Candle into) {
+		Series s = series(symbolId, false);
+		if (s == null) {
+			return false;
+		}
+		synchronized (s) {
+			long bar = s.current[interval];
+			if (bar == NONE) {
+				return false;
+			}
+			fill(s, interval, bar, into, bar <= s.closedThrough[interval]);
+			return true;
+		}
+	}
+
+	/** 收盘后才到达而丢弃的成交, 按周期计 **/
+	public long getDroppedTrades() {
+		return droppedTrades.sum();
+	}
+
+	/** 读取 TradeTape 前已被覆盖的成交 **/
+	public long getMissedTrades() {
+		return missedTrades.sum();
+	}
+
+	/** 启动收盘定时器, 时间取自 DateUtil.currentTimeMillis(), 回放历史时跟随虚拟时钟 **/
+	public synchronized void start() {
+		if (timer != null) {
+			return;
+		}
+		timer = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "gate-candle-timer");
+			thread.setDaemon(true);
+			return thread;
+		});
+		timer.scheduleWithFixedDelay(() -> {
+			try {
+				closeBars(DateUtil.currentTimeMillis());
+			} catch (RuntimeException e) {
+				// 定时任务抛出异常后不会再被调度, 这里只记录
+				log.warn("close candles failed", e);
+			}
+		}, timerMillis, timerMillis, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public synchronized void close() {
+		if (timer != null) {
+			timer.shutdownNow();
+			timer = null;
+		}
+	}
+}
@@ -0,0 +1,17 @@
+package com.gate.rest.market;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/27 上午9:10
+ * @description：两次快照之间一个档位的变化类型
+ * @modified By：
+ * @version: $
+ */
+public enum LevelChange {
+	/** 新出现的价格档位 **/
+	INSERT,
+	/** 价格不变, 数量变化 **/
+	UPDATE,
+	/** 档位消失, 新数量为 0 **/
+	DELETE
+}
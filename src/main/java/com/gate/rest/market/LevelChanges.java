@@ -0,0 +1,90 @@
+package com.gate.rest.market;
+
+import java.util.Arrays;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/27 上午9:20
+ * @description：OrderBook.apply(snapshot, changes) 输出的增量档位, 每条为 (变化类型, 方向, 价格, 新数量).
+ * 先买盘后卖盘, 同一侧按价格从优到劣排列. 数组预先分配并在多次 apply 间复用, 只在变化数超过容量时扩容
+ * <pre>
+ * book.apply(snapshot, changes);
+ * for (int i = 0; i < changes.count(); i++) {
+ *     mirror.put(changes.side(i), changes.price(i), changes.size(i));
+ * }
+ * </pre>
+ * @modified By：
+ * @version: $
+ */
+public final class LevelChanges {
+
+	private LevelChange[] types;
+	private Side[] sides;
+	private long[] prices;
+	private long[] sizes;
+	private int count;
+
+	public LevelChanges() {
+		this(256);
+	}
+
+	public LevelChanges(int capacity) {
+		types = new LevelChange[capacity];
+		sides = new Side[capacity];
+		prices = new long[capacity];
+		sizes = new long[capacity];
+	}
+
+	public void clear() {
+		count = 0;
+	}
+
+	void add(LevelChange type, Side side, long price, long size) {
+		if (count == prices.length) {
+			int capacity = Math.max(16, count * 2);
+			types = Arrays.copyOf(types, capacity);
+			sides = Arrays.copyOf(sides, capacity);
+			prices = Arrays.copyOf(prices, capacity);
+			sizes = Arrays.copyOf(sizes, capacity);
+		}
+		types[count] = type;
+		sides[count] = side;
+		prices[count] = price;
+		sizes[count++] = size;
+	}
+
+	public int count() {
+		return count;
+	}
+
+	public boolean isEmpty() {
+		return count == 0;
+	}
+
+	public LevelChange type(int i) {
+		checkIndex(i);
+		return types[i];
+	}
+
+	public Side side(int i) {
+		checkIndex(i);
+		return sides[i];
+	}
+
+	public long price(int i) {
+		checkIndex(i);
+		return prices[i];
+	}
+
+	/** 变化后的数量, DELETE 为 0 **/
+	public long size(int i) {
+		checkIndex(i);
+		return sizes[i];
+	}
+
+	private void checkIndex(int i) {
+		if (i < 0 || i >= count) {
+			throw new IndexOutOfBoundsException("change " + i + ", count " + count);
+		}
+	}
+}
@@ -0,0 +1,617 @@
+package com.gate.rest.market;
+
+import com.gate.rest.base.PollerConfig;
+import com.gate.rest.stock.IStockRestApi;
+import com.gate.rest.util.CallExecutors;
+import com.gate.rest.util.DateUtil;
+import com.gate.rest.util.FixedPoint;
+import com.gate.rest.util.TokenBucket;
+import com.gate.rest.util.VirtualClock;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.log4j.Log4j2;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/29 上午10:00
+ * @description：多交易对行情轮询. 每个 (接口, 交易对) 一个任务, 按到期时间排在最小堆中, 调度线程按
+ * requestsPerSecond 均匀发出请求(突发为 1 的令牌桶), 调用在执行器上运行.
+ * <pre>
+ * - 间隔自适应: 响应内容(忽略 elapsed)有变化时乘以 speedUp, 没有变化时乘以 slowDown, 限制在 [min, max]
+ * - 波动: ticker 最新价变化的 EWMA(基点)越大, 该交易对所有接口的间隔越短, 达到 volatilityReferenceBps 时减半
+ * - 总请求数超出预算时所有任务按到期先后依次延后, 不会突发
+ * - 任务在调用返回后才重新入堆, 慢的交易对只延误自己, 不占用其他交易对的发送机会
+ * - 指标: 每个任务的数据陈旧时长(距上次成功)与实际间隔(EWMA), 按 channel / symbol 标签注册, 以及每个接口的汇总,
+ *   见 bindTo(MeterRegistry)
+ * - 时间取自 DateUtil.nanoTime(), 回放时(VirtualClock)间隔与速率预算都按虚拟时间计: 倍速模式按倍速折算后等待,
+ *   尽快模式下没有进行中的请求时由调度线程把虚拟时间推进到下一个任务到期, 请求与回调完成前时间不变
+ * </pre>
+ * <pre>
+ * MarketPoller poller = new MarketPoller(api, symbols, config, listener);
+ * poller.subscribe(MarketPoller.Channel.TICKER, "eth_usdt");
+ * poller.start();
+ * </pre>
+ * @modified By：
+ * @version: $
+ */
+@Log4j2
+public class MarketPoller implements MeterBinder, AutoCloseable {
+
+	public enum Channel {
+		TICKER, ORDER_BOOK, TRADE_HISTORY
+	}
+
+	/**
+	 * 在执行器线程上回调, 同一任务的回调不会并发
+	 */
+	public interface Listener {
+		void onData(Channel channel, int symbolId, String body);
+
+		default void onError(Channel channel, int symbolId, Exception e) {
+		}
+	}
+
+	private static final class Task {
+		final Channel channel;
+		final int symbolId;
+		final String symbol;
+		final long minNanos;
+		final long maxNanos;
+		double intervalNanos;
+		long nextDue;
+		int lastHash;
+		boolean hasHash;
+		long lastSuccess;
+		long lastCompletion;
+		double achievedNanos;
+		long polls;
+		long changes;
+		long failures;
+		/** 本次回调中由 retarget 设置了间隔, 完成时不再按变化调整 **/
+		boolean retargeted;
+
+		Task(Channel channel, int symbolId, String symbol, PollerConfig.Cadence cadence) {
+			this.channel = channel;
+			this.symbolId = symbolId;
+			this.symbol = symbol;
+			this.minNanos = TimeUnit.MILLISECONDS.toNanos(cadence.getMinMillis());
+			this.maxNanos = TimeUnit.MILLISECONDS.toNanos(cadence.getMaxMillis());
+			this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(cadence.getInitialMillis());
+		}
+	}
+
+	private final IStockRestApi api;
+	private final SymbolRegistry symbols;
+	private final PollerConfig config;
+	private final Listener listener;
+	private final TokenBucket pacer;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition changed = lock.newCondition();
+	private final PriorityQueue<Task> due = new PriorityQueue<>((a, b) -> Long.compare(a.nextDue - b.nextDue, 0));
+	private final List<Task> tasks = new ArrayList<>();
+	private final Task[][] byChannel = new Task[Channel.values().length][];
+	/** ticker 最新价与波动 EWMA(基点), 按交易对 id **/
+	private final long[] lastPrice;
+	private final double[] volatilityBps;
+	private final LongAdder requests = new LongAdder();
+	private final LongAdder failures = new LongAdder();
+	private volatile Executor executor;
+	private volatile boolean running;
+	private Thread dispatcher;
+	/** 已发出还没有 complete 的请求数, 由 lock 保护 **/
+	private int inFlight;
+	/** bindTo 之后订阅的任务同样注册指标 **/
+	private volatile MeterRegistry registry;
+
+	public MarketPoller(IStockRestApi api, SymbolRegistry symbols, PollerConfig config, Listener listener) {
+		if (config.getRequestsPerSecond() <= 0) {
+			throw new IllegalArgumentException("requestsPerSecond must be positive: " + config.getRequestsPerSecond());
+		}
+		this.api = api;
+		this.symbols = symbols;
+		this.config = config;
+		this.listener = listener;
+		this.pacer = new TokenBucket(config.getRequestsPerSecond(), 1);
+		this.lastPrice = new long[symbols.size()];
+		this.volatilityBps = new double[symbols.size()];
+		for (Channel channel : Channel.values()) {
+			byChannel[channel.ordinal()] = new Task[symbols.size()];
+		}
+	}
+
+	private PollerConfig.Cadence cadence(Channel channel) {
+		switch (channel) {
+			case TICKER:
+				return config.getTicker();
+			case ORDER_BOOK:
+				return config.getOrderBook();
+			default:
+				return config.getTradeHistory();
+		}
+	}
+
+	/**
+	 * 订阅一个交易对的接口, 重复订阅忽略. 首次请求时间在初始间隔内错开, 避免同时到期
+	 */
+	public void subscribe(Channel channel, String symbol) {
+		int id = symbols.require(symbol);
+		Task task;
+		lock.lock();
+		try {
+			Task[] slots = byChannel[channel.ordinal()];
+			if (slots[id] != null) {
+				return;
+			}
+			task = new Task(channel, id, symbols.name(id), cadence(channel));
+			int index = tasks.size();
+			// 按黄金分割错开, 任意数量的任务都大致均匀
+			double offset = (index * 0.6180339887498949) % 1.0;
+			long now = DateUtil.nanoTime();
+			task.nextDue = now + (long) (task.intervalNanos * offset);
+			task.lastSuccess = now;
+			slots[id] = task;
+			tasks.add(task);
+			due.add(task);
+			changed.signalAll();
+		} finally {
+			lock.unlock();
+		}
+		MeterRegistry meters = registry;
+		if (meters != null) {
+			register(meters, task);
+		}
+	}
+
+	public void subscribeAll(Channel channel, Iterable<String> symbols) {
+		for (String symbol : symbols) {
+			subscribe(channel, symbol);
+		}
+	}
+
+	public synchronized void start() {
+		if (running) {
+			return;
+		}
+		running = true;
+		dispatcher = new Thread(this::dispatch, "gate-market-poller");
+		dispatcher.setDaemon(true);
+		dispatcher.start();
+	}
+
+	@Override
+	public synchronized void close() {
+		running = false;
+		if (dispatcher != null) {
+			dispatcher.interrupt();
+			dispatcher = null;
+		}
+	}
+
+	private void dispatch() {
+		while (running) {
+			Task task;
+			lock.lock();
+			try {
+				Task head = due.peek();
+				long now = DateUtil.nanoTime();
+				if (head == null) {
+					changed.await();
+					continue;
+				}
+				if (head.nextDue - now > 0) {
+					pause(now, head.nextDue - now);
+					continue;
+				}
+				long wait = pacer.tryAcquire(now, 0);
+				if (wait > 0) {
+					pause(now, wait);
+					continue;
+				}
+				task = due.poll();
+				inFlight++;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} finally {
+				lock.unlock();
+			}
+			submit(task);
+		}
+	}
+
+	/**
+	 * 按 DateUtil 的时钟等待 nanos, 调用时持有 lock. 倍速回放时折算为真实时长;
+	 * 尽快模式下没有进行中的请求时直接推进虚拟时间, 否则等请求完成
+	 */
+	private void pause(long now, long nanos) throws InterruptedException {
+		Clock clock = DateUtil.getClock();
+		if (clock instanceof VirtualClock) {
+			VirtualClock virtual = (VirtualClock) clock;
+			if (virtual.getSpeed() == 0) {
+				if (inFlight == 0) {
+					virtual.advanceTo(Math.floorDiv(now + nanos + 999_999, 1_000_000));
+				} else {
+					changed.await();
+				}
+				return;
+			}
+			nanos = Math.max(1, virtual.realNanos(nanos));
+		}
+		changed.awaitNanos(nanos);
+	}
+
+	private void submit(Task task) {
+		Executor target = executor == null ? CallExecutors.shared() : executor;
+		long started = DateUtil.nanoTime();
+		try {
+			target.execute(() -> poll(task, started));
+		} catch (RejectedExecutionException e) {
+			pacer.refund();
+			complete(task, started, false, false);
+		}
+	}
+
+	private void poll(Task task, long started) {
+		requests.increment();
+		String body;
+		try {
+			switch (task.channel) {
+				case TICKER:
+					body = api.ticker(task.symbol);
+					break;
+				case ORDER_BOOK:
+					body = api.orderBook(task.symbol);
+					break;
+				default:
+					body = api.tradeHistory(task.symbol);
+			}
+		} catch (Exception e) {
+			failures.increment();
+			try {
+				if (listener != null) {
+					listener.onError(task.channel, task.symbolId, e);
+				}
+			} catch (RuntimeException ignored) {
+				// 回调异常不影响调度
+			}
+			complete(task, started, false, false);
+			return;
+		}
+		int hash = contentHash(body);
+		boolean changed = !task.hasHash || hash != task.lastHash;
+		task.lastHash = hash;
+		task.hasHash = true;
+		if (task.channel == Channel.TICKER) {
+			updateVolatility(task.symbolId, body);
+		}
+		try {
+			if (listener != null) {
+				listener.onData(task.channel, task.symbolId, body);
+			}
+		} catch (RuntimeException e) {
+			log.warn("listener failed for {} {}: {}", task.channel, task.symbol, e.toString());
+		}
+		complete(task, started, true, changed);
+	}
+
+	/**
+	 * 计算新的间隔并重新入堆. 下次到期时间从本次发出时算起, 保持节奏
+	 */
+	private void complete(Task task, long started, boolean success, boolean changed) {
+		long now = DateUtil.nanoTime();
+		double alpha = config.getEwmaAlpha();
+		lock.lock();
+		try {
+			inFlight--;
+			task.polls++;
+			if (success) {
+				if (task.lastCompletion != 0) {
+					double interval = now - task.lastCompletion;
+					task.achievedNanos = task.achievedNanos == 0 ? interval : task.achievedNanos + alpha * (interval - task.achievedNanos);
+				}
+				task.lastCompletion = now;
+				task.lastSuccess = now;
+				if (changed) {
+					task.changes++;
+				}
+				if (!task.retargeted) {
+					double next = task.intervalNanos * (changed ? config.getSpeedUp() : config.getSlowDown());
+					task.intervalNanos = Math.max(task.minNanos, Math.min(task.maxNanos, next));
+				}
+			} else {
+				task.failures++;
+			}
+			task.retargeted = false;
+			long interval = effectiveInterval(task);
+			// 调用耗时超过间隔时立即重新到期, 但仍受速率限制
+			task.nextDue = Math.max(started + interval, now - 1);
+			if (!success) {
+				// 失败后按最大间隔的一小部分退避, 避免持续错误的交易对占用预算
+				task.nextDue = now + Math.max(interval, task.maxNanos / 4);
+			}
+			due.add(task);
+			this.changed.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * 由调用方直接指定基础间隔(限制在 [min, max], 仍按波动缩短). 在 Listener.onData 中调用时替代本次按内容变化的调整,
+	 * 用于比"内容是否变化"更了解数据的场景, 例如 TradeSync 按成交速率与窗口重叠决定 tradeHistory 的间隔
+	 */
+	public void retarget(Channel channel, int symbolId, long intervalMillis) {
+		lock.lock();
+		try {
+			Task task = task(channel, symbolId);
+			double next = TimeUnit.MILLISECONDS.toNanos(Math.max(0, intervalMillis));
+			task.intervalNanos = Math.max(task.minNanos, Math.min(task.maxNanos, next));
+			task.retargeted = true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private long effectiveInterval(Task task) {
+		double reference = config.getVolatilityReferenceBps();
+		double factor = reference > 0 ? 1 + volatilityBps[task.symbolId] / reference : 1;
+		return (long) Math.max(task.minNanos, task.intervalNanos / factor);
+	}
+
+	private void updateVolatility(int id, String body) {
+		long price = lastPrice(body, symbols.priceScale(id));
+		if (price <= 0) {
+			return;
+		}
+		lock.lock();
+		try {
+			long previous = lastPrice[id];
+			lastPrice[id] = price;
+			if (previous > 0) {
+				double moveBps = Math.abs(price - previous) * 10_000.0 / previous;
+				volatilityBps[id] += config.getEwmaAlpha() * (moveBps - volatilityBps[id]);
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * ticker 响应中的 "last", 没有时为 0
+	 */
+	static long lastPrice(String body, int scale) {
+		int key = body.indexOf("\"last\"");
+		if (key < 0) {
+			return 0;
+		}
+		int start = body.indexOf(':', key) + 1;
+		while (start < body.length() && (body.charAt(start) == ' ' || body.charAt(start) == '"')) {
+			start++;
+		}
+		int end = start;
+		while (end < body.length() && (Character.isDigit(body.charAt(end)) || body.charAt(end) == '.')) {
+			end++;
+		}
+		if (end == start) {
+			return 0;
+		}
+		try {
+			return FixedPoint.parse(body.subSequence(start, end), scale);
+		} catch (RuntimeException e) {
+			return 0;
+		}
+	}
+
+	/**
+	 * 响应内容的哈希, 跳过每次都会变化的 "elapsed" 字段
+	 */
+	static int contentHash(String body) {
+		int skipFrom = body.indexOf("\"elapsed\"");
+		int skipTo = skipFrom;
+		if (skipFrom >= 0) {
+			skipTo = skipFrom + 9;
+			while (skipTo < body.length() && body.charAt(skipTo) != ',' && body.charAt(skipTo) != '}') {
+				skipTo++;
+			}
+		}
+		int h = 0;
+		for (int i = 0; i < body.length(); i++) {
+			if (i == skipFrom) {
+				i = skipTo - 1;
+				continue;
+			}
+			h = 31 * h + body.charAt(i);
+		}
+		return h;
+	}
+
+	private Task task(Channel channel, int symbolId) {
+		Task task = byChannel[channel.ordinal()][symbolId];
+		if (task == null) {
+			throw new IllegalArgumentException(channel + " " + symbols.name(symbolId) + " 未订阅");
+		}
+		return task;
+	}
+
+	/**
+	 * 距上次成功取得数据的时长, 未成功过时从订阅时算起
+	 */
+	public long stalenessMillis(Channel channel, int symbolId) {
+		lock.lock();
+		try {
+			return TimeUnit.NANOSECONDS.toMillis(DateUtil.nanoTime() - task(channel, symbolId).lastSuccess);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/** 实际成功间隔的 EWMA, 成功少于两次时为 0 **/
+	public long achievedIntervalMillis(Channel channel, int symbolId) {
+		lock.lock();
+		try {
+			return TimeUnit.NANOSECONDS.toMillis((long) task(channel, symbolId).achievedNanos);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/** 当前目标间隔, 已计入波动 **/
+	public long targetIntervalMillis(Channel channel, int symbolId) {
+		lock.lock();
+		try {
+			return TimeUnit.NANOSECONDS.toMillis(effectiveInterval(task(channel, symbolId)));
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public long polls(Channel channel, int symbolId) {
+		lock.lock();
+		try {
+			return task(channel, symbolId).polls;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public long changes(Channel channel, int symbolId) {
+		lock.lock();
+		try {
+			return task(channel, symbolId).changes;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/** ticker 最新价波动 EWMA, 基点 **/
+	public double volatilityBps(int symbolId) {
+		lock.lock();
+		try {
+			return volatilityBps[symbolId];
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/** 该接口所有交易对中最大的陈旧时长 **/
+	public long maxStalenessMillis(Channel channel) {
+		long now = DateUtil.nanoTime();
+		long max = 0;
+		lock.lock();
+		try {
+			for (Task task : tasks) {
+				if (task.channel == channel) {
+					max = Math.max(max, now - task.lastSuccess);
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+		return TimeUnit.NANOSECONDS.toMillis(max);
+	}
+
+	/** 该接口所有交易对实际间隔的平均值 **/
+	public double averageAchievedIntervalMillis(Channel channel) {
+		double sum = 0;
+		int n = 0;
+		lock.lock();
+		try {
+			for (Task task : tasks) {
+				if (task.channel == channel && task.achievedNanos > 0) {
+					sum += task.achievedNanos;
+					n++;
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+		return n == 0 ? 0 : sum / n / 1e6;
+	}
+
+	public int subscriptions() {
+		lock.lock();
+		try {
+			return tasks.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public long getRequests() {
+		return requests.sum();
+	}
+
+	public long getFailures() {
+		return failures.sum();
+	}
+
+	public Executor getExecutor() {
+		return executor;
+	}
+
+	/** 为空时使用 CallExecutors.shared() **/
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * 计数与每个接口的汇总, 以及每个订阅的 gate.poller.staleness / gate.poller.interval(channel, symbol 标签),
+	 * 之后的订阅在 subscribe 时注册
+	 */
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		this.registry = registry;
+		List<Task> subscribed;
+		lock.lock();
+		try {
+			subscribed = new ArrayList<>(tasks);
+		} finally {
+			lock.unlock();
+		}
+		for (Task task : subscribed) {
+			register(registry, task);
+		}
+		FunctionCounter.builder("gate.poller.requests", this, MarketPoller::getRequests).register(registry);
+		FunctionCounter.builder("gate.poller.failures", this, MarketPoller::getFailures).register(registry);
+		for (Channel channel : Channel.values()) {
+			String tag = channel.name().toLowerCase();
+			Gauge.builder("gate.poller.staleness.max", this, p -> p.maxStalenessMillis(channel))
+					.tag("channel", tag)
+					.baseUnit("milliseconds")
+					.register(registry);
+			Gauge.builder("gate.poller.interval.avg", this, p -> p.averageAchievedIntervalMillis(channel))
+					.tag("channel", tag)
+					.baseUnit("milliseconds")
+					.register(registry);
+		}
+	}
+
+	private void register(MeterRegistry registry, Task task) {
+		Channel channel = task.channel;
+		int id = task.symbolId;
+		String tag = channel.name().toLowerCase();
+		Gauge.builder("gate.poller.staleness", this, p -> p.stalenessMillis(channel, id))
+				.tag("channel", tag)
+				.tag("symbol", task.symbol)
+				.baseUnit("milliseconds")
+				.register(registry);
+		Gauge.builder("gate.poller.interval", this, p -> p.achievedIntervalMillis(channel, id))
+				.tag("channel", tag)
+				.tag("symbol", task.symbol)
+				.baseUnit("milliseconds")
+				.register(registry);
+	}
+}
@@ -0,0 +1,315 @@
+package com.gate.rest.market;
+
+import java.util.Arrays;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/26 上午10:20
+ * @description：单个交易对的 L2 盘口. 每一侧的档位保存在按价格排序的 long 数组中(买盘从高到低, 卖盘从低到高),
+ * 同时维护累计数量, 因此最优价为 O(1), 按价格查找档位与"X 个基点内可成交数量"均为 O(log n).
+ * 新快照与当前档位逐一归并比较后写入备用数组再交换, 数组只在档位数超过容量时扩容.
+ * 非线程安全: 由一个轮询线程调用 apply, 读取方需在同一线程或自行同步
+ * @modified By：
+ * @version: $
+ */
+public final class OrderBook {
+
+	private final String pair;
+	private final Levels bids = new Levels(false);
+	private final Levels asks = new Levels(true);
+	private int priceScale;
+	private int volumeScale;
+	private long version;
+	private long elapsedMicros;
+
+	public OrderBook(String pair) {
+		this.pair = pair;
+	}
+
+	/**
+	 * 用新的快照更新盘口, 返回变化的档位数(新增 + 删除 + 数量变化). 失败的响应(result 为 false)不更新
+	 */
+	public int apply(OrderBookSnapshot snapshot) {
+		return apply(snapshot, null);
+	}
+
+	/**
+	 * 同 apply(snapshot), 同时把每个变化的档位写入 changes(先清空), 下游按变化更新自己的状态, 不必重新读取整个盘口.
+	 * 小数位数变化时先输出原有档位的 DELETE 再输出全部 INSERT. 快照档位未排序时抛出 IllegalArgumentException,
+	 * 盘口不变且 changes 为空
+	 */
+	public int apply(OrderBookSnapshot snapshot, LevelChanges changes) {
+		if (changes != null) {
+			changes.clear();
+		}
+		if (!snapshot.isResult()) {
+			return 0;
+		}
+		// 小数位数变化时不能按价格比较, 按空盘口重建
+		boolean rebuild = version > 0 && (snapshot.getPriceScale() != priceScale || snapshot.getVolumeScale() != volumeScale);
+		// 两侧都归并成功后再提交, 档位未排序时抛出异常, 盘口保持不变
+		int changed;
+		try {
+			changed = bids.merge(snapshot, Side.BID, rebuild, changes) + asks.merge(snapshot, Side.ASK, rebuild, changes);
+		} catch (IllegalArgumentException e) {
+			if (changes != null) {
+				changes.clear();
+			}
+			throw e;
+		}
+		bids.commit();
+		asks.commit();
+		priceScale = snapshot.getPriceScale();
+		volumeScale = snapshot.getVolumeScale();
+		elapsedMicros = snapshot.getElapsedMicros();
+		version++;
+		return changed;
+	}
+
+	private Levels levels(Side side) {
+		return side == Side.ASK ? asks : bids;
+	}
+
+	public String getPair() {
+		return pair;
+	}
+
+	public int getPriceScale() {
+		return priceScale;
+	}
+
+	public int getVolumeScale() {
+		return volumeScale;
+	}
+
+	/** 已应用的快照数 **/
+	public long getVersion() {
+		return version;
+	}
+
+	public long getElapsedMicros() {
+		return elapsedMicros;
+	}
+
+	public boolean isEmpty() {
+		return bids.count == 0 && asks.count == 0;
+	}
+
+	/** 买一价, 无买盘时为 0 **/
+	public long bestBid() {
+		return bids.count == 0 ? 0 : bids.prices[0];
+	}
+
+	/** 卖一价, 无卖盘时为 0 **/
+	public long bestAsk() {
+		return asks.count == 0 ? 0 : asks.prices[0];
+	}
+
+	public long bestBidSize() {
+		return bids.count == 0 ? 0 : bids.sizes[0];
+	}
+
+	public long bestAskSize() {
+		return asks.count == 0 ? 0 : asks.sizes[0];
+	}
+
+	/** 卖一 - 买一, 任一侧为空时为 0 **/
+	public long spread() {
+		return bids.count == 0 || asks.count == 0 ? 0 : asks.prices[0] - bids.prices[0];
+	}
+
+	/** 档位数 **/
+	public int depth(Side side) {
+		return levels(side).count;
+	}
+
+	/** 第 level 档(0 为最优)的价格 **/
+	public long price(Side side, int level) {
+		Levels levels = levels(side);
+		checkLevel(levels, level);
+		return levels.prices[level];
+	}
+
+	public long size(Side side, int level) {
+		Levels levels = levels(side);
+		checkLevel(levels, level);
+		return levels.sizes[level];
+	}
+
+	private static void checkLevel(Levels levels, int level) {
+		if (level < 0 || level >= levels.count) {
+			throw new IndexOutOfBoundsException("level " + level + ", depth " + levels.count);
+		}
+	}
+
+	/**
+	 * 价格所在的档位, 不存在时返回 -(插入位置) - 1, 与 Arrays.binarySearch 相同
+	 */
+	public int levelOf(Side side, long price) {
+		return levels(side).indexOf(price);
+	}
+
+	/** 该价格档位的数量, 不存在时为 0 **/
+	public long sizeAt(Side side, long price) {
+		Levels levels = levels(side);
+		int level = levels.indexOf(price);
+		return level < 0 ? 0 : levels.sizes[level];
+	}
+
+	/**
+	 * 价格优于或等于 limit 的档位累计数量, 即以 limit 为限价可以成交的数量(卖盘价格 <= limit, 买盘价格 >= limit)
+	 */
+	public long depthTo(Side side, long limit) {
+		Levels levels = levels(side);
+		int level = levels.indexOf(limit);
+		int end = level >= 0 ? level + 1 : -level - 1;
+		return end == 0 ? 0 : levels.cumulative[end - 1];
+	}
+
+	/**
+	 * 距最优价 bps 个基点(万分之一)以内的累计数量
+	 */
+	public long depthWithinBps(Side side, int bps) {
+		Levels levels = levels(side);
+		if (levels.count == 0) {
+			return 0;
+		}
+		long best = levels.prices[0];
+		long offset = Math.multiplyExact(best, (long) bps) / 10_000;
+		return depthTo(side, side == Side.ASK ? best + offset : best - offset);
+	}
+
+	/**
+	 * 一侧的档位, 数组按更优的价格在前排列. merge 写入 nextPrices / nextSizes, commit 时与当前数组交换
+	 */
+	static final class Levels {
+		final boolean ascending;
+		long[] prices = new long[0];
+		long[] sizes = new long[0];
+		long[] cumulative = new long[0];
+		long[] nextPrices = new long[0];
+		long[] nextSizes = new long[0];
+		int count;
+		int nextCount;
+
+		Levels(boolean ascending) {
+			this.ascending = ascending;
+		}
+
+		/** a 是否比 b 更优(排在前面) **/
+		boolean before(long a, long b) {
+			return ascending ? a < b : a > b;
+		}
+
+		int indexOf(long price) {
+			int low = 0;
+			int high = count - 1;
+			while (low <= high) {
+				int mid = (low + high) >>> 1;
+				long p = prices[mid];
+				if (p == price) {
+					return mid;
+				}
+				if (before(p, price)) {
+					low = mid + 1;
+				} else {
+					high = mid - 1;
+				}
+			}
+			return -(low + 1);
+		}
+
+		/**
+		 * 与快照逐一归并比较, 结果写入 nextPrices / nextSizes, 返回变化的档位数; changes 不为 null 时输出每个变化
+		 */
+		int merge(OrderBookSnapshot snapshot, Side side, boolean rebuild, LevelChanges changes) {
+			int changed = 0;
+			int count = this.count;
+			if (rebuild) {
+				if (changes != null) {
+					for (int i = 0; i < count; i++) {
+						changes.add(LevelChange.DELETE, side, prices[i], 0);
+					}
+				}
+				changed = count;
+				count = 0;
+			}
+			int n = snapshot.count(side);
+			long[] srcPrices = snapshot.prices(side);
+			long[] srcSizes = snapshot.sizes(side);
+			// 响应中卖盘从高到低, 按本侧的顺序反向读取
+			boolean reversed = n > 1 && before(srcPrices[n - 1], srcPrices[0]);
+			if (nextPrices.length < n) {
+				int capacity = Math.max(16, Integer.highestOneBit(n) << 1);
+				nextPrices = Arrays.copyOf(nextPrices, capacity);
+				nextSizes = Arrays.copyOf(nextSizes, capacity);
+			}
+			int i = 0;
+			int j = 0;
+			int k = 0;
+			long previous = 0;
+			while (i < count || j < n) {
+				if (j < n) {
+					int src = reversed ? n - 1 - j : j;
+					long price = srcPrices[src];
+					long size = srcSizes[src];
+					if (j > 0 && !before(previous, price)) {
+						throw new IllegalArgumentException("orderBook 档位未排序或重复: " + price);
+					}
+					if (i < count && prices[i] == price) {
+						if (sizes[i] != size) {
+							changed++;
+							if (changes != null) {
+								changes.add(LevelChange.UPDATE, side, price, size);
+							}
+						}
+						i++;
+					} else if (i < count && before(prices[i], price)) {
+						// 当前档位已不在快照中
+						changed++;
+						if (changes != null) {
+							changes.add(LevelChange.DELETE, side, prices[i], 0);
+						}
+						i++;
+						continue;
+					} else {
+						changed++;
+						if (changes != null) {
+							changes.add(LevelChange.INSERT, side, price, size);
+						}
+					}
+					nextPrices[k] = price;
+					nextSizes[k++] = size;
+					previous = price;
+					j++;
+				} else {
+					changed++;
+					if (changes != null) {
+						changes.add(LevelChange.DELETE, side, prices[i], 0);
+					}
+					i++;
+				}
+			}
+			nextCount = k;
+			return changed;
+		}
+
+		void commit() {
+			long[] swap = prices;
+			prices = nextPrices;
+			nextPrices = swap;
+			swap = sizes;
+			sizes = nextSizes;
+			nextSizes = swap;
+			count = nextCount;
+			if (cumulative.length < prices.length) {
+				cumulative = new long[prices.length];
+			}
+			long total = 0;
+			for (int level = 0; level < count; level++) {
+				total += sizes[level];
+				cumulative[level] = total;
+			}
+		}
+	}
+}
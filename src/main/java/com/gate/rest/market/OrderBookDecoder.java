@@ -0,0 +1,106 @@
+package com.gate.rest.market;
+
+import com.gate.rest.entity.PairScale;
+import com.gate.rest.util.JsonScanner;
+import com.gate.rest.util.StreamDecoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/26 上午9:55
+ * @description：orderBook 响应的直接解码器, 档位 [价格, 数量] 按交易对的小数位数写入 OrderBookSnapshot, 不创建 String.
+ * 实例无状态, 可以共享
+ * <pre>
+ * api.orderBook("eth_usdt", decoder.into(snapshot));
+ * book.apply(snapshot);
+ * </pre>
+ * @modified By：
+ * @version: $
+ */
+public final class OrderBookDecoder implements StreamDecoder<OrderBookSnapshot> {
+
+	private static final int ASKS = 0;
+	private static final int BIDS = 1;
+	private static final int RESULT = 2;
+	private static final int ELAPSED = 3;
+	private static final int END = -2;
+
+	private static final int[] FIELDS = JsonScanner.hashes("asks", "bids", "result", "elapsed");
+
+	private final PairScale scale;
+
+	public OrderBookDecoder(PairScale scale) {
+		this.scale = scale;
+	}
+
+	@Override
+	public OrderBookSnapshot decode(InputStream in) throws IOException {
+		return decode(in, new OrderBookSnapshot());
+	}
+
+	public OrderBookSnapshot decode(InputStream in, OrderBookSnapshot snapshot) throws IOException {
+		snapshot.clear(scale);
+		try (JsonScanner scanner = JsonScanner.open(in)) {
+			scanner.skipWhitespace();
+			if (scanner.current() != '{') {
+				throw scanner.unexpected();
+			}
+			int field;
+			while ((field = scanner.nextField(FIELDS)) != END) {
+				switch (field) {
+					case ASKS:
+						readLevels(scanner, snapshot, Side.ASK);
+						break;
+					case BIDS:
+						readLevels(scanner, snapshot, Side.BID);
+						break;
+					case RESULT:
+						snapshot.setResult(scanner.readTrue());
+						break;
+					case ELAPSED:
+						snapshot.setElapsedMicros(scanner.readElapsedMicros());
+						break;
+					default:
+						scanner.skipValue();
+				}
+			}
+		}
+		return snapshot;
+	}
+
+	public StreamDecoder<OrderBookSnapshot> into(OrderBookSnapshot snapshot) {
+		return in -> decode(in, snapshot);
+	}
+
+	/**
+	 * [["1823.25","5.50881689"],...]
+	 */
+	private void readLevels(JsonScanner scanner, OrderBookSnapshot snapshot, Side side) throws IOException {
+		if (scanner.current() == 'n') {
+			scanner.skipValue();
+			return;
+		}
+		scanner.expect('[');
+		scanner.skipWhitespace();
+		while (scanner.current() != ']') {
+			scanner.expect('[');
+			scanner.skipWhitespace();
+			long price = scanner.readFixed(scale.getPriceScale());
+			scanner.skipWhitespace();
+			scanner.expect(',');
+			scanner.skipWhitespace();
+			long size = scanner.readFixed(scale.getVolumeScale());
+			scanner.skipWhitespace();
+			scanner.expect(']');
+			snapshot.add(side, price, size);
+			scanner.skipWhitespace();
+			if (scanner.current() == ',') {
+				scanner.next();
+				scanner.skipWhitespace();
+			}
+		}
+		scanner.next();
+	}
+}
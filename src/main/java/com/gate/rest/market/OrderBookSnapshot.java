@@ -0,0 +1,110 @@
+package com.gate.rest.market;
+
+import com.gate.rest.entity.PairScale;
+
+import java.util.Arrays;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/26 上午9:40
+ * @description：一次 orderBook 响应的定点数档位, 按响应中的顺序保存. 由 OrderBookDecoder 填充后交给 OrderBook.apply,
+ * 数组在多次解码间复用
+ * @modified By：
+ * @version: $
+ */
+public final class OrderBookSnapshot {
+
+	private int priceScale;
+	private int volumeScale;
+	private long[] askPrices;
+	private long[] askSizes;
+	private long[] bidPrices;
+	private long[] bidSizes;
+	private int askCount;
+	private int bidCount;
+	private boolean result;
+	private long elapsedMicros;
+
+	public OrderBookSnapshot() {
+		this(64);
+	}
+
+	public OrderBookSnapshot(int capacity) {
+		askPrices = new long[capacity];
+		askSizes = new long[capacity];
+		bidPrices = new long[capacity];
+		bidSizes = new long[capacity];
+	}
+
+	public void clear(PairScale scale) {
+		priceScale = scale.getPriceScale();
+		volumeScale = scale.getVolumeScale();
+		askCount = 0;
+		bidCount = 0;
+		result = false;
+		elapsedMicros = 0;
+	}
+
+	public void add(Side side, long price, long size) {
+		if (side == Side.ASK) {
+			if (askCount == askPrices.length) {
+				askPrices = Arrays.copyOf(askPrices, Math.max(8, askCount * 2));
+				askSizes = Arrays.copyOf(askSizes, Math.max(8, askCount * 2));
+			}
+			askPrices[askCount] = price;
+			askSizes[askCount++] = size;
+		} else {
+			if (bidCount == bidPrices.length) {
+				bidPrices = Arrays.copyOf(bidPrices, Math.max(8, bidCount * 2));
+				bidSizes = Arrays.copyOf(bidSizes, Math.max(8, bidCount * 2));
+			}
+			bidPrices[bidCount] = price;
+			bidSizes[bidCount++] = size;
+		}
+	}
+
+	public int count(Side side) {
+		return side == Side.ASK ? askCount : bidCount;
+	}
+
+	/** 第 i 个档位的价格, 顺序与响应一致 **/
+	public long price(Side side, int i) {
+		return side == Side.ASK ? askPrices[i] : bidPrices[i];
+	}
+
+	public long size(Side side, int i) {
+		return side == Side.ASK ? askSizes[i] : bidSizes[i];
+	}
+
+	long[] prices(Side side) {
+		return side == Side.ASK ? askPrices : bidPrices;
+	}
+
+	long[] sizes(Side side) {
+		return side == Side.ASK ? askSizes : bidSizes;
+	}
+
+	public int getPriceScale() {
+		return priceScale;
+	}
+
+	public int getVolumeScale() {
+		return volumeScale;
+	}
+
+	public boolean isResult() {
+		return result;
+	}
+
+	public void setResult(boolean result) {
+		this.result = result;
+	}
+
+	public long getElapsedMicros() {
+		return elapsedMicros;
+	}
+
+	public void setElapsedMicros(long elapsedMicros) {
+		this.elapsedMicros = elapsedMicros;
+	}
+}
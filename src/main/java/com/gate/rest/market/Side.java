@@ -0,0 +1,15 @@
+package com.gate.rest.market;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/26 上午9:30
+ * @description：盘口方向
+ * @modified By：
+ * @version: $
+ */
+public enum Side {
+	/** 买盘, 价格从高到低 **/
+	BID,
+	/** 卖盘, 价格从低到高 **/
+	ASK
+}
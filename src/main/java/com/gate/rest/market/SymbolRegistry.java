@@ -0,0 +1,226 @@
+package com.gate.rest.market;
+
+import com.gate.rest.entity.PairScale;
+import com.gate.rest.stock.IStockRestApi;
+import com.gate.rest.util.JsonTool;
+import com.google.gson.reflect.TypeToken;
+import org.apache.http.HttpException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/28 上午9:30
+ * @description：交易对注册表. 每个交易对分配一个从 0 开始的连续 id, 小数位数与最小下单数量按 id 保存在平行的基本类型数组中,
+ * 按交易对保存的状态可以用 new long[registry.size()] 之类的数组代替 HashMap&lt;String, ?&gt;.
+ * 名称 -> id 为开放寻址的 int 哈希表, 哈希与 String.hashCode 一致, 查找不创建对象; 也可直接用响应中的字节查找.
+ * 创建后不可变, 可在线程间共享; 交易对变化时重新 load 并替换整个实例
+ * <pre>
+ * SymbolRegistry symbols = SymbolRegistry.load(api);
+ * int id = symbols.idOf("eth_usdt");
+ * long minAmount = symbols.minAmount(id);
+ * </pre>
+ * @modified By：
+ * @version: $
+ */
+public final class SymbolRegistry {
+
+	/** 未注册的交易对 **/
+	public static final int NOT_FOUND = -1;
+	/** marketInfo 中没有的交易对使用的价格小数位数 **/
+	public static final int DEFAULT_PRICE_SCALE = 8;
+
+	private final String[] names;
+	private final int[] hashes;
+	private final int[] priceScales;
+	private final int[] volumeScales;
+	private final long[] minAmounts;
+	private final PairScale[] scales;
+	/** id + 1, 0 为空 **/
+	private final int[] table;
+	private final int mask;
+
+	private SymbolRegistry(List<String> pairs, Map<String, PairScale> scaleByPair) {
+		int n = pairs.size();
+		names = new String[n];
+		hashes = new int[n];
+		priceScales = new int[n];
+		volumeScales = new int[n];
+		minAmounts = new long[n];
+		scales = new PairScale[n];
+		table = new int[Math.max(16, Integer.highestOneBit(Math.max(1, n) * 2 - 1) << 1)];
+		mask = table.length - 1;
+		for (int id = 0; id < n; id++) {
+			String name = pairs.get(id);
+			PairScale scale = scaleByPair.get(name);
+			if (scale == null) {
+				scale = new PairScale(DEFAULT_PRICE_SCALE, PairScale.DEFAULT_VOLUME_SCALE);
+			}
+			names[id] = name;
+			hashes[id] = name.hashCode();
+			priceScales[id] = scale.getPriceScale();
+			volumeScales[id] = scale.getVolumeScale();
+			minAmounts[id] = scale.getMinAmount();
+			scales[id] = scale;
+			int slot = mix(hashes[id]) & mask;
+			while (table[slot] != 0) {
+				if (names[table[slot] - 1].equals(name)) {
+					throw new IllegalArgumentException("重复的交易对: " + name);
+				}
+				slot = (slot + 1) & mask;
+			}
+			table[slot] = id + 1;
+		}
+	}
+
+	/**
+	 * 按交易对顺序分配 id, 小数位数取 scales 中的值, 不存在的使用 DEFAULT_PRICE_SCALE
+	 */
+	public static SymbolRegistry of(List<String> pairs, Map<String, PairScale> scales) {
+		return new SymbolRegistry(pairs, scales);
+	}
+
+	/**
+	 * 由 pairs() 与 marketInfo() 的返回创建. id 按 pairs 的顺序分配, 只在 marketInfo 中出现的交易对排在后面
+	 */
+	public static SymbolRegistry fromJson(String pairsJson, String marketInfoJson) {
+		List<String> pairs = JsonTool.jsonToObject(pairsJson, new TypeToken<List<String>>() {
+		}.getType());
+		if (pairs == null) {
+			throw new IllegalStateException("pairs 返回为空");
+		}
+		Map<String, PairScale> scales = PairScale.fromMarketInfo(marketInfoJson);
+		Map<String, Boolean> ordered = new LinkedHashMap<>();
+		for (String pair : pairs) {
+			ordered.put(pair, Boolean.TRUE);
+		}
+		for (String pair : scales.keySet()) {
+			ordered.putIfAbsent(pair, Boolean.TRUE);
+		}
+		return new SymbolRegistry(new ArrayList<>(ordered.keySet()), scales);
+	}
+
+	public static SymbolRegistry load(IStockRestApi api) throws HttpException, IOException {
+		return fromJson(api.pairs(), api.marketInfo());
+	}
+
+	/** 与 HashMap 相同的高位扰动 **/
+	private static int mix(int h) {
+		return h ^ (h >>> 16);
+	}
+
+	public int size() {
+		return names.length;
+	}
+
+	/**
+	 * 交易对的 id, 未注册时返回 NOT_FOUND
+	 */
+	public int idOf(String name) {
+		int slot = mix(name.hashCode()) & mask;
+		int entry;
+		while ((entry = table[slot]) != 0) {
+			if (names[entry - 1].equals(name)) {
+				return entry - 1;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return NOT_FOUND;
+	}
+
+	/**
+	 * 按字符序列查找, 如复用的 StringBuilder
+	 */
+	public int idOf(CharSequence name) {
+		if (name instanceof String) {
+			return idOf((String) name);
+		}
+		int length = name.length();
+		int h = 0;
+		for (int i = 0; i < length; i++) {
+			h = 31 * h + name.charAt(i);
+		}
+		int slot = mix(h) & mask;
+		int entry;
+		while ((entry = table[slot]) != 0) {
+			int id = entry - 1;
+			if (hashes[id] == h && names[id].contentEquals(name)) {
+				return id;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return NOT_FOUND;
+	}
+
+	/**
+	 * 按 ASCII 字节查找, 供直接解码器使用, 不必先创建 String
+	 */
+	public int idOf(byte[] bytes, int offset, int length) {
+		int h = 0;
+		for (int i = 0; i < length; i++) {
+			h = 31 * h + (bytes[offset + i] & 0xff);
+		}
+		int slot = mix(h) & mask;
+		int entry;
+		while ((entry = table[slot]) != 0) {
+			int id = entry - 1;
+			if (hashes[id] == h && equalsAscii(names[id], bytes, offset, length)) {
+				return id;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return NOT_FOUND;
+	}
+
+	private static boolean equalsAscii(String name, byte[] bytes, int offset, int length) {
+		if (name.length() != length) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (name.charAt(i) != (bytes[offset + i] & 0xff)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 交易对的 id, 未注册时抛出 IllegalArgumentException
+	 */
+	public int require(String name) {
+		int id = idOf(name);
+		if (id == NOT_FOUND) {
+			throw new IllegalArgumentException("未知的交易对: " + name);
+		}
+		return id;
+	}
+
+	public boolean contains(String name) {
+		return idOf(name) != NOT_FOUND;
+	}
+
+	public String name(int id) {
+		return names[id];
+	}
+
+	public int priceScale(int id) {
+		return priceScales[id];
+	}
+
+	public int volumeScale(int id) {
+		return volumeScales[id];
+	}
+
+	/** 最小下单数量, 小数位数为 volumeScale(id) **/
+	public long minAmount(int id) {
+		return minAmounts[id];
+	}
+
+	public PairScale scale(int id) {
+		return scales[id];
+	}
+}
@@ -0,0 +1,198 @@
+package com.gate.rest.market;
+
+import com.gate.rest.entity.PairScale;
+
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/28 下午2:00
+ * @description：一次 tickers() 响应的列式快照, 每个字段一个 long 数组, 下标为 SymbolRegistry 的 id.
+ * 价格按各交易对的小数位数(registry.priceScale(id))保存, 24 小时成交量的小数位数为 PairScale.TICKER_VOLUME_SCALE,
+ * 涨跌幅的小数位数为 PairScale.PERCENT_SCALE.
+ * 由 TickersStore 双缓冲写入, 读取方见 TickersStore 的说明
+ * @modified By：
+ * @version: $
+ */
+public final class TickerColumns {
+
+	private final SymbolRegistry symbols;
+	final long[] last;
+	final long[] lowestAsk;
+	final long[] highestBid;
+	final long[] high24hr;
+	final long[] low24hr;
+	final long[] baseVolume;
+	final long[] quoteVolume;
+	final long[] percentChange;
+	/** 响应中有该交易对且 result 为 true **/
+	final boolean[] present;
+	int count;
+	/** 本快照的序号, 从 1 开始 **/
+	long sequence;
+	/** 收到响应的时间, DateUtil.nanoTime() **/
+	long receivedNanos;
+	/** 偶数为稳定, 奇数表示正在写入 **/
+	private volatile long version;
+
+	TickerColumns(SymbolRegistry symbols) {
+		this.symbols = symbols;
+		int n = symbols.size();
+		last = new long[n];
+		lowestAsk = new long[n];
+		highestBid = new long[n];
+		high24hr = new long[n];
+		low24hr = new long[n];
+		baseVolume = new long[n];
+		quoteVolume = new long[n];
+		percentChange = new long[n];
+		present = new boolean[n];
+	}
+
+	void beginWrite() {
+		version++;
+		// 之后的数组写入不能重排到 version 之前
+		VarHandle.storeStoreFence();
+		Arrays.fill(present, false);
+		count = 0;
+	}
+
+	void endWrite() {
+		version++;
+	}
+
+	/**
+	 * 读取前取得版本号, 读完后用 validate 检查期间没有被重新写入
+	 */
+	public long stamp() {
+		return version;
+	}
+
+	/**
+	 * 自 stamp() 以来本快照没有被改写时返回 true. 双缓冲下只有读取跨过整整一次轮询时才会失败, 此时重新取 current() 读取
+	 */
+	public boolean validate(long stamp) {
+		VarHandle.acquireFence();
+		return (stamp & 1) == 0 && version == stamp;
+	}
+
+	public SymbolRegistry getSymbols() {
+		return symbols;
+	}
+
+	public int size() {
+		return present.length;
+	}
+
+	/** 有行情的交易对数 **/
+	public int count() {
+		return count;
+	}
+
+	public long getSequence() {
+		return sequence;
+	}
+
+	public long getReceivedNanos() {
+		return receivedNanos;
+	}
+
+	public boolean has(int id) {
+		return present[id];
+	}
+
+	public long last(int id) {
+		return last[id];
+	}
+
+	public long lowestAsk(int id) {
+		return lowestAsk[id];
+	}
+
+	public long highestBid(int id) {
+		return highestBid[id];
+	}
+
+	public long high24hr(int id) {
+		return high24hr[id];
+	}
+
+	public long low24hr(int id) {
+		return low24hr[id];
+	}
+
+	public long baseVolume(int id) {
+		return baseVolume[id];
+	}
+
+	public long quoteVolume(int id) {
+		return quoteVolume[id];
+	}
+
+	/** 涨跌幅(%), 小数位数为 PairScale.PERCENT_SCALE **/
+	public long percentChange(int id) {
+		return percentChange[id];
+	}
+
+	/**
+	 * 买卖价差相对中间价的基点数, 没有买一或卖一时为 NaN
+	 */
+	public double spreadBps(int id) {
+		long ask = lowestAsk[id];
+		long bid = highestBid[id];
+		if (!present[id] || ask <= 0 || bid <= 0) {
+			return Double.NaN;
+		}
+		return (ask - bid) * 20_000.0 / (ask + bid);
+	}
+
+	/**
+	 * 涨跌幅最大(gainers 为 true)或最小的交易对 id 写入 out, 按涨跌幅排序, 返回写入的个数
+	 */
+	public int topMovers(int[] out, boolean gainers) {
+		int k = 0;
+		for (int id = 0; id < present.length; id++) {
+			if (!present[id]) {
+				continue;
+			}
+			long change = gainers ? percentChange[id] : -percentChange[id];
+			if (k == out.length && (k == 0 || change <= (gainers ? percentChange[out[k - 1]] : -percentChange[out[k - 1]]))) {
+				continue;
+			}
+			// 插入排序, out 保持从大到小
+			int i = k < out.length ? k++ : k - 1;
+			while (i > 0 && change > (gainers ? percentChange[out[i - 1]] : -percentChange[out[i - 1]])) {
+				out[i] = out[i - 1];
+				i--;
+			}
+			out[i] = id;
+		}
+		return k;
+	}
+
+	/**
+	 * 价差(基点)最大的交易对 id 写入 out, 从大到小, 返回写入的个数
+	 */
+	public int widestSpreads(int[] out) {
+		int k = 0;
+		for (int id = 0; id < present.length; id++) {
+			double spread = spreadBps(id);
+			if (Double.isNaN(spread) || (k == out.length && (k == 0 || spread <= spreadBps(out[k - 1])))) {
+				continue;
+			}
+			int i = k < out.length ? k++ : k - 1;
+			while (i > 0 && spread > spreadBps(out[i - 1])) {
+				out[i] = out[i - 1];
+				i--;
+			}
+			out[i] = id;
+		}
+		return k;
+	}
+
+	/** 该交易对的小数位数 **/
+	public PairScale scale(int id) {
+		return symbols.scale(id);
+	}
+}
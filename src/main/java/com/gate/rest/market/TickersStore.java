@@ -0,0 +1,201 @@
+package com.gate.rest.market;
+
+import com.gate.rest.entity.PairScale;
+import com.gate.rest.util.DateUtil;
+import com.gate.rest.util.JsonScanner;
+import com.gate.rest.util.StreamDecoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/28 下午2:40
+ * @description：tickers() 的列式快照存储. 响应一次扫描直接解码到后台的 TickerColumns, 完成后再发布为 current(),
+ * 两个缓冲交替使用, 不创建 Map / String. 写入由轮询线程串行执行; 读取不加锁:
+ * <pre>
+ * api.tickers(store.decoder());
+ *
+ * TickerColumns columns = store.current();
+ * long stamp = columns.stamp();
+ * int n = columns.topMovers(top, true);
+ * if (!columns.validate(stamp)) {
+ *     // 读取期间又完成了两次轮询, 重新读取
+ * }
+ * </pre>
+ * 响应中未注册的交易对跳过, 个数见 getUnknownSymbols(). 24 小时成交量超出 PairScale.TICKER_VOLUME_SCALE 的范围时饱和为 Long.MAX_VALUE,
+ * 不影响其他交易对
+ * @modified By：
+ * @version: $
+ */
+public final class TickersStore {
+
+	private static final int LAST = 0;
+	private static final int LOWEST_ASK = 1;
+	private static final int HIGHEST_BID = 2;
+	private static final int HIGH_24HR = 3;
+	private static final int LOW_24HR = 4;
+	private static final int BASE_VOLUME = 5;
+	private static final int QUOTE_VOLUME = 6;
+	private static final int PERCENT_CHANGE = 7;
+	private static final int RESULT = 8;
+	private static final int END = -2;
+
+	private static final int[] FIELDS = JsonScanner.hashes("last", "lowestAsk", "highestBid", "high24hr", "low24hr",
+			"baseVolume", "quoteVolume", "percentChange", "result");
+
+	/** 交易对名称的最大长度 **/
+	private static final int MAX_SYMBOL_LENGTH = 64;
+
+	private final SymbolRegistry symbols;
+	private final TickerColumns[] buffers = new TickerColumns[2];
+	private final byte[] key = new byte[MAX_SYMBOL_LENGTH];
+	private final StreamDecoder<TickerColumns> decoder = this::update;
+	private volatile TickerColumns current;
+	private long sequence;
+	private long unknownSymbols;
+
+	public TickersStore(SymbolRegistry symbols) {
+		this.symbols = symbols;
+		buffers[0] = new TickerColumns(symbols);
+		buffers[1] = new TickerColumns(symbols);
+		current = buffers[0];
+	}
+
+	public SymbolRegistry getSymbols() {
+		return symbols;
+	}
+
+	/**
+	 * 最近一次完整解码的快照, 尚未解码过时为空快照(getSequence() 为 0)
+	 */
+	public TickerColumns current() {
+		return current;
+	}
+
+	/**
+	 * 交给 StockRestApi.tickers(decoder) 的解码器, 返回新发布的快照
+	 */
+	public StreamDecoder<TickerColumns> decoder() {
+		return decoder;
+	}
+
+	/**
+	 * 解码一次 tickers 响应并发布. 解析失败时抛出异常, current() 不变
+	 */
+	public synchronized TickerColumns update(InputStream in) throws IOException {
+		TickerColumns next = current == buffers[0] ? buffers[1] : buffers[0];
+		next.beginWrite();
+		try {
+			decode(in, next);
+			// 在写入区间内, 校验通过的读取方不会看到上一次轮询的序号与接收时间
+			next.sequence = sequence + 1;
+			next.receivedNanos = DateUtil.nanoTime();
+		} finally {
+			next.endWrite();
+		}
+		sequence = next.sequence;
+		current = next;
+		return next;
+	}
+
+	private void decode(InputStream in, TickerColumns columns) throws IOException {
+		try (JsonScanner scanner = JsonScanner.open(in)) {
+			scanner.skipWhitespace();
+			scanner.expect('{');
+			while (true) {
+				scanner.skipWhitespace();
+				if (scanner.current() == ',') {
+					scanner.next();
+					scanner.skipWhitespace();
+				}
+				if (scanner.current() == '}') {
+					scanner.next();
+					return;
+				}
+				int length = scanner.readAscii(key);
+				scanner.skipWhitespace();
+				scanner.expect(':');
+				scanner.skipWhitespace();
+				int id = length <= key.length ? symbols.idOf(key, 0, length) : SymbolRegistry.NOT_FOUND;
+				if (id == SymbolRegistry.NOT_FOUND || scanner.current() != '{') {
+					unknownSymbols++;
+					scanner.skipValue();
+					continue;
+				}
+				readTicker(scanner, columns, id);
+			}
+		}
+	}
+
+	private static void readTicker(JsonScanner scanner, TickerColumns columns, int id) throws IOException {
+		PairScale scale = columns.scale(id);
+		int priceScale = scale.getPriceScale();
+		// 没有 result 字段时视为成功
+		boolean result = true;
+		long last = 0;
+		long lowestAsk = 0;
+		long highestBid = 0;
+		long high = 0;
+		long low = 0;
+		long baseVolume = 0;
+		long quoteVolume = 0;
+		long percentChange = 0;
+		int field;
+		while ((field = scanner.nextField(FIELDS)) != END) {
+			switch (field) {
+				case LAST:
+					last = scanner.readFixed(priceScale);
+					break;
+				case LOWEST_ASK:
+					lowestAsk = scanner.readFixed(priceScale);
+					break;
+				case HIGHEST_BID:
+					highestBid = scanner.readFixed(priceScale);
+					break;
+				case HIGH_24HR:
+					high = scanner.readFixed(priceScale);
+					break;
+				case LOW_24HR:
+					low = scanner.readFixed(priceScale);
+					break;
+				case BASE_VOLUME:
+					baseVolume = scanner.readFixedSaturated(PairScale.TICKER_VOLUME_SCALE);
+					break;
+				case QUOTE_VOLUME:
+					quoteVolume = scanner.readFixedSaturated(PairScale.TICKER_VOLUME_SCALE);
+					break;
+				case PERCENT_CHANGE:
+					percentChange = scanner.readFixed(PairScale.PERCENT_SCALE);
+					break;
+				case RESULT:
+					result = scanner.readTrue();
+					break;
+				default:
+					scanner.skipValue();
+			}
+		}
+		columns.last[id] = last;
+		columns.lowestAsk[id] = lowestAsk;
+		columns.highestBid[id] = highestBid;
+		columns.high24hr[id] = high;
+		columns.low24hr[id] = low;
+		columns.baseVolume[id] = baseVolume;
+		columns.quoteVolume[id] = quoteVolume;
+		columns.percentChange[id] = percentChange;
+		if (result && !columns.present[id]) {
+			columns.present[id] = true;
+			columns.count++;
+		}
+	}
+
+	/** 已解码的快照数 **/
+	public synchronized long getSequence() {
+		return sequence;
+	}
+
+	/** 响应中未注册而跳过的交易对累计数 **/
+	public synchronized long getUnknownSymbols() {
+		return unknownSymbols;
+	}
+}
@@ -0,0 +1,392 @@
+package com.gate.rest.market;
+
+import com.gate.rest.base.PollerConfig;
+import com.gate.rest.util.DateUtil;
+import com.gate.rest.util.JsonScanner;
+import com.gate.rest.util.StreamDecoder;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/30 上午10:00
+ * @description：tradeHistory 的增量同步. 每次响应是最近的一批成交(约 80 笔), 按成交 id 与上次同步到的 id 比较,
+ * 只把新的成交追加到该交易对的 TradeTape, 重叠部分丢弃.
+ * <pre>
+ * - 缺口: 已经同步过且本次响应中没有任何不大于上次 id 的成交, 即两次窗口之间没有重叠, 中间的成交可能漏掉了
+ * - 间隔: 按新成交速率(上升立即采用, 下降按 EWMA)选择间隔, 使每次窗口中新成交约占 tradeWindowFill, 没有新成交时逐步放慢到最大间隔;
+ *   出现缺口时立即改为最小间隔. 间隔通过 MarketPoller.retarget 替代按内容变化的调整
+ * </pre>
+ * <pre>
+ * TradeSync sync = new TradeSync(symbols, config);
+ * MarketPoller poller = new MarketPoller(api, symbols, config, sync);
+ * sync.attach(poller);
+ * poller.subscribe(MarketPoller.Channel.TRADE_HISTORY, "eth_usdt");
+ * poller.start();
+ * </pre>
+ * 也可以不经过 MarketPoller, 直接 api.tradeHistory(symbol, sync.decoder(id))
+ * @modified By：
+ * @version: $
+ */
+@Log4j2
+public class TradeSync implements MarketPoller.Listener, MeterBinder {
+
+	/**
+	 * 有新成交追加到 tape 后在同步线程上回调, 例如 CandleAggregator
+	 */
+	public interface Listener {
+		void onTrades(int symbolId, TradeTape tape, int fresh);
+
+		/**
+		 * 每次成功同步后回调(包括没有新成交时), syncedMillis 为处理响应时的 DateUtil.currentTimeMillis(),
+		 * 此前发生的成交都已在 tape 中(缺口除外). 默认有新成交时转给 onTrades
+		 */
+		default void onSynced(int symbolId, TradeTape tape, int fresh, long syncedMillis) {
+			if (fresh > 0) {
+				onTrades(symbolId, tape, fresh);
+			}
+		}
+	}
+
+	private static final int DATA = 0;
+	private static final int RESULT = 1;
+	private static final int END = -2;
+	private static final int[] FIELDS = JsonScanner.hashes("data", "result");
+
+	private static final int TRADE_ID = 0;
+	private static final int TIMESTAMP = 1;
+	private static final int TYPE = 2;
+	private static final int RATE = 3;
+	private static final int AMOUNT = 4;
+	private static final int[] TRADE_FIELDS = JsonScanner.hashes("tradeID", "timestamp", "type", "rate", "amount");
+
+	/**
+	 * 一个交易对的成交记录与解码用的临时数组, 同一交易对的同步串行执行
+	 */
+	private static final class State {
+		final TradeTape tape;
+		final byte[] type = new byte[8];
+		long[] ids = new long[128];
+		long[] timestamps = new long[128];
+		long[] rates = new long[128];
+		long[] amounts = new long[128];
+		boolean[] buys = new boolean[128];
+		int[] order = new int[128];
+		int count;
+		/** 本次响应与上次没有重叠 **/
+		boolean gap;
+		/** 见过的最大窗口 **/
+		int window;
+		/** 新成交速率, 笔/秒 **/
+		double rate;
+		long lastNanos;
+
+		State(int capacity) {
+			tape = new TradeTape(capacity);
+		}
+
+		void add(long id, long timestamp, long price, long amount, boolean buy) {
+			if (count == ids.length) {
+				int n = count * 2;
+				ids = Arrays.copyOf(ids, n);
+				timestamps = Arrays.copyOf(timestamps, n);
+				rates = Arrays.copyOf(rates, n);
+				amounts = Arrays.copyOf(amounts, n);
+				buys = Arrays.copyOf(buys, n);
+				order = new int[n];
+			}
+			ids[count] = id;
+			timestamps[count] = timestamp;
+			rates[count] = price;
+			amounts[count] = amount;
+			buys[count] = buy;
+			count++;
+		}
+	}
+
+	private final SymbolRegistry symbols;
+	private final PollerConfig config;
+	private final State[] states;
+	private final LongAdder trades = new LongAdder();
+	private final LongAdder gaps = new LongAdder();
+	private final LongAdder duplicates = new LongAdder();
+	private volatile MarketPoller poller;
+	private volatile Listener listener;
+
+	public TradeSync(SymbolRegistry symbols, PollerConfig config) {
+		if (config.getTradeWindowFill() <= 0 || config.getTradeWindowFill() > 1) {
+			throw new IllegalArgumentException("tradeWindowFill must be in (0, 1]: " + config.getTradeWindowFill());
+		}
+		this.symbols = symbols;
+		this.config = config;
+		this.states = new State[symbols.size()];
+	}
+
+	/**
+	 * 同步结果用于调整该轮询器上 TRADE_HISTORY 任务的间隔
+	 */
+	public void attach(MarketPoller poller) {
+		this.poller = poller;
+	}
+
+	public void setListener(Listener listener) {
+		this.listener = listener;
+	}
+
+	public SymbolRegistry getSymbols() {
+		return symbols;
+	}
+
+	private synchronized State state(int symbolId) {
+		State state = states[symbolId];
+		if (state == null) {
+			state = new State(config.getTradeTapeCapacity());
+			states[symbolId] = state;
+		}
+		return state;
+	}
+
+	/** 该交易对的成交记录, 尚未同步过时为空 **/
+	public TradeTape tape(int symbolId) {
+		return state(symbolId).tape;
+	}
+
+	public TradeTape tape(String symbol) {
+		return tape(symbols.require(symbol));
+	}
+
+	/** 新成交速率的估计, 笔/秒 **/
+	public double tradesPerSecond(int symbolId) {
+		State state = state(symbolId);
+		synchronized (state) {
+			return state.rate;
+		}
+	}
+
+	@Override
+	public void onData(MarketPoller.Channel channel, int symbolId, String body) {
+		if (channel != MarketPoller.Channel.TRADE_HISTORY) {
+			return;
+		}
+		try {
+			apply(symbolId, new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+		} catch (IOException e) {
+			log.warn("tradeHistory of {} not synced: {}", symbols.name(symbolId), e.toString());
+		}
+	}
+
+	/**
+	 * 交给 StockRestApi.tradeHistory(symbol, decoder) 的解码器, 返回新成交数
+	 */
+	public StreamDecoder<Integer> decoder(int symbolId) {
+		return in -> apply(symbolId, in);
+	}
+
+	/**
+	 * 同步一次 tradeHistory 响应, 返回新追加的成交数. result 为 false 的响应不改变记录; 解析失败时抛出异常, 记录不变
+	 */
+	public int apply(int symbolId, InputStream in) throws IOException {
+		long syncedMillis = DateUtil.currentTimeMillis();
+		State state = state(symbolId);
+		long targetMillis;
+		int fresh;
+		synchronized (state) {
+			state.count = 0;
+			if (!decode(in, state, symbols.priceScale(symbolId), symbols.volumeScale(symbolId))) {
+				return 0;
+			}
+			fresh = merge(state);
+			targetMillis = target(state, fresh);
+		}
+		MarketPoller target = poller;
+		if (target != null && targetMillis >= 0) {
+			try {
+				target.retarget(MarketPoller.Channel.TRADE_HISTORY, symbolId, targetMillis);
+			} catch (IllegalArgumentException e) {
+				// 该交易对的成交不是由这个轮询器取得的
+			}
+		}
+		Listener onTrades = listener;
+		if (onTrades != null) {
+			onTrades.onSynced(symbolId, state.tape, fresh, syncedMillis);
+		}
+		return fresh;
+	}
+
+	/**
+	 * 按 id 从小到大追加大于上次 id 的成交, 返回追加数
+	 */
+	private int merge(State state) {
+		int n = state.count;
+		int[] order = state.order;
+		long[] ids = state.ids;
+		// 响应按 id 从大到小, 这里不依赖顺序, 插入排序对已逆序的小数组也很快
+		for (int i = 0; i < n; i++) {
+			int k = i;
+			while (k > 0 && ids[order[k - 1]] > ids[i]) {
+				order[k] = order[k - 1];
+				k--;
+			}
+			order[k] = i;
+		}
+		TradeTape tape = state.tape;
+		long last = tape.getLastTradeId();
+		long appended = last;
+		int fresh = 0;
+		int overlap = 0;
+		for (int k = 0; k < n; k++) {
+			int i = order[k];
+			if (ids[i] <= last) {
+				overlap++;
+			} else if (ids[i] > appended) {
+				tape.append(ids[i], state.timestamps[i], state.rates[i], state.amounts[i], state.buys[i]);
+				appended = ids[i];
+				fresh++;
+			}
+		}
+		state.gap = last >= 0 && n > 0 && overlap == 0;
+		if (state.gap) {
+			tape.recordGap();
+			gaps.increment();
+		}
+		if (overlap > 0) {
+			tape.recordDuplicates(overlap);
+			duplicates.add(overlap);
+		}
+		trades.add(fresh);
+		state.window = Math.max(state.window, n);
+		return fresh;
+	}
+
+	/**
+	 * 下次请求的目标间隔, 毫秒; 首次同步时为 -1, 不调整
+	 */
+	private long target(State state, int fresh) {
+		long now = DateUtil.nanoTime();
+		long previous = state.lastNanos;
+		state.lastNanos = now;
+		if (previous == 0) {
+			return -1;
+		}
+		double seconds = Math.max(1e-3, (now - previous) / 1e9);
+		double observed = fresh / seconds;
+		if (state.gap) {
+			// 缺口时实际成交数至少是 fresh, 速率只升不降
+			state.rate = Math.max(state.rate, observed);
+			return 0;
+		}
+		// 速率上升立即采用, 下降按 EWMA 平滑: 宁可多请求也不漏成交
+		state.rate = observed >= state.rate ? observed : state.rate + config.getEwmaAlpha() * (observed - state.rate);
+		if (state.rate <= 0) {
+			return Long.MAX_VALUE;
+		}
+		double millis = config.getTradeWindowFill() * state.window / state.rate * 1000;
+		return millis >= Long.MAX_VALUE ? Long.MAX_VALUE : (long) millis;
+	}
+
+	/**
+	 * {"result":"true","data":[{"tradeID":"1","timestamp":"1700000114","type":"sell","rate":"1799.65","amount":"1.1"},...]}
+	 */
+	private boolean decode(InputStream in, State state, int priceScale, int volumeScale) throws IOException {
+		boolean result = true;
+		try (JsonScanner scanner = JsonScanner.open(in)) {
+			scanner.skipWhitespace();
+			if (scanner.current() != '{') {
+				throw scanner.unexpected();
+			}
+			int field;
+			while ((field = scanner.nextField(FIELDS)) != END) {
+				switch (field) {
+					case DATA:
+						readTrades(scanner, state, priceScale, volumeScale);
+						break;
+					case RESULT:
+						result = scanner.readTrue();
+						break;
+					default:
+						scanner.skipValue();
+				}
+			}
+		}
+		return result;
+	}
+
+	private static void readTrades(JsonScanner scanner, State state, int priceScale, int volumeScale) throws IOException {
+		if (scanner.current() == 'n') {
+			scanner.skipValue();
+			return;
+		}
+		scanner.expect('[');
+		scanner.skipWhitespace();
+		while (scanner.current() != ']') {
+			long id = -1;
+			long timestamp = 0;
+			long rate = 0;
+			long amount = 0;
+			boolean buy = false;
+			int field;
+			while ((field = scanner.nextField(TRADE_FIELDS)) != END) {
+				switch (field) {
+					case TRADE_ID:
+						id = scanner.readFixed(0);
+						break;
+					case TIMESTAMP:
+						timestamp = TimeUnit.SECONDS.toMillis(scanner.readFixed(0));
+						break;
+					case TYPE:
+						buy = scanner.readAscii(state.type) > 0 && state.type[0] == 'b';
+						break;
+					case RATE:
+						rate = scanner.readFixed(priceScale);
+						break;
+					case AMOUNT:
+						amount = scanner.readFixed(volumeScale);
+						break;
+					default:
+						scanner.skipValue();
+				}
+			}
+			if (id >= 0) {
+				state.add(id, timestamp, rate, amount, buy);
+			}
+			scanner.skipWhitespace();
+			if (scanner.current() == ',') {
+				scanner.next();
+				scanner.skipWhitespace();
+			}
+		}
+		scanner.next();
+	}
+
+	/** 累计追加的新成交数 **/
+	public long getTrades() {
+		return trades.sum();
+	}
+
+	/** 累计缺口数 **/
+	public long getGaps() {
+		return gaps.sum();
+	}
+
+	/** 因窗口重叠丢弃的成交数 **/
+	public long getDuplicates() {
+		return duplicates.sum();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("gate.trades.synced", this, TradeSync::getTrades).register(registry);
+		FunctionCounter.builder("gate.trades.gaps", this, TradeSync::getGaps).register(registry);
+		FunctionCounter.builder("gate.trades.duplicates", this, TradeSync::getDuplicates).register(registry);
+	}
+}
@@ -0,0 +1,126 @@
+package com.gate.rest.market;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/30 上午9:30
+ * @description：一个交易对去重后的成交记录, 按成交 id 递增保存在环形缓冲中, 写满后覆盖最早的成交.
+ * 每笔成交有一个从 0 开始的序号, 读取方记住读到的序号即可增量读取:
+ * <pre>
+ * long seq = Math.max(cursor, tape.firstSequence());
+ * for (; seq < tape.getTotal(); seq++) {
+ *     long price = tape.price(seq);
+ * }
+ * cursor = seq;
+ * </pre>
+ * 价格与数量按交易对的小数位数保存. 由 TradeSync 写入, 读写都加锁
+ * @modified By：
+ * @version: $
+ */
+public final class TradeTape {
+
+	private final int mask;
+	private final long[] tradeId;
+	private final long[] timestampMillis;
+	private final long[] price;
+	private final long[] amount;
+	private final boolean[] buy;
+	/** 累计写入的成交数, 即下一笔成交的序号 **/
+	private long total;
+	private long lastTradeId = -1;
+	private long gaps;
+	private long duplicates;
+
+	TradeTape(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("capacity must be positive: " + capacity);
+		}
+		int size = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+		mask = size - 1;
+		tradeId = new long[size];
+		timestampMillis = new long[size];
+		price = new long[size];
+		amount = new long[size];
+		buy = new boolean[size];
+	}
+
+	synchronized void append(long id, long timestamp, long rate, long size, boolean isBuy) {
+		int i = (int) (total & mask);
+		tradeId[i] = id;
+		timestampMillis[i] = timestamp;
+		price[i] = rate;
+		amount[i] = size;
+		buy[i] = isBuy;
+		total++;
+		lastTradeId = id;
+	}
+
+	synchronized void recordGap() {
+		gaps++;
+	}
+
+	synchronized void recordDuplicates(int n) {
+		duplicates += n;
+	}
+
+	private int index(long sequence) {
+		if (sequence < total - tradeId.length || sequence >= total || sequence < 0) {
+			throw new IndexOutOfBoundsException("sequence " + sequence + " not in [" + firstSequence() + ", " + total + ")");
+		}
+		return (int) (sequence & mask);
+	}
+
+	public int capacity() {
+		return tradeId.length;
+	}
+
+	/** 缓冲中的成交数 **/
+	public synchronized int size() {
+		return (int) Math.min(total, tradeId.length);
+	}
+
+	/** 缓冲中最早一笔成交的序号 **/
+	public synchronized long firstSequence() {
+		return Math.max(0, total - tradeId.length);
+	}
+
+	/** 累计写入的成交数, 也是下一笔成交的序号 **/
+	public synchronized long getTotal() {
+		return total;
+	}
+
+	/** 已写入的最大成交 id, 没有时为 -1 **/
+	public synchronized long getLastTradeId() {
+		return lastTradeId;
+	}
+
+	/** 两次响应之间没有重叠(可能漏掉成交)的次数 **/
+	public synchronized long getGaps() {
+		return gaps;
+	}
+
+	/** 因与之前的响应重叠而丢弃的成交数 **/
+	public synchronized long getDuplicates() {
+		return duplicates;
+	}
+
+	public synchronized long tradeId(long sequence) {
+		return tradeId[index(sequence)];
+	}
+
+	public synchronized long timestampMillis(long sequence) {
+		return timestampMillis[index(sequence)];
+	}
+
+	public synchronized long price(long sequence) {
+		return price[index(sequence)];
+	}
+
+	public synchronized long amount(long sequence) {
+		return amount[index(sequence)];
+	}
+
+	/** 主动买入为 true, 主动卖出为 false **/
+	public synchronized boolean buy(long sequence) {
+		return buy[index(sequence)];
+	}
+}
@@ -0,0 +1,108 @@
+package com.gate.rest.stock;
+
+import com.gate.rest.base.GateConfig;
+
+import java.util.concurrent.CompletableFuture;
+
+
+/**
+ * 非阻塞版本的 {@link IStockRestApi}, 所有方法立即返回, 结果通过 CompletableFuture 获取.
+ * 请求失败时 future 以异常结束
+ *
+ * @author hfg
+ */
+public interface IStockRestApiAsync {
+	/**
+	 * 获取交易对
+	 *
+	 * @return
+	 */
+	CompletableFuture<String> pairs();
+
+	/**
+	 * 获取信息
+	 *
+	 * @return
+	 */
+	CompletableFuture<String> marketInfo();
+
+	/**
+	 * 返回所有系统支持的交易市场的详细行情和币种信息，包括币种名，市值，供应量，最新价格，涨跌趋势，价格曲线等。
+	 *
+	 * @return
+	 */
+	CompletableFuture<String> marketList();
+
+	/**
+	 * 返回系统支持的所有交易对的 最新，最高，最低 交易行情和交易量，每20秒钟更新:
+	 * @return
+	 */
+	CompletableFuture<String> tickers();
+
+	/**
+	 * 交易对
+	 *
+	 * @param symbol
+	 * @return
+	 */
+	CompletableFuture<String> ticker(String symbol);
+
+	/**
+	 * 当前市场深度 API
+	 * 返回当前市场深度（委托挂单），其中 asks 是委卖单, bids 是委买单。
+	 * @param symbol
+	 * @return
+	 */
+	CompletableFuture<String> orderBook(String symbol);
+
+	/**
+	 * 返回最新80条历史成交记录
+	 *
+	 * @param symbol
+	 * @return
+	 */
+	CompletableFuture<String> tradeHistory(String symbol);
+
+	/**
+	 * 获取钱包
+	 *
+	 * @return
+	 */
+	CompletableFuture<String> balance(GateConfig gateConfig);
+
+	CompletableFuture<String> depositAddress(GateConfig gateConfig, String symbol);
+
+	/**
+	 * 获取充值提现历史
+	 *
+	 * @param startTime
+	 * @param endTime
+	 * @return
+	 */
+	CompletableFuture<String> depositsWithdrawals(GateConfig gateConfig, String startTime, String endTime);
+
+	/**
+	 * 购买
+	 *
+	 * @param currencyPair
+	 * @param rate
+	 * @param amount
+	 * @return
+	 */
+	CompletableFuture<String> buy(GateConfig gateConfig, String currencyPair, String rate, String amount);
+
+	CompletableFuture<String> sell(GateConfig gateConfig, String currencyPair, String rate, String amount);
+
+	CompletableFuture<String> cancelOrder(String orderNumber, String currencyPair);
+
+	CompletableFuture<String> cancelAllOrders(String type, String currencyPair);
+
+	CompletableFuture<String> getOrder(String orderNumber, String currencyPair);
+
+	CompletableFuture<String> openOrders();
+
+	CompletableFuture<String> myTradeHistory(String currencyPair, String orderNumber);
+
+	CompletableFuture<String> withdraw(String currency, String amount, String address);
+
+}
@@ -0,0 +1,16 @@
+package com.gate.rest.stock;
+
+import org.apache.http.HttpException;
+
+import java.io.IOException;
+
+/**
+ * 针对单个交易对的阻塞调用, 如 IStockRestApi::ticker
+ *
+ * @author hfg
+ */
+@FunctionalInterface
+public interface SymbolCall {
+
+	String call(IStockRestApi api, String symbol) throws HttpException, IOException;
+}
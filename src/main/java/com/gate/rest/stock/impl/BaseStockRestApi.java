@@ -0,0 +1,153 @@
+package com.gate.rest.stock.impl;
+
+import com.gate.rest.base.GateConfig;
+import com.gate.rest.util.StringUtil;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @Author huang_fengge
+ * @Description //接口地址及请求参数构建, 由同步 StockRestApi 与异步 StockRestApiAsync 共用
+ * @Date 上午9:40 2026/10/19
+**/
+public abstract class BaseStockRestApi {
+
+
+	protected String url_pre;
+
+
+
+	protected BaseStockRestApi(String url_prex){
+		this.url_pre = url_prex;
+	}
+
+
+
+	public final String PAIRS_URL = "/api2/1/pairs";
+
+
+	public final String MARKETINFO_URL = "/api2/1/marketinfo";
+
+
+	public final String MARKETLIST_URL = "/api2/1/marketlist";
+
+
+	public final String TICKERS_URL = "/api2/1/tickers";
+
+	
+	public final String TICKER_URL = "/api2/1/ticker";
+
+	
+	public final String ORDERBOOK_URL = "/api2/1/orderBook";
+
+
+	public final String BALANCE_URL = "/api2/1/private/balances";
+
+	
+	protected final String DEPOSITADDRESS_URL = "/api2/1/private/depositAddress";
+
+	
+	protected final String DEPOSITESWITHDRAWALS_URL = "/api2/1/private/depositsWithdrawals";
+
+	
+	protected final String BUY_URL = "/api2/1/private/buy";
+
+	
+	protected final String SELL_URL = "/api2/1/private/sell";
+
+
+	protected final String CANCELORDER_URL = "/api2/1/private/cancelOrder";
+
+	
+	protected final String CANCELALLORDERS_URL = "/api2/1/private/cancelAllOrders";
+
+	
+	protected final String GETORDER_URL = "/api2/1/private/getOrder";
+
+
+	protected final String OPENORDERS_URL = "/api2/1/private/openOrders";
+
+	
+	protected final String TRADEHISTORY_URL = "/api2/1/tradeHistory";
+
+
+	protected final String WITHDRAW_URL = "/api2/1/private/withdraw";
+	
+
+	protected final String MYTRADEHISTORY_URL = "/api2/1/private/tradeHistory";
+
+
+	/**
+	 * 交易对路径参数, 如 /eth_btc. 交易对为空时返回空串
+	 */
+	protected String symbolPath(String symbol) {
+		if(StringUtil.isEmpty(symbol)) {
+			return "";
+		}
+		return "/" + symbol;
+	}
+
+	protected Map<String, String> credentialParams(GateConfig gateConfig) {
+		Map<String, String> params = new HashMap<String, String>();
+		params.putAll(Map.of("key", gateConfig.getKey(), "secret", gateConfig.getSecret()));
+		return params;
+	}
+
+	protected Map<String, String> depositAddressParams(GateConfig gateConfig, String symbol) {
+		Map<String, String> params = credentialParams(gateConfig);
+		params.put("currency", symbol);
+		return params;
+	}
+
+	protected Map<String, String> depositsWithdrawalsParams(GateConfig gateConfig, String startTime, String endTime) {
+		Map<String, String> params = credentialParams(gateConfig);
+		params.put("start", startTime);
+		params.put("end", endTime);
+		return params;
+	}
+
+	/**
+	 * 买入/卖出下单参数
+	 */
+	protected Map<String, String> orderParams(GateConfig gateConfig, String currencyPair, String rate, String amount) {
+		Map<String, String> params = credentialParams(gateConfig);
+		params.put("currencyPair", currencyPair);
+		params.put("rate", rate);
+		params.put("amount", amount);
+		return params;
+	}
+
+	protected Map<String, String> orderNumberParams(String orderNumber, String currencyPair) {
+		Map<String, String> params = new HashMap<String, String>();
+		params.put("orderNumber", orderNumber);
+		params.put("currencyPair", currencyPair);
+		return params;
+	}
+
+	protected Map<String, String> cancelAllOrdersParams(String type, String currencyPair) {
+		Map<String, String> params = new HashMap<String, String>();
+		params.put("type", type);
+		params.put("currencyPair", currencyPair);
+		return params;
+	}
+
+	protected Map<String, String> withdrawParams(String currency, String amount, String address) {
+		Map<String, String> params = new HashMap<String, String>();
+		params.put("currency", currency);
+		params.put("amount", amount);
+		params.put("address", address);
+		return params;
+	}
+
+
+
+	public String getUrl_pre() {
+		return url_pre;
+	}
+
+	public void setUrl_pre(String url_pre) {
+		this.url_pre = url_pre;
+	}
+
+}
@@ -0,0 +1,477 @@
+package com.gate.rest.stock.impl;
+
+import com.gate.rest.base.CacheConfig;
+import com.gate.rest.base.GateConfig;
+import com.gate.rest.stock.IStockRestApi;
+import com.gate.rest.util.CallExecutors;
+import com.gate.rest.util.DateUtil;
+import com.gate.rest.util.SingleFlight;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.log4j.Log4j2;
+import org.apache.http.HttpException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/27 下午2:20
+ * @description：公共行情接口的缓存装饰器, 私有接口直接转发.
+ * <pre>
+ * - 每个接口单独的有效期(CacheConfig), 有效期为 0 的接口不缓存
+ * - 提前刷新: 读取时条目已过有效期的 refreshAheadRatio, 返回当前值并在后台重新加载, 经常读取的条目不会过期, 读取方不阻塞
+ * - 过期后读取时同步加载, 并发的相同加载合并为一次(SingleFlight)
+ * - 加载失败或返回 result=false 时, 在 maxStaleMillis 内继续返回旧值; 错误响应不缓存
+ * - 条目数超过 maxEntries 时淘汰最久未读取的
+ * - pairs / marketInfo 成功加载后写入 persistDir, 重启后按文件修改时间计算剩余有效期, 不必重新请求
+ * - 有效期按 DateUtil.nanoTime() 计算, 回放时跟随虚拟时间; 加载耗时指标仍为真实时间
+ * 指标见 bindTo(MeterRegistry): gate.cache.hits / misses / stale / refreshes / failures / evictions / load
+ * </pre>
+ * @modified By：
+ * @version: $
+ */
+@Log4j2
+public class CachingStockRestApi implements IStockRestApi, MeterBinder {
+
+	public enum Endpoint {
+		PAIRS, MARKET_INFO, MARKET_LIST, TICKERS, TICKER, ORDER_BOOK, TRADE_HISTORY
+	}
+
+	private static final class Key {
+		final Endpoint endpoint;
+		final String symbol;
+
+		Key(Endpoint endpoint, String symbol) {
+			this.endpoint = endpoint;
+			this.symbol = symbol;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key key = (Key) o;
+			return endpoint == key.endpoint && symbol.equals(key.symbol);
+		}
+
+		@Override
+		public int hashCode() {
+			return endpoint.hashCode() * 31 + symbol.hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return symbol.isEmpty() ? endpoint.name() : endpoint + "/" + symbol;
+		}
+	}
+
+	private static final class Entry {
+		final String value;
+		final long loadedAt;
+		final AtomicBoolean refreshing = new AtomicBoolean();
+		volatile long lastAccess;
+		volatile long retryAt;
+
+		Entry(String value, long loadedAt) {
+			this.value = value;
+			this.loadedAt = loadedAt;
+			this.lastAccess = loadedAt;
+			this.retryAt = loadedAt;
+		}
+	}
+
+	/** 返回 result=false 的响应, 不缓存 **/
+	private static final class ErrorResponse extends IOException {
+		final String body;
+
+		ErrorResponse(String body) {
+			super("error response");
+			this.body = body;
+		}
+	}
+
+	private final IStockRestApi delegate;
+	private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+	private final SingleFlight<Key, String> loads = new SingleFlight<>();
+	private final long[] ttlNanos = new long[Endpoint.values().length];
+	private final double refreshAheadRatio;
+	private final long refreshRetryNanos;
+	private final long maxStaleNanos;
+	private final int maxEntries;
+	private final Path persistDir;
+	/** 为空时使用 CallExecutors.shared() **/
+	private volatile Executor refreshExecutor;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder staleHits = new LongAdder();
+	private final LongAdder refreshes = new LongAdder();
+	private final LongAdder failures = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder loadCount = new LongAdder();
+	private final LongAdder loadNanos = new LongAdder();
+
+	public CachingStockRestApi(IStockRestApi delegate) {
+		this(delegate, new CacheConfig());
+	}
+
+	public CachingStockRestApi(IStockRestApi delegate, CacheConfig config) {
+		this.delegate = Objects.requireNonNull(delegate, "delegate");
+		ttlNanos[Endpoint.PAIRS.ordinal()] = TimeUnit.MILLISECONDS.toNanos(config.getPairsTtlMillis());
+		ttlNanos[Endpoint.MARKET_INFO.ordinal()] = TimeUnit.MILLISECONDS.toNanos(config.getMarketInfoTtlMillis());
+		ttlNanos[Endpoint.MARKET_LIST.ordinal()] = TimeUnit.MILLISECONDS.toNanos(config.getMarketListTtlMillis());
+		ttlNanos[Endpoint.TICKERS.ordinal()] = TimeUnit.MILLISECONDS.toNanos(config.getTickersTtlMillis());
+		ttlNanos[Endpoint.TICKER.ordinal()] = TimeUnit.MILLISECONDS.toNanos(config.getTickerTtlMillis());
+		ttlNanos[Endpoint.ORDER_BOOK.ordinal()] = TimeUnit.MILLISECONDS.toNanos(config.getOrderBookTtlMillis());
+		ttlNanos[Endpoint.TRADE_HISTORY.ordinal()] = TimeUnit.MILLISECONDS.toNanos(config.getTradeHistoryTtlMillis());
+		if (config.getRefreshAheadRatio() <= 0 || config.getRefreshAheadRatio() > 1) {
+			throw new IllegalArgumentException("refreshAheadRatio must be in (0, 1]: " + config.getRefreshAheadRatio());
+		}
+		if (config.getMaxEntries() <= 0) {
+			throw new IllegalArgumentException("maxEntries must be positive: " + config.getMaxEntries());
+		}
+		this.refreshAheadRatio = config.getRefreshAheadRatio();
+		this.refreshRetryNanos = TimeUnit.MILLISECONDS.toNanos(config.getRefreshRetryMillis());
+		this.maxStaleNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, config.getMaxStaleMillis()));
+		this.maxEntries = config.getMaxEntries();
+		String dir = config.getPersistDir();
+		this.persistDir = dir == null || dir.isEmpty() ? null : Paths.get(dir);
+		restore(Endpoint.PAIRS);
+		restore(Endpoint.MARKET_INFO);
+	}
+
+	@Override
+	public String pairs() throws HttpException, IOException {
+		return cached(Endpoint.PAIRS, "", delegate::pairs);
+	}
+
+	@Override
+	public String marketInfo() throws HttpException, IOException {
+		return cached(Endpoint.MARKET_INFO, "", delegate::marketInfo);
+	}
+
+	@Override
+	public String marketList() throws HttpException, IOException {
+		return cached(Endpoint.MARKET_LIST, "", delegate::marketList);
+	}
+
+	@Override
+	public String tickers() throws HttpException, IOException {
+		return cached(Endpoint.TICKERS, "", delegate::tickers);
+	}
+
+	@Override
+	public String ticker(String symbol) throws HttpException, IOException {
+		return cached(Endpoint.TICKER, symbol, () -> delegate.ticker(symbol));
+	}
+
+	@Override
+	public String orderBook(String symbol) throws HttpException, IOException {
+		return cached(Endpoint.ORDER_BOOK, symbol, () -> delegate.orderBook(symbol));
+	}
+
+	@Override
+	public String tradeHistory(String symbol) throws HttpException, IOException {
+		return cached(Endpoint.TRADE_HISTORY, symbol, () -> delegate.tradeHistory(symbol));
+	}
+
+	@Override
+	public String balance(GateConfig gateConfig) throws HttpException, IOException {
+		return delegate.balance(gateConfig);
+	}
+
+	@Override
+	public String depositAddress(GateConfig gateConfig, String symbol) throws HttpException, IOException {
+		return delegate.depositAddress(gateConfig, symbol);
+	}
+
+	@Override
+	public String depositsWithdrawals(GateConfig gateConfig, String startTime, String endTime) throws HttpException, IOException {
+		return delegate.depositsWithdrawals(gateConfig, startTime, endTime);
+	}
+
+	@Override
+	public String buy(GateConfig gateConfig, String currencyPair, String rate, String amount) throws HttpException, IOException {
+		return delegate.buy(gateConfig, currencyPair, rate, amount);
+	}
+
+	@Override
+	public String sell(GateConfig gateConfig, String currencyPair, String rate, String amount) throws HttpException, IOException {
+		return delegate.sell(gateConfig, currencyPair, rate, amount);
+	}
+
+	@Override
+	public String cancelOrder(String orderNumber, String currencyPair) throws HttpException, IOException {
+		return delegate.cancelOrder(orderNumber, currencyPair);
+	}
+
+	@Override
+	public String cancelAllOrders(String type, String currencyPair) throws HttpException, IOException {
+		return delegate.cancelAllOrders(type, currencyPair);
+	}
+
+	@Override
+	public String getOrder(String orderNumber, String currencyPair) throws HttpException, IOException {
+		return delegate.getOrder(orderNumber, currencyPair);
+	}
+
+	@Override
+	public String openOrders() throws HttpException, IOException {
+		return delegate.openOrders();
+	}
+
+	@Override
+	public String myTradeHistory(String currencyPair, String orderNumber) throws HttpException, IOException {
+		return delegate.myTradeHistory(currencyPair, orderNumber);
+	}
+
+	@Override
+	public String withdraw(String currency, String amount, String address) throws HttpException, IOException {
+		return delegate.withdraw(currency, amount, address);
+	}
+
+	private String cached(Endpoint endpoint, String symbol, SingleFlight.Call<String> loader) throws HttpException, IOException {
+		long ttl = ttlNanos[endpoint.ordinal()];
+		if (ttl <= 0) {
+			return loader.call();
+		}
+		Key key = new Key(endpoint, symbol);
+		long now = DateUtil.nanoTime();
+		Entry entry = entries.get(key);
+		if (entry != null) {
+			long age = now - entry.loadedAt;
+			if (age < ttl) {
+				hits.increment();
+				entry.lastAccess = now;
+				if (age >= (long) (ttl * refreshAheadRatio) && now - entry.retryAt >= 0
+						&& entry.refreshing.compareAndSet(false, true)) {
+					refreshAsync(key, entry, loader);
+				}
+				return entry.value;
+			}
+		}
+		misses.increment();
+		try {
+			return loads.execute(key, () -> load(key, loader));
+		} catch (HttpException | IOException | RuntimeException e) {
+			if (entry != null && now - entry.loadedAt < ttl + maxStaleNanos) {
+				staleHits.increment();
+				entry.lastAccess = now;
+				return entry.value;
+			}
+			if (e instanceof ErrorResponse) {
+				return ((ErrorResponse) e).body;
+			}
+			throw e;
+		}
+	}
+
+	private void refreshAsync(Key key, Entry entry, SingleFlight.Call<String> loader) {
+		Runnable refresh = () -> {
+			try {
+				loads.execute(key, () -> load(key, loader));
+				refreshes.increment();
+			} catch (Throwable t) {
+				entry.retryAt = DateUtil.nanoTime() + refreshRetryNanos;
+				log.warn("refresh {} failed: {}", key, t.toString());
+			} finally {
+				entry.refreshing.set(false);
+			}
+		};
+		Executor executor = refreshExecutor == null ? CallExecutors.shared() : refreshExecutor;
+		try {
+			executor.execute(refresh);
+		} catch (RejectedExecutionException e) {
+			entry.refreshing.set(false);
+		}
+	}
+
+	private String load(Key key, SingleFlight.Call<String> loader) throws HttpException, IOException {
+		long start = System.nanoTime();
+		String value;
+		try {
+			value = loader.call();
+		} catch (HttpException | IOException | RuntimeException e) {
+			failures.increment();
+			throw e;
+		} finally {
+			loadCount.increment();
+			loadNanos.add(System.nanoTime() - start);
+		}
+		if (value == null || isErrorResponse(value)) {
+			failures.increment();
+			throw new ErrorResponse(value);
+		}
+		store(key, new Entry(value, DateUtil.nanoTime()));
+		if (persistDir != null && (key.endpoint == Endpoint.PAIRS || key.endpoint == Endpoint.MARKET_INFO)) {
+			persist(key.endpoint, value);
+		}
+		return value;
+	}
+
+	/**
+	 * 交易所的错误以 HTTP 200 + "result":"false" 返回
+	 */
+	static boolean isErrorResponse(String body) {
+		return body.contains("\"result\":\"false\"") || body.contains("\"result\":false");
+	}
+
+	private void store(Key key, Entry entry) {
+		entries.put(key, entry);
+		while (entries.size() > maxEntries) {
+			Key oldest = null;
+			long oldestAccess = 0;
+			for (Map.Entry<Key, Entry> e : entries.entrySet()) {
+				if (e.getKey() != key && (oldest == null || e.getValue().lastAccess - oldestAccess < 0)) {
+					oldest = e.getKey();
+					oldestAccess = e.getValue().lastAccess;
+				}
+			}
+			if (oldest == null) {
+				return;
+			}
+			if (entries.remove(oldest) != null) {
+				evictions.increment();
+			}
+		}
+	}
+
+	private Path persistPath(Endpoint endpoint) {
+		return persistDir.resolve(endpoint == Endpoint.PAIRS ? "pairs.json" : "marketInfo.json");
+	}
+
+	private void persist(Endpoint endpoint, String value) {
+		Path path = persistPath(endpoint);
+		try {
+			Files.createDirectories(persistDir);
+			Path tmp = Files.createTempFile(persistDir, path.getFileName().toString(), ".tmp");
+			Files.write(tmp, value.getBytes(StandardCharsets.UTF_8));
+			Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			log.warn("persist {} to {} failed: {}", endpoint, path, e.toString());
+		}
+	}
+
+	/**
+	 * 读取落盘的 pairs / marketInfo, 按文件修改时间计算已缓存时长
+	 */
+	private void restore(Endpoint endpoint) {
+		if (persistDir == null || ttlNanos[endpoint.ordinal()] <= 0) {
+			return;
+		}
+		Path path = persistPath(endpoint);
+		if (!Files.isRegularFile(path)) {
+			return;
+		}
+		try {
+			String value = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+			long ageMillis = Math.max(0, System.currentTimeMillis() - Files.getLastModifiedTime(path).toMillis());
+			entries.put(new Key(endpoint, ""), new Entry(value, DateUtil.nanoTime() - TimeUnit.MILLISECONDS.toNanos(ageMillis)));
+		} catch (IOException e) {
+			log.warn("restore {} from {} failed: {}", endpoint, path, e.toString());
+		}
+	}
+
+	public void invalidate(Endpoint endpoint, String symbol) {
+		entries.remove(new Key(endpoint, symbol == null ? "" : symbol));
+	}
+
+	public void invalidateAll() {
+		entries.clear();
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	public IStockRestApi getDelegate() {
+		return delegate;
+	}
+
+	public Executor getRefreshExecutor() {
+		return refreshExecutor;
+	}
+
+	public void setRefreshExecutor(Executor refreshExecutor) {
+		this.refreshExecutor = refreshExecutor;
+	}
+
+	/** 有效期内直接返回缓存的次数 **/
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/** 无缓存或已过期, 需要同步加载的次数 **/
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/** 加载失败时返回旧值的次数 **/
+	public long getStaleHits() {
+		return staleHits.sum();
+	}
+
+	/** 后台提前刷新成功的次数 **/
+	public long getRefreshes() {
+		return refreshes.sum();
+	}
+
+	/** 加载失败(异常或错误响应)的次数 **/
+	public long getFailures() {
+		return failures.sum();
+	}
+
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	public long getLoadCount() {
+		return loadCount.sum();
+	}
+
+	/** 平均加载耗时, 包括失败的加载 **/
+	public double getAverageLoadMillis() {
+		long count = loadCount.sum();
+		return count == 0 ? 0 : loadNanos.sum() / 1e6 / count;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		counter(registry, "gate.cache.hits", CachingStockRestApi::getHits);
+		counter(registry, "gate.cache.misses", CachingStockRestApi::getMisses);
+		counter(registry, "gate.cache.stale", CachingStockRestApi::getStaleHits);
+		counter(registry, "gate.cache.refreshes", CachingStockRestApi::getRefreshes);
+		counter(registry, "gate.cache.failures", CachingStockRestApi::getFailures);
+		counter(registry, "gate.cache.evictions", CachingStockRestApi::getEvictions);
+		counter(registry, "gate.cache.loads", CachingStockRestApi::getLoadCount);
+		Gauge.builder("gate.cache.load.avg", this, CachingStockRestApi::getAverageLoadMillis)
+				.baseUnit("milliseconds")
+				.register(registry);
+		Gauge.builder("gate.cache.size", this, CachingStockRestApi::size)
+				.register(registry);
+	}
+
+	private void counter(MeterRegistry registry, String name, ToDoubleFunction<CachingStockRestApi> value) {
+		FunctionCounter.builder(name, this, value).register(registry);
+	}
+}
@@ -0,0 +1,366 @@
+package com.gate.rest.stock.impl;
+
+import com.gate.rest.base.GateConfig;
+import com.gate.rest.entity.PairScale;
+import com.gate.rest.stock.IStockRestApi;
+import com.gate.rest.store.TickQuery;
+import com.gate.rest.store.TickRecord;
+import com.gate.rest.store.TickResult;
+import com.gate.rest.util.DateUtil;
+import com.gate.rest.util.FixedPoint;
+import org.apache.http.HttpException;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/11/04 上午10:30
+ * @description：用 TickStore 中的历史行情回答公共行情接口, 当前时间取自 DateUtil.currentTimeMillis()(回放时为 VirtualClock),
+ * 与生产环境一样的 IStockRestApi 调用方(MarketPoller, TickersStore, TradeSync 等)不需要修改.
+ * <pre>
+ * - 历史记录按落盘顺序流式读取(TickQuery.select), 每次调用先把时间不晚于当前时间的记录应用到各交易对的最新状态, 再按状态生成响应.
+ *   时间只往前走时每条记录只读一次, 一天的全部交易对按处理速度回放; 时间倒退时从 now - warmupMillis 重新读取
+ * - 同一时间的响应只由该时间之前的记录决定, 与调用的次数和间隔无关
+ * - ticker / tickers: 最后一条 ticker 记录, 没有 high24hr / low24hr
+ * - orderBook: 最后一条买一卖一, 只有一档
+ * - tradeHistory: 最近 80 条成交, 新的在前
+ * - pairs / marketInfo: 已出现过的交易对及其价格小数位数, 可以用 SymbolRegistry.load() 加载
+ * - marketList: 由各交易对最后一条 ticker 生成, 只有 pair / rate / vol_a / vol_b / curr_a / curr_b / rate_percent / trend 等字段
+ * - 私有接口与交易所出错时一样返回 {"result":"false","message":...}, 调用方按接口错误处理
+ * - MarketPoller, TradeSync 与 CachingStockRestApi 的间隔, 速率与有效期取自 DateUtil.nanoTime(), 同样跟随虚拟时间.
+ *   由 MarketPoller 轮询时不需要调用方循环: 尽快模式下轮询器在请求都完成后把时间推进到下一个任务到期
+ * </pre>
+ * 线程安全, 调用之间串行
+ * @modified By：
+ * @version: $
+ */
+public class ReplayStockRestApi implements IStockRestApi, AutoCloseable {
+
+	/** tradeHistory 返回的成交数, 与交易所相同 **/
+	public static final int TRADES = 80;
+
+	private static final class Pair {
+		final String name;
+		int priceScale;
+		int volumeScale;
+		boolean hasTicker;
+		final long[] ticker = new long[6];
+		boolean hasBook;
+		final long[] book = new long[4];
+		/** 成交的环形缓冲 **/
+		final long[] tradeIds = new long[TRADES];
+		final long[] times = new long[TRADES];
+		final long[] prices = new long[TRADES];
+		final long[] amounts = new long[TRADES];
+		final boolean[] buys = new boolean[TRADES];
+		long trades;
+
+		Pair(String name) {
+			this.name = name;
+		}
+	}
+
+	private final TickQuery query;
+	private final long warmupMillis;
+	private final Map<String, Pair> pairs = new LinkedHashMap<>();
+	private TickResult stream;
+	/** stream 当前的记录晚于 position, 还没有应用 **/
+	private boolean pending;
+	private long position = Long.MIN_VALUE;
+	private long applied;
+
+	/**
+	 * @param warmupMillis 第一次调用(或时间倒退)时从当前时间之前多久开始读取, 应不小于行情的落盘间隔
+	 */
+	public ReplayStockRestApi(TickQuery query, long warmupMillis) {
+		if (warmupMillis < 0) {
+			throw new IllegalArgumentException("warmupMillis must be >= 0: " + warmupMillis);
+		}
+		this.query = query;
+		this.warmupMillis = warmupMillis;
+	}
+
+	/**
+	 * 应用时间不晚于 now 的记录
+	 */
+	private void advance(long now) throws IOException {
+		if (stream == null || now < position) {
+			if (stream != null) {
+				stream.close();
+			}
+			pairs.clear();
+			pending = false;
+			stream = query.select(null, now - warmupMillis, Long.MAX_VALUE);
+		}
+		position = now;
+		while (true) {
+			if (!pending) {
+				if (!stream.next()) {
+					return;
+				}
+				pending = true;
+			}
+			if (stream.timestampMillis() > now) {
+				return;
+			}
+			apply(stream);
+			pending = false;
+		}
+	}
+
+	private void apply(TickRecord r) {
+		Pair pair = pairs.computeIfAbsent(r.symbol(), Pair::new);
+		pair.priceScale = r.priceScale();
+		pair.volumeScale = r.volumeScale();
+		switch (r.type()) {
+			case TICKER:
+				for (int i = 0; i < pair.ticker.length; i++) {
+					pair.ticker[i] = r.field(i);
+				}
+				pair.hasTicker = true;
+				break;
+			case TOP_OF_BOOK:
+				for (int i = 0; i < pair.book.length; i++) {
+					pair.book[i] = r.field(i);
+				}
+				pair.hasBook = true;
+				break;
+			case TRADE:
+				int slot = (int) (pair.trades++ % TRADES);
+				pair.tradeIds[slot] = r.tradeId();
+				pair.times[slot] = r.timestampMillis();
+				pair.prices[slot] = r.price();
+				pair.amounts[slot] = r.amount();
+				pair.buys[slot] = r.buy();
+				break;
+			default:
+				break;
+		}
+		applied++;
+	}
+
+	/** 已应用的历史记录数 **/
+	public synchronized long getApplied() {
+		return applied;
+	}
+
+	@Override
+	public synchronized String pairs() throws HttpException, IOException {
+		advance(DateUtil.currentTimeMillis());
+		StringBuilder out = new StringBuilder(pairs.size() * 16).append('[');
+		for (String name : pairs.keySet()) {
+			if (out.length() > 1) {
+				out.append(',');
+			}
+			out.append('"').append(name).append('"');
+		}
+		return out.append(']').toString();
+	}
+
+	@Override
+	public synchronized String marketInfo() throws HttpException, IOException {
+		advance(DateUtil.currentTimeMillis());
+		StringBuilder out = new StringBuilder(pairs.size() * 48).append("{\"result\":\"true\",\"pairs\":[");
+		boolean first = true;
+		for (Pair pair : pairs.values()) {
+			if (!first) {
+				out.append(',');
+			}
+			first = false;
+			out.append("{\"").append(pair.name).append("\":{\"decimal_places\":").append(pair.priceScale).append("}}");
+		}
+		return out.append("]}").toString();
+	}
+
+	@Override
+	public synchronized String marketList() throws HttpException, IOException {
+		advance(DateUtil.currentTimeMillis());
+		StringBuilder out = new StringBuilder(pairs.size() * 240).append("{\"result\":\"true\",\"data\":[");
+		int no = 0;
+		for (Pair pair : pairs.values()) {
+			if (!pair.hasTicker) {
+				continue;
+			}
+			long[] t = pair.ticker;
+			int split = pair.name.indexOf('_');
+			String currA = (split < 0 ? pair.name : pair.name.substring(0, split)).toUpperCase();
+			String currB = split < 0 ? "" : pair.name.substring(split + 1).toUpperCase();
+			if (no > 0) {
+				out.append(',');
+			}
+			out.append("{\"no\":").append(++no)
+					.append(",\"symbol\":\"").append(currA)
+					.append("\",\"pair\":\"").append(pair.name)
+					.append("\",\"rate\":\"");
+			FixedPoint.append(out, t[0], pair.priceScale).append("\",\"vol_a\":\"");
+			FixedPoint.append(out, t[3], PairScale.TICKER_VOLUME_SCALE).append("\",\"vol_b\":\"");
+			FixedPoint.append(out, t[4], PairScale.TICKER_VOLUME_SCALE)
+					.append("\",\"curr_a\":\"").append(currA)
+					.append("\",\"curr_b\":\"").append(currB)
+					.append("\",\"curr_suffix\":\" ").append(currB)
+					.append("\",\"rate_percent\":\"");
+			FixedPoint.append(out, Math.abs(t[5]), PairScale.PERCENT_SCALE)
+					.append("\",\"trend\":\"").append(t[5] < 0 ? "down" : "up").append("\"}");
+		}
+		return out.append("]}").toString();
+	}
+
+	@Override
+	public synchronized String tickers() throws HttpException, IOException {
+		advance(DateUtil.currentTimeMillis());
+		StringBuilder out = new StringBuilder(pairs.size() * 200).append('{');
+		for (Pair pair : pairs.values()) {
+			if (pair.hasTicker) {
+				if (out.length() > 1) {
+					out.append(',');
+				}
+				out.append('"').append(pair.name).append("\":");
+				appendTicker(out, pair);
+			}
+		}
+		return out.append('}').toString();
+	}
+
+	@Override
+	public synchronized String ticker(String symbol) throws HttpException, IOException {
+		advance(DateUtil.currentTimeMillis());
+		Pair pair = pairs.get(symbol);
+		if (pair == null || !pair.hasTicker) {
+			return noData(symbol);
+		}
+		return appendTicker(new StringBuilder(200), pair).toString();
+	}
+
+	private static StringBuilder appendTicker(StringBuilder out, Pair pair) {
+		long[] t = pair.ticker;
+		out.append("{\"result\":\"true\",\"last\":\"");
+		FixedPoint.append(out, t[0], pair.priceScale).append("\",\"lowestAsk\":\"");
+		FixedPoint.append(out, t[2], pair.priceScale).append("\",\"highestBid\":\"");
+		FixedPoint.append(out, t[1], pair.priceScale).append("\",\"percentChange\":\"");
+		FixedPoint.append(out, t[5], PairScale.PERCENT_SCALE).append("\",\"baseVolume\":\"");
+		FixedPoint.append(out, t[3], PairScale.TICKER_VOLUME_SCALE).append("\",\"quoteVolume\":\"");
+		FixedPoint.append(out, t[4], PairScale.TICKER_VOLUME_SCALE).append("\"}");
+		return out;
+	}
+
+	@Override
+	public synchronized String orderBook(String symbol) throws HttpException, IOException {
+		advance(DateUtil.currentTimeMillis());
+		Pair pair = pairs.get(symbol);
+		if (pair == null || !pair.hasBook) {
+			return noData(symbol);
+		}
+		long[] b = pair.book;
+		StringBuilder out = new StringBuilder(128).append("{\"result\":\"true\",\"asks\":[[\"");
+		FixedPoint.append(out, b[2], pair.priceScale).append("\",\"");
+		FixedPoint.append(out, b[3], pair.volumeScale).append("\"]],\"bids\":[[\"");
+		FixedPoint.append(out, b[0], pair.priceScale).append("\",\"");
+		FixedPoint.append(out, b[1], pair.volumeScale).append("\"]]}");
+		return out.toString();
+	}
+
+	@Override
+	public synchronized String tradeHistory(String symbol) throws HttpException, IOException {
+		advance(DateUtil.currentTimeMillis());
+		Pair pair = pairs.get(symbol);
+		if (pair == null) {
+			return noData(symbol);
+		}
+		StringBuilder out = new StringBuilder(TRADES * 160).append("{\"elapsed\":\"0ms\",\"result\":\"true\",\"data\":[");
+		long n = Math.min(pair.trades, TRADES);
+		for (long k = 0; k < n; k++) {
+			int slot = (int) ((pair.trades - 1 - k) % TRADES);
+			long seconds = Math.floorDiv(pair.times[slot], 1000L);
+			if (k > 0) {
+				out.append(',');
+			}
+			out.append("{\"tradeID\":\"").append(pair.tradeIds[slot])
+					.append("\",\"date\":\"").append(DateUtil.DATE_TIME_FORMATTER.format(LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC)))
+					.append("\",\"timestamp\":\"").append(seconds)
+					.append("\",\"type\":\"").append(pair.buys[slot] ? "buy" : "sell")
+					.append("\",\"rate\":\"");
+			FixedPoint.append(out, pair.prices[slot], pair.priceScale).append("\",\"amount\":\"");
+			FixedPoint.append(out, pair.amounts[slot], pair.volumeScale).append("\",\"total\":\"")
+					.append(FixedPoint.toBigDecimal(pair.prices[slot], pair.priceScale)
+							.multiply(FixedPoint.toBigDecimal(pair.amounts[slot], pair.volumeScale)).toPlainString())
+					.append("\"}");
+		}
+		return out.append("]}").toString();
+	}
+
+	private static String noData(String symbol) {
+		return error("no replay data: " + symbol);
+	}
+
+	/** 与交易所出错时相同的响应 **/
+	private static String error(String message) {
+		return "{\"result\":\"false\",\"message\":\"" + message + "\"}";
+	}
+
+	@Override
+	public String balance(GateConfig gateConfig) throws HttpException, IOException {
+		return error("replay: balance is not available");
+	}
+
+	@Override
+	public String depositAddress(GateConfig gateConfig, String symbol) throws HttpException, IOException {
+		return error("replay: depositAddress is not available");
+	}
+
+	@Override
+	public String depositsWithdrawals(GateConfig gateConfig, String startTime, String endTime) throws HttpException, IOException {
+		return error("replay: depositsWithdrawals is not available");
+	}
+
+	@Override
+	public String buy(GateConfig gateConfig, String currencyPair, String rate, String amount) throws HttpException, IOException {
+		return error("replay: buy is not available");
+	}
+
+	@Override
+	public String sell(GateConfig gateConfig, String currencyPair, String rate, String amount) throws HttpException, IOException {
+		return error("replay: sell is not available");
+	}
+
+	@Override
+	public String cancelOrder(String orderNumber, String currencyPair) throws HttpException, IOException {
+		return error("replay: cancelOrder is not available");
+	}
+
+	@Override
+	public String cancelAllOrders(String type, String currencyPair) throws HttpException, IOException {
+		return error("replay: cancelAllOrders is not available");
+	}
+
+	@Override
+	public String getOrder(String orderNumber, String currencyPair) throws HttpException, IOException {
+		return error("replay: getOrder is not available");
+	}
+
+	@Override
+	public String openOrders() throws HttpException, IOException {
+		return error("replay: openOrders is not available");
+	}
+
+	@Override
+	public String myTradeHistory(String currencyPair, String orderNumber) throws HttpException, IOException {
+		return error("replay: myTradeHistory is not available");
+	}
+
+	@Override
+	public String withdraw(String currency, String amount, String address) throws HttpException, IOException {
+		return error("replay: withdraw is not available");
+	}
+
+	@Override
+	public synchronized void close() {
+		if (stream != null) {
+			stream.close();
+			stream = null;
+		}
+	}
+}
@@ -1,14 +1,24 @@
 package com.gate.rest.stock.impl;
 
 import com.gate.rest.base.GateConfig;
+import com.gate.rest.entity.PairScale;
 import com.gate.rest.stock.IStockRestApi;
+import com.gate.rest.stock.SymbolCall;
+import com.gate.rest.util.CallExecutors;
+import com.gate.rest.util.EndpointGroup;
 import com.gate.rest.util.HttpUtilManager;
-import com.gate.rest.util.StringUtil;
+import com.gate.rest.util.RequestSigner;
+import com.gate.rest.util.StreamDecoder;
 import org.apache.http.HttpException;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * @Author huang_fengge
@@ -17,71 +27,54 @@ import java.util.Map;
  * @Param
  * @return
 **/
-public class StockRestApi implements IStockRestApi{
+public class StockRestApi extends BaseStockRestApi implements IStockRestApi{
 
 
-	private String url_pre;
+	/** 为空时使用 CallExecutors.shared() **/
+	private ExecutorService callExecutor;
 
 
 
 	public StockRestApi(String url_prex){
-		this.url_pre = url_prex;
+		super(url_prex);
 	}
 
 
-
-	public final String PAIRS_URL = "/api2/1/pairs";
-
-
-	public final String MARKETINFO_URL = "/api2/1/marketinfo";
-
-
-	public final String MARKETLIST_URL = "/api2/1/marketlist";
-
-
-	public final String TICKERS_URL = "/api2/1/tickers";
-
-	
-	public final String TICKER_URL = "/api2/1/ticker";
-
-	
-	public final String ORDERBOOK_URL = "/api2/1/orderBook";
-
-
-	public final String BALANCE_URL = "/api2/1/private/balances";
-
-	
-	private final String DEPOSITADDRESS_URL = "/api2/1/private/depositAddress";
-
-	
-	private final String DEPOSITESWITHDRAWALS_URL = "/api2/1/private/depositsWithdrawals";
-
-	
-	private final String BUY_URL = "/api2/1/private/buy";
-
-	
-	private final String SELL_URL = "/api2/1/private/sell";
-
-
-	private final String CANCELORDER_URL = "/api2/1/private/cancelOrder";
-
-	
-	private final String CANCELALLORDERS_URL = "/api2/1/private/cancelAllOrders";
-
-	
-	private final String GETORDER_URL = "/api2/1/private/getOrder";
-
-
-	private final String OPENORDERS_URL = "/api2/1/private/openOrders";
-
-	
-	private final String TRADEHISTORY_URL = "/api2/1/tradeHistory";
-
-
-	private final String WITHDRAW_URL = "/api2/1/private/withdraw";
-	
-
-	private final String MYTRADEHISTORY_URL = "/api2/1/private/tradeHistory";
+	/**
+	 * 对多个交易对并发执行同一个阻塞调用, 全部完成后返回 交易对 -> 结果, 如
+	 * <pre>
+	 * Map&lt;String, String&gt; tickers = api.fanOut(pairs, IStockRestApi::ticker);
+	 * </pre>
+	 * jdk21 构建profile 下每个调用运行在独立的虚拟线程上, 调用方按阻塞方式编写即可, 无需调整线程池
+	 */
+	public Map<String, String> fanOut(Collection<String> symbols, SymbolCall call) throws HttpException, IOException {
+		ExecutorService executor = callExecutor == null ? CallExecutors.shared() : callExecutor;
+		Map<String, Future<String>> futures = new LinkedHashMap<String, Future<String>>();
+		for (String symbol : symbols) {
+			futures.put(symbol, executor.submit(() -> call.call(this, symbol)));
+		}
+		Map<String, String> results = new LinkedHashMap<String, String>();
+		try {
+			for (Map.Entry<String, Future<String>> entry : futures.entrySet()) {
+				results.put(entry.getKey(), entry.getValue().get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			futures.values().forEach(f -> f.cancel(true));
+			throw new IOException("fan out interrupted", e);
+		} catch (ExecutionException e) {
+			futures.values().forEach(f -> f.cancel(true));
+			Throwable cause = e.getCause();
+			if (cause instanceof HttpException) {
+				throw (HttpException) cause;
+			}
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+		return results;
+	}
 
 
 	@Override
@@ -119,47 +112,52 @@ public class StockRestApi implements IStockRestApi{
 	@Override
 	public String ticker(String symbol) throws HttpException, IOException {
 		HttpUtilManager httpUtil = HttpUtilManager.getInstance();
-		String param = "";
-		
-		param += "/"+symbol;
-		
-		String result = httpUtil.requestHttpGet(url_pre, TICKER_URL + param, "");
+		String result = httpUtil.requestHttpGet(url_pre, TICKER_URL + symbolPath(symbol), "");
 		return result;
 	}
 
 	@Override
 	public String orderBook(String symbol) throws HttpException, IOException {
 		HttpUtilManager httpUtil = HttpUtilManager.getInstance();
-		String param = "";
-		if(!StringUtil.isEmpty(symbol)) {
-			if(param.equals("")) {
-				param += "/";
-			}
-			param += symbol;
-		}
-		String result = httpUtil.requestHttpGet(url_pre, ORDERBOOK_URL + param, param);
+		String result = httpUtil.requestHttpGet(url_pre, ORDERBOOK_URL + symbolPath(symbol), "");
 		return result;
 	}
 
 	@Override
 	public String tradeHistory(String symbol) throws HttpException, IOException {
 		HttpUtilManager httpUtil = HttpUtilManager.getInstance();
-		String param = "";
-		if(!StringUtil.isEmpty(symbol )) {
-			if(param.equals("")) {
-				param += "/";
-			}
-			param += symbol;
-		}
-		System.out.println(TRADEHISTORY_URL+param);
+		String param = symbolPath(symbol);
 		String result = httpUtil.requestHttpGet(url_pre, TRADEHISTORY_URL + param, "");
 		return result;
 	}
 
+	/**
+	 * 以下重载将响应体输入流直接交给解码器, 适用于 marketList / tickers / 深度较大的 orderBook,
+	 * 避免先读成完整字符串再解析, 如 tickers(JsonTool.objectDecoder())
+	 */
+	public <T> T marketList(StreamDecoder<T> decoder) throws HttpException, IOException {
+		return HttpUtilManager.getInstance().requestHttpGet(url_pre, MARKETLIST_URL, "", decoder);
+	}
+
+	public <T> T tickers(StreamDecoder<T> decoder) throws HttpException, IOException {
+		return HttpUtilManager.getInstance().requestHttpGet(url_pre, TICKERS_URL, "", decoder);
+	}
+
+	public <T> T ticker(String symbol, StreamDecoder<T> decoder) throws HttpException, IOException {
+		return HttpUtilManager.getInstance().requestHttpGet(url_pre, TICKER_URL + symbolPath(symbol), "", decoder);
+	}
+
+	public <T> T orderBook(String symbol, StreamDecoder<T> decoder) throws HttpException, IOException {
+		return HttpUtilManager.getInstance().requestHttpGet(url_pre, ORDERBOOK_URL + symbolPath(symbol), "", decoder);
+	}
+
+	public <T> T tradeHistory(String symbol, StreamDecoder<T> decoder) throws HttpException, IOException {
+		return HttpUtilManager.getInstance().requestHttpGet(url_pre, TRADEHISTORY_URL + symbolPath(symbol), "", decoder);
+	}
+
 	@Override
 	public String balance(GateConfig gateConfig) throws HttpException, IOException {
-		Map<String, String> params = new HashMap<String, String>();
-		params.putAll(Map.of("key", gateConfig.getKey(), "secret", gateConfig.getSecret()));
+		Map<String, String> params = credentialParams(gateConfig);
 		HttpUtilManager httpUtil = HttpUtilManager.getInstance();
 
 		String result = httpUtil.doRequest("data", "post", url_pre + BALANCE_URL, params);
@@ -169,9 +167,7 @@ public class StockRestApi implements IStockRestApi{
 
 	@Override
 	public String depositAddress(GateConfig gateConfig, String symbol) throws HttpException, IOException {
-		Map<String, String> params = new HashMap<String, String>();
-		params.put("currency", symbol);
-		params.putAll(Map.of("key", gateConfig.getKey(), "secret", gateConfig.getSecret()));
+		Map<String, String> params = depositAddressParams(gateConfig, symbol);
 
 		HttpUtilManager httpUtil = HttpUtilManager.getInstance();
 		String result = httpUtil.doRequest("data", "post", url_pre + DEPOSITADDRESS_URL, params);
@@ -181,10 +177,7 @@ public class StockRestApi implements IStockRestApi{
 
 	@Override
 	public String depositsWithdrawals(GateConfig gateConfig, String startTime, String endTime) throws HttpException, IOException {
-		Map<String, String> params = new HashMap<String, String>();
-		params.put("start", startTime);
-		params.put("end", endTime);
-		params.putAll(Map.of("key", gateConfig.getKey(), "secret", gateConfig.getSecret()));
+		Map<String, String> params = depositsWithdrawalsParams(gateConfig, startTime, endTime);
 		HttpUtilManager httpUtil = HttpUtilManager.getInstance();
 		String result = httpUtil.doRequest("data", "post", url_pre + DEPOSITESWITHDRAWALS_URL, params);
 		return result;
@@ -192,11 +185,7 @@ public class StockRestApi implements IStockRestApi{
 
 	@Override
 	public String buy(GateConfig gateConfig, String currencyPair, String rate, String amount) throws HttpException, IOException {
-		Map<String, String> params = new HashMap<String, String>();
-		params.put("currencyPair", currencyPair);
-		params.put("rate", rate);
-		params.put("amount", amount);
-		params.putAll(Map.of("key", gateConfig.getKey(), "secret", gateConfig.getSecret()));
+		Map<String, String> params = orderParams(gateConfig, currencyPair, rate, amount);
 
 		HttpUtilManager httpUtil = HttpUtilManager.getInstance();
 		String result = httpUtil.doRequest("data", "post", url_pre + BUY_URL, params);
@@ -205,11 +194,7 @@ public class StockRestApi implements IStockRestApi{
 
 	@Override
 	public String sell(GateConfig gateConfig, String currencyPair, String rate, String amount) throws HttpException, IOException {
-		Map<String, String> params = new HashMap<String, String>();
-		params.put("currencyPair", currencyPair);
-		params.put("rate", rate);
-		params.put("amount", amount);
-		params.putAll(Map.of("key", gateConfig.getKey(), "secret", gateConfig.getSecret()));
+		Map<String, String> params = orderParams(gateConfig, currencyPair, rate, amount);
 
 		HttpUtilManager httpUtil = HttpUtilManager.getInstance();
 		String result = httpUtil.doRequest("data", "post", url_pre + SELL_URL, params);
@@ -217,11 +202,34 @@ public class StockRestApi implements IStockRestApi{
 	}
 	
 	
+	/**
+	 * 按定点数下单: rate 的小数位数为 scale.getPriceScale(), amount 为 scale.getVolumeScale().
+	 * 数值直接格式化进签名缓冲区, 不经过 String, 如 api.buy(config, "eth_usdt", 179550, 50000000, scales.get("eth_usdt"))
+	 */
+	public String buy(GateConfig gateConfig, String currencyPair, long rate, long amount, PairScale scale) throws HttpException, IOException {
+		return order(BUY_URL, gateConfig, currencyPair, rate, amount, scale);
+	}
+
+	public String sell(GateConfig gateConfig, String currencyPair, long rate, long amount, PairScale scale) throws HttpException, IOException {
+		return order(SELL_URL, gateConfig, currencyPair, rate, amount, scale);
+	}
+
+	private String order(String url, GateConfig gateConfig, String currencyPair, long rate, long amount, PairScale scale) throws HttpException, IOException {
+		RequestSigner signer = RequestSigner.of(gateConfig.getKey(), gateConfig.getSecret());
+		try (RequestSigner.SignedBody body = signer.begin()
+				.param("key", gateConfig.getKey())
+				.param("secret", gateConfig.getSecret())
+				.param("currencyPair", currencyPair)
+				.param("rate", rate, scale.getPriceScale())
+				.param("amount", amount, scale.getVolumeScale())
+				.sign()) {
+			return HttpUtilManager.getInstance().doRequest(EndpointGroup.PRIVATE_TRADING, url_pre + url, body, StreamDecoder.UTF8_STRING);
+		}
+	}
+
 	@Override
 	public String cancelOrder(String orderNumber,String currencyPair) throws HttpException, IOException {
-		Map<String, String> params = new HashMap<String, String>();
-		params.put("orderNumber", orderNumber);
-		params.put("currencyPair", currencyPair);
+		Map<String, String> params = orderNumberParams(orderNumber, currencyPair);
 
 		HttpUtilManager httpUtil = HttpUtilManager.getInstance();
 		String result = httpUtil.doRequest( "data", "post", url_pre + CANCELORDER_URL, params );
@@ -230,9 +238,7 @@ public class StockRestApi implements IStockRestApi{
 	
 	@Override
 	public String cancelAllOrders(String type,String currencyPair) throws HttpException, IOException {
-		Map<String, String> params = new HashMap<String, String>();
-		params.put("type", type);
-		params.put("currencyPair", currencyPair);
+		Map<String, String> params = cancelAllOrdersParams(type, currencyPair);
 
 		HttpUtilManager httpUtil = HttpUtilManager.getInstance();
 		String result = httpUtil.doRequest( "data", "post", url_pre + CANCELALLORDERS_URL, params );
@@ -241,9 +247,7 @@ public class StockRestApi implements IStockRestApi{
 	
 	@Override
 	public String getOrder(String orderNumber,String currencyPair) throws HttpException, IOException {
-		Map<String, String> params = new HashMap<String, String>();
-		params.put("orderNumber", orderNumber);
-		params.put("currencyPair", currencyPair);
+		Map<String, String> params = orderNumberParams(orderNumber, currencyPair);
 
 		HttpUtilManager httpUtil = HttpUtilManager.getInstance();
 		String result = httpUtil.doRequest( "data", "post", url_pre + GETORDER_URL, params );
@@ -264,9 +268,7 @@ public class StockRestApi implements IStockRestApi{
 	
 	@Override
 	public String myTradeHistory(String currencyPair,String orderNumber) throws HttpException, IOException {
-		Map<String, String> params = new HashMap<String, String>();
-		params.put("currencyPair", currencyPair);
-		params.put("orderNumber", orderNumber);
+		Map<String, String> params = orderNumberParams(orderNumber, currencyPair);
 
 		HttpUtilManager httpUtil = HttpUtilManager.getInstance();
 		String result = httpUtil.doRequest( "data", "post", url_pre + MYTRADEHISTORY_URL, params );
@@ -276,27 +278,19 @@ public class StockRestApi implements IStockRestApi{
 	
 	@Override
 	public String withdraw(String currency,String amount, String address) throws HttpException, IOException {
-		Map<String, String> params = new HashMap<String, String>();
-		params.put("currency", currency);
-		params.put("amount", amount);
-		params.put("address", address);
+		Map<String, String> params = withdrawParams(currency, amount, address);
 
 		HttpUtilManager httpUtil = HttpUtilManager.getInstance();
 		String result = httpUtil.doRequest( "data", "post", url_pre + WITHDRAW_URL, params );
 		return result;
 	}
 
-
-
-
-
-
-	public String getUrl_pre() {
-		return url_pre;
+	public ExecutorService getCallExecutor() {
+		return callExecutor;
 	}
 
-	public void setUrl_pre(String url_pre) {
-		this.url_pre = url_pre;
+	public void setCallExecutor(ExecutorService callExecutor) {
+		this.callExecutor = callExecutor;
 	}
 
 }
@@ -0,0 +1,114 @@
+package com.gate.rest.stock.impl;
+
+import com.gate.rest.base.GateConfig;
+import com.gate.rest.stock.IStockRestApiAsync;
+import com.gate.rest.util.HttpAsyncManager;
+
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * @Author huang_fengge
+ * @Description //非阻塞接口实现, 地址与参数构建与 StockRestApi 共用
+ * @Date 上午10:15 2026/10/19
+**/
+public class StockRestApiAsync extends BaseStockRestApi implements IStockRestApiAsync {
+
+	private final HttpAsyncManager httpAsync = HttpAsyncManager.getInstance();
+
+	public StockRestApiAsync(String url_prex){
+		super(url_prex);
+	}
+
+	@Override
+	public CompletableFuture<String> pairs() {
+		return httpAsync.requestHttpGet(url_pre, PAIRS_URL, "");
+	}
+
+	@Override
+	public CompletableFuture<String> marketInfo() {
+		return httpAsync.requestHttpGet(url_pre, MARKETINFO_URL, "");
+	}
+
+	@Override
+	public CompletableFuture<String> marketList() {
+		return httpAsync.requestHttpGet(url_pre, MARKETLIST_URL, "");
+	}
+
+	@Override
+	public CompletableFuture<String> tickers() {
+		return httpAsync.requestHttpGet(url_pre, TICKERS_URL, "");
+	}
+
+	@Override
+	public CompletableFuture<String> ticker(String symbol) {
+		return httpAsync.requestHttpGet(url_pre, TICKER_URL + symbolPath(symbol), "");
+	}
+
+	@Override
+	public CompletableFuture<String> orderBook(String symbol) {
+		return httpAsync.requestHttpGet(url_pre, ORDERBOOK_URL + symbolPath(symbol), "");
+	}
+
+	@Override
+	public CompletableFuture<String> tradeHistory(String symbol) {
+		return httpAsync.requestHttpGet(url_pre, TRADEHISTORY_URL + symbolPath(symbol), "");
+	}
+
+	@Override
+	public CompletableFuture<String> balance(GateConfig gateConfig) {
+		return httpAsync.doRequest("post", url_pre + BALANCE_URL, credentialParams(gateConfig));
+	}
+
+	@Override
+	public CompletableFuture<String> depositAddress(GateConfig gateConfig, String symbol) {
+		return httpAsync.doRequest("post", url_pre + DEPOSITADDRESS_URL, depositAddressParams(gateConfig, symbol));
+	}
+
+	@Override
+	public CompletableFuture<String> depositsWithdrawals(GateConfig gateConfig, String startTime, String endTime) {
+		return httpAsync.doRequest("post", url_pre + DEPOSITESWITHDRAWALS_URL,
+				depositsWithdrawalsParams(gateConfig, startTime, endTime));
+	}
+
+	@Override
+	public CompletableFuture<String> buy(GateConfig gateConfig, String currencyPair, String rate, String amount) {
+		return httpAsync.doRequest("post", url_pre + BUY_URL, orderParams(gateConfig, currencyPair, rate, amount));
+	}
+
+	@Override
+	public CompletableFuture<String> sell(GateConfig gateConfig, String currencyPair, String rate, String amount) {
+		return httpAsync.doRequest("post", url_pre + SELL_URL, orderParams(gateConfig, currencyPair, rate, amount));
+	}
+
+	@Override
+	public CompletableFuture<String> cancelOrder(String orderNumber, String currencyPair) {
+		return httpAsync.doRequest("post", url_pre + CANCELORDER_URL, orderNumberParams(orderNumber, currencyPair));
+	}
+
+	@Override
+	public CompletableFuture<String> cancelAllOrders(String type, String currencyPair) {
+		return httpAsync.doRequest("post", url_pre + CANCELALLORDERS_URL, cancelAllOrdersParams(type, currencyPair));
+	}
+
+	@Override
+	public CompletableFuture<String> getOrder(String orderNumber, String currencyPair) {
+		return httpAsync.doRequest("post", url_pre + GETORDER_URL, orderNumberParams(orderNumber, currencyPair));
+	}
+
+	@Override
+	public CompletableFuture<String> openOrders() {
+		return httpAsync.doRequest("post", url_pre + OPENORDERS_URL, new HashMap<String, String>());
+	}
+
+	@Override
+	public CompletableFuture<String> myTradeHistory(String currencyPair, String orderNumber) {
+		return httpAsync.doRequest("post", url_pre + MYTRADEHISTORY_URL, orderNumberParams(orderNumber, currencyPair));
+	}
+
+	@Override
+	public CompletableFuture<String> withdraw(String currency, String amount, String address) {
+		return httpAsync.doRequest("post", url_pre + WITHDRAW_URL, withdrawParams(currency, amount, address));
+	}
+
+}
@@ -0,0 +1,130 @@
+package com.gate.rest.store;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/11/03 上午9:30
+ * @description：原始段文件的稀疏时间索引: 每 stride 条记录一组, 记下组内的最小与最大事件时间, 以及段中的名称表.
+ * 迟到的成交使段内时间不严格递增, 所以按组的最小/最大时间跳过而不是二分查找. 建立后不再改变;
+ * 还在写入的段用 extend() 从上次的位置继续建立新的索引
+ * @modified By：
+ * @version: $
+ */
+final class SegmentIndex {
+
+	final Path path;
+	final MappedByteBuffer buffer;
+	final int stride;
+	/** 已提交的记录数, 包括名称与段结束记录 **/
+	final int records;
+	final long[] chunkMin;
+	final long[] chunkMax;
+	final String[] names;
+	final int[] priceScales;
+	final int[] volumeScales;
+	/** 已读到段结束记录, 不会再有新记录 **/
+	final boolean sealed;
+
+	private SegmentIndex(Path path, MappedByteBuffer buffer, int stride, int records, long[] chunkMin, long[] chunkMax,
+			String[] names, int[] priceScales, int[] volumeScales, boolean sealed) {
+		this.path = path;
+		this.buffer = buffer;
+		this.stride = stride;
+		this.records = records;
+		this.chunkMin = chunkMin;
+		this.chunkMax = chunkMax;
+		this.names = names;
+		this.priceScales = priceScales;
+		this.volumeScales = volumeScales;
+		this.sealed = sealed;
+	}
+
+	static SegmentIndex build(Path path, int stride) throws IOException {
+		MappedByteBuffer buffer = TickStore.map(path, false, 0);
+		SegmentIndex empty = new SegmentIndex(path, buffer, stride, 0, new long[0], new long[0],
+				new String[0], new int[0], new int[0], false);
+		return empty.extend();
+	}
+
+	int chunks() {
+		return chunkMin.length;
+	}
+
+	/** 第 chunk 组的记录范围 [chunkStart, chunkEnd) **/
+	int chunkStart(int chunk) {
+		return chunk * stride;
+	}
+
+	int chunkEnd(int chunk) {
+		return Math.min(records, (chunk + 1) * stride);
+	}
+
+	/**
+	 * 索引之后新提交的记录, 没有新记录时返回自己
+	 */
+	SegmentIndex extend() {
+		int capacity = buffer.capacity() / TickStore.RECORD_BYTES;
+		if (sealed || capacity == 0) {
+			return this;
+		}
+		int committed = TickStore.committed(buffer, capacity);
+		if (committed == records) {
+			return this;
+		}
+		// acquire 读最后一条已提交的记录, 之前的记录都已完整可见
+		TickStore.TYPE.getAcquire(buffer, (committed - 1) * TickStore.RECORD_BYTES);
+		// 最后一组可能不完整, 从该组开头重新统计
+		int first = records / stride;
+		int chunks = (committed + stride - 1) / stride;
+		long[] min = Arrays.copyOf(chunkMin, chunks);
+		long[] max = Arrays.copyOf(chunkMax, chunks);
+		String[] n = names.clone();
+		int[] ps = priceScales.clone();
+		int[] vs = volumeScales.clone();
+		boolean end = false;
+		for (int chunk = first; chunk < chunks; chunk++) {
+			long lo = Long.MAX_VALUE;
+			long hi = Long.MIN_VALUE;
+			int to = Math.min(committed, (chunk + 1) * stride);
+			for (int i = chunk * stride; i < to; i++) {
+				int offset = i * TickStore.RECORD_BYTES;
+				int code = buffer.getInt(offset);
+				if (code == TickStore.END) {
+					end = true;
+				} else if (code == TickStore.SYMBOL) {
+					int id = buffer.getInt(offset + 4);
+					if (id >= n.length) {
+						int size = Math.max(id + 1, n.length * 2);
+						n = Arrays.copyOf(n, size);
+						ps = Arrays.copyOf(ps, size);
+						vs = Arrays.copyOf(vs, size);
+					}
+					ps[id] = buffer.getInt(offset + 16);
+					vs[id] = buffer.getInt(offset + 20);
+					n[id] = readName(offset);
+				} else {
+					long t = buffer.getLong(offset + 8);
+					lo = Math.min(lo, t);
+					hi = Math.max(hi, t);
+				}
+			}
+			min[chunk] = lo;
+			max[chunk] = hi;
+		}
+		return new SegmentIndex(path, buffer, stride, committed, min, max, n, ps, vs, end);
+	}
+
+	private String readName(int offset) {
+		byte[] bytes = new byte[TickStore.MAX_NAME_BYTES];
+		int length = 0;
+		while (length < bytes.length && (bytes[length] = buffer.get(offset + TickStore.NAME_OFFSET + length)) != 0) {
+			length++;
+		}
+		return new String(bytes, 0, length, StandardCharsets.US_ASCII);
+	}
+}
@@ -0,0 +1,326 @@
+package com.gate.rest.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/11/02 上午10:30
+ * @description：TickBlockWriter 文件的流式读取. 文件整体映射, 按块解码到复用的基本类型数组后逐条返回,
+ * 按时间范围读取时用块索引跳过不相交的块. 非线程安全, 多个线程各自打开
+ * <pre>
+ * try (TickBlockReader reader = TickBlockReader.open(file)) {
+ *     reader.range(from, to);
+ *     while (reader.next()) {
+ *         long price = reader.price();
+ *     }
+ * }
+ * </pre>
+ * @modified By：
+ * @version: $
+ */
+public final class TickBlockReader implements TickRecord, AutoCloseable {
+
+	private static final int FIELDS = TickBlockWriter.FIELDS;
+
+	private final ByteBuffer file;
+	private final List<String> symbols;
+	private final int[] priceScales;
+	private final int[] volumeScales;
+	private final long[] blockOffsets;
+	private final int[] blockCounts;
+	private final long[] blockMinTimes;
+	private final long[] blockMaxTimes;
+
+	/** 当前块解码后的列 **/
+	private byte[] types = new byte[0];
+	private int[] ids = new int[0];
+	private long[] times = new long[0];
+	private final long[][] fields = new long[FIELDS][0];
+	private final long[] lastTime;
+	private final long[][] lastField;
+
+	private long from = Long.MIN_VALUE;
+	private long to = Long.MAX_VALUE;
+	private int block = -1;
+	private int end;
+	private int count;
+	private int row;
+	private long decodedBlocks;
+
+	private TickBlockReader(ByteBuffer file) throws IOException {
+		this.file = file;
+		int size = file.limit();
+		if (size < 12 || file.getInt(size - 4) != TickBlockWriter.MAGIC) {
+			throw new IOException("not a tick block file or not closed");
+		}
+		int p = (int) file.getLong(size - 12);
+		int n = file.getInt(p);
+		p += 4;
+		String[] names = new String[n];
+		priceScales = new int[n];
+		volumeScales = new int[n];
+		for (int i = 0; i < n; i++) {
+			int length = file.getShort(p);
+			p += 2;
+			byte[] name = new byte[length];
+			for (int j = 0; j < length; j++) {
+				name[j] = file.get(p + j);
+			}
+			p += length;
+			names[i] = new String(name, StandardCharsets.UTF_8);
+			priceScales[i] = file.get(p++);
+			volumeScales[i] = file.get(p++);
+		}
+		symbols = Collections.unmodifiableList(Arrays.asList(names));
+		int blocks = file.getInt(p);
+		p += 4;
+		blockOffsets = new long[blocks];
+		blockCounts = new int[blocks];
+		blockMinTimes = new long[blocks];
+		blockMaxTimes = new long[blocks];
+		for (int i = 0; i < blocks; i++) {
+			blockOffsets[i] = file.getLong(p);
+			blockCounts[i] = file.getInt(p + 8);
+			blockMinTimes[i] = file.getLong(p + 12);
+			blockMaxTimes[i] = file.getLong(p + 20);
+			p += 28;
+		}
+		lastTime = new long[n];
+		lastField = new long[(TickType.values().length + 1) * FIELDS][n];
+		end = blocks;
+	}
+
+	/**
+	 * 共用 shared 的映射与索引, 解码状态独立, 给并行查询的各个线程使用
+	 */
+	TickBlockReader(TickBlockReader shared) {
+		this.file = shared.file.duplicate();
+		this.symbols = shared.symbols;
+		this.priceScales = shared.priceScales;
+		this.volumeScales = shared.volumeScales;
+		this.blockOffsets = shared.blockOffsets;
+		this.blockCounts = shared.blockCounts;
+		this.blockMinTimes = shared.blockMinTimes;
+		this.blockMaxTimes = shared.blockMaxTimes;
+		this.lastTime = new long[symbols.size()];
+		this.lastField = new long[shared.lastField.length][symbols.size()];
+		this.end = blockOffsets.length;
+	}
+
+	public static TickBlockReader open(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("tick block file too large: " + path);
+			}
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return new TickBlockReader(buffer);
+		}
+	}
+
+	/** 文件中的全部交易对, 下标即 symbolId() **/
+	public List<String> getSymbols() {
+		return symbols;
+	}
+
+	public int blocks() {
+		return blockOffsets.length;
+	}
+
+	public int blockCount(int i) {
+		return blockCounts[i];
+	}
+
+	public long blockMinTime(int i) {
+		return blockMinTimes[i];
+	}
+
+	public long blockMaxTime(int i) {
+		return blockMaxTimes[i];
+	}
+
+	/** 文件中的记录总数 **/
+	public long records() {
+		long n = 0;
+		for (int c : blockCounts) {
+			n += c;
+		}
+		return n;
+	}
+
+	/** 已解码的块数, 可以看出时间范围跳过了多少块 **/
+	public long getDecodedBlocks() {
+		return decodedBlocks;
+	}
+
+	/**
+	 * 只读取时间在 [fromMillis, toMillis) 内的记录, 并从头开始
+	 */
+	public void range(long fromMillis, long toMillis) {
+		this.from = fromMillis;
+		this.to = toMillis;
+		rewind();
+	}
+
+	public void rewind() {
+		window(0, blockOffsets.length);
+	}
+
+	/**
+	 * 只读取块 [first, end), 在 range() 之后调用
+	 */
+	void window(int first, int end) {
+		this.block = first - 1;
+		this.end = end;
+		count = 0;
+		row = 0;
+	}
+
+	public boolean next() {
+		while (true) {
+			if (row < count) {
+				long t = times[row++];
+				if (t >= from && t < to) {
+					return true;
+				}
+				continue;
+			}
+			if (!nextBlock()) {
+				return false;
+			}
+		}
+	}
+
+	private boolean nextBlock() {
+		while (++block < end) {
+			if (blockMaxTimes[block] >= from && blockMinTimes[block] < to) {
+				decode(block);
+				return true;
+			}
+		}
+		count = 0;
+		row = 0;
+		return false;
+	}
+
+	/**
+	 * 解码一整块: 各列各有一个读取位置, 按行依次还原差值
+	 */
+	private void decode(int b) {
+		ByteBuffer f = file;
+		int p = (int) blockOffsets[b];
+		int n = f.getInt(p);
+		int[] position = new int[TickBlockWriter.COLUMNS];
+		int start = p + TickBlockWriter.BLOCK_HEADER_BYTES;
+		for (int c = 0; c < TickBlockWriter.COLUMNS; c++) {
+			position[c] = start;
+			start += f.getInt(p + 20 + c * 4);
+		}
+		if (types.length < n) {
+			types = new byte[n];
+			ids = new int[n];
+			times = new long[n];
+			for (int i = 0; i < FIELDS; i++) {
+				fields[i] = new long[n];
+			}
+		}
+		Arrays.fill(lastTime, 0);
+		for (long[] last : lastField) {
+			Arrays.fill(last, 0);
+		}
+		int typePos = position[TickBlockWriter.TYPE_COLUMN];
+		int symbolPos = position[TickBlockWriter.SYMBOL_COLUMN];
+		int timePos = position[TickBlockWriter.TIME_COLUMN];
+		for (int r = 0; r < n; r++) {
+			int type = f.get(typePos++);
+			types[r] = (byte) type;
+			long v = 0;
+			int shift = 0;
+			byte x;
+			do {
+				x = f.get(symbolPos++);
+				v |= (long) (x & 0x7F) << shift;
+				shift += 7;
+			} while (x < 0);
+			int id = (int) v;
+			ids[r] = id;
+			v = 0;
+			shift = 0;
+			do {
+				x = f.get(timePos++);
+				v |= (long) (x & 0x7F) << shift;
+				shift += 7;
+			} while (x < 0);
+			long t = lastTime[id] + ((v >>> 1) ^ -(v & 1));
+			lastTime[id] = t;
+			times[r] = t;
+			int base = type * FIELDS;
+			for (int c = 0; c < FIELDS; c++) {
+				int pos = position[TickBlockWriter.FIELD_COLUMN + c];
+				v = 0;
+				shift = 0;
+				do {
+					x = f.get(pos++);
+					v |= (long) (x & 0x7F) << shift;
+					shift += 7;
+				} while (x < 0);
+				position[TickBlockWriter.FIELD_COLUMN + c] = pos;
+				long[] last = lastField[base + c];
+				long value = last[id] + ((v >>> 1) ^ -(v & 1));
+				last[id] = value;
+				fields[c][r] = value;
+			}
+		}
+		count = n;
+		row = 0;
+		decodedBlocks++;
+	}
+
+	@Override
+	public TickType type() {
+		return TickType.of(types[row - 1]);
+	}
+
+	/** 文件内的交易对编号, 见 getSymbols() **/
+	public int symbolId() {
+		return ids[row - 1];
+	}
+
+	@Override
+	public String symbol() {
+		return symbols.get(ids[row - 1]);
+	}
+
+	@Override
+	public int priceScale() {
+		return priceScales[ids[row - 1]];
+	}
+
+	@Override
+	public int volumeScale() {
+		return volumeScales[ids[row - 1]];
+	}
+
+	@Override
+	public long timestampMillis() {
+		return times[row - 1];
+	}
+
+	@Override
+	public long field(int index) {
+		return fields[index][row - 1];
+	}
+
+	@Override
+	public void close() {
+		// 映射在缓冲被回收时释放
+	}
+}
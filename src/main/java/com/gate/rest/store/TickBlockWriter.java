@@ -0,0 +1,262 @@
+package com.gate.rest.store;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/11/02 上午9:30
+ * @description：归档用的压缩列式块文件. 记录按写入顺序每 blockRecords 条组成一块, 块内按列存放:
+ * <pre>
+ * 类型(1 字节) | 交易对(varint) | 时间 | 字段 0 ~ 5
+ * </pre>
+ * 时间为与同一交易对上一条记录之差, 字段为与同一交易对同一类型上一条记录之差, 都以 zig-zag varint 保存.
+ * 轮询间隔内价格与成交量多半不变或只变一点, 差值大多只占 1 个字节. 每块的差值状态独立, 可以单独解码.
+ * <pre>
+ * 文件: 块... | 尾部(交易对表, 块索引: 偏移 / 条数 / 最小与最大时间) | long 尾部偏移 | int MAGIC
+ * 块:   int 条数 | long 最小时间 | long 最大时间 | int[9] 各列字节数 | 各列
+ * </pre>
+ * 非线程安全
+ * @modified By：
+ * @version: $
+ */
+public final class TickBlockWriter implements AutoCloseable {
+
+	static final int MAGIC = 0x47544231;
+	static final int COLUMNS = 9;
+	static final int TYPE_COLUMN = 0;
+	static final int SYMBOL_COLUMN = 1;
+	static final int TIME_COLUMN = 2;
+	static final int FIELD_COLUMN = 3;
+	static final int FIELDS = 6;
+	static final int BLOCK_HEADER_BYTES = 4 + 8 + 8 + 4 * COLUMNS;
+
+	public static final int DEFAULT_BLOCK_RECORDS = 4096;
+
+	/**
+	 * 可增长的字节数组, 按列追加 varint
+	 */
+	static final class Column {
+		byte[] bytes = new byte[1024];
+		int length;
+
+		void put(int b) {
+			if (length == bytes.length) {
+				bytes = Arrays.copyOf(bytes, length * 2);
+			}
+			bytes[length++] = (byte) b;
+		}
+
+		void putVarLong(long value) {
+			while ((value & ~0x7FL) != 0) {
+				put((int) ((value & 0x7F) | 0x80));
+				value >>>= 7;
+			}
+			put((int) value);
+		}
+
+		void putZigZag(long delta) {
+			putVarLong((delta << 1) ^ (delta >> 63));
+		}
+	}
+
+	private final DataOutputStream out;
+	private final int blockRecords;
+	private final Column[] columns = new Column[COLUMNS];
+	private final Map<String, Integer> ids = new HashMap<>();
+	private final List<String> names = new ArrayList<>();
+	private final List<int[]> scales = new ArrayList<>();
+	/** 块索引: 偏移, 条数, 最小时间, 最大时间 **/
+	private final List<long[]> index = new ArrayList<>();
+	/** 按交易对的上一条时间, 按 (类型, 字段) 与交易对的上一个值; 每块开始时清零 **/
+	private long[] lastTime = new long[64];
+	private long[][] lastField = new long[(TickType.values().length + 1) * FIELDS][64];
+	private long offset;
+	private int count;
+	private long minTime = Long.MAX_VALUE;
+	private long maxTime = Long.MIN_VALUE;
+	private long records;
+	private boolean closed;
+
+	public TickBlockWriter(OutputStream out, int blockRecords) {
+		if (blockRecords <= 0) {
+			throw new IllegalArgumentException("blockRecords must be positive: " + blockRecords);
+		}
+		this.out = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+		this.blockRecords = blockRecords;
+		for (int i = 0; i < COLUMNS; i++) {
+			columns[i] = new Column();
+		}
+	}
+
+	public static TickBlockWriter open(Path file) throws IOException {
+		return new TickBlockWriter(Files.newOutputStream(file), DEFAULT_BLOCK_RECORDS);
+	}
+
+	/**
+	 * 将该日期(UTC)的原始段文件中的全部记录压缩到 file, 返回记录数. 先写入同目录的临时文件再原子地替换 file,
+	 * 查询方不会看到写了一半的归档. 该日期还在写入(最后一个段没有结束)时抛出 IllegalStateException, 见 TickStore.sealed()
+	 */
+	public static long archive(TickStore store, LocalDate day, Path file) throws IOException {
+		if (!store.sealed(day)) {
+			throw new IllegalStateException("tick segments of " + day + " are not sealed: " + store.getDir());
+		}
+		Path target = file.toAbsolutePath();
+		Path tmp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+		try {
+			long records;
+			TickCursor cursor = store.cursor(day);
+			try (TickBlockWriter writer = open(tmp)) {
+				while (cursor.next() && TickStore.dayOf(cursor.segment()) == day.toEpochDay()) {
+					writer.append(cursor);
+				}
+				records = writer.getRecords();
+			}
+			Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			return records;
+		} finally {
+			Files.deleteIfExists(tmp);
+		}
+	}
+
+	public void append(TickRecord record) throws IOException {
+		append(record.type(), record.symbol(), record.priceScale(), record.volumeScale(), record.timestampMillis(),
+				record.field(0), record.field(1), record.field(2), record.field(3), record.field(4), record.field(5));
+	}
+
+	public void append(TickType type, String symbol, int priceScale, int volumeScale, long timestampMillis,
+			long f0, long f1, long f2, long f3, long f4, long f5) throws IOException {
+		if (closed) {
+			throw new IllegalStateException("writer closed");
+		}
+		int id = symbolId(symbol, priceScale, volumeScale);
+		columns[TYPE_COLUMN].put(type.code);
+		columns[SYMBOL_COLUMN].putVarLong(id);
+		columns[TIME_COLUMN].putZigZag(timestampMillis - lastTime[id]);
+		lastTime[id] = timestampMillis;
+		int base = type.code * FIELDS;
+		putField(base, 0, id, f0);
+		putField(base, 1, id, f1);
+		putField(base, 2, id, f2);
+		putField(base, 3, id, f3);
+		putField(base, 4, id, f4);
+		putField(base, 5, id, f5);
+		minTime = Math.min(minTime, timestampMillis);
+		maxTime = Math.max(maxTime, timestampMillis);
+		records++;
+		if (++count == blockRecords) {
+			flushBlock();
+		}
+	}
+
+	private void putField(int base, int field, int id, long value) {
+		long[] last = lastField[base + field];
+		columns[FIELD_COLUMN + field].putZigZag(value - last[id]);
+		last[id] = value;
+	}
+
+	private int symbolId(String symbol, int priceScale, int volumeScale) {
+		Integer id = ids.get(symbol);
+		if (id != null) {
+			return id;
+		}
+		int next = names.size();
+		if (symbol.length() > Short.MAX_VALUE) {
+			throw new IllegalArgumentException("symbol name too long");
+		}
+		ids.put(symbol, next);
+		names.add(symbol);
+		scales.add(new int[]{priceScale, volumeScale});
+		if (next == lastTime.length) {
+			int n = next * 2;
+			lastTime = Arrays.copyOf(lastTime, n);
+			for (int i = 0; i < lastField.length; i++) {
+				lastField[i] = Arrays.copyOf(lastField[i], n);
+			}
+		}
+		return next;
+	}
+
+	private void flushBlock() throws IOException {
+		if (count == 0) {
+			return;
+		}
+		index.add(new long[]{offset, count, minTime, maxTime});
+		out.writeInt(count);
+		out.writeLong(minTime);
+		out.writeLong(maxTime);
+		long bytes = BLOCK_HEADER_BYTES;
+		for (Column column : columns) {
+			out.writeInt(column.length);
+		}
+		for (Column column : columns) {
+			out.write(column.bytes, 0, column.length);
+			bytes += column.length;
+			column.length = 0;
+		}
+		offset += bytes;
+		count = 0;
+		minTime = Long.MAX_VALUE;
+		maxTime = Long.MIN_VALUE;
+		Arrays.fill(lastTime, 0);
+		for (long[] last : lastField) {
+			Arrays.fill(last, 0);
+		}
+	}
+
+	/** 已写入的记录数 **/
+	public long getRecords() {
+		return records;
+	}
+
+	/** 已写入的字节数, 不包括当前块与尾部 **/
+	public long getBytes() {
+		return offset;
+	}
+
+	/**
+	 * 写出最后一块与尾部, 之后文件才可以读取
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			flushBlock();
+			long footer = offset;
+			out.writeInt(names.size());
+			for (int i = 0; i < names.size(); i++) {
+				byte[] name = names.get(i).getBytes(StandardCharsets.UTF_8);
+				out.writeShort(name.length);
+				out.write(name);
+				out.writeByte(scales.get(i)[0]);
+				out.writeByte(scales.get(i)[1]);
+			}
+			out.writeInt(index.size());
+			for (long[] block : index) {
+				out.writeLong(block[0]);
+				out.writeInt((int) block[1]);
+				out.writeLong(block[2]);
+				out.writeLong(block[3]);
+			}
+			out.writeLong(footer);
+			out.writeInt(MAGIC);
+		} finally {
+			out.close();
+		}
+	}
+}
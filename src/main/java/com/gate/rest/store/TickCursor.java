@@ -0,0 +1,175 @@
+package com.gate.rest.store;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/11/01 上午11:00
+ * @description：TickStore 的读取游标, 不加锁, 可以与写入方同时使用(包括在另一个进程中). 每个游标只由一个线程使用
+ * <pre>
+ * TickCursor cursor = store.cursor();
+ * while (cursor.next()) {
+ *     if (cursor.type() == TickType.TRADE) {
+ *         long price = cursor.price();
+ *     }
+ * }
+ * // 读到末尾后 next() 返回 false, 写入方追加后再次调用即可继续读取
+ * </pre>
+ * 字段见 TickRecord; 交易对名称与小数位数来自段中的名称记录
+ * @modified By：
+ * @version: $
+ */
+public final class TickCursor implements TickRecord {
+
+	private final TickStore store;
+	/** 当前段文件名, 还没有打开段时为起始位置 **/
+	private String segmentName;
+	private boolean opened;
+	private MappedByteBuffer buffer;
+	private int capacity;
+	private int position;
+	private String[] names = new String[64];
+	private int[] priceScales = new int[64];
+	private int[] volumeScales = new int[64];
+
+	private TickType type;
+	private int symbolId;
+	private long timestampMillis;
+	private final long[] fields = new long[6];
+	private long read;
+
+	TickCursor(TickStore store, String from) {
+		this.store = store;
+		this.segmentName = from;
+	}
+
+	/**
+	 * 读取下一条已提交的记录, 暂时没有更多记录时返回 false
+	 */
+	public boolean next() throws IOException {
+		while (true) {
+			if (buffer == null || position >= capacity) {
+				if (!openNext()) {
+					return false;
+				}
+				continue;
+			}
+			int offset = position * TickStore.RECORD_BYTES;
+			int code = (int) TickStore.TYPE.getAcquire(buffer, offset);
+			if (code == 0) {
+				return false;
+			}
+			if (code == TickStore.END) {
+				if (!openNext()) {
+					return false;
+				}
+				continue;
+			}
+			position++;
+			if (code == TickStore.SYMBOL) {
+				readSymbol(offset);
+				continue;
+			}
+			type = TickType.of(code);
+			if (type == null) {
+				throw new IOException("unknown record type " + code + " at " + offset + " of " + segmentName);
+			}
+			MappedByteBuffer b = buffer;
+			symbolId = b.getInt(offset + 4);
+			timestampMillis = b.getLong(offset + 8);
+			for (int i = 0; i < fields.length; i++) {
+				fields[i] = b.getLong(offset + 16 + i * 8);
+			}
+			read++;
+			return true;
+		}
+	}
+
+	/**
+	 * 打开下一个段, 还没有下一个段(或刚创建还没有映射到段大小)时返回 false, 保持在当前位置
+	 */
+	private boolean openNext() throws IOException {
+		// 起始位置为 "" 或 "ticks-yyyyMMdd", 都小于该日期的所有段名
+		Path next = store.segmentAfter(segmentName);
+		if (next == null) {
+			return false;
+		}
+		MappedByteBuffer mapped = TickStore.map(next, false, 0);
+		if (mapped.capacity() < TickStore.RECORD_BYTES) {
+			return false;
+		}
+		buffer = mapped;
+		capacity = mapped.capacity() / TickStore.RECORD_BYTES;
+		position = 0;
+		segmentName = next.getFileName().toString();
+		opened = true;
+		return true;
+	}
+
+	private void readSymbol(int offset) {
+		int id = buffer.getInt(offset + 4);
+		if (id >= names.length) {
+			int n = Math.max(id + 1, names.length * 2);
+			names = Arrays.copyOf(names, n);
+			priceScales = Arrays.copyOf(priceScales, n);
+			volumeScales = Arrays.copyOf(volumeScales, n);
+		}
+		priceScales[id] = buffer.getInt(offset + 16);
+		volumeScales[id] = buffer.getInt(offset + 20);
+		byte[] bytes = new byte[TickStore.MAX_NAME_BYTES];
+		int length = 0;
+		while (length < bytes.length && (bytes[length] = buffer.get(offset + TickStore.NAME_OFFSET + length)) != 0) {
+			length++;
+		}
+		names[id] = new String(bytes, 0, length, StandardCharsets.US_ASCII);
+	}
+
+	@Override
+	public TickType type() {
+		return type;
+	}
+
+	/** 写入方的交易对 id, 不同段之间可能不同, 需要跨段比较时用 symbol() **/
+	public int symbolId() {
+		return symbolId;
+	}
+
+	@Override
+	public String symbol() {
+		return names[symbolId];
+	}
+
+	@Override
+	public int priceScale() {
+		return priceScales[symbolId];
+	}
+
+	@Override
+	public int volumeScale() {
+		return volumeScales[symbolId];
+	}
+
+	@Override
+	public long timestampMillis() {
+		return timestampMillis;
+	}
+
+	/** 当前段文件名 **/
+	public String segment() {
+		return opened ? segmentName : null;
+	}
+
+	/** 已读取的记录数, 不包括名称与段结束记录 **/
+	public long getRead() {
+		return read;
+	}
+
+	@Override
+	public long field(int index) {
+		return fields[index];
+	}
+}
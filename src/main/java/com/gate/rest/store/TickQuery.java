@@ -0,0 +1,398 @@
+package com.gate.rest.store;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/11/03 上午10:00
+ * @description：行情历史查询, 数据来自 TickStore 的原始段与压缩归档(同一天有归档时只读归档).
+ * <pre>
+ * try (TickResult trades = query.select(Collections.singleton("eth_btc"), t1, t2, TickType.TRADE)) {
+ *     while (trades.next()) {
+ *         long price = trades.price();
+ *     }
+ * }
+ * TickResult tickers = query.latest(TickType.TICKER, t, TimeUnit.HOURS.toMillis(1));
+ * </pre>
+ * <pre>
+ * - 查询先按段的稀疏时间索引(SegmentIndex)与归档的块索引找出与时间范围相交的组/块, 每组/块是一个扫描单元
+ * - 扫描单元在 ForkJoinPool 中并行解码过滤, select() 的结果按单元的落盘顺序经 TickResult 流式返回,
+ *   同时最多只有 parallelism * 4 个单元的结果在内存中; latest() 以 fork-join 二分合并各单元中每个交易对的最后一条
+ * - 已写完的段与归档的索引缓存在内存中, 正在写入的段每次查询时增量补充索引
+ * - 迟到的记录写在下一天的段中, 所以查询会多读结束日期后一天的段, 由索引跳过其中不相交的部分
+ * </pre>
+ * 线程安全, 多个线程可以同时查询
+ * @modified By：
+ * @version: $
+ */
+public final class TickQuery implements AutoCloseable {
+
+	/** 原始段索引每组的记录数 **/
+	public static final int DEFAULT_STRIDE = 4096;
+
+	private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+	private final TickStore store;
+	private final ForkJoinPool pool;
+	private final int stride;
+	private final Map<Path, SegmentIndex> segments = new ConcurrentHashMap<>();
+	private final Map<Path, TickBlockReader> archives = new ConcurrentHashMap<>();
+
+	public TickQuery(TickStore store, int parallelism) {
+		this(store, parallelism, DEFAULT_STRIDE);
+	}
+
+	/**
+	 * @param parallelism 扫描线程数, 0 为 CPU 数
+	 */
+	public TickQuery(TickStore store, int parallelism, int stride) {
+		if (stride <= 0) {
+			throw new IllegalArgumentException("stride must be positive: " + stride);
+		}
+		this.store = store;
+		this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+		this.stride = stride;
+	}
+
+	public int getParallelism() {
+		return pool.getParallelism();
+	}
+
+	/**
+	 * 时间在 [fromMillis, toMillis) 内的记录
+	 *
+	 * @param symbols 交易对, null 或空为全部
+	 * @param types   记录类型, 不传为全部
+	 */
+	public TickResult select(Collection<String> symbols, long fromMillis, long toMillis, TickType... types) throws IOException {
+		Filter filter = new Filter(symbols, fromMillis, toMillis, types);
+		return new TickResult(pool, plan(filter), pool.getParallelism() * 4);
+	}
+
+	/**
+	 * 每个交易对在 atMillis 时(含)的最后一条 type 记录, 只在 (atMillis - lookbackMillis, atMillis] 内查找.
+	 * 按交易对名称排序返回
+	 */
+	public TickResult latest(TickType type, long atMillis, long lookbackMillis) throws IOException {
+		Filter filter = new Filter(null, atMillis - lookbackMillis + 1, atMillis + 1, type);
+		List<Unit> units = plan(filter);
+		Batch latest = units.isEmpty() ? new Batch() : pool.invoke(new Latest(units, 0, units.size()));
+		return new TickResult(latest.sorted());
+	}
+
+	/**
+	 * 找出与时间范围相交的扫描单元, 各数据源的索引并行建立
+	 */
+	private List<Unit> plan(Filter filter) throws IOException {
+		long firstDay = Math.floorDiv(filter.from, DAY_MILLIS);
+		long lastDay = Math.floorDiv(filter.to - 1, DAY_MILLIS) + 1;
+		Set<Long> archived = new HashSet<>();
+		List<Path> sources = new ArrayList<>();
+		for (Path archive : store.archives()) {
+			long day = TickStore.dayOf(archive.getFileName().toString());
+			if (day >= firstDay && day <= lastDay) {
+				archived.add(day);
+				sources.add(archive);
+			}
+		}
+		for (Path segment : store.segments()) {
+			long day = TickStore.dayOf(segment.getFileName().toString());
+			if (day >= firstDay && day <= lastDay && !archived.contains(day)) {
+				sources.add(segment);
+			}
+		}
+		// 同一天只有归档或原始段中的一种, 按日期与段号排序
+		sources.sort(TickStore.ORDER);
+
+		List<ForkJoinTask<Object>> indexes = new ArrayList<>(sources.size());
+		for (Path source : sources) {
+			indexes.add(pool.submit(() -> index(source)));
+		}
+		List<Unit> units = new ArrayList<>();
+		for (ForkJoinTask<Object> task : indexes) {
+			Object index = join(task);
+			if (index instanceof SegmentIndex) {
+				SegmentIndex segment = (SegmentIndex) index;
+				boolean[] match = filter.match(segment.names);
+				for (int chunk = 0; chunk < segment.chunks(); chunk++) {
+					if (segment.chunkMax[chunk] >= filter.from && segment.chunkMin[chunk] < filter.to) {
+						units.add(new Unit(segment, null, chunk, match, filter));
+					}
+				}
+			} else if (index instanceof TickBlockReader) {
+				TickBlockReader archive = (TickBlockReader) index;
+				boolean[] match = filter.match(archive.getSymbols().toArray(new String[0]));
+				for (int block = 0; block < archive.blocks(); block++) {
+					if (archive.blockMaxTime(block) >= filter.from && archive.blockMinTime(block) < filter.to) {
+						units.add(new Unit(null, archive, block, match, filter));
+					}
+				}
+			}
+		}
+		return units;
+	}
+
+	private Object index(Path source) throws IOException {
+		if (TickStore.isArchive(source.getFileName().toString())) {
+			TickBlockReader archive = archives.get(source);
+			if (archive == null) {
+				archive = TickBlockReader.open(source);
+				archives.put(source, archive);
+			}
+			return archive;
+		}
+		SegmentIndex index = segments.get(source);
+		if (index == null) {
+			index = SegmentIndex.build(source, stride);
+		} else {
+			// 正在写入的段只补充新增的部分
+			index = index.extend();
+		}
+		segments.merge(source, index, (a, b) -> a.records >= b.records ? a : b);
+		return index;
+	}
+
+	private static Object join(ForkJoinTask<Object> task) throws IOException {
+		try {
+			return task.join();
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		} catch (RuntimeException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	@Override
+	public void close() {
+		pool.shutdown();
+	}
+
+	/**
+	 * 查询条件
+	 */
+	static final class Filter {
+		final Set<String> symbols;
+		final long from;
+		final long to;
+		final int types;
+
+		Filter(Collection<String> symbols, long from, long to, TickType... types) {
+			this.symbols = symbols == null || symbols.isEmpty() ? null : new HashSet<>(symbols);
+			this.from = from;
+			this.to = to;
+			int mask = 0;
+			for (TickType type : types) {
+				mask |= 1 << type.code;
+			}
+			this.types = types.length == 0 ? -1 : mask;
+		}
+
+		/** 按数据源的名称表得到各交易对 id 是否匹配 **/
+		boolean[] match(String[] names) {
+			boolean[] match = new boolean[names.length];
+			for (int i = 0; i < names.length; i++) {
+				match[i] = names[i] != null && (symbols == null || symbols.contains(names[i]));
+			}
+			return match;
+		}
+	}
+
+	/**
+	 * 扫描单元: 原始段的一组或归档的一块
+	 */
+	static final class Unit {
+		final SegmentIndex segment;
+		final TickBlockReader archive;
+		final int chunk;
+		final boolean[] match;
+		final Filter filter;
+
+		Unit(SegmentIndex segment, TickBlockReader archive, int chunk, boolean[] match, Filter filter) {
+			this.segment = segment;
+			this.archive = archive;
+			this.chunk = chunk;
+			this.match = match;
+			this.filter = filter;
+		}
+
+		Batch scan() {
+			Batch batch = new Batch();
+			if (segment != null) {
+				scanSegment(batch);
+			} else {
+				scanArchive(batch);
+			}
+			return batch;
+		}
+
+		private void scanSegment(Batch batch) {
+			MappedByteBuffer b = segment.buffer;
+			long from = filter.from;
+			long to = filter.to;
+			int types = filter.types;
+			int end = segment.chunkEnd(chunk);
+			for (int i = segment.chunkStart(chunk); i < end; i++) {
+				int offset = i * TickStore.RECORD_BYTES;
+				int code = b.getInt(offset);
+				if (code >= TickStore.SYMBOL || (types & 1 << code) == 0) {
+					continue;
+				}
+				int id = b.getInt(offset + 4);
+				long t = b.getLong(offset + 8);
+				if (t < from || t >= to || !match[id]) {
+					continue;
+				}
+				int row = batch.add(code, segment.names[id], segment.priceScales[id], segment.volumeScales[id], t);
+				for (int f = 0; f < Batch.FIELDS; f++) {
+					batch.fields[f][row] = b.getLong(offset + 16 + f * 8);
+				}
+			}
+		}
+
+		private void scanArchive(Batch batch) {
+			TickBlockReader reader = new TickBlockReader(archive);
+			reader.range(filter.from, filter.to);
+			reader.window(chunk, chunk + 1);
+			int types = filter.types;
+			while (reader.next()) {
+				int code = reader.type().code;
+				if ((types & 1 << code) == 0 || !match[reader.symbolId()]) {
+					continue;
+				}
+				int row = batch.add(code, reader.symbol(), reader.priceScale(), reader.volumeScale(), reader.timestampMillis());
+				for (int f = 0; f < Batch.FIELDS; f++) {
+					batch.fields[f][row] = reader.field(f);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 一个扫描单元中匹配的记录, 按列存放
+	 */
+	static final class Batch {
+		static final int FIELDS = TickBlockWriter.FIELDS;
+
+		int size;
+		byte[] types = new byte[64];
+		String[] symbols = new String[64];
+		int[] priceScales = new int[64];
+		int[] volumeScales = new int[64];
+		long[] times = new long[64];
+		final long[][] fields = new long[FIELDS][64];
+
+		int add(int type, String symbol, int priceScale, int volumeScale, long timestampMillis) {
+			if (size == types.length) {
+				int n = size * 2;
+				types = Arrays.copyOf(types, n);
+				symbols = Arrays.copyOf(symbols, n);
+				priceScales = Arrays.copyOf(priceScales, n);
+				volumeScales = Arrays.copyOf(volumeScales, n);
+				times = Arrays.copyOf(times, n);
+				for (int f = 0; f < FIELDS; f++) {
+					fields[f] = Arrays.copyOf(fields[f], n);
+				}
+			}
+			int row = size++;
+			types[row] = (byte) type;
+			symbols[row] = symbol;
+			priceScales[row] = priceScale;
+			volumeScales[row] = volumeScale;
+			times[row] = timestampMillis;
+			return row;
+		}
+
+		void copy(Batch from, int source, int row) {
+			types[row] = from.types[source];
+			symbols[row] = from.symbols[source];
+			priceScales[row] = from.priceScales[source];
+			volumeScales[row] = from.volumeScales[source];
+			times[row] = from.times[source];
+			for (int f = 0; f < FIELDS; f++) {
+				fields[f][row] = from.fields[f][source];
+			}
+		}
+
+		/**
+		 * 每个交易对只保留时间最大的一条, 时间相同时保留 later 中的或靠后的
+		 */
+		Batch latest(Batch later) {
+			Map<String, Integer> rows = new HashMap<>();
+			Batch out = new Batch();
+			for (Batch batch : new Batch[]{this, later}) {
+				for (int i = 0; i < batch.size; i++) {
+					Integer row = rows.get(batch.symbols[i]);
+					if (row == null) {
+						row = out.add(0, null, 0, 0, 0);
+						rows.put(batch.symbols[i], row);
+					} else if (out.times[row] > batch.times[i]) {
+						continue;
+					}
+					out.copy(batch, i, row);
+				}
+			}
+			return out;
+		}
+
+		/** 按交易对名称排序 **/
+		Batch sorted() {
+			Map<String, Integer> order = new TreeMap<>();
+			for (int i = 0; i < size; i++) {
+				order.put(symbols[i], i);
+			}
+			Batch out = new Batch();
+			for (int i : order.values()) {
+				out.copy(this, i, out.add(0, null, 0, 0, 0));
+			}
+			return out;
+		}
+	}
+
+	/**
+	 * 二分单元列表, 叶子扫描一个单元, 合并时每个交易对保留最后一条
+	 */
+	static final class Latest extends RecursiveTask<Batch> {
+		private final List<Unit> units;
+		private final int from;
+		private final int to;
+
+		Latest(List<Unit> units, int from, int to) {
+			this.units = units;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected Batch compute() {
+			if (to - from == 1) {
+				return new Batch().latest(units.get(from).scan());
+			}
+			int mid = (from + to) >>> 1;
+			Latest left = new Latest(units, from, mid);
+			Latest right = new Latest(units, mid, to);
+			right.fork();
+			Batch earlier = left.compute();
+			return earlier.latest(right.join());
+		}
+	}
+}
@@ -0,0 +1,90 @@
+package com.gate.rest.store;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/11/02 上午9:00
+ * @description：一条行情记录的只读视图, 由 TickCursor(原始段)与 TickBlockReader(压缩块)实现, next() 之后读取.
+ * 字段的含义随 type() 不同; 价格与数量为 priceScale() / volumeScale() 位小数的定点数,
+ * ticker 的 24 小时成交量与 TickerColumns 相同, 为 PairScale.TICKER_VOLUME_SCALE 位小数
+ * @modified By：
+ * @version: $
+ */
+public interface TickRecord {
+
+	TickType type();
+
+	String symbol();
+
+	int priceScale();
+
+	int volumeScale();
+
+	long timestampMillis();
+
+	/** 按类型的顺序访问 6 个字段, 见各访问方法 **/
+	long field(int index);
+
+	// TICKER
+
+	default long last() {
+		return field(0);
+	}
+
+	default long highestBid() {
+		return field(1);
+	}
+
+	default long lowestAsk() {
+		return field(2);
+	}
+
+	/** PairScale.TICKER_VOLUME_SCALE 位小数 **/
+	default long baseVolume() {
+		return field(3);
+	}
+
+	/** PairScale.TICKER_VOLUME_SCALE 位小数 **/
+	default long quoteVolume() {
+		return field(4);
+	}
+
+	default long percentChange() {
+		return field(5);
+	}
+
+	// TOP_OF_BOOK
+
+	default long bidPrice() {
+		return field(0);
+	}
+
+	default long bidSize() {
+		return field(1);
+	}
+
+	default long askPrice() {
+		return field(2);
+	}
+
+	default long askSize() {
+		return field(3);
+	}
+
+	// TRADE
+
+	default long tradeId() {
+		return field(0);
+	}
+
+	default long price() {
+		return field(1);
+	}
+
+	default long amount() {
+		return field(2);
+	}
+
+	default boolean buy() {
+		return field(3) != 0;
+	}
+}
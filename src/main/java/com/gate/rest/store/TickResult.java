@@ -0,0 +1,123 @@
+package com.gate.rest.store;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/11/03 上午11:00
+ * @description：TickQuery 的查询结果游标, 按扫描单元的顺序返回. 后面的单元在 ForkJoinPool 中提前扫描,
+ * 取走一个单元的结果才提交下一个, 内存中的结果不超过 window 个单元. 只由一个线程使用
+ * @modified By：
+ * @version: $
+ */
+public final class TickResult implements TickRecord, AutoCloseable {
+
+	private final ForkJoinPool pool;
+	private final Iterator<TickQuery.Unit> units;
+	private final int scans;
+	private final ArrayDeque<ForkJoinTask<TickQuery.Batch>> pending = new ArrayDeque<>();
+	private TickQuery.Batch batch;
+	private int row;
+	private long read;
+	private boolean closed;
+
+	TickResult(ForkJoinPool pool, List<TickQuery.Unit> units, int window) {
+		this.pool = pool;
+		this.units = units.iterator();
+		this.scans = units.size();
+		for (int i = 0; i < window && this.units.hasNext(); i++) {
+			submit();
+		}
+	}
+
+	/** 已经算好的结果 **/
+	TickResult(TickQuery.Batch batch) {
+		this.pool = null;
+		this.units = Collections.emptyIterator();
+		this.scans = 0;
+		this.batch = batch;
+	}
+
+	private void submit() {
+		TickQuery.Unit unit = units.next();
+		pending.add(pool.submit(unit::scan));
+	}
+
+	public boolean next() {
+		while (true) {
+			if (batch != null && row < batch.size) {
+				row++;
+				read++;
+				return true;
+			}
+			ForkJoinTask<TickQuery.Batch> task = pending.poll();
+			if (task == null || closed) {
+				batch = null;
+				return false;
+			}
+			batch = task.join();
+			row = 0;
+			if (units.hasNext()) {
+				submit();
+			}
+		}
+	}
+
+	/** 计划扫描的单元数(原始段的组与归档的块), 即索引跳过后剩下的部分 **/
+	public int getScans() {
+		return scans;
+	}
+
+	/** 已返回的记录数 **/
+	public long getRead() {
+		return read;
+	}
+
+	@Override
+	public TickType type() {
+		return TickType.of(batch.types[row - 1]);
+	}
+
+	@Override
+	public String symbol() {
+		return batch.symbols[row - 1];
+	}
+
+	@Override
+	public int priceScale() {
+		return batch.priceScales[row - 1];
+	}
+
+	@Override
+	public int volumeScale() {
+		return batch.volumeScales[row - 1];
+	}
+
+	@Override
+	public long timestampMillis() {
+		return batch.times[row - 1];
+	}
+
+	@Override
+	public long field(int index) {
+		return batch.fields[index][row - 1];
+	}
+
+	/**
+	 * 提前结束时取消还没开始的扫描
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		for (ForkJoinTask<TickQuery.Batch> task : pending) {
+			task.cancel(false);
+		}
+		pending.clear();
+		batch = null;
+	}
+}
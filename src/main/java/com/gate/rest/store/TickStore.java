@@ -0,0 +1,261 @@
+package com.gate.rest.store;
+
+import com.gate.rest.base.TickStoreConfig;
+import com.gate.rest.market.SymbolRegistry;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/11/01 上午9:30
+ * @description：ticker / 盘口买一卖一 / 成交的落盘存储. 记录定长 64 字节, 顺序追加到内存映射的段文件
+ * ticks-yyyyMMdd-NNN.dat 中, 按事件时间(UTC)的日期或段写满时滚动. 段号按数值排序, 见 compareNames
+ * <pre>
+ * 记录: [0] int 类型(最后写入, 非 0 即已提交) [4] int 交易对 id [8] long 事件时间(毫秒) [16..63] 6 个 long 字段
+ * </pre>
+ * <pre>
+ * - 单写多读: 一个 TickWriter 追加, 任意个 TickCursor 读取, 不加锁. 写入方先写字段再以 release 语义写类型,
+ *   读取方以 acquire 语义读到非 0 的类型后字段一定完整
+ * - 追加不分配对象也没有系统调用, 数据写入映射的页缓存; JVM 崩溃后已提交的记录仍在文件中,
+ *   重新打开时从第一条未提交的记录继续写. 断电也不丢需要定期 TickWriter.force()
+ * - 交易对 id 只在写入方有效: 每个段中第一次出现某个 id 前写入一条名称记录, TickCursor 据此还原名称与小数位数
+ * </pre>
+ * @modified By：
+ * @version: $
+ */
+public final class TickStore {
+
+	static final int RECORD_BYTES = 64;
+	/** 名称记录: [16] int 价格小数位数 [20] int 数量小数位数 [24..63] ASCII 名称 **/
+	static final int SYMBOL = 0x40;
+	/** 段结束, 之后的记录在下一个段文件 **/
+	static final int END = 0x7f;
+	static final int NAME_OFFSET = 24;
+	static final int MAX_NAME_BYTES = RECORD_BYTES - NAME_OFFSET;
+
+	static final VarHandle TYPE = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+	private static final String PREFIX = "ticks-";
+	private static final String SUFFIX = ".dat";
+	private static final String ARCHIVE_SUFFIX = ".blk";
+	private static final DateTimeFormatter DAY = DateTimeFormatter.BASIC_ISO_DATE;
+
+	private final Path dir;
+	private final int recordsPerSegment;
+	private TickWriter writer;
+
+	private TickStore(Path dir, long segmentBytes) {
+		long records = segmentBytes / RECORD_BYTES;
+		if (records < 2 || records > Integer.MAX_VALUE / RECORD_BYTES) {
+			throw new IllegalArgumentException("segmentBytes out of range: " + segmentBytes);
+		}
+		this.dir = dir;
+		this.recordsPerSegment = (int) records;
+	}
+
+	public static TickStore open(Path dir, long segmentBytes) throws IOException {
+		Files.createDirectories(dir);
+		return new TickStore(dir, segmentBytes);
+	}
+
+	public static TickStore open(TickStoreConfig config) throws IOException {
+		if (config.getDir() == null || config.getDir().isEmpty()) {
+			throw new IllegalArgumentException("gate.store.dir is empty");
+		}
+		return open(Paths.get(config.getDir()), config.getSegmentBytes());
+	}
+
+	public Path getDir() {
+		return dir;
+	}
+
+	public int getRecordsPerSegment() {
+		return recordsPerSegment;
+	}
+
+	/**
+	 * 打开唯一的写入方, 从最后一个段中第一条未提交的记录继续. 关闭之前再次调用抛出 IllegalStateException
+	 */
+	public synchronized TickWriter writer(SymbolRegistry symbols) throws IOException {
+		if (writer != null) {
+			throw new IllegalStateException("writer already open: " + dir);
+		}
+		writer = new TickWriter(this, symbols);
+		return writer;
+	}
+
+	synchronized void release(TickWriter closed) {
+		if (writer == closed) {
+			writer = null;
+		}
+	}
+
+	/** 从最早的段开始读取 **/
+	public TickCursor cursor() {
+		return new TickCursor(this, "");
+	}
+
+	/** 从该日期(UTC)的第一个段开始读取 **/
+	public TickCursor cursor(LocalDate day) {
+		return new TickCursor(this, PREFIX + DAY.format(day));
+	}
+
+	/**
+	 * 按 (日期, 段号) 即时间排序的全部段文件
+	 */
+	public List<Path> segments() throws IOException {
+		try (Stream<Path> files = Files.list(dir)) {
+			return files.filter(p -> isSegment(p.getFileName().toString())).sorted(ORDER).collect(Collectors.toList());
+		}
+	}
+
+	/**
+	 * 按 compareNames 排在 after 之后的第一个段文件, 没有时为 null
+	 */
+	Path segmentAfter(String after) throws IOException {
+		Path next = null;
+		try (Stream<Path> files = Files.list(dir)) {
+			for (Path p : (Iterable<Path>) files::iterator) {
+				String name = p.getFileName().toString();
+				if (isSegment(name) && compareNames(name, after) > 0
+						&& (next == null || compareNames(name, next.getFileName().toString()) < 0)) {
+					next = p;
+				}
+			}
+		}
+		return next;
+	}
+
+	/**
+	 * 该日期(UTC)的段是否已经写完: 最后一个段以段结束记录结尾(写入方已滚动到之后的日期),
+	 * 或者已写满且之后还有段. 写入方关闭时不写段结束记录, 最后一天总是未结束. 没有该日期的段时返回 false
+	 */
+	public boolean sealed(LocalDate day) throws IOException {
+		String prefix = PREFIX + DAY.format(day) + "-";
+		Path last = null;
+		boolean later = false;
+		for (Path segment : segments()) {
+			String name = segment.getFileName().toString();
+			if (name.startsWith(prefix)) {
+				last = segment;
+			} else if (last != null) {
+				later = true;
+				break;
+			}
+		}
+		if (last == null) {
+			return false;
+		}
+		MappedByteBuffer buffer = map(last, false, 0);
+		int capacity = buffer.capacity() / RECORD_BYTES;
+		int n = committed(buffer, capacity);
+		if (n > 0 && (int) TYPE.getAcquire(buffer, (n - 1) * RECORD_BYTES) == END) {
+			return true;
+		}
+		return n == capacity && capacity > 0 && later;
+	}
+
+	/**
+	 * 该日期(UTC)的压缩归档文件 ticks-yyyyMMdd.blk, 见 TickBlockWriter.archive(). 查询时存在归档的日期不再读原始段
+	 */
+	public Path archive(LocalDate day) {
+		return dir.resolve(PREFIX + DAY.format(day) + ARCHIVE_SUFFIX);
+	}
+
+	/**
+	 * 按日期排序的全部归档文件
+	 */
+	public List<Path> archives() throws IOException {
+		try (Stream<Path> files = Files.list(dir)) {
+			return files.filter(p -> isArchive(p.getFileName().toString())).sorted().collect(Collectors.toList());
+		}
+	}
+
+	static boolean isArchive(String name) {
+		return name.startsWith(PREFIX) && name.endsWith(ARCHIVE_SUFFIX) && name.length() == PREFIX.length() + 8 + ARCHIVE_SUFFIX.length();
+	}
+
+	private static boolean isSegment(String name) {
+		return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+	}
+
+	/**
+	 * 段文件与归档文件的顺序: 先按日期, 同一天按段号的数值, 归档排在该日期的段之前.
+	 * 段号至少补零到 3 位, 一天超过 1000 个段后位数变多, 不能按文件名的字符串顺序排序.
+	 * "" 排在最前, "ticks-yyyyMMdd" 排在该日期的所有段之前, 供 TickCursor 作为起始位置
+	 */
+	static int compareNames(String a, String b) {
+		if (a.isEmpty() || b.isEmpty()) {
+			return Boolean.compare(!a.isEmpty(), !b.isEmpty());
+		}
+		int byDay = Long.compare(dayOf(a), dayOf(b));
+		return byDay != 0 ? byDay : Integer.compare(sequenceOf(a), sequenceOf(b));
+	}
+
+	static final Comparator<Path> ORDER = (a, b) -> compareNames(a.getFileName().toString(), b.getFileName().toString());
+
+	/** 段文件的段号, 归档文件与 "ticks-yyyyMMdd" 为 -1 **/
+	private static int sequenceOf(String name) {
+		return isSegment(name) && name.length() > PREFIX.length() + 9 ? indexOf(name) : -1;
+	}
+
+	static String segmentName(long epochDay, int index) {
+		return PREFIX + DAY.format(LocalDate.ofEpochDay(epochDay)) + "-" + String.format("%03d", index) + SUFFIX;
+	}
+
+	/** ticks-20261101-003.dat 或 ticks-20261101.blk -> epochDay **/
+	static long dayOf(String segmentName) {
+		return LocalDate.parse(segmentName.substring(PREFIX.length(), PREFIX.length() + 8), DAY).toEpochDay();
+	}
+
+	/** ticks-20261101-003.dat -> 3 **/
+	static int indexOf(String segmentName) {
+		return Integer.parseInt(segmentName.substring(PREFIX.length() + 9, segmentName.length() - SUFFIX.length()));
+	}
+
+	/**
+	 * 映射整个段文件, 写入方映射时文件扩展到段大小(稀疏文件, 未写入部分为 0)
+	 */
+	static MappedByteBuffer map(Path file, boolean write, long bytes) throws IOException {
+		try (FileChannel channel = write
+				? FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)
+				: FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = write ? bytes : channel.size();
+			MappedByteBuffer buffer = channel.map(write ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY, 0, size);
+			buffer.order(ByteOrder.LITTLE_ENDIAN);
+			return buffer;
+		}
+	}
+
+	/**
+	 * 已提交的记录数. 单写入方按顺序提交, 已提交的记录总是连续的前缀, 二分查找第一条类型为 0 的记录
+	 */
+	static int committed(MappedByteBuffer buffer, int records) {
+		int lo = 0;
+		int hi = records;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if ((int) TYPE.getAcquire(buffer, mid * RECORD_BYTES) != 0) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+}
@@ -0,0 +1,35 @@
+package com.gate.rest.store;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/11/01 上午9:10
+ * @description：落盘记录的类型, code 写在记录开头, 非 0 表示记录已提交
+ * @modified By：
+ * @version: $
+ */
+public enum TickType {
+	/** 最新价, 买一, 卖一, 成交量, 成交额, 涨跌幅 **/
+	TICKER(1),
+	/** 买一价, 买一量, 卖一价, 卖一量 **/
+	TOP_OF_BOOK(2),
+	/** 成交 id, 价格, 数量, 是否主动买入 **/
+	TRADE(3);
+
+	private static final TickType[] BY_CODE = new TickType[4];
+
+	static {
+		for (TickType type : values()) {
+			BY_CODE[type.code] = type;
+		}
+	}
+
+	final int code;
+
+	TickType(int code) {
+		this.code = code;
+	}
+
+	static TickType of(int code) {
+		return code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+	}
+}
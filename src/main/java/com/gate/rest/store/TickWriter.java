@@ -0,0 +1,247 @@
+package com.gate.rest.store;
+
+import com.gate.rest.market.OrderBook;
+import com.gate.rest.market.SymbolRegistry;
+import com.gate.rest.market.TickerColumns;
+import com.gate.rest.market.TradeTape;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/11/01 上午10:00
+ * @description：TickStore 的唯一写入方, 非线程安全, 由一个线程追加. 价格与数量按交易对的小数位数保存
+ * <pre>
+ * try (TickWriter writer = store.writer(symbols)) {
+ *     writer.append(tickersStore.current(), System.currentTimeMillis());
+ *     cursor = writer.append(symbolId, tradeSync.tape(symbolId), cursor);
+ * }
+ * </pre>
+ * 滚动段文件时才有文件操作, 其失败以 UncheckedIOException 抛出
+ * @modified By：
+ * @version: $
+ */
+public final class TickWriter implements AutoCloseable {
+
+	private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+	private final TickStore store;
+	private final SymbolRegistry symbols;
+	private final int capacity;
+	/** 当前段中已写入名称记录的交易对 **/
+	private final boolean[] declared;
+	private MappedByteBuffer buffer;
+	private Path segment;
+	private long day = Long.MIN_VALUE;
+	private int index;
+	private int position;
+	private long written;
+	private boolean closed;
+
+	TickWriter(TickStore store, SymbolRegistry symbols) throws IOException {
+		this.store = store;
+		this.symbols = symbols;
+		this.capacity = store.getRecordsPerSegment();
+		this.declared = new boolean[symbols.size()];
+		recover();
+	}
+
+	/**
+	 * 继续写最后一个段: 跳过已提交的记录, 之后未提交的(崩溃时写了一半的)记录被覆盖
+	 */
+	private void recover() throws IOException {
+		List<Path> segments = store.segments();
+		if (segments.isEmpty()) {
+			return;
+		}
+		Path last = segments.get(segments.size() - 1);
+		String name = last.getFileName().toString();
+		day = TickStore.dayOf(name);
+		index = TickStore.indexOf(name);
+		segment = last;
+		buffer = TickStore.map(last, true, (long) capacity * TickStore.RECORD_BYTES);
+		position = TickStore.committed(buffer, capacity);
+		if (position > 0 && (int) TickStore.TYPE.getAcquire(buffer, (position - 1) * TickStore.RECORD_BYTES) == TickStore.END) {
+			position = capacity;
+		}
+	}
+
+	public void ticker(int symbolId, long timestampMillis, long last, long highestBid, long lowestAsk,
+			long baseVolume, long quoteVolume, long percentChange) {
+		int offset = claim(symbolId, timestampMillis);
+		write(offset, symbolId, timestampMillis, last, highestBid, lowestAsk, baseVolume, quoteVolume, percentChange);
+		commit(offset, TickType.TICKER.code);
+	}
+
+	public void topOfBook(int symbolId, long timestampMillis, long bidPrice, long bidSize, long askPrice, long askSize) {
+		int offset = claim(symbolId, timestampMillis);
+		write(offset, symbolId, timestampMillis, bidPrice, bidSize, askPrice, askSize, 0, 0);
+		commit(offset, TickType.TOP_OF_BOOK.code);
+	}
+
+	public void trade(int symbolId, long timestampMillis, long tradeId, long price, long amount, boolean buy) {
+		int offset = claim(symbolId, timestampMillis);
+		write(offset, symbolId, timestampMillis, tradeId, price, amount, buy ? 1 : 0, 0, 0);
+		commit(offset, TickType.TRADE.code);
+	}
+
+	/**
+	 * 写入快照中所有有行情的交易对, 返回写入数
+	 */
+	public int append(TickerColumns columns, long timestampMillis) {
+		int n = 0;
+		for (int id = 0; id < columns.size(); id++) {
+			if (columns.has(id)) {
+				ticker(id, timestampMillis, columns.last(id), columns.highestBid(id), columns.lowestAsk(id),
+						columns.baseVolume(id), columns.quoteVolume(id), columns.percentChange(id));
+				n++;
+			}
+		}
+		return n;
+	}
+
+	/**
+	 * 写入盘口的买一卖一, 空盘口不写
+	 */
+	public boolean append(int symbolId, OrderBook book, long timestampMillis) {
+		if (book.isEmpty()) {
+			return false;
+		}
+		topOfBook(symbolId, timestampMillis, book.bestBid(), book.bestBidSize(), book.bestAsk(), book.bestAskSize());
+		return true;
+	}
+
+	/**
+	 * 写入 tape 中序号从 from 开始的成交, 返回下次的 from. 已被环形缓冲覆盖的部分跳过
+	 */
+	public long append(int symbolId, TradeTape tape, long from) {
+		long seq = Math.max(from, tape.firstSequence());
+		long total = tape.getTotal();
+		for (; seq < total; seq++) {
+			trade(symbolId, tape.timestampMillis(seq), tape.tradeId(seq), tape.price(seq), tape.amount(seq), tape.buy(seq));
+		}
+		return seq;
+	}
+
+	/**
+	 * 返回本条记录的偏移. 必要时先滚动段文件, 并为该段中第一次出现的交易对写入名称记录
+	 */
+	private int claim(int symbolId, long timestampMillis) {
+		if (closed) {
+			throw new IllegalStateException("writer closed");
+		}
+		long eventDay = Math.floorDiv(timestampMillis, DAY_MILLIS);
+		int needed = declared[symbolId] ? 1 : 2;
+		if (buffer == null || eventDay > day) {
+			// 事件日期早于当前段时(迟到的成交)不回滚到旧日期
+			roll(eventDay, 0);
+		} else if (position + needed > capacity) {
+			roll(day, index + 1);
+		}
+		if (!declared[symbolId]) {
+			declare(symbolId);
+		}
+		int offset = position * TickStore.RECORD_BYTES;
+		position++;
+		return offset;
+	}
+
+	private void declare(int symbolId) {
+		String name = symbols.name(symbolId);
+		if (name.length() > TickStore.MAX_NAME_BYTES) {
+			throw new IllegalArgumentException("symbol name too long: " + name);
+		}
+		int offset = position * TickStore.RECORD_BYTES;
+		position++;
+		buffer.putInt(offset + 4, symbolId);
+		buffer.putLong(offset + 8, 0);
+		buffer.putInt(offset + 16, symbols.priceScale(symbolId));
+		buffer.putInt(offset + 20, symbols.volumeScale(symbolId));
+		byte[] bytes = name.getBytes(StandardCharsets.US_ASCII);
+		for (int i = 0; i < TickStore.MAX_NAME_BYTES; i++) {
+			buffer.put(offset + TickStore.NAME_OFFSET + i, i < bytes.length ? bytes[i] : 0);
+		}
+		commit(offset, TickStore.SYMBOL);
+		declared[symbolId] = true;
+	}
+
+	private void roll(long nextDay, int nextIndex) {
+		if (buffer != null && position < capacity) {
+			int offset = position * TickStore.RECORD_BYTES;
+			write(offset, 0, 0, 0, 0, 0, 0, 0, 0);
+			commit(offset, TickStore.END);
+		}
+		try {
+			while (true) {
+				Path next = store.getDir().resolve(TickStore.segmentName(nextDay, nextIndex));
+				buffer = TickStore.map(next, true, (long) capacity * TickStore.RECORD_BYTES);
+				segment = next;
+				// 同名段已经存在(例如时钟回拨)时从已提交的位置继续, 已写满或已结束则用下一个编号
+				position = TickStore.committed(buffer, capacity);
+				if (position < capacity - 1 && (position == 0
+						|| (int) TickStore.TYPE.getAcquire(buffer, (position - 1) * TickStore.RECORD_BYTES) != TickStore.END)) {
+					break;
+				}
+				nextIndex++;
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("roll tick segment failed: " + store.getDir(), e);
+		}
+		day = nextDay;
+		index = nextIndex;
+		Arrays.fill(declared, false);
+	}
+
+	private void write(int offset, int symbolId, long timestampMillis, long f0, long f1, long f2, long f3, long f4, long f5) {
+		MappedByteBuffer b = buffer;
+		b.putInt(offset + 4, symbolId);
+		b.putLong(offset + 8, timestampMillis);
+		b.putLong(offset + 16, f0);
+		b.putLong(offset + 24, f1);
+		b.putLong(offset + 32, f2);
+		b.putLong(offset + 40, f3);
+		b.putLong(offset + 48, f4);
+		b.putLong(offset + 56, f5);
+	}
+
+	private void commit(int offset, int type) {
+		TickStore.TYPE.setRelease(buffer, offset, type);
+		written++;
+	}
+
+	/** 本写入方提交的记录数, 包括名称与段结束记录 **/
+	public long getWritten() {
+		return written;
+	}
+
+	/** 当前段文件 **/
+	public Path getSegment() {
+		return segment;
+	}
+
+	/**
+	 * 将当前段已写入的页刷到磁盘, 防止断电丢失. JVM 崩溃不需要
+	 */
+	public void force() {
+		if (buffer != null) {
+			buffer.force();
+		}
+	}
+
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+		force();
+		closed = true;
+		store.release(this);
+	}
+}
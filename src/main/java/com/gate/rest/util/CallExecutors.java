@@ -0,0 +1,111 @@
+package com.gate.rest.util;
+
+import lombok.extern.log4j.Log4j2;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author hfg
+ * @description 阻塞接口调用所用的线程池.
+ * <pre>
+ * - Java 21 (jdk21 构建profile) 且开启 gate.http.virtual-threads 时, 每个调用运行在独立的虚拟线程上
+ * - 其余情况使用固定大小的平台线程池
+ * 虚拟线程API 通过 MethodHandle 查找, 因此本类在 Java 11 下同样可以编译运行
+ * </pre>
+ */
+@Log4j2
+public class CallExecutors {
+
+	/** 平台线程池默认大小 **/
+	public static final int DEFAULT_PLATFORM_THREADS = 64;
+
+	private static final MethodHandle NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findVirtualThreadFactory();
+	private static final AtomicInteger threadIndex = new AtomicInteger();
+
+	private static volatile ExecutorService shared = newCallExecutor(Boolean.getBoolean("gate.http.virtual-threads"));
+	private static volatile boolean sharedVirtual = Boolean.getBoolean("gate.http.virtual-threads") && virtualThreadsSupported();
+
+	private CallExecutors() {
+	}
+
+	private static MethodHandle findVirtualThreadFactory() {
+		try {
+			return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+					MethodType.methodType(ExecutorService.class));
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * 当前JVM 是否支持虚拟线程(Java 21+)
+	 */
+	public static boolean virtualThreadsSupported() {
+		return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+	}
+
+	/**
+	 * 每个任务一个虚拟线程的执行器. 不支持时抛出 UnsupportedOperationException
+	 */
+	public static ExecutorService newVirtualThreadPerTaskExecutor() {
+		if (!virtualThreadsSupported()) {
+			throw new UnsupportedOperationException("virtual threads require Java 21, running on " + Runtime.version());
+		}
+		try {
+			return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invokeExact();
+		} catch (Throwable e) {
+			throw new IllegalStateException("create virtual thread executor failed", e);
+		}
+	}
+
+	public static ExecutorService newPlatformExecutor(int threads) {
+		return Executors.newFixedThreadPool(threads, r -> {
+			Thread thread = new Thread(r, "gate-call-" + threadIndex.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * @param virtualThreads 是否使用虚拟线程, JVM 不支持时退回平台线程池
+	 */
+	public static ExecutorService newCallExecutor(boolean virtualThreads) {
+		if (virtualThreads) {
+			if (virtualThreadsSupported()) {
+				return newVirtualThreadPerTaskExecutor();
+			}
+			log.warn("virtual threads requested but not supported on {}, using platform threads", Runtime.version());
+		}
+		return newPlatformExecutor(DEFAULT_PLATFORM_THREADS);
+	}
+
+	/**
+	 * StockRestApi 默认使用的共享执行器
+	 */
+	public static ExecutorService shared() {
+		return shared;
+	}
+
+	/**
+	 * 切换共享执行器, 旧执行器在已提交任务完成后关闭
+	 */
+	public static synchronized void configure(boolean virtualThreads) {
+		boolean virtual = virtualThreads && virtualThreadsSupported();
+		if (virtual == sharedVirtual && !shared.isShutdown()) {
+			return;
+		}
+		ExecutorService previous = shared;
+		shared = newCallExecutor(virtual);
+		sharedVirtual = virtual;
+		previous.shutdown();
+	}
+
+	public static boolean isSharedVirtual() {
+		return sharedVirtual;
+	}
+}
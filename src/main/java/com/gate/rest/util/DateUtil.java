@@ -76,13 +76,50 @@ public class DateUtil {
 
     static final TimeZone UTC = TimeZone.getTimeZone("UTC");
 
+    /** 取当前时间的时钟(UTC), 默认为系统时钟. 本类中的"当前时间"都取自该时钟, 回放历史行情时替换为 VirtualClock **/
+    private static volatile Clock clock = Clock.systemUTC();
+
+    /**
+     * @Description 替换取当前时间的时钟, 传 null 恢复为系统时钟
+     * @param newClock
+     */
+    public static void setClock(Clock newClock) {
+        clock = newClock == null ? Clock.systemUTC() : newClock.withZone(ZoneOffset.UTC);
+    }
+
+    public static Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * @Description 当前时间戳, 取自 getClock()
+     * @return 1604887517919
+     */
+    public static long currentTimeMillis() {
+        return clock.millis();
+    }
+
+    /**
+     * @Description 单调的纳秒时间, 与 getClock() 同速, 只用于计算间隔: 系统时钟时为 System.nanoTime(),
+     * VirtualClock 时为虚拟时间. 轮询, 速率估计与缓存有效期都取自这里, 回放时跟随虚拟时间. 替换时钟前后的值不可比较
+     * @return
+     */
+    public static long nanoTime() {
+        Clock current = clock;
+        return current instanceof VirtualClock ? ((VirtualClock) current).nanos() : System.nanoTime();
+    }
+
+    static Date now() {
+        return new Date(clock.millis());
+    }
+
     static interface FormatWorker<R> {
 
         R doWork(SimpleDateFormat formatter) throws Exception;
     }
 
     static String formatInUTC(String pattern) {
-        return formatInZone(pattern, UTC, formatter -> formatter.format(new Date()));
+        return formatInZone(pattern, UTC, formatter -> formatter.format(now()));
     }
 
     static <R> R formatInUTC(String pattern, FormatWorker<R> worker) {
@@ -106,7 +143,7 @@ public class DateUtil {
     }
 
     static <R> R doInUTC(CalendarWorker<R> worker) {
-        return doInUTC(new Date(), worker);
+        return doInUTC(now(), worker);
     }
 
     static <R> R doInUTC(Date date, CalendarWorker<R> worker) {
@@ -130,7 +167,7 @@ public class DateUtil {
     }
 
     static Date changeInUTC(CalendarDateWorker worker) {
-        return doInUTC(new Date(), calendar -> {
+        return doInUTC(now(), calendar -> {
             worker.doWork(calendar);
             return calendar.getTime();
         });
@@ -247,7 +284,7 @@ public class DateUtil {
      * @return 2020-11-09
      */
     public static String getUTCDateOnly() {
-        return formatInUTC(DATE_PATTERN, formatter -> formatter.format(new Date()));
+        return formatInUTC(DATE_PATTERN, formatter -> formatter.format(now()));
     }
 
     /**
@@ -255,7 +292,7 @@ public class DateUtil {
      * @return 00:00:00
      */
     public static String getUTCTimeOnly() {
-        return formatInUTC(TIME_PATTERN, formatter -> formatter.format(new Date()));
+        return formatInUTC(TIME_PATTERN, formatter -> formatter.format(now()));
     }
 
     /**
@@ -263,7 +300,7 @@ public class DateUtil {
      ** @return 2020-11-09 02:45:35
      */
     public static String getUTCDateTime() {
-        return formatInUTC(DATE_TIME_PATTERN, formatter -> formatter.format(new Date()));
+        return formatInUTC(DATE_TIME_PATTERN, formatter -> formatter.format(now()));
     }
 
     /**
@@ -271,7 +308,7 @@ public class DateUtil {
      * @return 2020-11-09T02:45:35Z
      */
     public static String getUTCSolrPattern() {
-        return formatInUTC(SOLR_PATTERN, formatter -> formatter.format(new Date()));
+        return formatInUTC(SOLR_PATTERN, formatter -> formatter.format(now()));
     }
 
     /**
@@ -290,7 +327,7 @@ public class DateUtil {
      * @return
      */
     public static String getUTCWithPattern(String pattern) {
-        return formatInUTC(pattern, formatter -> formatter.format(new Date()));
+        return formatInUTC(pattern, formatter -> formatter.format(now()));
     }
 
     /**
@@ -441,7 +478,7 @@ public class DateUtil {
      * @return Sat Nov 14 11:44:23 CST 2020
      */
     public static Date addDays(int day) {
-        return addDays(new Date(), day);
+        return addDays(now(), day);
     }
 
     /**
@@ -460,7 +497,7 @@ public class DateUtil {
      * @return Sat Nov 14 11:44:23 CST 2020
      */
     public static Date addSeconds(int second) {
-        return addSeconds(new Date(), second);
+        return addSeconds(now(), second);
     }
 
     /**
@@ -479,7 +516,7 @@ public class DateUtil {
      * @return Sat Nov 14 11:44:23 CST 2020
      */
     public static Date addMinutes(int minute) {
-        return addMinutes(new Date(), minute);
+        return addMinutes(now(), minute);
     }
 
     /**
@@ -499,7 +536,7 @@ public class DateUtil {
      * @return Sat Nov 14 11:44:23 CST 2020
      */
     public static Date addMonths(int month) {
-        return addMonths(new Date(), month);
+        return addMonths(now(), month);
     }
 
     /**
@@ -519,7 +556,7 @@ public class DateUtil {
      * @return Sat Nov 14 11:44:23 CST 2020
      */
     public static Date addYears(int year) {
-        return addYears(new Date(), year);
+        return addYears(now(), year);
     }
 
     public static int age(String birthday) {
@@ -563,7 +600,7 @@ public class DateUtil {
      * @return
      */
     public static Duration durationTo(Date date) {
-        return Duration.between(Instant.ofEpochMilli(System.currentTimeMillis()), Instant.ofEpochMilli(date.getTime()));
+        return Duration.between(Instant.ofEpochMilli(currentTimeMillis()), Instant.ofEpochMilli(date.getTime()));
     }
 
     /**
@@ -573,7 +610,7 @@ public class DateUtil {
      * @return
      */
     public static Duration durationFrom(Date date) {
-        return Duration.between(Instant.ofEpochMilli(date.getTime()), Instant.ofEpochMilli(System.currentTimeMillis()));
+        return Duration.between(Instant.ofEpochMilli(date.getTime()), Instant.ofEpochMilli(currentTimeMillis()));
     }
 
     /**
@@ -662,7 +699,7 @@ public class DateUtil {
      * @return 到期 True， 未到期False
      */
     public static boolean dateTimeExpired(String checking) {
-        return fromUTCDateTime(checking).getTime() < System.currentTimeMillis();
+        return fromUTCDateTime(checking).getTime() < currentTimeMillis();
     }
 
     /**
@@ -671,7 +708,7 @@ public class DateUtil {
      * @return 到期 True， 未到期False
      */
     public static boolean expired(Date checking) {
-        return checking.getTime() < System.currentTimeMillis();
+        return checking.getTime() < currentTimeMillis();
     }
 
 
@@ -680,7 +717,7 @@ public class DateUtil {
      * @return 2020-11-10T00:57:28
      */
     public static LocalDateTime getUTCLocalDateTime() {
-        return LocalDateTime.now(Clock.systemUTC());
+        return LocalDateTime.now(clock);
     }
 
 
@@ -689,7 +726,7 @@ public class DateUtil {
      * @return 2020-11-10T00:57:28
      */
     public static LocalDate getUTCLocalDate() {
-        return LocalDate.now(Clock.systemUTC());
+        return LocalDate.now(clock);
     }
 
     /**
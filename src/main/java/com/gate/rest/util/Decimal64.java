@@ -0,0 +1,286 @@
+package com.gate.rest.util;
+
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @author hfg
+ * @description long 定点数运算, 与 FixedPoint 使用相同的表示: 真实值 = value / 10^scale, 小数位数由调用方显式传入.
+ * 下单数量/价格的计算不创建对象: 乘除使用 128 位中间结果, 舍入方式与 BigDecimal 的 RoundingMode 一致,
+ * 结果超出 long 时抛出 ArithmeticException, 格式化直接写入字节数组(见 RequestSigner.SignedBody.param)
+ * <pre>
+ * // 价格 1795.5(scale 2) * 数量 0.5(scale 8), 结果保留 8 位
+ * long notional = Decimal64.multiply(179550, 2, 50000000, 8, 8, RoundingMode.HALF_UP);
+ * // 数量按最小变动单位向下取整
+ * long amount = Decimal64.roundToIncrement(raw, lot, RoundingMode.DOWN);
+ * </pre>
+ */
+public final class Decimal64 {
+
+	private static final long TEN_POW_18 = FixedPoint.pow10(18);
+
+	private Decimal64() {
+	}
+
+	public static long add(long a, long b) {
+		return Math.addExact(a, b);
+	}
+
+	public static long subtract(long a, long b) {
+		return Math.subtractExact(a, b);
+	}
+
+	/**
+	 * 不同小数位数相加, 先在较大的小数位数上精确求和, 再舍入到 scale
+	 */
+	public static long add(long a, int aScale, long b, int bScale, int scale, RoundingMode mode) {
+		int common = Math.max(aScale, bScale);
+		long sum = Math.addExact(rescale(a, aScale, common, mode), rescale(b, bScale, common, mode));
+		return rescale(sum, common, scale, mode);
+	}
+
+	/**
+	 * a * b, 结果保留 scale 位小数
+	 */
+	public static long multiply(long a, int aScale, long b, int bScale, int scale, RoundingMode mode) {
+		FixedPoint.checkScale(aScale);
+		FixedPoint.checkScale(bScale);
+		FixedPoint.checkScale(scale);
+		int shift = aScale + bScale - scale;
+		if (shift <= 0) {
+			return Math.multiplyExact(Math.multiplyExact(a, b), FixedPoint.pow10(-shift));
+		}
+		boolean negative = (a < 0) != (b < 0);
+		// 绝对值按无符号处理, Long.MIN_VALUE 的绝对值为 2^63
+		long x = Math.abs(a);
+		long y = Math.abs(b);
+		long lo = x * y;
+		long hi = unsignedMultiplyHigh(x, y);
+		if (shift <= 18) {
+			return divide128(hi, lo, FixedPoint.pow10(shift), false, negative, mode);
+		}
+		// 除数超出 long, 分两次相除, 第一次的余数只影响舍入
+		long d1 = FixedPoint.pow10(shift - 18);
+		long qh = Long.divideUnsigned(hi, d1);
+		long ql = divideUnsigned128(Long.remainderUnsigned(hi, d1), lo, d1);
+		boolean sticky = lo - ql * d1 != 0;
+		return divide128(qh, ql, TEN_POW_18, sticky, negative, mode);
+	}
+
+	/**
+	 * a / b, 结果保留 scale 位小数
+	 */
+	public static long divide(long a, int aScale, long b, int bScale, int scale, RoundingMode mode) {
+		FixedPoint.checkScale(aScale);
+		FixedPoint.checkScale(bScale);
+		FixedPoint.checkScale(scale);
+		if (b == 0) {
+			throw new ArithmeticException("Division by zero");
+		}
+		boolean negative = (a < 0) != (b < 0);
+		long x = Math.abs(a);
+		long y = Math.abs(b);
+		int shift = scale + bScale - aScale;
+		if (shift < 0) {
+			y = Math.multiplyExact(y, FixedPoint.pow10(-shift));
+			return divide128(0, x, y, false, negative, mode);
+		}
+		long multiplier = FixedPoint.pow10(shift);
+		return divide128(unsignedMultiplyHigh(x, multiplier), x * multiplier, y, false, negative, mode);
+	}
+
+	/**
+	 * 转换小数位数, 缩小时按 mode 舍入
+	 */
+	public static long rescale(long value, int scale, int newScale, RoundingMode mode) {
+		FixedPoint.checkScale(scale);
+		FixedPoint.checkScale(newScale);
+		if (newScale >= scale) {
+			return Math.multiplyExact(value, FixedPoint.pow10(newScale - scale));
+		}
+		long divisor = FixedPoint.pow10(scale - newScale);
+		return round(Math.abs(value / divisor), Math.abs(value % divisor), divisor, false, value < 0, mode);
+	}
+
+	/**
+	 * 按最小变动单位取整, 如价格按 tick, 数量按 lot. value 与 increment 的小数位数相同
+	 */
+	public static long roundToIncrement(long value, long increment, RoundingMode mode) {
+		if (increment <= 0) {
+			throw new IllegalArgumentException("increment must be positive: " + increment);
+		}
+		long units = round(Math.abs(value / increment), Math.abs(value % increment), increment, false, value < 0, mode);
+		return Math.multiplyExact(units, increment);
+	}
+
+	/**
+	 * 比较不同小数位数的两个数
+	 */
+	public static int compare(long a, int aScale, long b, int bScale) {
+		if (aScale == bScale) {
+			return Long.compare(a, b);
+		}
+		if ((a < 0) != (b < 0)) {
+			return a < 0 ? -1 : 1;
+		}
+		try {
+			return aScale < bScale
+					? Long.compare(rescale(a, aScale, bScale, RoundingMode.UNNECESSARY), b)
+					: Long.compare(a, rescale(b, bScale, aScale, RoundingMode.UNNECESSARY));
+		} catch (ArithmeticException e) {
+			// 放大后超出 long, 被放大的一方绝对值更大
+			boolean aLarger = aScale < bScale;
+			return (a < 0) == aLarger ? -1 : 1;
+		}
+	}
+
+	/**
+	 * 写入十进制字符串, 去掉小数末尾的 0, 如 (179550, 2) -> "1795.5", (100, 2) -> "1"
+	 *
+	 * @return 写入后的位置
+	 */
+	public static int format(long value, int scale, byte[] buffer, int offset) {
+		FixedPoint.checkScale(scale);
+		if (value < 0) {
+			buffer[offset++] = '-';
+		}
+		long magnitude = Math.abs(value);
+		long unit = FixedPoint.pow10(scale);
+		long integer = magnitude < 0 ? Long.divideUnsigned(magnitude, unit) : magnitude / unit;
+		long fraction = magnitude < 0 ? Long.remainderUnsigned(magnitude, unit) : magnitude % unit;
+		offset = writeUnsigned(integer, buffer, offset);
+		if (fraction != 0) {
+			int digits = scale;
+			while (fraction % 10 == 0) {
+				fraction /= 10;
+				digits--;
+			}
+			buffer[offset++] = '.';
+			for (int i = offset + digits - 1; i >= offset; i--) {
+				buffer[i] = (byte) ('0' + fraction % 10);
+				fraction /= 10;
+			}
+			offset += digits;
+		}
+		return offset;
+	}
+
+	/**
+	 * format 写入的最大长度
+	 */
+	public static int maxFormattedLength(int scale) {
+		// 符号 + 19 位整数 + 小数点 + scale 位小数
+		return 21 + scale;
+	}
+
+	public static String toString(long value, int scale) {
+		byte[] buffer = new byte[maxFormattedLength(scale)];
+		int length = format(value, scale, buffer, 0);
+		return new String(buffer, 0, length, StandardCharsets.US_ASCII);
+	}
+
+	private static int writeUnsigned(long value, byte[] buffer, int offset) {
+		if (value < 0) {
+			// 只有 Long.MIN_VALUE 的绝对值 2^63
+			offset = writeUnsigned(Long.divideUnsigned(value, 10), buffer, offset);
+			buffer[offset] = (byte) ('0' + Long.remainderUnsigned(value, 10));
+			return offset + 1;
+		}
+		int digits = 1;
+		for (long rest = value / 10; rest != 0; rest /= 10) {
+			digits++;
+		}
+		for (int i = offset + digits - 1; i >= offset; i--) {
+			buffer[i] = (byte) ('0' + value % 10);
+			value /= 10;
+		}
+		return offset + digits;
+	}
+
+	/**
+	 * 无符号 128 位 (hi, lo) 除以 divisor, 商需在 long 范围内, 按 mode 舍入后加上符号
+	 */
+	private static long divide128(long hi, long lo, long divisor, boolean sticky, boolean negative, RoundingMode mode) {
+		long quotient;
+		long remainder;
+		if (hi == 0) {
+			quotient = Long.divideUnsigned(lo, divisor);
+			remainder = Long.remainderUnsigned(lo, divisor);
+		} else {
+			if (Long.compareUnsigned(hi, divisor) >= 0) {
+				throw new ArithmeticException("long overflow");
+			}
+			quotient = divideUnsigned128(hi, lo, divisor);
+			remainder = lo - quotient * divisor;
+		}
+		return round(quotient, remainder, divisor, sticky, negative, mode);
+	}
+
+	/**
+	 * 逐位长除法, 要求 hi < divisor < 2^63, 返回商; 余数 = lo - 商 * divisor
+	 */
+	private static long divideUnsigned128(long hi, long lo, long divisor) {
+		long remainder = hi;
+		long quotient = 0;
+		for (int i = 63; i >= 0; i--) {
+			remainder = (remainder << 1) | ((lo >>> i) & 1);
+			quotient <<= 1;
+			if (Long.compareUnsigned(remainder, divisor) >= 0) {
+				remainder -= divisor;
+				quotient |= 1;
+			}
+		}
+		return quotient;
+	}
+
+	/**
+	 * 对无符号商按余数舍入
+	 *
+	 * @param sticky 被忽略的更低位是否非零
+	 */
+	private static long round(long quotient, long remainder, long divisor, boolean sticky, boolean negative, RoundingMode mode) {
+		if (remainder != 0 || sticky) {
+			boolean up;
+			int half = remainder == divisor - remainder ? (sticky ? 1 : 0) : Long.compare(remainder, divisor - remainder);
+			switch (mode) {
+				case UP:
+					up = true;
+					break;
+				case DOWN:
+					up = false;
+					break;
+				case CEILING:
+					up = !negative;
+					break;
+				case FLOOR:
+					up = negative;
+					break;
+				case HALF_UP:
+					up = half >= 0;
+					break;
+				case HALF_DOWN:
+					up = half > 0;
+					break;
+				case HALF_EVEN:
+					up = half > 0 || (half == 0 && (quotient & 1) == 1);
+					break;
+				default:
+					throw new ArithmeticException("Rounding necessary");
+			}
+			if (up) {
+				quotient++;
+			}
+		}
+		if (quotient < 0 && !(negative && quotient == Long.MIN_VALUE)) {
+			throw new ArithmeticException("long overflow");
+		}
+		return negative ? -quotient : quotient;
+	}
+
+	/**
+	 * 无符号 64 位乘法的高 64 位
+	 */
+	private static long unsignedMultiplyHigh(long x, long y) {
+		return Math.multiplyHigh(x, y) + ((x >> 63) & y) + ((y >> 63) & x);
+	}
+}
@@ -0,0 +1,43 @@
+package com.gate.rest.util;
+
+/**
+ * @author hfg
+ * @description 接口分组, 限流按分组计算
+ */
+public enum EndpointGroup {
+	/** 公共行情: pairs/marketinfo/tickers/orderBook/tradeHistory 等 **/
+	PUBLIC_MARKET(false),
+	/** 私有查询: 余额/充值地址/订单/成交记录 **/
+	PRIVATE_QUERY(false),
+	/** 私有交易: 下单/撤单/提现, 可使用为其保留的总限额 **/
+	PRIVATE_TRADING(true);
+
+	private final boolean priority;
+
+	EndpointGroup(boolean priority) {
+		this.priority = priority;
+	}
+
+	public boolean isPriority() {
+		return priority;
+	}
+
+	/**
+	 * 根据私有接口地址判断分组, 用于未显式指定分组的 doRequest 调用
+	 */
+	public static EndpointGroup ofPrivateUrl(String url) {
+		int slash = url.lastIndexOf('/');
+		String name = slash < 0 ? url : url.substring(slash + 1);
+		switch (name) {
+			case "buy":
+			case "sell":
+			case "cancelOrder":
+			case "cancelOrders":
+			case "cancelAllOrders":
+			case "withdraw":
+				return PRIVATE_TRADING;
+			default:
+				return PRIVATE_QUERY;
+		}
+	}
+}
@@ -0,0 +1,202 @@
+package com.gate.rest.util;
+
+import com.gate.rest.base.RateLimitConfig;
+
+import java.io.InterruptedIOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * @author hfg
+ * @description 按接口分组限流. 请求需同时取得分组令牌与交易所总限额令牌, 取不到时在分组队列中等待.
+ * 总限额中保留 tradingReserve 个令牌只给交易分组使用, 行情轮询占满自身额度时下单/撤单仍能立即发出.
+ * 同步请求(HttpUtilManager)使用 acquire, 异步请求(HttpAsyncManager)使用 acquireAsync, 共享同一组令牌桶
+ */
+public class EndpointRateLimiter {
+
+	private static final class Lane {
+		final TokenBucket bucket;
+		final int maxQueue;
+		final long maxWaitNanos;
+		final AtomicInteger waiting = new AtomicInteger();
+
+		Lane(RateLimitConfig.Limit limit) {
+			this.bucket = new TokenBucket(limit.getPermitsPerSecond(), limit.getBurst());
+			this.maxQueue = limit.getMaxQueue();
+			this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(limit.getMaxWaitMillis());
+		}
+	}
+
+	private static final class Limits {
+		final boolean enabled;
+		final TokenBucket global;
+		final int tradingReserve;
+		final Map<EndpointGroup, Lane> lanes = new EnumMap<>(EndpointGroup.class);
+
+		Limits(RateLimitConfig config) {
+			this.enabled = config.isEnabled();
+			this.global = new TokenBucket(config.getGlobal().getPermitsPerSecond(), config.getGlobal().getBurst());
+			this.tradingReserve = config.getTradingReserve();
+			// 保留额度不小于总限额容量时, 非交易请求永远取不到令牌, 只会等到超时
+			if (tradingReserve < 0 || tradingReserve >= config.getGlobal().getBurst()) {
+				throw new IllegalArgumentException("tradingReserve must be in [0, global.burst): "
+						+ tradingReserve + " (global.burst " + config.getGlobal().getBurst() + ")");
+			}
+			lanes.put(EndpointGroup.PUBLIC_MARKET, new Lane(config.getPublicMarket()));
+			lanes.put(EndpointGroup.PRIVATE_QUERY, new Lane(config.getPrivateQuery()));
+			lanes.put(EndpointGroup.PRIVATE_TRADING, new Lane(config.getPrivateTrading()));
+		}
+	}
+
+	private static final CompletableFuture<Void> ACQUIRED = CompletableFuture.completedFuture(null);
+
+	private final Map<EndpointGroup, LongAdder> throttled = new EnumMap<>(EndpointGroup.class);
+	private final Map<EndpointGroup, LongAdder> rejected = new EnumMap<>(EndpointGroup.class);
+	private volatile Limits limits;
+
+	public EndpointRateLimiter(RateLimitConfig config) {
+		for (EndpointGroup group : EndpointGroup.values()) {
+			throttled.put(group, new LongAdder());
+			rejected.put(group, new LongAdder());
+		}
+		configure(config);
+	}
+
+	/**
+	 * 替换限流配置, 令牌桶重新计数. 正在等待的请求按旧配置完成
+	 * @throws IllegalArgumentException tradingReserve 为负数或不小于 global.burst
+	 */
+	public void configure(RateLimitConfig config) {
+		this.limits = new Limits(config);
+	}
+
+	/**
+	 * 取得一个令牌, 必要时等待
+	 * @throws RateLimitExceededException 等待队列已满或等待超时
+	 * @throws InterruptedIOException 等待时被中断
+	 */
+	public void acquire(EndpointGroup group) throws RateLimitExceededException, InterruptedIOException {
+		Limits limits = this.limits;
+		if (!limits.enabled) {
+			return;
+		}
+		Lane lane = limits.lanes.get(group);
+		long now = System.nanoTime();
+		long wait = tryAcquire(limits, lane, group, now);
+		if (wait == 0) {
+			return;
+		}
+		throttled.get(group).increment();
+		try {
+			if (lane.waiting.incrementAndGet() > lane.maxQueue) {
+				rejected.get(group).increment();
+				throw new RateLimitExceededException(group, "wait queue full (" + lane.maxQueue + ")");
+			}
+			long deadline = now + lane.maxWaitNanos;
+			while (wait > 0) {
+				if (now + wait - deadline > 0) {
+					rejected.get(group).increment();
+					throw new RateLimitExceededException(group, "no permit within " +
+							TimeUnit.NANOSECONDS.toMillis(lane.maxWaitNanos) + "ms");
+				}
+				LockSupport.parkNanos(this, wait);
+				if (Thread.interrupted()) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException("interrupted waiting for " + group + " permit");
+				}
+				now = System.nanoTime();
+				wait = tryAcquire(limits, lane, group, now);
+			}
+		} finally {
+			lane.waiting.decrementAndGet();
+		}
+	}
+
+	/**
+	 * acquire 的非阻塞版本, 供 HttpAsyncManager 使用: 需要等待时由 CompletableFuture.delayedExecutor 定时重试,
+	 * 不占用调用方或事件循环线程. 排队上限, 最长等待与交易保留额度与 acquire 相同,
+	 * 被拒绝时 future 以 RateLimitExceededException 完成
+	 */
+	public CompletableFuture<Void> acquireAsync(EndpointGroup group) {
+		Limits limits = this.limits;
+		if (!limits.enabled) {
+			return ACQUIRED;
+		}
+		Lane lane = limits.lanes.get(group);
+		long now = System.nanoTime();
+		long wait = tryAcquire(limits, lane, group, now);
+		if (wait == 0) {
+			return ACQUIRED;
+		}
+		throttled.get(group).increment();
+		if (lane.waiting.incrementAndGet() > lane.maxQueue) {
+			lane.waiting.decrementAndGet();
+			rejected.get(group).increment();
+			return CompletableFuture.failedFuture(new RateLimitExceededException(group, "wait queue full (" + lane.maxQueue + ")"));
+		}
+		CompletableFuture<Void> acquired = new CompletableFuture<>();
+		retry(limits, lane, group, now + lane.maxWaitNanos, now, wait, acquired);
+		return acquired;
+	}
+
+	private void retry(Limits limits, Lane lane, EndpointGroup group, long deadline, long now, long wait,
+			CompletableFuture<Void> acquired) {
+		if (now + wait - deadline > 0) {
+			lane.waiting.decrementAndGet();
+			rejected.get(group).increment();
+			acquired.completeExceptionally(new RateLimitExceededException(group, "no permit within " +
+					TimeUnit.NANOSECONDS.toMillis(lane.maxWaitNanos) + "ms"));
+			return;
+		}
+		CompletableFuture.delayedExecutor(wait, TimeUnit.NANOSECONDS).execute(() -> {
+			long later = System.nanoTime();
+			long next = tryAcquire(limits, lane, group, later);
+			if (next == 0) {
+				lane.waiting.decrementAndGet();
+				acquired.complete(null);
+			} else {
+				retry(limits, lane, group, deadline, later, next, acquired);
+			}
+		});
+	}
+
+	/**
+	 * @return 0 表示已取得分组与总限额令牌, 否则为需要等待的纳秒数
+	 */
+	private long tryAcquire(Limits limits, Lane lane, EndpointGroup group, long now) {
+		long wait = lane.bucket.tryAcquire(now, 0);
+		if (wait > 0) {
+			return wait;
+		}
+		wait = limits.global.tryAcquire(now, group.isPriority() ? 0 : limits.tradingReserve);
+		if (wait > 0) {
+			lane.bucket.refund();
+		}
+		return wait;
+	}
+
+	/** 当前等待令牌的请求数 **/
+	public int getWaiting(EndpointGroup group) {
+		return limits.lanes.get(group).waiting.get();
+	}
+
+	/** 需要等待令牌的请求数(累计) **/
+	public long getThrottled(EndpointGroup group) {
+		return throttled.get(group).sum();
+	}
+
+	/** 被拒绝的请求数(累计) **/
+	public long getRejected(EndpointGroup group) {
+		return rejected.get(group).sum();
+	}
+
+	/** 总限额当前可用令牌数(估算) **/
+	public long getGlobalAvailable() {
+		return limits.global.available(System.nanoTime());
+	}
+}
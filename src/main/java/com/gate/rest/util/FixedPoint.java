@@ -0,0 +1,134 @@
+package com.gate.rest.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * @author hfg
+ * @description 定点数工具: 数值以 long 存储, 真实值 = value / 10^scale.
+ * 行情中的价格与数量按交易对的小数位数转换为 long 后, 读取与比较都不需要 String / BigDecimal
+ */
+public final class FixedPoint {
+
+	/** long 可以无损表示的最大小数位数 **/
+	public static final int MAX_SCALE = 18;
+
+	private static final long[] POW10 = new long[MAX_SCALE + 1];
+
+	static {
+		POW10[0] = 1;
+		for (int i = 1; i <= MAX_SCALE; i++) {
+			POW10[i] = POW10[i - 1] * 10;
+		}
+	}
+
+	private FixedPoint() {
+	}
+
+	/**
+	 * 10 的 scale 次方
+	 */
+	public static long pow10(int scale) {
+		return POW10[checkScale(scale)];
+	}
+
+	public static int checkScale(int scale) {
+		if (scale < 0 || scale > MAX_SCALE) {
+			throw new IllegalArgumentException("scale out of range: " + scale);
+		}
+		return scale;
+	}
+
+	/**
+	 * 解析十进制字符串, 如 "0.0610169", "-1.08". 超出 scale 的小数位四舍五入(HALF_UP), 溢出抛出 ArithmeticException
+	 */
+	public static long parse(CharSequence text, int scale) {
+		checkScale(scale);
+		int length = text.length();
+		int i = 0;
+		boolean negative = false;
+		if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+			negative = text.charAt(0) == '-';
+			i++;
+		}
+		if (i == length) {
+			throw new NumberFormatException("not a number: \"" + text + "\"");
+		}
+		long value = 0;
+		int fraction = -1;
+		boolean roundUp = false;
+		for (; i < length; i++) {
+			char c = text.charAt(i);
+			if (c == '.' && fraction < 0) {
+				fraction = 0;
+			} else if (c >= '0' && c <= '9') {
+				if (fraction < scale) {
+					value = Math.addExact(Math.multiplyExact(value, 10), c - '0');
+					if (fraction >= 0) {
+						fraction++;
+					}
+				} else if (fraction == scale) {
+					// 只看第一个被舍弃的数字
+					roundUp = c >= '5';
+					fraction++;
+				}
+			} else {
+				throw new NumberFormatException("not a number: \"" + text + "\"");
+			}
+		}
+		return finish(value, Math.max(fraction, 0), scale, roundUp, negative);
+	}
+
+	/**
+	 * 按已读取的整数部分与小数位数补齐到 scale, 供流式解析使用
+	 *
+	 * @param digits   已读取的数字(不含小数点)
+	 * @param fraction digits 中的小数位数, 不超过 scale
+	 * @param roundUp  第一个被舍弃的数字是否 >= 5
+	 */
+	public static long finish(long digits, int fraction, int scale, boolean roundUp, boolean negative) {
+		long value = Math.multiplyExact(digits, POW10[scale - Math.min(fraction, scale)]);
+		if (roundUp) {
+			value = Math.addExact(value, 1);
+		}
+		return negative ? -value : value;
+	}
+
+	/**
+	 * 转换为另一个小数位数, 缩小时四舍五入(HALF_UP), 其他舍入方式见 Decimal64.rescale
+	 */
+	public static long rescale(long value, int scale, int newScale) {
+		return Decimal64.rescale(value, scale, newScale, RoundingMode.HALF_UP);
+	}
+
+	public static BigDecimal toBigDecimal(long value, int scale) {
+		return BigDecimal.valueOf(value, scale);
+	}
+
+	public static double toDouble(long value, int scale) {
+		return (double) value / POW10[scale];
+	}
+
+	/**
+	 * 按 scale 输出全部小数位, 如 (61017, 6) -> "0.061017"
+	 */
+	public static String toString(long value, int scale) {
+		return append(new StringBuilder(24), value, scale).toString();
+	}
+
+	public static StringBuilder append(StringBuilder out, long value, int scale) {
+		if (value < 0) {
+			out.append('-');
+		}
+		long integer = Math.abs(value / POW10[scale]);
+		long fraction = Math.abs(value % POW10[scale]);
+		out.append(integer);
+		if (scale > 0) {
+			out.append('.');
+			for (int i = scale - 1; i >= 0; i--) {
+				out.append((char) ('0' + fraction / POW10[i] % 10));
+			}
+		}
+		return out;
+	}
+}
@@ -0,0 +1,116 @@
+package com.gate.rest.util;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * @author hfg
+ * @description 非阻塞 HTTP 请求, 基于 JDK HttpClient. 请求在少量事件循环线程上完成, 不占用调用方线程.
+ * 事件循环与客户端是静态的, 被 getInstance() 与 Spring 容器中的实例共用, 不随容器关闭; 线程为守护线程, 不阻止 JVM 退出
+ */
+@Component
+@Log4j2
+public class HttpAsyncManager {
+
+	/** 事件循环线程数, 少量线程即可维持数千个并发请求 **/
+	private static final int EVENT_LOOP_THREADS = Integer.getInteger("gate.http.async.threads",
+			Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())));
+	private static final Duration TIMEOUT = Duration.ofSeconds(20);
+	private static final AtomicInteger threadIndex = new AtomicInteger();
+	private static final ExecutorService eventLoop = Executors.newFixedThreadPool(EVENT_LOOP_THREADS, r -> {
+		Thread thread = new Thread(r, "gate-http-async-" + threadIndex.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	});
+	private static final HttpClient client = HttpClient.newBuilder()
+			.executor(eventLoop)
+			.connectTimeout(TIMEOUT)
+			.followRedirects(HttpClient.Redirect.NORMAL)
+			.build();
+	private static final HttpAsyncManager instance = new HttpAsyncManager();
+
+	private HttpAsyncManager() {
+	}
+
+	public static HttpAsyncManager getInstance() {
+		return instance;
+	}
+
+	public HttpClient getHttpClient() {
+		return client;
+	}
+
+	public CompletableFuture<String> requestHttpGet(String url_prex, String url, String param) {
+		url = url_prex + url;
+		if (param != null && !param.equals("")) {
+			if (url.endsWith("?")) {
+				url = url + param;
+			} else {
+				url = url + "?" + param;
+			}
+		}
+		HttpRequest request;
+		try {
+			request = HttpRequest.newBuilder(URI.create(url))
+					.timeout(TIMEOUT)
+					.GET()
+					.build();
+		} catch (RuntimeException e) {
+			// 非法的交易对或地址与 doRequest 一样通过 future 返回
+			return CompletableFuture.failedFuture(e);
+		}
+		return send(EndpointGroup.PUBLIC_MARKET, request);
+	}
+
+	/**
+	 * 签名请求, 签名方式与 HttpUtilManager#doRequest 一致
+	 */
+	public CompletableFuture<String> doRequest(String requestType, String url, Map<String, String> arguments) {
+		HttpRequest request;
+		try {
+			RequestSigner signer = RequestSigner.of(arguments.get("key"), arguments.get("secret"));
+			HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+					.timeout(TIMEOUT)
+					.header("Key", signer.getKey());
+			// 请求在其他线程上发送, 请求体需复制出签名器的缓冲区
+			try (RequestSigner.SignedBody body = signer.sign(arguments)) {
+				builder.header("Sign", body.signature());
+				if ("post".equals(requestType)) {
+					builder.header("Content-Type", "application/x-www-form-urlencoded; charset=UTF-8")
+							.POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()));
+				} else if ("get".equals(requestType)) {
+					builder.GET();
+				} else {
+					throw new IllegalArgumentException("unsupported request type: " + requestType);
+				}
+			}
+			request = builder.build();
+		} catch (RuntimeException e) {
+			// 参数或签名错误同样通过 future 返回, 调用方无需再包一层 try
+			return CompletableFuture.failedFuture(e);
+		}
+		return send(EndpointGroup.ofPrivateUrl(url), request);
+	}
+
+	/**
+	 * 与同步请求共用 HttpUtilManager.rateLimiter, 取得令牌后才发出; 被限流拒绝时 future 以 RateLimitExceededException 完成
+	 */
+	private CompletableFuture<String> send(EndpointGroup group, HttpRequest request) {
+		return HttpUtilManager.rateLimiter.acquireAsync(group)
+				.thenCompose(acquired -> client.sendAsync(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8)))
+				.thenApply(HttpResponse::body);
+	}
+}
@@ -0,0 +1,86 @@
+package com.gate.rest.util;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * @author hfg
+ * @description 连接池指标, 通过 actuator 暴露: /actuator/metrics/gate.http.pool.leased?tag=pool:public
+ * <pre>
+ * gate.http.pool.leased     已借出连接数
+ * gate.http.pool.pending    等待连接的请求数
+ * gate.http.pool.available  空闲可复用连接数
+ * gate.http.pool.max        最大连接数
+ * gate.http.pool.usage      占用率 (leased / max)
+ *
+ * gate.http.coalesce.hits   合并的公共 GET 请求数, type=inflight 加入正在执行的请求, type=window 复用窗口内的结果
+ * gate.http.coalesce.misses 实际发出的公共 GET 请求数
+ *
+ * gate.http.ratelimit.waiting    正在等待限流令牌的请求数, 按 group 区分
+ * gate.http.ratelimit.throttled  需要等待令牌的请求数
+ * gate.http.ratelimit.rejected   等待队列已满或等待超时被拒绝的请求数
+ * gate.http.ratelimit.available  交易所总限额当前可用令牌数
+ * </pre>
+ */
+@Component
+public class HttpPoolMetrics implements MeterBinder {
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		bind(registry, "public", HttpUtilManager.cm);
+		bind(registry, "private", HttpUtilManager.privateCm);
+		bindCoalescer(registry, HttpUtilManager.coalescer);
+		bindRateLimiter(registry, HttpUtilManager.rateLimiter);
+	}
+
+	private void bindRateLimiter(MeterRegistry registry, EndpointRateLimiter limiter) {
+		for (EndpointGroup group : EndpointGroup.values()) {
+			String tag = group.name().toLowerCase();
+			Gauge.builder("gate.http.ratelimit.waiting", limiter, l -> l.getWaiting(group))
+					.tag("group", tag)
+					.register(registry);
+			FunctionCounter.builder("gate.http.ratelimit.throttled", limiter, l -> l.getThrottled(group))
+					.tag("group", tag)
+					.register(registry);
+			FunctionCounter.builder("gate.http.ratelimit.rejected", limiter, l -> l.getRejected(group))
+					.tag("group", tag)
+					.register(registry);
+		}
+		Gauge.builder("gate.http.ratelimit.available", limiter, EndpointRateLimiter::getGlobalAvailable)
+				.register(registry);
+	}
+
+	private void bindCoalescer(MeterRegistry registry, SingleFlight<?, ?> coalescer) {
+		FunctionCounter.builder("gate.http.coalesce.hits", coalescer, SingleFlight::getInflightHits)
+				.tag("type", "inflight")
+				.register(registry);
+		FunctionCounter.builder("gate.http.coalesce.hits", coalescer, SingleFlight::getWindowHits)
+				.tag("type", "window")
+				.register(registry);
+		FunctionCounter.builder("gate.http.coalesce.misses", coalescer, SingleFlight::getMisses)
+				.register(registry);
+	}
+
+	private void bind(MeterRegistry registry, String pool, PoolingHttpClientConnectionManager manager) {
+		gauge(registry, "gate.http.pool.leased", pool, manager, PoolStats::getLeased);
+		gauge(registry, "gate.http.pool.pending", pool, manager, PoolStats::getPending);
+		gauge(registry, "gate.http.pool.available", pool, manager, PoolStats::getAvailable);
+		gauge(registry, "gate.http.pool.max", pool, manager, PoolStats::getMax);
+		gauge(registry, "gate.http.pool.usage", pool, manager, stats ->
+				stats.getMax() == 0 ? 0 : (double) stats.getLeased() / stats.getMax());
+	}
+
+	private void gauge(MeterRegistry registry, String name, String pool, PoolingHttpClientConnectionManager manager,
+					   ToDoubleFunction<PoolStats> value) {
+		Gauge.builder(name, manager, m -> value.applyAsDouble(m.getTotalStats()))
+				.tag("pool", pool)
+				.register(registry);
+	}
+}
@@ -1,9 +1,10 @@
 package com.gate.rest.util;
 
 import com.gate.rest.base.GateConfig;
+import com.gate.rest.base.HttpPoolConfig;
+import com.gate.rest.base.RateLimitConfig;
 import lombok.extern.log4j.Log4j2;
 import org.apache.commons.codec.binary.Hex;
-import org.apache.commons.io.IOUtils;
 import org.apache.http.*;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.config.RequestConfig;
@@ -11,9 +12,11 @@ import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
 import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
-import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.message.BasicHeader;
@@ -22,15 +25,19 @@ import org.apache.http.protocol.HttpContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
 
@@ -43,11 +50,18 @@ public class HttpUtilManager {
 	@Autowired
 	GateConfig gateConfig;
 
+	@Autowired
+	HttpPoolConfig httpPoolConfig;
 
-	private static final HttpUtilManager instance = new HttpUtilManager();
-	private static HttpClient client;
-	private static long startTime = System.currentTimeMillis();
+	@Autowired
+	RateLimitConfig rateLimitConfig;
+
+
+	/** 服务端未返回 Keep-Alive 时连接的保持时长, 超过后由 IdleConnectionEvictor 关闭 **/
+	private static volatile long defaultKeepAliveMillis = 5000;
 	public static PoolingHttpClientConnectionManager cm = new PoolingHttpClientConnectionManager();
+	/** 签名私有接口专用连接池, 与公共行情接口隔离, 避免行情轮询占满下单连接 **/
+	public static PoolingHttpClientConnectionManager privateCm = new PoolingHttpClientConnectionManager();
 	private static final ConnectionKeepAliveStrategy keepAliveStrat = new DefaultConnectionKeepAliveStrategy() {
 
 		@Override
@@ -57,7 +71,7 @@ public class HttpUtilManager {
 			long keepAlive = super.getKeepAliveDuration(response, context);
 
 			if (keepAlive == -1) {
-				keepAlive = 5000;
+				keepAlive = defaultKeepAliveMillis;
 			}
 			return keepAlive;
 		}
@@ -68,20 +82,70 @@ public class HttpUtilManager {
 			.setConnectTimeout(20000)
 			.setConnectionRequestTimeout(20000)
 			.build();
+	private static final CloseableHttpClient client = HttpClients.custom()
+			.setConnectionManager(cm)
+			.setKeepAliveStrategy(keepAliveStrat)
+			.build();
+	private static final CloseableHttpClient privateClient = HttpClients.custom()
+			.setConnectionManager(privateCm)
+			.setKeepAliveStrategy(keepAliveStrat)
+			.setDefaultRequestConfig(requestConfig)
+			.build();
+	/** 连接许可, 数量与单路由最大连接数一致, 见 execute() **/
+	private static volatile Semaphore publicPermits = new Semaphore(0);
+	private static volatile Semaphore privatePermits = new Semaphore(0);
+	/** 合并并发的相同公共 GET 请求, 见 requestHttpGet(url_prex, url, param) **/
+	public static final SingleFlight<String, String> coalescer = new SingleFlight<>();
+	private static volatile boolean coalesceEnabled = true;
+	/** 按接口分组限流, 在申请连接前取令牌 **/
+	public static final EndpointRateLimiter rateLimiter = new EndpointRateLimiter(new RateLimitConfig());
+	/** 必须在连接池之后初始化, 否则构造时引用的静态字段仍为null **/
+	private static final HttpUtilManager instance = new HttpUtilManager();
 
-	public static void IdleConnectionMonitor() {
-
-		if (System.currentTimeMillis() - startTime > 30000) {
-			startTime = System.currentTimeMillis();
-			cm.closeExpiredConnections();
-			cm.closeIdleConnections(30, TimeUnit.SECONDS);
-		}
+	static {
+		applyPoolConfig(new HttpPoolConfig());
 	}
 
 	private HttpUtilManager() {
-		client = HttpClients.custom().setConnectionManager(cm).setKeepAliveStrategy(keepAliveStrat).build();
 	}
 
+	/**
+	 * 按配置调整连接池大小. 连接池为静态共享, getInstance() 与Spring 容器中的实例使用同一组连接
+	 */
+	static void applyPoolConfig(HttpPoolConfig config) {
+		cm.setMaxTotal(config.getPublicPool().getMaxTotal());
+		cm.setDefaultMaxPerRoute(config.getPublicPool().getMaxPerRoute());
+		privateCm.setMaxTotal(config.getPrivatePool().getMaxTotal());
+		privateCm.setDefaultMaxPerRoute(config.getPrivatePool().getMaxPerRoute());
+		// 已持有旧许可的请求归还到旧的 Semaphore, 不影响新许可计数
+		publicPermits = new Semaphore(config.getPublicPool().getMaxPerRoute(), true);
+		privatePermits = new Semaphore(config.getPrivatePool().getMaxPerRoute(), true);
+		defaultKeepAliveMillis = config.getEvictor().getKeepAliveMillis();
+		coalesceEnabled = config.getCoalesce().isEnabled();
+		coalescer.setReuseWindowMillis(config.getCoalesce().getReuseWindowMillis());
+	}
+
+	@PostConstruct
+	public void init() {
+		applyPoolConfig(httpPoolConfig);
+		rateLimiter.configure(rateLimitConfig);
+		CallExecutors.configure(httpPoolConfig.isVirtualThreads());
+		log.info("http pool config: public={}, private={}, virtual threads={}, coalesce={}", httpPoolConfig.getPublicPool(),
+				httpPoolConfig.getPrivatePool(), CallExecutors.isSharedVirtual(), httpPoolConfig.getCoalesce());
+		log.info("rate limit config: {}", rateLimitConfig);
+	}
+
+	/**
+	 * Spring 容器关闭时关闭空闲连接. 连接池与客户端是静态的, 还被 getInstance(), StockClient 与 new StockRestApi() 共用,
+	 * 关闭后无法重建, 因此这里不关闭连接池本身, 之后的请求照常建立新连接
+	 */
+	@PreDestroy
+	public void shutdown() {
+		cm.closeExpiredConnections();
+		cm.closeIdleConnections(0, TimeUnit.MILLISECONDS);
+		privateCm.closeExpiredConnections();
+		privateCm.closeIdleConnections(0, TimeUnit.MILLISECONDS);
+	}
 
 	public static HttpUtilManager getInstance() {
 		return instance;
@@ -91,6 +155,10 @@ public class HttpUtilManager {
 		return client;
 	}
 
+	public HttpClient getPrivateHttpClient() {
+		return privateClient;
+	}
+
 	private HttpPost httpPostMethod(String url) {
 		return new HttpPost(url);
 	}
@@ -99,9 +167,26 @@ public class HttpUtilManager {
 		return new  HttpGet(url);
 	}
 	
+	/**
+	 * 公共 GET 请求. 并发的相同请求(相同 url 与参数)合并为一次调用, 共享同一个响应报文
+	 */
 	public String requestHttpGet(String url_prex,String url,String param) throws HttpException, IOException{
-		
-		IdleConnectionMonitor();
+		String fullUrl = getUrl(url_prex, url, param);
+		if (!coalesceEnabled) {
+			return get(fullUrl, StreamDecoder.UTF8_STRING);
+		}
+		return coalescer.execute(fullUrl, () -> get(fullUrl, StreamDecoder.UTF8_STRING));
+	}
+
+	/**
+	 * GET 请求, 响应体输入流直接交给解码器, 如 JsonTool.decoder(type).
+	 * 解码结果可能是可变对象, 不参与请求合并
+	 */
+	public <T> T requestHttpGet(String url_prex,String url,String param,StreamDecoder<T> decoder) throws HttpException, IOException{
+		return get(getUrl(url_prex, url, param), decoder);
+	}
+
+	private static String getUrl(String url_prex, String url, String param) {
 		url=url_prex+url;
 		if(param!=null && !param.equals("")){
 		        if(url.endsWith("?")){
@@ -110,29 +195,21 @@ public class HttpUtilManager {
 			    url = url+"?"+param;
 			}
 		}
+		return url;
+	}
+
+	private <T> T get(String url, StreamDecoder<T> decoder) throws HttpException, IOException {
 		HttpRequestBase method = this.httpGetMethod(url);
 		method.setConfig(requestConfig);
-		HttpResponse response = client.execute(method);
-		HttpEntity entity =  response.getEntity();
-		if(entity == null){
-			return "";
-		}
-		InputStream is = null;
-		String responseData = "";
-		try{
-		    is = entity.getContent();
-		    responseData = IOUtils.toString(is, "UTF-8");
-		}finally{
-			if(is!=null){
-			    is.close();
-			}
-		}
-		return responseData;
+		return execute(client, publicPermits, EndpointGroup.PUBLIC_MARKET, method, decoder);
 	}
 
 	public String HttpGet(String url_prex, String url, String param, Header header) throws HttpException, IOException {
+		return HttpGet(url_prex, url, param, header, StreamDecoder.UTF8_STRING);
+	}
+
+	public <T> T HttpGet(String url_prex, String url, String param, Header header, StreamDecoder<T> decoder) throws HttpException, IOException {
 
-		IdleConnectionMonitor();
 		url = url_prex + url;
 		if (param != null && !param.equals("")) {
 			if (url.endsWith("?")) {
@@ -144,26 +221,15 @@ public class HttpUtilManager {
 		HttpRequestBase method = this.httpGetMethod(url);
 		method.setConfig(requestConfig);
 		method.setHeader(header);
-		HttpResponse response = client.execute(method);
-		HttpEntity entity = response.getEntity();
-		if (entity == null) {
-			return "";
-		}
-		InputStream is = null;
-		String responseData = "";
-		try {
-			is = entity.getContent();
-			responseData = IOUtils.toString(is, "UTF-8");
-		} finally {
-			if (is != null) {
-				is.close();
-			}
-		}
-		return responseData;
+		return execute(client, publicPermits, EndpointGroup.PUBLIC_MARKET, method, decoder);
 	}
+
 	public String requestHttpPost(String url_prex,String url,Map<String,String> params) throws HttpException, IOException{
+		return requestHttpPost(url_prex, url, params, StreamDecoder.UTF8_STRING);
+	}
+
+	public <T> T requestHttpPost(String url_prex,String url,Map<String,String> params,StreamDecoder<T> decoder) throws HttpException, IOException{
 		
-		IdleConnectionMonitor();
 		url=url_prex+url;
 		
 
@@ -174,23 +240,7 @@ public class HttpUtilManager {
 		UrlEncodedFormEntity urlEncodedFormEntity = new UrlEncodedFormEntity(valuePairs, Consts.UTF_8);
 		method.setEntity(urlEncodedFormEntity);
 		method.setConfig(requestConfig);
-		System.out.println(method);
-		HttpResponse response = client.execute(method);
-		HttpEntity entity =  response.getEntity();
-		if(entity == null){
-			return "";
-		}
-		InputStream is = null;
-		String responseData = "";
-		try{
-		    is = entity.getContent();
-		    responseData = IOUtils.toString(is, "UTF-8");
-		}finally{
-			if(is!=null){
-			    is.close();
-			}
-		}
-		return responseData;
+		return execute(client, publicPermits, EndpointGroup.PUBLIC_MARKET, method, decoder);
 		
 	}
 	
@@ -210,27 +260,52 @@ public class HttpUtilManager {
 	}
 	
 	/**
-	 * @Author huang_fengge
-	 * @Description //发送请求
-	 * @Date 下午1:43 2021/12/29
-	 * @Param
-	 * @return
-	**/
-	public String doRequest( String api, String requestType, String url, Map< String, String > arguments )  throws HttpException, IOException{
-
-		List< NameValuePair > urlParameters = new ArrayList< NameValuePair >( );
-
-		Mac mac = null;
-		SecretKeySpec key = null;
+	 * 执行请求并读取响应体. 先按分组取限流令牌, 再获取连接许可, 最后向连接池申请连接:
+	 * 连接池内部在 synchronized 中等待空闲连接, 虚拟线程在此等待会占住载体线程, 高并发下可能全部卡死,
+	 * 而 Semaphore 等待时虚拟线程可以让出载体线程
+	 */
+	private <T> T execute(HttpClient client, Semaphore permits, EndpointGroup group, HttpUriRequest method, StreamDecoder<T> decoder) throws HttpException, IOException {
+		rateLimiter.acquire(group);
+		try {
+			if (!permits.tryAcquire(requestConfig.getConnectionRequestTimeout(), TimeUnit.MILLISECONDS)) {
+				throw new ConnectionPoolTimeoutException("Timeout waiting for connection permit");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted waiting for connection permit");
+		}
+		try {
+			HttpResponse response = client.execute(method);
+			HttpEntity entity =  response.getEntity();
+			if(entity == null){
+				return decoder.decode(InputStream.nullInputStream());
+			}
+			InputStream is = null;
+			try{
+				is = entity.getContent();
+				return decoder.decode(is);
+			}finally{
+				// 关闭输入流即释放连接回连接池, 以便复用 keep-alive 连接.
+				// 解码器未读完时关闭会先读完剩余内容, 连接仍可复用
+				if(is!=null){
+					is.close();
+				}
+			}
+		} finally {
+			permits.release();
+		}
+	}
 
+	/**
+	 * 拼接签名原文 key1=value1&key2=value2, 顺序与参数Map 迭代顺序一致
+	 */
+	public static String buildPostData(Map< String, String > arguments) {
 		String postData = "";
 
 		for ( Iterator< Entry< String, String >> argumentIterator = arguments.entrySet( ).iterator( ); argumentIterator.hasNext( ); ) {
 
 			Entry< String, String > argument = argumentIterator.next( );
 
-			urlParameters.add(new BasicNameValuePair(argument.getKey(), argument.getValue()));
-
 			if ( postData.length( ) > 0 ) {
 				postData += "&";
 			}
@@ -238,9 +313,18 @@ public class HttpUtilManager {
 			postData += argument.getKey( ) + "=" + argument.getValue( );
 
 		}
+		return postData;
+	}
+
+	/**
+	 * HmacSHA512 签名, 返回小写hex. 每次调用都新建 Mac, 私有请求已改用 RequestSigner
+	 */
+	public static String sign(String secret, String postData) {
+		Mac mac = null;
+		SecretKeySpec key = null;
 
 		// Create a new secret key
-		key = new SecretKeySpec(arguments.get("secret").getBytes(StandardCharsets.UTF_8), "HmacSHA512");
+		key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA512");
 
 		try {
 			mac = Mac.getInstance( "HmacSHA512" );
@@ -254,41 +338,65 @@ public class HttpUtilManager {
 			System.err.println("Invalid key exception: " + ike);
 		}
 
-		// add header
-		Header[] headers = new Header[2];
-		headers[0] = new BasicHeader("Key", arguments.get("key"));
-		headers[1] = new BasicHeader("Sign", Hex.encodeHexString(mac.doFinal(postData.getBytes(StandardCharsets.UTF_8))));
-
-
-		HttpClient client = HttpClientBuilder.create().build();
-		HttpPost post = null;
-		HttpGet get = null;
-		HttpResponse response = null;
-
-		if (requestType == "post") {
-			post = new HttpPost(url);
-			post.setEntity(new UrlEncodedFormEntity(urlParameters));
-			post.setHeaders( headers );
-			response = client.execute( post );
-		} else if ( requestType == "get" ) {
-			get = new HttpGet( url );
-			get.setHeaders( headers );
-			response = client.execute( get );
+		return Hex.encodeHexString(mac.doFinal(postData.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	/**
+	 * @Author huang_fengge
+	 * @Description //发送请求
+	 * @Date 下午1:43 2021/12/29
+	 * @Param
+	 * @return
+	**/
+	public String doRequest( String api, String requestType, String url, Map< String, String > arguments )  throws HttpException, IOException{
+		return doRequest(api, requestType, url, arguments, StreamDecoder.UTF8_STRING);
+	}
+
+	/**
+	 * 签名请求, 响应体输入流直接交给解码器. 限流分组按接口地址判断, 见 EndpointGroup.ofPrivateUrl
+	 */
+	public <T> T doRequest( String api, String requestType, String url, Map< String, String > arguments, StreamDecoder<T> decoder )  throws HttpException, IOException{
+		return doRequest(EndpointGroup.ofPrivateUrl(url), api, requestType, url, arguments, decoder);
+	}
+
+	/**
+	 * 签名请求, 指定限流分组
+	 */
+	public <T> T doRequest( EndpointGroup group, String api, String requestType, String url, Map< String, String > arguments, StreamDecoder<T> decoder )  throws HttpException, IOException{
+
+		HttpRequestBase method = null;
+		boolean post = "post".equals(requestType);
+
+		if (post) {
+			method = new HttpPost(url);
+		} else if ("get".equals(requestType)) {
+			method = new HttpGet( url );
+		} else {
+			throw new HttpException("unsupported request type: " + requestType);
 		}
-		
-		HttpEntity entity =  response.getEntity();
-		if(entity == null){
-			return "";
+
+		// 请求体写入签名器的缓冲区, 同一份字节作为签名原文; 请求完成前不能归还
+		RequestSigner signer = RequestSigner.of(arguments.get("key"), arguments.get("secret"));
+		try (RequestSigner.SignedBody body = signer.sign(arguments)) {
+			if (post) {
+				((HttpPost) method).setEntity(body.entity());
+			}
+			method.setHeader(new BasicHeader("Key", signer.getKey()));
+			method.setHeader(body.signHeader());
+			return execute(privateClient, privatePermits, group, method, decoder);
 		}
-		InputStream is = null;
-		String responseData = "";
-		
-	    is = entity.getContent();
-	    responseData = IOUtils.toString(is, "UTF-8");
-		return responseData;
-		
 
 	}
 
-}
+	/**
+	 * 发送已签名的 POST 请求体, 如 RequestSigner.begin() 逐个写入的定点数下单参数. body 由调用方关闭
+	 */
+	public <T> T doRequest( EndpointGroup group, String url, RequestSigner.SignedBody body, StreamDecoder<T> decoder )  throws HttpException, IOException{
+		HttpPost method = new HttpPost(url);
+		method.setEntity(body.entity());
+		method.setHeader(new BasicHeader("Key", body.key()));
+		method.setHeader(body.signHeader());
+		return execute(privateClient, privatePermits, group, method, decoder);
+	}
 
+}
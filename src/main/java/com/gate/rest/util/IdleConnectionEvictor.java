@@ -0,0 +1,64 @@
+package com.gate.rest.util;
+
+import com.gate.rest.base.HttpPoolConfig;
+import lombok.extern.log4j.Log4j2;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author hfg
+ * @description 后台定时清理公共/私有连接池中的过期及空闲连接, 请求线程上不再做任何清理
+ */
+@Component
+@Log4j2
+public class IdleConnectionEvictor {
+
+	@Autowired
+	HttpPoolConfig httpPoolConfig;
+
+	private ScheduledExecutorService scheduler;
+
+	@PostConstruct
+	public void start() {
+		HttpPoolConfig.Evictor evictor = httpPoolConfig.getEvictor();
+		scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "gate-http-evictor");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduler.scheduleWithFixedDelay(this::evict, evictor.getIntervalMillis(), evictor.getIntervalMillis(), TimeUnit.MILLISECONDS);
+		log.info("idle connection evictor started: {}", evictor);
+	}
+
+	/**
+	 * 执行一次清理
+	 */
+	public void evict() {
+		try {
+			evict(HttpUtilManager.cm);
+			evict(HttpUtilManager.privateCm);
+		} catch (RuntimeException e) {
+			// 定时任务抛出异常后不会再被调度, 这里只记录
+			log.warn("evict idle connections failed", e);
+		}
+	}
+
+	private void evict(PoolingHttpClientConnectionManager manager) {
+		manager.closeExpiredConnections();
+		manager.closeIdleConnections(httpPoolConfig.getEvictor().getIdleMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+		}
+	}
+}
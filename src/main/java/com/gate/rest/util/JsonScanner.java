@@ -0,0 +1,370 @@
+package com.gate.rest.util;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * @author hfg
+ * @description 逐字节的 Json 扫描器, 供 TickerDecoder 等直接解码器使用: 数值按小数位数直接转为定点数,
+ * 字段名只计算哈希(见 hash(String)), 整个过程不创建 String. 输入按块读入缓冲区, 扫描器实例与 RequestSigner 一样按线程 id
+ * 放在固定的槽中复用, 用完后 close() 归还
+ * <pre>
+ * try (JsonScanner scanner = JsonScanner.open(in)) {...}
+ * </pre>
+ */
+public final class JsonScanner implements AutoCloseable {
+
+	private static final int BUFFER_SIZE = 4096;
+	private static final int SLOTS = Integer.highestOneBit(Math.max(2, Runtime.getRuntime().availableProcessors()) * 4 - 1) << 1;
+	private static final AtomicReferenceArray<JsonScanner> scanners = new AtomicReferenceArray<>(SLOTS);
+
+	private final int slot;
+	private final byte[] buffer = new byte[BUFFER_SIZE];
+	private InputStream in;
+	private int position;
+	private int limit;
+	/** 当前字节, 流结束时为 -1 **/
+	private int c;
+	/** 上一次 readFixed 是否超出范围 **/
+	private boolean overflow;
+
+	private JsonScanner(int slot) {
+		this.slot = slot;
+	}
+
+	/**
+	 * 取得扫描器并读入第一个字节
+	 */
+	public static JsonScanner open(InputStream in) throws IOException {
+		int slot = (int) Thread.currentThread().getId() & (SLOTS - 1);
+		JsonScanner scanner = scanners.getAndSet(slot, null);
+		if (scanner == null) {
+			scanner = new JsonScanner(slot);
+		}
+		scanner.in = in;
+		scanner.position = 0;
+		scanner.limit = 0;
+		scanner.next();
+		return scanner;
+	}
+
+	@Override
+	public void close() {
+		in = null;
+		scanners.compareAndSet(slot, null, this);
+	}
+
+	/**
+	 * 字段名的哈希, 与 readFieldHash() 的结果一致
+	 */
+	public static int hash(String name) {
+		int h = 0;
+		for (int i = 0; i < name.length(); i++) {
+			h = h * 31 + name.charAt(i);
+		}
+		return h * 31 + name.length();
+	}
+
+	/**
+	 * 字段名哈希表, 有冲突时抛出 IllegalStateException
+	 */
+	public static int[] hashes(String... names) {
+		int[] hashes = new int[names.length];
+		for (int i = 0; i < names.length; i++) {
+			hashes[i] = hash(names[i]);
+			for (int j = 0; j < i; j++) {
+				if (hashes[i] == hashes[j]) {
+					throw new IllegalStateException("hash collision: " + names[i] + ", " + names[j]);
+				}
+			}
+		}
+		return hashes;
+	}
+
+	public int current() {
+		return c;
+	}
+
+	public void next() throws IOException {
+		if (position < limit) {
+			c = buffer[position++] & 0xff;
+			return;
+		}
+		int read = in.read(buffer, 0, BUFFER_SIZE);
+		while (read == 0) {
+			read = in.read(buffer, 0, BUFFER_SIZE);
+		}
+		if (read < 0) {
+			c = -1;
+			limit = 0;
+			return;
+		}
+		limit = read;
+		position = 1;
+		c = buffer[0] & 0xff;
+	}
+
+	public void skipWhitespace() throws IOException {
+		while (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+			next();
+		}
+	}
+
+	public void expect(char expected) throws IOException {
+		if (c != expected) {
+			throw unexpected();
+		}
+		next();
+	}
+
+	public IOException unexpected() {
+		if (c < 0) {
+			return new EOFException("响应不完整");
+		}
+		return new IOException("解析响应失败, 意外的字符 '" + (char) c + "'");
+	}
+
+	/**
+	 * 读取对象的下一个字段名及冒号, 返回字段名在 hashes 中的位置, 未知字段返回 -1; 对象结束时返回 -2.
+	 * 调用前当前字节为 '{' 或上一个值之后的位置
+	 */
+	public int nextField(int[] hashes) throws IOException {
+		skipWhitespace();
+		if (c == '{' || c == ',') {
+			next();
+			skipWhitespace();
+		}
+		if (c == '}') {
+			next();
+			return -2;
+		}
+		expect('"');
+		int h = readFieldHash();
+		skipWhitespace();
+		expect(':');
+		skipWhitespace();
+		for (int i = 0; i < hashes.length; i++) {
+			if (hashes[i] == h) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * 读取字段名(开头的引号已读取)及结尾的引号, 返回哈希
+	 */
+	public int readFieldHash() throws IOException {
+		int h = 0;
+		int length = 0;
+		while (c != '"') {
+			if (c < 0) {
+				throw unexpected();
+			}
+			if (c == '\\') {
+				next();
+			}
+			h = h * 31 + c;
+			length++;
+			next();
+		}
+		next();
+		return h * 31 + length;
+	}
+
+	/**
+	 * 读取字符串(当前字节为开头的引号)的字节到 target, 返回字节数; 超过 target 长度的部分只计数不写入
+	 */
+	public int readAscii(byte[] target) throws IOException {
+		expect('"');
+		int length = 0;
+		while (c != '"') {
+			if (c < 0) {
+				throw unexpected();
+			}
+			if (c == '\\') {
+				next();
+			}
+			if (length < target.length) {
+				target[length] = (byte) c;
+			}
+			length++;
+			next();
+		}
+		next();
+		return length;
+	}
+
+	/**
+	 * 读取数值(带引号或不带), 按 scale 转为定点数, 多余的小数位四舍五入; 空字符串与 null 为 0.
+	 * 超出 long 范围(绝对值约 9.2e18 / 10^scale)时抛出 IOException, 数值已读完, 调用方不必继续解析
+	 */
+	public long readFixed(int scale) throws IOException {
+		long value = readFixed(scale, false);
+		if (overflow) {
+			throw new IOException("解析响应失败, 数值超出 " + scale + " 位小数定点数的范围");
+		}
+		return value;
+	}
+
+	/**
+	 * 与 readFixed(int) 相同, 但超出范围时返回 Long.MAX_VALUE(负数为 -Long.MAX_VALUE), 用于超出范围也不应使整个响应失败的字段
+	 */
+	public long readFixedSaturated(int scale) throws IOException {
+		return readFixed(scale, true);
+	}
+
+	private long readFixed(int scale, boolean saturate) throws IOException {
+		overflow = false;
+		boolean quoted = c == '"';
+		if (quoted) {
+			next();
+		} else if (c == 'n') {
+			skipValue();
+			return 0;
+		}
+		boolean negative = false;
+		if (c == '-' || c == '+') {
+			negative = c == '-';
+			next();
+		}
+		long digits = 0;
+		int fraction = -1;
+		boolean roundUp = false;
+		while (true) {
+			if (c >= '0' && c <= '9') {
+				if (fraction < scale) {
+					if (!overflow) {
+						if (digits > (Long.MAX_VALUE - (c - '0')) / 10) {
+							overflow = true;
+						} else {
+							digits = digits * 10 + c - '0';
+						}
+					}
+					if (fraction >= 0) {
+						fraction++;
+					}
+				} else if (fraction == scale) {
+					roundUp = c >= '5';
+					fraction++;
+				}
+			} else if (c == '.' && fraction < 0) {
+				fraction = 0;
+			} else {
+				break;
+			}
+			next();
+		}
+		if (quoted) {
+			expect('"');
+		}
+		if (!overflow) {
+			try {
+				return FixedPoint.finish(digits, Math.max(fraction, 0), scale, roundUp, negative);
+			} catch (ArithmeticException e) {
+				overflow = true;
+			}
+		}
+		return saturate && negative ? -Long.MAX_VALUE : Long.MAX_VALUE;
+	}
+
+	/**
+	 * "7ms" / "0.35ms" / "120us" / "1s" -> 微秒
+	 */
+	public long readElapsedMicros() throws IOException {
+		boolean quoted = c == '"';
+		if (quoted) {
+			next();
+		}
+		long digits = 0;
+		int fraction = -1;
+		while ((c >= '0' && c <= '9') || (c == '.' && fraction < 0)) {
+			if (c == '.') {
+				fraction = 0;
+			} else if (fraction < 3) {
+				digits = Math.addExact(Math.multiplyExact(digits, 10), c - '0');
+				if (fraction >= 0) {
+					fraction++;
+				}
+			}
+			next();
+		}
+		// 千分之一单位
+		long milli = FixedPoint.finish(digits, Math.max(fraction, 0), 3, false, false);
+		long micros;
+		if (c == 'm') {
+			micros = milli;
+			next();
+		} else if (c == 'u' || c == 0xc2) {
+			// us 或 UTF-8 的 µs
+			if (c == 0xc2) {
+				next();
+			}
+			micros = milli / 1000;
+			next();
+		} else if (c == 'n') {
+			micros = milli / 1_000_000;
+			next();
+		} else {
+			micros = milli * 1000;
+		}
+		if (c == 's') {
+			next();
+		}
+		if (quoted) {
+			expect('"');
+		}
+		return micros;
+	}
+
+	/**
+	 * "true" 或 true
+	 */
+	public boolean readTrue() throws IOException {
+		boolean quoted = c == '"';
+		if (quoted) {
+			next();
+		}
+		boolean value = c == 't';
+		while (c >= 'a' && c <= 'z') {
+			next();
+		}
+		if (quoted) {
+			expect('"');
+		}
+		return value;
+	}
+
+	/**
+	 * 跳过任意值, 包括嵌套的对象与数组
+	 */
+	public void skipValue() throws IOException {
+		int depth = 0;
+		do {
+			if (c < 0) {
+				throw unexpected();
+			}
+			if (c == '"') {
+				next();
+				while (c != '"') {
+					if (c < 0) {
+						throw unexpected();
+					}
+					if (c == '\\') {
+						next();
+					}
+					next();
+				}
+			} else if (c == '{' || c == '[') {
+				depth++;
+			} else if (c == '}' || c == ']') {
+				depth--;
+			} else if (depth == 0 && (c == ',' || c == ' ' || c == '\n' || c == '\r' || c == '\t')) {
+				return;
+			}
+			next();
+		} while (depth > 0 || (c != ',' && c != '}' && c != ']'));
+	}
+}
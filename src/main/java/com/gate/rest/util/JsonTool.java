@@ -4,14 +4,18 @@ import com.google.gson.*;
 import com.google.gson.internal.LinkedTreeMap;
 import com.google.gson.internal.bind.JsonTreeWriter;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonWriter;
 import org.springframework.boot.convert.ApplicationConversionService;
 import org.springframework.util.StringUtils;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.Writer;
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
@@ -641,6 +645,42 @@ public class JsonTool {
         }
     }
 
+    /**
+     * @Description 直接从输入流解析Json, 不在内存中保留完整的Json 字符串
+     * @param <T>
+     * @param inputStream UTF-8 编码的Json
+     * @param type
+     * @return
+     */
+    public static <T> T jsonToObject(InputStream inputStream, Type type) throws IOException {
+        try {
+            return GSON.fromJson(new JsonReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)), type);
+        } catch (JsonIOException ex) {
+            throw ex.getCause() instanceof IOException ? (IOException) ex.getCause() : new IOException(ex);
+        } catch (JsonParseException ex) {
+            throw new IllegalStateException("解析Json 失败", ex);
+        }
+    }
+
+    /**
+     * @Description 流式解码器, 配合 HttpUtilManager 使用, 如 httpUtil.requestHttpGet(url_pre, url, "", JsonTool.decoder(Price.class))
+     * @param type
+     * @return
+     */
+    public static <T> StreamDecoder<T> decoder(Type type) {
+        return in -> jsonToObject(in, type);
+    }
+
+    /**
+     * @Description 流式解码为 JsonObject
+     * @return
+     */
+    public static StreamDecoder<JsonObject> objectDecoder() {
+        Type type = new TypeToken<Map<String, Object>>() {
+        }.getType();
+        return in -> JsonObject.convert(jsonToObject(in, type));
+    }
+
     public static <T> T jsonToObjectByUnderscore(String jsonString, Type type) {
         try {
             return POLICY_MAP.get(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES).fromJson(jsonString, type);
@@ -0,0 +1,21 @@
+package com.gate.rest.util;
+
+import java.io.IOException;
+
+/**
+ * @author hfg
+ * @description 客户端限流: 等待队列已满或等待令牌超时, 请求未发出
+ */
+public class RateLimitExceededException extends IOException {
+
+	private final EndpointGroup group;
+
+	public RateLimitExceededException(EndpointGroup group, String message) {
+		super(group + ": " + message);
+		this.group = group;
+	}
+
+	public EndpointGroup getGroup() {
+		return group;
+	}
+}
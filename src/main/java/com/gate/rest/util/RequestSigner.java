@@ -0,0 +1,315 @@
+package com.gate.rest.util;
+
+import org.apache.http.FormattedHeader;
+import org.apache.http.HeaderElement;
+import org.apache.http.ParseException;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.message.BasicHeaderValueParser;
+import org.apache.http.util.CharArrayBuffer;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * @author hfg
+ * @description 私有接口签名器, 每组 key/secret 一个实例, 见 RequestSigner.of(key, secret).
+ * 请求参数按 x-www-form-urlencoded 写入可复用的字节缓冲区, 同一份字节既是请求体也是 HmacSHA512 签名原文,
+ * 签名hex 直接写入预分配的字符数组. Mac 实例初始化一次后反复使用, 签名过程不产生 String 与临时数组
+ */
+public final class RequestSigner {
+
+	public static final String ALGORITHM = "HmacSHA512";
+	private static final String SIGN_HEADER = "Sign";
+	/** "Sign: " 之后的位置 **/
+	private static final int SIGN_VALUE_POS = SIGN_HEADER.length() + 2;
+	private static final int DIGEST_LENGTH = 64;
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+	private static final byte[] URL_HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+	private static final ContentType FORM_UTF8 = ContentType.create("application/x-www-form-urlencoded", StandardCharsets.UTF_8);
+	/**
+	 * 每个签名器缓存的 Mac 数量(不小于 CPU 数 * 4 的2 的幂), 线程按 id 取对应的槽, 平台线程数不超过该值时相当于每个线程一个 Mac.
+	 * 不使用 ThreadLocal: 虚拟线程每个任务一个线程, ThreadLocal 会让每次请求都重新初始化 Mac
+	 */
+	private static final int SLOTS = Integer.highestOneBit(Math.max(2, Runtime.getRuntime().availableProcessors()) * 4 - 1) << 1;
+
+	private static final Map<String, RequestSigner> signers = new ConcurrentHashMap<>();
+
+	private final String key;
+	private final String secret;
+	private final SecretKeySpec keySpec;
+	private final AtomicReferenceArray<SignedBody> slots = new AtomicReferenceArray<>(SLOTS);
+
+	private RequestSigner(String key, String secret) {
+		if (secret == null || secret.isEmpty()) {
+			throw new IllegalArgumentException("Empty key");
+		}
+		this.key = key;
+		this.secret = secret;
+		this.keySpec = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+	}
+
+	/**
+	 * 取得该组凭证的签名器, 同一个 key 复用同一个实例, secret 变化时重新创建
+	 */
+	public static RequestSigner of(String key, String secret) {
+		String cacheKey = key == null ? "" : key;
+		RequestSigner signer = signers.get(cacheKey);
+		if (signer == null || !signer.secret.equals(secret)) {
+			signer = new RequestSigner(key, secret);
+			signers.put(cacheKey, signer);
+		}
+		return signer;
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	/**
+	 * 写入请求体并签名. 返回的 SignedBody 在 close() 前归调用方独占, 请求发送完成后必须关闭
+	 */
+	public SignedBody sign(Map<String, String> arguments) {
+		SignedBody body = begin();
+		for (Map.Entry<String, String> argument : arguments.entrySet()) {
+			body.param(argument.getKey(), argument.getValue());
+		}
+		return body.sign();
+	}
+
+	/**
+	 * 逐个写入请求参数, 最后调用 SignedBody.sign(). 定点数参数直接格式化进缓冲区, 如
+	 * <pre>
+	 * try (SignedBody body = signer.begin().param("currencyPair", pair).param("rate", rate, 2).sign()) {...}
+	 * </pre>
+	 */
+	public SignedBody begin() {
+		int slot = (int) Thread.currentThread().getId() & (SLOTS - 1);
+		SignedBody body = slots.getAndSet(slot, null);
+		if (body == null) {
+			body = new SignedBody(this, slot, newMac());
+		}
+		body.length = 0;
+		return body;
+	}
+
+	private Mac newMac() {
+		try {
+			Mac mac = Mac.getInstance(ALGORITHM);
+			mac.init(keySpec);
+			return mac;
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("init " + ALGORITHM + " failed", e);
+		}
+	}
+
+	private void release(SignedBody body) {
+		slots.compareAndSet(body.slot, null, body);
+	}
+
+	/**
+	 * 已签名的请求体, 缓冲区与签名头在 close() 后被其他请求复用
+	 */
+	public static final class SignedBody implements AutoCloseable {
+		private final RequestSigner signer;
+		private final int slot;
+		private final Mac mac;
+		private final byte[] digest = new byte[DIGEST_LENGTH];
+		private final CharArrayBuffer signLine = new CharArrayBuffer(SIGN_VALUE_POS + DIGEST_LENGTH * 2);
+		private final SignHeader signHeader = new SignHeader(signLine);
+		private byte[] buffer = new byte[256];
+		private int length;
+
+		private SignedBody(RequestSigner signer, int slot, Mac mac) {
+			this.signer = signer;
+			this.slot = slot;
+			this.mac = mac;
+			signLine.append(SIGN_HEADER);
+			signLine.append(": ");
+		}
+
+		/**
+		 * 追加一个参数, value 为 null 时只写参数名
+		 */
+		public SignedBody param(String name, String value) {
+			if (length > 0) {
+				put((byte) '&');
+			}
+			encode(name);
+			if (value != null) {
+				put((byte) '=');
+				encode(value);
+			}
+			return this;
+		}
+
+		/**
+		 * 追加一个定点数参数, 按 Decimal64.format 输出(数字、小数点与负号不需要转义)
+		 */
+		public SignedBody param(String name, long value, int scale) {
+			if (length > 0) {
+				put((byte) '&');
+			}
+			encode(name);
+			put((byte) '=');
+			ensureCapacity(Decimal64.maxFormattedLength(scale));
+			length = Decimal64.format(value, scale, buffer, length);
+			return this;
+		}
+
+		/**
+		 * 对已写入的参数签名
+		 */
+		public SignedBody sign() {
+			mac.update(buffer, 0, length);
+			try {
+				mac.doFinal(digest, 0);
+			} catch (ShortBufferException e) {
+				throw new IllegalStateException(e);
+			}
+			char[] hex = signLine.buffer();
+			for (int i = 0, j = SIGN_VALUE_POS; i < DIGEST_LENGTH; i++) {
+				hex[j++] = HEX[(digest[i] >> 4) & 0x0f];
+				hex[j++] = HEX[digest[i] & 0x0f];
+			}
+			signLine.setLength(SIGN_VALUE_POS + DIGEST_LENGTH * 2);
+			return this;
+		}
+
+		/**
+		 * 与 URLEncoder / UrlEncodedFormEntity 相同的规则: 字母数字及 .-*_ 原样输出, 空格为 +, 其余按 UTF-8 转为 %XX
+		 */
+		private void encode(String value) {
+			for (int i = 0, n = value.length(); i < n; i++) {
+				char c = value.charAt(i);
+				if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+						|| c == '.' || c == '-' || c == '*' || c == '_') {
+					put((byte) c);
+				} else if (c == ' ') {
+					put((byte) '+');
+				} else if (c < 0x80) {
+					escape(c);
+				} else if (c < 0x800) {
+					escape(0xc0 | (c >> 6));
+					escape(0x80 | (c & 0x3f));
+				} else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(value.charAt(i + 1))) {
+					int cp = Character.toCodePoint(c, value.charAt(++i));
+					escape(0xf0 | (cp >> 18));
+					escape(0x80 | ((cp >> 12) & 0x3f));
+					escape(0x80 | ((cp >> 6) & 0x3f));
+					escape(0x80 | (cp & 0x3f));
+				} else if (Character.isSurrogate(c)) {
+					// 不成对的代理字符, 与 String.getBytes(UTF_8) 一致替换为 ?
+					escape('?');
+				} else {
+					escape(0xe0 | (c >> 12));
+					escape(0x80 | ((c >> 6) & 0x3f));
+					escape(0x80 | (c & 0x3f));
+				}
+			}
+		}
+
+		private void escape(int b) {
+			put((byte) '%');
+			put(URL_HEX[(b >> 4) & 0x0f]);
+			put(URL_HEX[b & 0x0f]);
+		}
+
+		private void put(byte b) {
+			if (length == buffer.length) {
+				buffer = Arrays.copyOf(buffer, buffer.length * 2);
+			}
+			buffer[length++] = b;
+		}
+
+		private void ensureCapacity(int extra) {
+			if (length + extra > buffer.length) {
+				buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+			}
+		}
+
+		/** 签名器的 key, 即 Key 请求头 **/
+		public String key() {
+			return signer.key;
+		}
+
+		/** 请求体缓冲区, 有效长度见 length() **/
+		public byte[] buffer() {
+			return buffer;
+		}
+
+		public int length() {
+			return length;
+		}
+
+		/** 请求体, 直接引用缓冲区 **/
+		public ByteArrayEntity entity() {
+			return new ByteArrayEntity(buffer, 0, length, FORM_UTF8);
+		}
+
+		/** Sign 请求头, 发送时直接写出预分配的字符数组 **/
+		public FormattedHeader signHeader() {
+			return signHeader;
+		}
+
+		/** 签名hex 字符串, 供非 httpclient 调用方使用 **/
+		public String signature() {
+			return signLine.substring(SIGN_VALUE_POS, signLine.length());
+		}
+
+		/** 请求体副本, 供异步发送使用 **/
+		public byte[] toByteArray() {
+			return Arrays.copyOf(buffer, length);
+		}
+
+		@Override
+		public void close() {
+			signer.release(this);
+		}
+	}
+
+	private static final class SignHeader implements FormattedHeader {
+		private final CharArrayBuffer line;
+
+		SignHeader(CharArrayBuffer line) {
+			this.line = line;
+		}
+
+		@Override
+		public CharArrayBuffer getBuffer() {
+			return line;
+		}
+
+		@Override
+		public int getValuePos() {
+			return SIGN_VALUE_POS;
+		}
+
+		@Override
+		public String getName() {
+			return SIGN_HEADER;
+		}
+
+		@Override
+		public String getValue() {
+			return line.substring(SIGN_VALUE_POS, line.length());
+		}
+
+		@Override
+		public HeaderElement[] getElements() throws ParseException {
+			return BasicHeaderValueParser.parseElements(getValue(), null);
+		}
+
+		@Override
+		public String toString() {
+			return line.toString();
+		}
+	}
+}
@@ -0,0 +1,152 @@
+package com.gate.rest.util;
+
+import org.apache.http.HttpException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author hfg
+ * @description 相同请求合并: 同一个 key 同时只有一个调用在执行, 并发的相同请求等待并共享该调用的结果.
+ * 调用成功后在复用窗口内的相同请求直接返回上次结果, 窗口为0 时只合并正在执行的请求. 失败结果不复用
+ */
+public class SingleFlight<K, V> {
+
+	@FunctionalInterface
+	public interface Call<V> {
+		V call() throws HttpException, IOException;
+	}
+
+	/** 超过该数量时在新建调用前清理已过期的结果 **/
+	private static final int PURGE_THRESHOLD = 1024;
+
+	private final Map<K, Flight<V>> flights = new ConcurrentHashMap<>();
+	private final LongAdder inflightHits = new LongAdder();
+	private final LongAdder windowHits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private volatile long reuseWindowNanos;
+
+	private static final class Flight<V> {
+		final CompletableFuture<V> future = new CompletableFuture<>();
+		volatile long completedAt;
+	}
+
+	public SingleFlight() {
+	}
+
+	public SingleFlight(long reuseWindowMillis) {
+		setReuseWindowMillis(reuseWindowMillis);
+	}
+
+	public void setReuseWindowMillis(long reuseWindowMillis) {
+		this.reuseWindowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, reuseWindowMillis));
+	}
+
+	public long getReuseWindowMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(reuseWindowNanos);
+	}
+
+	/**
+	 * 执行或加入 key 对应的调用. 调用的异常原样抛给所有等待者
+	 */
+	public V execute(K key, Call<V> call) throws HttpException, IOException {
+		for (; ; ) {
+			Flight<V> flight = flights.get(key);
+			if (flight != null) {
+				if (!flight.future.isDone()) {
+					inflightHits.increment();
+					return await(flight);
+				}
+				if (!flight.future.isCompletedExceptionally() && fresh(flight, System.nanoTime())) {
+					windowHits.increment();
+					return flight.future.getNow(null);
+				}
+				flights.remove(key, flight);
+				continue;
+			}
+			Flight<V> mine = new Flight<>();
+			if (flights.putIfAbsent(key, mine) != null) {
+				continue;
+			}
+			misses.increment();
+			return run(key, mine, call);
+		}
+	}
+
+	private V run(K key, Flight<V> flight, Call<V> call) throws HttpException, IOException {
+		V value;
+		try {
+			value = call.call();
+		} catch (Throwable t) {
+			// 先移除再通知, 之后的请求重新发起调用
+			flights.remove(key, flight);
+			flight.future.completeExceptionally(t);
+			throw t;
+		}
+		flight.completedAt = System.nanoTime();
+		if (reuseWindowNanos == 0) {
+			flights.remove(key, flight);
+		} else if (flights.size() > PURGE_THRESHOLD) {
+			purgeExpired();
+		}
+		flight.future.complete(value);
+		return value;
+	}
+
+	private V await(Flight<V> flight) throws HttpException, IOException {
+		try {
+			return flight.future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted waiting for coalesced request");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof HttpException) {
+				throw (HttpException) cause;
+			}
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IOException(cause);
+		}
+	}
+
+	private boolean fresh(Flight<V> flight, long now) {
+		return now - flight.completedAt <= reuseWindowNanos;
+	}
+
+	/**
+	 * 清理复用窗口已过期的结果
+	 */
+	public void purgeExpired() {
+		long now = System.nanoTime();
+		flights.entrySet().removeIf(entry -> entry.getValue().future.isDone() && !fresh(entry.getValue(), now));
+	}
+
+	/** 加入正在执行的相同请求的次数 **/
+	public long getInflightHits() {
+		return inflightHits.sum();
+	}
+
+	/** 复用窗口内直接返回上次结果的次数 **/
+	public long getWindowHits() {
+		return windowHits.sum();
+	}
+
+	/** 实际发起调用的次数 **/
+	public long getMisses() {
+		return misses.sum();
+	}
+}
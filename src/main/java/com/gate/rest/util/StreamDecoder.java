@@ -0,0 +1,24 @@
+package com.gate.rest.util;
+
+import org.apache.commons.io.IOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 响应体解码器. HttpUtilManager 将响应实体的输入流直接交给解码器, 不再先读成完整的字符串;
+ * 输入流由 HttpUtilManager 负责关闭, 解码器无需关闭
+ *
+ * @author hfg
+ */
+@FunctionalInterface
+public interface StreamDecoder<T> {
+
+	/** 读取为UTF-8 字符串, 原有返回String 的方法即使用此解码器 **/
+	StreamDecoder<String> UTF8_STRING = in -> IOUtils.toString(in, "UTF-8");
+
+	/**
+	 * @param in 响应体输入流, 响应无实体时为空流
+	 */
+	T decode(InputStream in) throws IOException;
+}
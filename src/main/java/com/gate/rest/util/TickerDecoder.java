@@ -0,0 +1,105 @@
+package com.gate.rest.util;
+
+import com.gate.rest.entity.PairScale;
+import com.gate.rest.entity.Ticker;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * @author hfg
+ * @description ticker 响应的直接解码器, 按字节扫描 Json 并把数值按交易对的小数位数写入 Ticker 的 long 字段,
+ * 过程中不创建 String / BigDecimal, 字段名按哈希匹配, 未知字段跳过(见 JsonScanner). 实例无状态, 可以按交易对缓存并在多个线程间共享.
+ * 24 小时成交量按 PairScale.TICKER_VOLUME_SCALE 保存, 超出范围时为 Long.MAX_VALUE; 价格超出范围时抛出 IOException
+ * <pre>
+ * TickerDecoder decoder = new TickerDecoder(scales.get("eth_usdt"));
+ * Ticker ticker = new Ticker();
+ * api.ticker("eth_usdt", decoder.into(ticker));
+ * </pre>
+ */
+public final class TickerDecoder implements StreamDecoder<Ticker> {
+
+	private static final int LAST = 0;
+	private static final int LOWEST_ASK = 1;
+	private static final int HIGHEST_BID = 2;
+	private static final int HIGH_24HR = 3;
+	private static final int LOW_24HR = 4;
+	private static final int BASE_VOLUME = 5;
+	private static final int QUOTE_VOLUME = 6;
+	private static final int PERCENT_CHANGE = 7;
+	private static final int ELAPSED = 8;
+	private static final int RESULT = 9;
+	private static final int END = -2;
+
+	private static final int[] FIELDS = JsonScanner.hashes("last", "lowestAsk", "highestBid", "high24hr", "low24hr",
+			"baseVolume", "quoteVolume", "percentChange", "elapsed", "result");
+
+	private final PairScale scale;
+
+	public TickerDecoder(PairScale scale) {
+		this.scale = scale;
+	}
+
+	@Override
+	public Ticker decode(InputStream in) throws IOException {
+		return decode(in, new Ticker());
+	}
+
+	/**
+	 * 解码到已有的 Ticker, 返回传入的实例
+	 */
+	public Ticker decode(InputStream in, Ticker ticker) throws IOException {
+		ticker.reset(scale);
+		try (JsonScanner scanner = JsonScanner.open(in)) {
+			scanner.skipWhitespace();
+			if (scanner.current() != '{') {
+				throw scanner.unexpected();
+			}
+			int field;
+			while ((field = scanner.nextField(FIELDS)) != END) {
+				switch (field) {
+					case LAST:
+						ticker.setLast(scanner.readFixed(scale.getPriceScale()));
+						break;
+					case LOWEST_ASK:
+						ticker.setLowestAsk(scanner.readFixed(scale.getPriceScale()));
+						break;
+					case HIGHEST_BID:
+						ticker.setHighestBid(scanner.readFixed(scale.getPriceScale()));
+						break;
+					case HIGH_24HR:
+						ticker.setHigh24hr(scanner.readFixed(scale.getPriceScale()));
+						break;
+					case LOW_24HR:
+						ticker.setLow24hr(scanner.readFixed(scale.getPriceScale()));
+						break;
+					case BASE_VOLUME:
+						ticker.setBaseVolume(scanner.readFixedSaturated(PairScale.TICKER_VOLUME_SCALE));
+						break;
+					case QUOTE_VOLUME:
+						ticker.setQuoteVolume(scanner.readFixedSaturated(PairScale.TICKER_VOLUME_SCALE));
+						break;
+					case PERCENT_CHANGE:
+						ticker.setPercentChange(scanner.readFixed(PairScale.PERCENT_SCALE));
+						break;
+					case ELAPSED:
+						ticker.setElapsedMicros(scanner.readElapsedMicros());
+						break;
+					case RESULT:
+						ticker.setResult(scanner.readTrue());
+						break;
+					default:
+						scanner.skipValue();
+				}
+			}
+		}
+		return ticker;
+	}
+
+	/**
+	 * 填充指定实例的解码器, 配合 StockRestApi.ticker(symbol, decoder) 使用
+	 */
+	public StreamDecoder<Ticker> into(Ticker ticker) {
+		return in -> decode(in, ticker);
+	}
+}
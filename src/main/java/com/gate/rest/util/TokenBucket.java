@@ -0,0 +1,63 @@
+package com.gate.rest.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author hfg
+ * @description 无锁令牌桶 (GCRA 算法). 只记录下一个令牌的理论到达时间, 一次 CAS 完成取令牌
+ */
+public class TokenBucket {
+
+	/** 每个令牌的间隔 **/
+	private final long intervalNanos;
+	/** 允许提前消费的时长, 即 (容量 - 1) 个令牌 **/
+	private final long toleranceNanos;
+	/** 理论到达时间 **/
+	private final AtomicLong tat;
+
+	public TokenBucket(double permitsPerSecond, int burst) {
+		if (permitsPerSecond <= 0 || burst <= 0) {
+			throw new IllegalArgumentException("permitsPerSecond and burst must be positive");
+		}
+		this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+		this.toleranceNanos = intervalNanos * (burst - 1);
+		this.tat = new AtomicLong(System.nanoTime() - intervalNanos);
+	}
+
+	/**
+	 * 尝试取一个令牌
+	 * @param now System.nanoTime()
+	 * @param reserved 保留给其他调用方的令牌数, 桶内令牌不多于该数量时不能取
+	 * @return 0 表示已取得令牌, 否则为需要等待的纳秒数
+	 */
+	public long tryAcquire(long now, int reserved) {
+		long limit = now + toleranceNanos - intervalNanos * reserved;
+		for (; ; ) {
+			long current = tat.get();
+			long start = current - now < 0 ? now : current;
+			if (start - limit > 0) {
+				return start - limit;
+			}
+			if (tat.compareAndSet(current, start + intervalNanos)) {
+				return 0;
+			}
+		}
+	}
+
+	/**
+	 * 归还一个刚取得但未使用的令牌
+	 */
+	public void refund() {
+		tat.addAndGet(-intervalNanos);
+	}
+
+	/**
+	 * 当前可用令牌数(估算)
+	 */
+	public long available(long now) {
+		long current = tat.get();
+		long start = current - now < 0 ? now : current;
+		return Math.max(0, (now + toleranceNanos - start) / intervalNanos + 1);
+	}
+}
@@ -0,0 +1,135 @@
+package com.gate.rest.util;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/11/04 上午9:30
+ * @description：回放历史行情用的虚拟时钟, 通过 DateUtil.setClock() 替换全局的当前时间.
+ * <pre>
+ * - 尽快模式(speed 为 0): 时间只由 advanceTo() / sleepUntil() 推进, sleepUntil() 不等待, 回放速度只受处理速度限制.
+ *   由 MarketPoller 驱动时, 轮询器在没有进行中的请求时把时间推进到下一个任务到期
+ * - 倍速模式(speed &gt; 0): 虚拟时间 = 起点 + 实际经过的时间 * speed, sleepUntil() 按倍速折算后真实等待
+ * </pre>
+ * <pre>
+ * VirtualClock clock = VirtualClock.asFastAsPossible(start);
+ * DateUtil.setClock(clock);
+ * for (long t = start; t &lt; end; t += 5000) {
+ *     clock.sleepUntil(t);
+ *     api.tickers();
+ * }
+ * </pre>
+ * 时间不会倒退. 线程安全
+ * @modified By：
+ * @version: $
+ */
+public final class VirtualClock extends Clock {
+
+	private final double speed;
+	private final long originNanos;
+	private volatile long originMillis;
+
+	private VirtualClock(long startMillis, double speed) {
+		if (speed < 0 || Double.isNaN(speed) || Double.isInfinite(speed)) {
+			throw new IllegalArgumentException("speed must be >= 0: " + speed);
+		}
+		this.speed = speed;
+		this.originNanos = System.nanoTime();
+		this.originMillis = startMillis;
+	}
+
+	public static VirtualClock asFastAsPossible(long startMillis) {
+		return new VirtualClock(startMillis, 0);
+	}
+
+	/**
+	 * @param speed 虚拟时间相对真实时间的倍数, 例如 60 为 1 分钟回放 1 小时
+	 */
+	public static VirtualClock scaled(long startMillis, double speed) {
+		if (speed <= 0) {
+			throw new IllegalArgumentException("speed must be positive: " + speed);
+		}
+		return new VirtualClock(startMillis, speed);
+	}
+
+	public double getSpeed() {
+		return speed;
+	}
+
+	@Override
+	public long millis() {
+		if (speed == 0) {
+			return originMillis;
+		}
+		return originMillis + (long) ((System.nanoTime() - originNanos) * speed / 1_000_000);
+	}
+
+	/** 虚拟时间, 纳秒, 见 DateUtil.nanoTime() **/
+	public long nanos() {
+		long origin = originMillis * 1_000_000;
+		if (speed == 0) {
+			return origin;
+		}
+		return origin + (long) ((System.nanoTime() - originNanos) * speed);
+	}
+
+	/**
+	 * 虚拟时长对应的真实时长, 纳秒. 尽快模式为 0
+	 */
+	public long realNanos(long virtualNanos) {
+		return speed == 0 ? 0 : (long) (virtualNanos / speed);
+	}
+
+	/**
+	 * 把虚拟时间推进到 targetMillis, 已经过了时不变. 倍速模式下之后从新的时间继续按倍速走
+	 */
+	public synchronized void advanceTo(long targetMillis) {
+		long now = millis();
+		if (targetMillis <= now) {
+			return;
+		}
+		originMillis += targetMillis - now;
+	}
+
+	public void advance(long millis) {
+		advanceTo(millis() + millis);
+	}
+
+	/**
+	 * 等到虚拟时间 targetMillis. 尽快模式直接推进, 倍速模式按倍速折算后 park
+	 */
+	public void sleepUntil(long targetMillis) throws InterruptedException {
+		if (speed == 0) {
+			advanceTo(targetMillis);
+			return;
+		}
+		long remaining;
+		while ((remaining = targetMillis - millis()) > 0) {
+			LockSupport.parkNanos((long) (TimeUnit.MILLISECONDS.toNanos(remaining) / speed));
+			if (Thread.interrupted()) {
+				throw new InterruptedException();
+			}
+		}
+	}
+
+	@Override
+	public ZoneId getZone() {
+		return ZoneOffset.UTC;
+	}
+
+	/** 始终为 UTC, DateUtil 只按 UTC 取时间 **/
+	@Override
+	public Clock withZone(ZoneId zone) {
+		return this;
+	}
+
+	@Override
+	public Instant instant() {
+		return Instant.ofEpochMilli(millis());
+	}
+}
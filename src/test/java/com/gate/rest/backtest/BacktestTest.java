@@ -0,0 +1,243 @@
+package com.gate.rest.backtest;
+
+import com.gate.rest.base.BacktestConfig;
+import com.gate.rest.entity.PairScale;
+import com.gate.rest.market.SymbolRegistry;
+import com.gate.rest.store.TickQuery;
+import com.gate.rest.store.TickStore;
+import com.gate.rest.store.TickWriter;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/11/05 下午2:00
+ * @description：回测: 挂单与吃单成交, 手续费, 下单延迟, 资金不足, 并行参数扫描与逐个运行一致
+ * @modified By：
+ * @version: $
+ */
+@Log4j2
+class BacktestTest {
+
+    static final long T0 = LocalDate.of(2026, 11, 1).toEpochDay() * TimeUnit.DAYS.toMillis(1);
+    static final String SYMBOL = "supe_usdt";
+    static final long ONE = 1_0000_0000L;
+
+    @TempDir
+    Path dir;
+
+    static SymbolRegistry symbols() {
+        return SymbolRegistry.of(Collections.singletonList(SYMBOL), Collections.singletonMap(SYMBOL, PairScale.of(2)));
+    }
+
+    static BacktestConfig config(long latencyMillis) {
+        BacktestConfig config = new BacktestConfig();
+        config.setLatencyMillis(latencyMillis);
+        config.setParallelism(2);
+        return config;
+    }
+
+    /**
+     * 最新价跌破 8.50 后以 8.40 挂买单, 生效后有 8.39 的成交时按 maker 成交; 涨过 8.70 后以 8.70 卖出, 生效时买一 8.75 按 taker 成交
+     */
+    MarketTape script() throws Exception {
+        TickStore store = TickStore.open(dir, 1 << 20);
+        try (TickWriter writer = store.writer(symbols())) {
+            writer.ticker(0, T0, 860, 859, 861, ONE, ONE, 0);
+            writer.ticker(0, T0 + 1_000, 849, 848, 850, ONE, ONE, 0);
+            writer.trade(0, T0 + 1_020, 1, 830, ONE, false);
+            writer.ticker(0, T0 + 1_060, 845, 844, 846, ONE, ONE, 0);
+            writer.trade(0, T0 + 2_000, 2, 839, ONE, false);
+            writer.ticker(0, T0 + 3_000, 880, 879, 881, ONE, ONE, 0);
+            writer.topOfBook(0, T0 + 3_100, 875, ONE, 877, ONE);
+        }
+        try (TickQuery query = new TickQuery(store, 1)) {
+            return MarketTape.load(query, SYMBOL, T0, T0 + 10_000);
+        }
+    }
+
+    /**
+     * 存储顺序不是时间顺序: 先写的 ticker 时间较晚, 迟到的成交写在下一天的段中. 加载后按时间排列再向前填充
+     */
+    @Test
+    public void tapeIsInTimeOrder() throws Exception {
+        long day = TimeUnit.DAYS.toMillis(1);
+        TickStore store = TickStore.open(dir, 1 << 20);
+        try (TickWriter writer = store.writer(symbols())) {
+            writer.ticker(0, T0 + 1_000, 849, 848, 850, ONE, ONE, 0);
+            writer.ticker(0, T0, 860, 859, 861, ONE, ONE, 0);
+            writer.trade(0, T0 + 500, 1, 855, ONE, false);
+            writer.topOfBook(0, T0 + 2_000, 845, ONE, 847, ONE);
+            writer.ticker(0, T0 + day + 10, 850, 849, 851, ONE, ONE, 0);
+            writer.trade(0, T0 + day - 1, 2, 846, ONE, true);
+        }
+        MarketTape tape;
+        try (TickQuery query = new TickQuery(store, 1)) {
+            tape = MarketTape.load(query, SYMBOL, T0, T0 + 2 * day);
+        }
+        long[] times = {T0, T0 + 500, T0 + 1_000, T0 + 2_000, T0 + day - 1, T0 + day + 10};
+        long[] lasts = {860, 855, 849, 849, 846, 850};
+        long[] bids = {859, 859, 848, 845, 845, 849};
+        assertEquals(times.length, tape.size());
+        for (int i = 0; i < times.length; i++) {
+            assertEquals(times[i], tape.time(i), "event " + i);
+            assertEquals(lasts[i], tape.last(i), "event " + i);
+            assertEquals(bids[i], tape.bid(i), "event " + i);
+        }
+        assertEquals(855, tape.tradePrice(1));
+        assertEquals(MarketTape.NO_TRADE, tape.tradePrice(2));
+        assertEquals(846, tape.tradePrice(4));
+    }
+
+    static final long[] STOCK_CLIENT_TEST = {850, 840, 870, ONE};
+
+    @Test
+    public void fillsFeesAndLatency() throws Exception {
+        MarketTape tape = script();
+        assertEquals(7, tape.size());
+        assertEquals(MarketTape.NO_TRADE, tape.tradePrice(0));
+        assertEquals(830, tape.tradePrice(2));
+        assertEquals(845, tape.last(3));
+        try (Backtest backtest = new Backtest(config(50))) {
+            Account account = backtest.run(tape, new ThresholdStrategy(), STOCK_CLIENT_TEST);
+            assertEquals(Account.CASH_SCALE, account.getCashScale());
+            assertEquals(2, account.getFills());
+            assertEquals(0, account.getPosition());
+            // 10000 - 8.40 - 0.0168 + 8.75 - 0.0175
+            assertEquals(10_000_31570000L, account.getCash());
+            assertEquals(17_15000000L, account.getTurnover());
+            assertEquals(3430000L, account.getFees());
+            assertEquals(0.3157, account.getPnl(), 1e-9);
+            // 持仓期间最新价从 8.49 跌到 8.39
+            assertTrue(account.getMaxDrawdown() > 0.0168 && account.getMaxDrawdown() < 0.2);
+        }
+
+        // 延迟 5 秒: 买单生效前最新价已回到 8.50 以上, 撤单
+        try (Backtest backtest = new Backtest(config(5_000))) {
+            Account account = backtest.run(tape, new ThresholdStrategy(), STOCK_CLIENT_TEST);
+            assertEquals(0, account.getFills());
+            assertEquals(10_000_00000000L, account.getCash());
+            assertEquals(0, account.getMaxDrawdown());
+        }
+
+        // 资金不足
+        BacktestConfig poor = config(50);
+        poor.setInitialCash(1);
+        try (Backtest backtest = new Backtest(poor)) {
+            Account account = backtest.run(tape, new ThresholdStrategy(), STOCK_CLIENT_TEST);
+            assertEquals(0, account.getFills());
+            assertEquals(4, account.getRejects());
+            assertThrows(IllegalArgumentException.class, () -> account.sell(900, 0));
+        }
+    }
+
+    /**
+     * 价格 10 位小数的交易对, 初始资金一亿, 每次成交一千万: 资金的小数位数不随价格小数位数增加, 成交额累计不回绕
+     */
+    @Test
+    public void largeAccountsOnFinePrices() throws Exception {
+        String symbol = "shib_usdt";
+        SymbolRegistry symbols = SymbolRegistry.of(Collections.singletonList(symbol), Collections.singletonMap(symbol, PairScale.of(10)));
+        long price = 10_000_000_000L;
+        TickStore store = TickStore.open(dir, 1 << 20);
+        try (TickWriter writer = store.writer(symbols)) {
+            for (int i = 0; i < 200; i++) {
+                // 0.99 与 1.01 交替, 以 1.00 挂单买入与卖出
+                long last = i % 2 == 0 ? price - price / 100 : price + price / 100;
+                writer.ticker(0, T0 + i * 1_000L, last, last - 1, last + 1, ONE, ONE, 0);
+            }
+        }
+        MarketTape tape;
+        try (TickQuery query = new TickQuery(store, 1)) {
+            tape = MarketTape.load(query, symbol, T0, T0 + 200_000);
+        }
+        BacktestConfig config = config(0);
+        config.setInitialCash(100_000_000);
+        long[] params = {price + price / 50, price, price, 10_000_000 * ONE};
+        try (Backtest backtest = new Backtest(config)) {
+            Account account = backtest.run(tape, new ThresholdStrategy(), params);
+            assertEquals(Account.CASH_SCALE, account.getCashScale());
+            assertTrue(account.getFills() >= 60, "fills " + account.getFills());
+            // 成交额远超 12 位小数时 long 能表示的约 9.2e6
+            assertTrue(account.getTurnover() / 1e8 > 5e8, "turnover " + account.getTurnover());
+            assertTrue(account.getFees() > 0);
+            assertTrue(account.getCash() > 0);
+        }
+
+        BacktestConfig huge = config(0);
+        huge.setInitialCash(Long.MAX_VALUE / 10);
+        assertThrows(IllegalArgumentException.class, () -> new Account(tape, huge));
+    }
+
+    /**
+     * 一天每 5 秒一轮(ticker, 买一卖一, 成交), 价格在 8.00 ~ 9.00 之间波动
+     */
+    static MarketTape day(Path dir) throws Exception {
+        TickStore store = TickStore.open(dir, 16L * 1024 * 1024);
+        long day = TimeUnit.DAYS.toMillis(1);
+        try (TickWriter writer = store.writer(symbols())) {
+            long tradeId = 0;
+            for (long t = T0; t < T0 + day; t += 5_000) {
+                double x = (t - T0) / 1000.0;
+                long price = Math.round(850 + 35 * Math.sin(x / 1800) + 12 * Math.sin(x / 137) + 3 * Math.sin(x / 11));
+                writer.ticker(0, t, price, price - 1, price + 1, ONE, ONE, 0);
+                writer.topOfBook(0, t + 1, price - 1, ONE, price + 1, ONE);
+                writer.trade(0, t + 2, tradeId++, price + (tradeId % 3) - 1, ONE, (tradeId & 1) == 0);
+            }
+        }
+        try (TickQuery query = new TickQuery(store, 1)) {
+            return MarketTape.load(query, SYMBOL, T0, T0 + day);
+        }
+    }
+
+    static long[] axis(long from, long step, int n) {
+        long[] axis = new long[n];
+        for (int i = 0; i < n; i++) {
+            axis[i] = from + i * step;
+        }
+        return axis;
+    }
+
+    @Test
+    public void parallelSweepMatchesSequentialRuns() throws Exception {
+        MarketTape tape = day(dir);
+        long[][] grid = Backtest.grid(axis(820, 3, 16), axis(800, 3, 16), axis(850, 3, 16), new long[]{ONE});
+        assertEquals(4096, grid.length);
+        assertEquals(820, grid[0][0]);
+        assertEquals(850 + 3, grid[1][2]);
+        assertEquals(800 + 3, grid[16][1]);
+
+        try (Backtest backtest = new Backtest(config(50))) {
+            long start = System.nanoTime();
+            SweepResult result = backtest.sweep(tape, new ThresholdStrategy(), grid);
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            log.info("{} runs over {} events in {} ms, {} events/s\n{}", result.size(), tape.size(), millis,
+                    (long) result.size() * tape.size() * 1000 / Math.max(1, millis), result.table(10));
+
+            for (int k = 0; k < grid.length; k += 41) {
+                Account account = backtest.run(tape, new ThresholdStrategy(), grid[k]);
+                assertEquals(account.getPnl(), result.pnl(k));
+                assertEquals(account.getMaxDrawdown(), result.maxDrawdown(k));
+                assertEquals(account.getFills(), result.fills(k));
+            }
+            int best = result.best();
+            assertTrue(result.fills(best) > 0);
+            assertTrue(result.pnl(best) > 0);
+            assertTrue(result.table(3).split("\n").length == 4);
+            for (int k = 0; k < grid.length; k++) {
+                assertTrue(result.maxDrawdown(k) >= 0);
+                assertTrue(result.pnl(k) <= result.pnl(best));
+            }
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.gate.rest.market;
+
+import com.gate.rest.base.CandleConfig;
+import com.gate.rest.base.PollerConfig;
+import com.gate.rest.stock.impl.StockRestApi;
+import com.gate.rest.stub.ExchangeStubServer;
+import com.gate.rest.util.CallExecutors;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/31 下午2:00
+ * @description：K 线聚合: OHLCV / VWAP, 迟到成交, 定时收盘与补齐, 环形缓冲, 内存不随成交增长
+ * @modified By：
+ * @version: $
+ */
+@Log4j2
+class CandleAggregatorTest {
+
+    static CandleConfig config(int bars, long lateness, Long... intervals) {
+        CandleConfig config = new CandleConfig();
+        config.setBars(bars);
+        config.setLatenessMillis(lateness);
+        config.setIntervalsMillis(Arrays.asList(intervals));
+        return config;
+    }
+
+    static SymbolRegistry symbols(int n) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            names.add("s" + i + "_usdt");
+        }
+        return SymbolRegistry.of(names, Collections.emptyMap());
+    }
+
+    @Test
+    public void ohlcvAndVwap() {
+        CandleAggregator candles = new CandleAggregator(symbols(1), config(16, 0, 1_000L, 60_000L), null);
+        candles.onTrade(0, 1_100, 100, 2);
+        candles.onTrade(0, 1_200, 105, 1);
+        candles.onTrade(0, 1_900, 95, 1);
+        candles.onTrade(0, 1_950, 98, 4);
+        candles.onTrade(0, 4_000, 110, 1);
+
+        Candle candle = new Candle();
+        assertTrue(candles.read(0, 0, 1_000, candle));
+        assertEquals(1_000, candle.getStartMillis());
+        assertEquals(100, candle.getOpen());
+        assertEquals(105, candle.getHigh());
+        assertEquals(95, candle.getLow());
+        assertEquals(98, candle.getClose());
+        assertEquals(8, candle.getVolume());
+        assertEquals(4, candle.getTrades());
+        assertEquals(Math.round((100 * 2 + 105 + 95 + 98 * 4) / 8.0), candle.vwap());
+        assertFalse(candle.isClosed());
+
+        // 没有成交的 2s, 3s 以收盘价补齐
+        assertTrue(candles.read(0, 0, 2_500, candle));
+        assertEquals(2_000, candle.getStartMillis());
+        assertEquals(98, candle.getOpen());
+        assertEquals(98, candle.getHigh());
+        assertEquals(0, candle.getVolume());
+        assertEquals(98, candle.vwap());
+        assertFalse(candles.read(0, 0, 0, candle));
+        assertFalse(candles.read(0, 0, 5_000, candle));
+
+        assertTrue(candles.latest(0, 1, candle));
+        assertEquals(0, candle.getStartMillis());
+        assertEquals(60_000, candle.getEndMillis());
+        assertEquals(100, candle.getOpen());
+        assertEquals(110, candle.getClose());
+        assertEquals(110, candle.getHigh());
+        assertEquals(9, candle.getVolume());
+    }
+
+    @Test
+    public void lateTradesAndTimer() {
+        List<String> closed = new ArrayList<>();
+        CandleAggregator candles = new CandleAggregator(symbols(2), config(16, 2_000, 1_000L, 60_000L),
+                (id, interval, candle) -> closed.add(id + "/" + candle.getIntervalMillis() + "/" + candle.getStartMillis()
+                        + "/" + candle.getOpen() + "/" + candle.getClose() + "/" + candle.getVolume()));
+        candles.onTrade(0, 10_300, 100, 1);
+        candles.onTrade(0, 10_600, 101, 1);
+        candles.onTrade(0, 11_500, 102, 1);
+        // 迟到但还在等待时间内: 成交时间最早, 成为开盘价, 收盘价不变
+        candles.onTrade(0, 10_100, 99, 1);
+
+        candles.closeBars(12_999);
+        assertTrue(closed.isEmpty());
+        candles.closeBars(13_000);
+        assertEquals(Collections.singletonList("0/1000/10000/99/101/3"), closed);
+        Candle candle = new Candle();
+        assertTrue(candles.read(0, 0, 10_000, candle));
+        assertTrue(candle.isClosed());
+
+        // 收盘后才到: 1s 周期丢弃, 1m 周期照常计入
+        candles.onTrade(0, 10_900, 200, 1);
+        assertEquals(1, candles.getDroppedTrades());
+        assertTrue(candles.read(0, 0, 10_000, candle));
+        assertEquals(3, candle.getVolume());
+        assertTrue(candles.latest(0, 1, candle));
+        assertEquals(5, candle.getVolume());
+        assertEquals(200, candle.getHigh());
+
+        // 没有新成交的交易对由定时器补齐并收盘
+        closed.clear();
+        candles.closeBars(17_000);
+        assertEquals(Arrays.asList("0/1000/11000/102/102/1", "0/1000/12000/102/102/0", "0/1000/13000/102/102/0",
+                "0/1000/14000/102/102/0"), closed);
+        // 从没有成交的交易对不产生 K 线
+        assertFalse(candles.latest(1, 0, candle));
+        candles.closeBars(60_000 + 2_000);
+        assertTrue(closed.contains("0/60000/0/99/102/5"));
+    }
+
+    /**
+     * 定时器与 MarketPoller 轮询的 tradeHistory 一起运行: 每 50ms 一笔成交, 每 2s 才取到一次, 等待时间只有 300ms.
+     * 按同步时间收盘, 成交都在收盘前到达, 没有丢弃, 每根 1s K 线都是完整的 20 笔
+     */
+    @Test
+    public void timerWaitsForPolledTrades() throws Exception {
+        long base = System.currentTimeMillis();
+        StockRestApi api = new StockRestApi("http://127.0.0.1:1") {
+            @Override
+            public String tradeHistory(String symbol) {
+                long last = (System.currentTimeMillis() - base) / 50;
+                StringBuilder sb = new StringBuilder("{\"elapsed\":\"3ms\",\"result\":\"true\",\"data\":[");
+                for (long id = last; id >= Math.max(1, last - 79); id--) {
+                    if (id != last) {
+                        sb.append(',');
+                    }
+                    sb.append("{\"tradeID\":\"").append(id)
+                            .append("\",\"timestamp\":\"").append((base + id * 50) / 1000)
+                            .append("\",\"type\":\"buy\",\"rate\":\"1800.5\",\"amount\":\"0.5\",\"total\":\"900.25\"}");
+                }
+                return sb.append("]}").toString();
+            }
+        };
+        SymbolRegistry symbols = TradeSyncTest.eth();
+        PollerConfig pollerConfig = TradeSyncTest.config(1024);
+        pollerConfig.setTradeHistory(new PollerConfig.Cadence(2000, 2000, 2000));
+        TradeSync sync = new TradeSync(symbols, pollerConfig);
+        CandleConfig candleConfig = config(64, 300, 1_000L);
+        candleConfig.setTimerMillis(50);
+        List<Candle> closed = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService executor = CallExecutors.newPlatformExecutor(2);
+        try (MarketPoller poller = new MarketPoller(api, symbols, pollerConfig, sync);
+             CandleAggregator candles = new CandleAggregator(symbols, candleConfig, (id, interval, candle) -> {
+                 Candle copy = new Candle();
+                 copy.startMillis = candle.startMillis;
+                 copy.trades = candle.trades;
+                 closed.add(copy);
+             })) {
+            sync.attach(poller);
+            sync.setListener(candles);
+            poller.setExecutor(executor);
+            poller.subscribe(MarketPoller.Channel.TRADE_HISTORY, "eth_usdt");
+            candles.start();
+            poller.start();
+            Thread.sleep(6500);
+            List<Candle> bars = new ArrayList<>(closed);
+            log.info("{} bars closed, {} dropped", bars.size(), candles.getDroppedTrades());
+            assertEquals(0, candles.getDroppedTrades());
+            assertTrue(bars.size() >= 3, "bars " + bars.size());
+            // 第一根从启动时刻开始, 不完整
+            for (int i = 1; i < bars.size(); i++) {
+                assertEquals(20, bars.get(i).getTrades(), "bar " + bars.get(i).getStartMillis());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void ringKeepsLatestBars() {
+        List<Long> closed = new ArrayList<>();
+        CandleAggregator candles = new CandleAggregator(symbols(1), config(4, 10_000, 1_000L),
+                (id, interval, candle) -> closed.add(candle.getStartMillis()));
+        assertEquals(4, candles.bars());
+        candles.onTrade(0, 0, 100, 1);
+        candles.onTrade(0, 1_000, 101, 1);
+        // 第 10 根覆盖了还在等待迟到成交的 0, 1: 先收盘; 2 ~ 6 从未进入缓冲
+        candles.onTrade(0, 10_000, 110, 1);
+        assertEquals(Arrays.asList(0L, 1_000L), closed);
+        Candle candle = new Candle();
+        assertFalse(candles.read(0, 0, 6_000, candle));
+        assertTrue(candles.read(0, 0, 7_000, candle));
+        assertEquals(101, candle.getClose());
+        assertEquals(0, candle.getVolume());
+        assertFalse(candle.isClosed());
+        candles.closeBars(19_000);
+        assertEquals(Arrays.asList(0L, 1_000L, 7_000L, 8_000L), closed);
+        candles.onTrade(0, 1_500, 1, 1);
+        assertEquals(1, candles.getDroppedTrades());
+    }
+
+    @Test
+    public void fromTradeTape() throws Exception {
+        SymbolRegistry symbols = SymbolRegistryTest.recorded();
+        PollerConfig poller = new PollerConfig();
+        poller.setTradeTapeCapacity(256);
+        TradeSync sync = new TradeSync(symbols, poller);
+        CandleAggregator candles = new CandleAggregator(symbols, new CandleConfig(), null);
+        sync.setListener(candles);
+        int id = symbols.require("eth_usdt");
+        sync.apply(id, new ByteArrayInputStream(ExchangeStubServer.payload("tradeHistory").getBytes(StandardCharsets.UTF_8)));
+        TradeTape tape = sync.tape(id);
+
+        // 录制的成交都在 1700000001 ~ 1700000114 秒, 即 1h 周期的同一根 K 线内
+        int hour = 3;
+        assertEquals(3_600_000, candles.intervalMillis(hour));
+        Candle candle = new Candle();
+        assertTrue(candles.latest(id, hour, candle));
+        long volume = 0;
+        double turnover = 0;
+        long high = Long.MIN_VALUE;
+        for (long seq = 0; seq < tape.getTotal(); seq++) {
+            volume += tape.amount(seq);
+            turnover += (double) tape.price(seq) * tape.amount(seq);
+            high = Math.max(high, tape.price(seq));
+        }
+        assertEquals(80, candle.getTrades());
+        assertEquals(volume, candle.getVolume());
+        assertEquals(high, candle.getHigh());
+        assertEquals(tape.price(0), candle.getOpen());
+        assertEquals(tape.price(79), candle.getClose());
+        assertEquals(Math.round(turnover / volume), candle.vwap());
+        // 再同步一次相同窗口没有新成交, K 线不变
+        sync.apply(id, new ByteArrayInputStream(ExchangeStubServer.payload("tradeHistory").getBytes(StandardCharsets.UTF_8)));
+        assertEquals(0, candles.consume(id, tape));
+        assertTrue(candles.latest(id, hour, candle));
+        assertEquals(80, candle.getTrades());
+    }
+
+    /**
+     * 2000 个交易对, 每个交易对的缓冲分配一次之后, 写入成交与定时收盘都不再分配
+     */
+    @Test
+    public void constantMemory() {
+        int n = 2_000;
+        CandleAggregator candles = new CandleAggregator(symbols(n), config(64, 2_000, 1_000L, 60_000L, 300_000L, 3_600_000L),
+                (id, interval, candle) -> {
+                });
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long tid = Thread.currentThread().getId();
+        long time = 1_700_000_000_000L;
+        for (int id = 0; id < n; id++) {
+            candles.onTrade(id, time, 100, 1);
+        }
+        long start = bean.getThreadAllocatedBytes(tid);
+        long startNanos = System.nanoTime();
+        int trades = 0;
+        for (int round = 0; round < 50; round++) {
+            time += 250;
+            for (int id = 0; id < n; id++) {
+                candles.onTrade(id, time + id % 250, 100 + (round + id) % 7, 1 + id % 3);
+                trades++;
+            }
+            candles.closeBars(time);
+        }
+        long nanos = System.nanoTime() - startNanos;
+        long bytes = bean.getThreadAllocatedBytes(tid) - start;
+        log.info("{} trades over {} symbols: {} ns/trade, {} bytes allocated", trades, n, nanos / trades, bytes);
+        assertTrue(bytes < 64 * 1024, "allocated " + bytes);
+    }
+}
@@ -0,0 +1,227 @@
+package com.gate.rest.market;
+
+import com.gate.rest.base.PollerConfig;
+import com.gate.rest.entity.PairScale;
+import com.gate.rest.stock.impl.StockRestApi;
+import com.gate.rest.util.CallExecutors;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/29 下午3:00
+ * @description：多交易对轮询: 请求预算与均匀发送, 间隔自适应, 慢交易对隔离
+ * @modified By：
+ * @version: $
+ */
+@Log4j2
+class MarketPollerTest {
+
+    /**
+     * ticker 响应: "moving_" 开头的交易对每次价格都变, 其余不变; "slow_" 开头的调用耗时 500ms
+     */
+    static class FakeApi extends StockRestApi {
+        final ConcurrentLinkedQueue<Long> calls = new ConcurrentLinkedQueue<>();
+        final Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+
+        FakeApi() {
+            super("http://127.0.0.1:1");
+        }
+
+        @Override
+        public String ticker(String symbol) throws IOException {
+            calls.add(System.nanoTime());
+            int n = counts.computeIfAbsent(symbol, s -> new AtomicInteger()).incrementAndGet();
+            if (symbol.startsWith("slow_")) {
+                try {
+                    Thread.sleep(500);
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+            long last = symbol.startsWith("moving_") ? 1000 + (n % 2) * 5 : 1000;
+            return "{\"result\":\"true\",\"last\":\"" + last + "\",\"elapsed\":\"" + n + "ms\"}";
+        }
+    }
+
+    final ExecutorService executor = CallExecutors.newPlatformExecutor(16);
+    MarketPoller poller;
+
+    @AfterEach
+    public void shutdown() {
+        if (poller != null) {
+            poller.close();
+        }
+        executor.shutdownNow();
+    }
+
+    static SymbolRegistry registry(List<String> names) {
+        return SymbolRegistry.of(names, Collections.emptyMap());
+    }
+
+    static PollerConfig config(double requestsPerSecond) {
+        PollerConfig config = new PollerConfig();
+        config.setRequestsPerSecond(requestsPerSecond);
+        config.setTicker(new PollerConfig.Cadence(100, 40, 800));
+        return config;
+    }
+
+    MarketPoller start(FakeApi api, SymbolRegistry symbols, PollerConfig config) {
+        poller = new MarketPoller(api, symbols, config, null);
+        poller.setExecutor(executor);
+        for (int id = 0; id < symbols.size(); id++) {
+            poller.subscribe(MarketPoller.Channel.TICKER, symbols.name(id));
+        }
+        poller.start();
+        return poller;
+    }
+
+    @Test
+    public void contentHashIgnoresElapsed() {
+        assertEquals(MarketPoller.contentHash("{\"last\":\"1\",\"elapsed\":\"3ms\"}"),
+                MarketPoller.contentHash("{\"last\":\"1\",\"elapsed\":\"12ms\"}"));
+        assertTrue(MarketPoller.contentHash("{\"last\":\"1\",\"elapsed\":\"3ms\"}")
+                != MarketPoller.contentHash("{\"last\":\"2\",\"elapsed\":\"3ms\"}"));
+        assertEquals(1800_25, MarketPoller.lastPrice("{\"result\":\"true\",\"last\":\"1800.25\"}", 2));
+        assertEquals(0, MarketPoller.lastPrice("{\"result\":\"false\"}", 2));
+    }
+
+    /**
+     * 100 个交易对每 40~100ms 一次远超预算, 实际请求数受限且均匀分布
+     */
+    @Test
+    public void staysWithinBudget() throws Exception {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            names.add("moving_" + i);
+        }
+        FakeApi api = new FakeApi();
+        start(api, registry(names), config(50));
+        Thread.sleep(2500);
+        poller.close();
+        List<Long> calls = new ArrayList<>(api.calls);
+        Collections.sort(calls);
+        int maxIn200ms = 0;
+        for (int i = 0, j = 0; i < calls.size(); i++) {
+            while (calls.get(i) - calls.get(j) > 200_000_000L) {
+                j++;
+            }
+            maxIn200ms = Math.max(maxIn200ms, i - j + 1);
+        }
+        log.info("{} requests in 2.5s at 50/s, max {} in any 200ms", calls.size(), maxIn200ms);
+        assertTrue(calls.size() <= 125 + 3, "requests " + calls.size());
+        assertTrue(calls.size() >= 100, "requests " + calls.size());
+        assertTrue(maxIn200ms <= 10 + 3, "burst " + maxIn200ms);
+        // 按到期先后轮流, 每个交易对都被轮询到
+        assertEquals(100, api.counts.size());
+    }
+
+    @Test
+    public void adaptsToChanges() throws Exception {
+        FakeApi api = new FakeApi();
+        SymbolRegistry symbols = registry(Arrays.asList("moving_usdt", "flat_usdt"));
+        start(api, symbols, config(200));
+        Thread.sleep(2000);
+        int moving = symbols.idOf("moving_usdt");
+        int flat = symbols.idOf("flat_usdt");
+        long movingPolls = poller.polls(MarketPoller.Channel.TICKER, moving);
+        long flatPolls = poller.polls(MarketPoller.Channel.TICKER, flat);
+        log.info("moving: {} polls, target {} ms, achieved {} ms, volatility {} bps; flat: {} polls, target {} ms, achieved {} ms",
+                movingPolls, poller.targetIntervalMillis(MarketPoller.Channel.TICKER, moving),
+                poller.achievedIntervalMillis(MarketPoller.Channel.TICKER, moving), poller.volatilityBps(moving),
+                flatPolls, poller.targetIntervalMillis(MarketPoller.Channel.TICKER, flat),
+                poller.achievedIntervalMillis(MarketPoller.Channel.TICKER, flat));
+        assertEquals(40, poller.targetIntervalMillis(MarketPoller.Channel.TICKER, moving));
+        assertTrue(poller.targetIntervalMillis(MarketPoller.Channel.TICKER, flat) >= 400);
+        assertTrue(movingPolls > 3 * flatPolls, movingPolls + " vs " + flatPolls);
+        assertTrue(poller.volatilityBps(moving) > 10);
+        assertEquals(0, poller.volatilityBps(flat));
+        assertEquals(1, poller.changes(MarketPoller.Channel.TICKER, flat));
+        assertTrue(poller.achievedIntervalMillis(MarketPoller.Channel.TICKER, moving) < 100);
+    }
+
+    @Test
+    public void slowPairDoesNotDelayOthers() throws Exception {
+        List<String> names = new ArrayList<>();
+        names.add("slow_usdt");
+        for (int i = 0; i < 9; i++) {
+            names.add("moving_" + i);
+        }
+        FakeApi api = new FakeApi();
+        SymbolRegistry symbols = registry(names);
+        start(api, symbols, config(500));
+        Thread.sleep(1600);
+        int slow = symbols.idOf("slow_usdt");
+        long maxOther = 0;
+        for (int id = 0; id < symbols.size(); id++) {
+            if (id != slow) {
+                maxOther = Math.max(maxOther, poller.achievedIntervalMillis(MarketPoller.Channel.TICKER, id));
+            }
+        }
+        log.info("slow pair achieved {} ms, others at most {} ms, max staleness {} ms",
+                poller.achievedIntervalMillis(MarketPoller.Channel.TICKER, slow), maxOther,
+                poller.maxStalenessMillis(MarketPoller.Channel.TICKER));
+        assertTrue(poller.achievedIntervalMillis(MarketPoller.Channel.TICKER, slow) >= 500);
+        assertTrue(maxOther < 200, "others " + maxOther);
+        assertTrue(poller.stalenessMillis(MarketPoller.Channel.TICKER, symbols.idOf("moving_0")) < 300);
+        assertTrue(poller.averageAchievedIntervalMillis(MarketPoller.Channel.TICKER) > 0);
+    }
+
+    /**
+     * 每个订阅按 channel / symbol 注册陈旧时长与实际间隔, bindTo 之后的订阅同样注册
+     */
+    @Test
+    public void perSubscriptionMetrics() throws Exception {
+        SymbolRegistry symbols = registry(Arrays.asList("slow_usdt", "moving_usdt"));
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        poller = new MarketPoller(new FakeApi(), symbols, config(200), null);
+        poller.setExecutor(executor);
+        poller.subscribe(MarketPoller.Channel.TICKER, "slow_usdt");
+        poller.bindTo(meters);
+        poller.subscribe(MarketPoller.Channel.TICKER, "moving_usdt");
+        poller.start();
+        Thread.sleep(1600);
+        Gauge slowInterval = meters.find("gate.poller.interval").tag("channel", "ticker").tag("symbol", "slow_usdt").gauge();
+        Gauge movingInterval = meters.find("gate.poller.interval").tag("channel", "ticker").tag("symbol", "moving_usdt").gauge();
+        Gauge movingStaleness = meters.find("gate.poller.staleness").tag("channel", "ticker").tag("symbol", "moving_usdt").gauge();
+        assertNotNull(slowInterval);
+        assertNotNull(movingInterval);
+        assertNotNull(movingStaleness);
+        assertTrue(slowInterval.value() >= 500, "slow " + slowInterval.value());
+        assertTrue(movingInterval.value() > 0 && movingInterval.value() < 200, "moving " + movingInterval.value());
+        assertTrue(movingStaleness.value() < 300, "staleness " + movingStaleness.value());
+        assertNotNull(meters.find("gate.poller.staleness.max").tag("channel", "ticker").gauge());
+        assertEquals(2, meters.find("gate.poller.staleness").gauges().size());
+    }
+
+    @Test
+    public void scaleFromRegistry() {
+        SymbolRegistry symbols = SymbolRegistry.of(Collections.singletonList("eth_usdt"),
+                Collections.singletonMap("eth_usdt", PairScale.of(2)));
+        MarketPoller poller = new MarketPoller(new FakeApi(), symbols, config(10), null);
+        poller.subscribe(MarketPoller.Channel.TICKER, "eth_usdt");
+        poller.subscribe(MarketPoller.Channel.TICKER, "eth_usdt");
+        poller.subscribe(MarketPoller.Channel.ORDER_BOOK, "eth_usdt");
+        assertEquals(2, poller.subscriptions());
+        assertEquals(100, poller.targetIntervalMillis(MarketPoller.Channel.TICKER, 0));
+        assertEquals(2000, poller.targetIntervalMillis(MarketPoller.Channel.ORDER_BOOK, 0));
+    }
+}
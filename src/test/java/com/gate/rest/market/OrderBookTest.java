@@ -0,0 +1,296 @@
+package com.gate.rest.market;
+
+import com.gate.rest.entity.PairScale;
+import com.gate.rest.stock.impl.StockRestApi;
+import com.gate.rest.stub.ExchangeStubServer;
+import com.gate.rest.util.FixedPoint;
+import com.gate.rest.util.JsonTool;
+import com.google.gson.reflect.TypeToken;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/26 下午2:30
+ * @description：L2 盘口: 解码录制的 orderBook, 快照归并, 价格查找与累计深度, 增量档位输出
+ * @modified By：
+ * @version: $
+ */
+@Log4j2
+class OrderBookTest {
+
+    static final PairScale ETH_USDT = PairScale.of(2);
+
+    static OrderBookSnapshot recorded() throws Exception {
+        byte[] body = ExchangeStubServer.payload("orderBook").getBytes(StandardCharsets.UTF_8);
+        return new OrderBookDecoder(ETH_USDT).decode(new ByteArrayInputStream(body));
+    }
+
+    static OrderBookSnapshot snapshot(long[][] asks, long[][] bids) {
+        OrderBookSnapshot snapshot = new OrderBookSnapshot(4);
+        snapshot.clear(ETH_USDT);
+        snapshot.setResult(true);
+        for (long[] level : asks) {
+            snapshot.add(Side.ASK, level[0], level[1]);
+        }
+        for (long[] level : bids) {
+            snapshot.add(Side.BID, level[0], level[1]);
+        }
+        return snapshot;
+    }
+
+    @Test
+    public void recordedSnapshot() throws Exception {
+        OrderBookSnapshot snapshot = recorded();
+        Map<String, Object> json = JsonTool.jsonToObject(ExchangeStubServer.payload("orderBook"),
+                new TypeToken<Map<String, Object>>() {
+                }.getType());
+        OrderBook book = new OrderBook("eth_usdt");
+        assertEquals(snapshot.count(Side.ASK) + snapshot.count(Side.BID), book.apply(snapshot));
+        assertEquals(1000, snapshot.getElapsedMicros());
+
+        for (Side side : Side.values()) {
+            @SuppressWarnings("unchecked")
+            List<List<String>> levels = new ArrayList<>((List<List<String>>) json.get(side == Side.ASK ? "asks" : "bids"));
+            Comparator<List<String>> byPrice = Comparator.comparing(level -> FixedPoint.parse(level.get(0), 2));
+            levels.sort(side == Side.ASK ? byPrice : byPrice.reversed());
+            assertEquals(levels.size(), book.depth(side));
+            long cumulative = 0;
+            for (int i = 0; i < levels.size(); i++) {
+                long price = FixedPoint.parse(levels.get(i).get(0), 2);
+                long size = FixedPoint.parse(levels.get(i).get(1), 8);
+                cumulative += size;
+                assertEquals(price, book.price(side, i));
+                assertEquals(size, book.size(side, i));
+                assertEquals(i, book.levelOf(side, price));
+                assertEquals(size, book.sizeAt(side, price));
+                assertEquals(cumulative, book.depthTo(side, price));
+            }
+        }
+        assertTrue(book.bestAsk() > book.bestBid());
+        assertEquals(book.price(Side.ASK, 0), book.bestAsk());
+        assertEquals(book.bestAsk() - book.bestBid(), book.spread());
+        // 同一快照再次应用没有变化
+        assertEquals(0, book.apply(recorded()));
+        assertEquals(2, book.getVersion());
+    }
+
+    @Test
+    public void growsFromZeroCapacity() {
+        OrderBookSnapshot snapshot = new OrderBookSnapshot(0);
+        snapshot.clear(ETH_USDT);
+        for (int i = 0; i < 20; i++) {
+            snapshot.add(Side.BID, 100 - i, 1);
+        }
+        snapshot.add(Side.ASK, 101, 2);
+        assertEquals(20, snapshot.count(Side.BID));
+        assertEquals(1, snapshot.count(Side.ASK));
+        assertEquals(81, snapshot.price(Side.BID, 19));
+        assertEquals(2, snapshot.size(Side.ASK, 0));
+    }
+
+    @Test
+    public void mergeCountsChanges() {
+        OrderBook book = new OrderBook("eth_usdt");
+        book.apply(snapshot(new long[][]{{103, 5}, {102, 5}, {101, 5}}, new long[][]{{100, 5}, {99, 5}, {98, 5}}));
+        assertEquals(101, book.bestAsk());
+        assertEquals(100, book.bestBid());
+
+        // 卖盘: 101 删除, 102 数量变化, 104 新增; 买盘: 98 删除, 97 新增
+        int changes = book.apply(snapshot(new long[][]{{104, 1}, {103, 5}, {102, 7}}, new long[][]{{100, 5}, {99, 5}, {97, 2}}));
+        assertEquals(5, changes);
+        assertEquals(102, book.bestAsk());
+        assertEquals(7, book.bestAskSize());
+        assertEquals(3, book.depth(Side.ASK));
+        assertEquals(0, book.sizeAt(Side.BID, 98));
+        assertEquals(-3, book.levelOf(Side.BID, 98));
+        assertEquals(2, book.sizeAt(Side.BID, 97));
+
+        // 一侧清空
+        assertEquals(3, book.apply(snapshot(new long[][]{}, new long[][]{{100, 5}, {99, 5}, {97, 2}})));
+        assertEquals(0, book.bestAsk());
+        assertEquals(0, book.spread());
+        assertEquals(0, book.depthWithinBps(Side.ASK, 100));
+
+        // 失败的响应不更新
+        OrderBookSnapshot failed = snapshot(new long[][]{}, new long[][]{});
+        failed.setResult(false);
+        assertEquals(0, book.apply(failed));
+        assertEquals(100, book.bestBid());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> book.apply(snapshot(new long[][]{{101, 1}, {103, 1}, {102, 1}}, new long[][]{})));
+        assertEquals(3, book.depth(Side.BID));
+    }
+
+    /**
+     * 按 LevelChanges 维护的镜像盘口与 OrderBook 一致
+     */
+    @Test
+    public void levelChanges() {
+        Random random = new Random(11);
+        OrderBook book = new OrderBook("eth_usdt");
+        LevelChanges changes = new LevelChanges(4);
+        Map<Side, TreeMap<Long, Long>> mirror = Map.of(Side.BID, new TreeMap<>(), Side.ASK, new TreeMap<>());
+        for (int round = 0; round < 200; round++) {
+            List<long[]> asks = new ArrayList<>();
+            List<long[]> bids = new ArrayList<>();
+            for (long price = 101; price < 160; price++) {
+                if (random.nextInt(4) > 0) {
+                    asks.add(new long[]{price, 1 + random.nextInt(3)});
+                }
+            }
+            for (long price = 100; price > 40; price--) {
+                if (random.nextInt(4) > 0) {
+                    bids.add(new long[]{price, 1 + random.nextInt(3)});
+                }
+            }
+            // 响应中卖盘从高到低
+            Collections.reverse(asks);
+            int changed = book.apply(snapshot(asks.toArray(new long[0][]), bids.toArray(new long[0][])), changes);
+            assertEquals(changed, changes.count());
+            Side lastSide = Side.BID;
+            for (int i = 0; i < changes.count(); i++) {
+                Side side = changes.side(i);
+                TreeMap<Long, Long> levels = mirror.get(side);
+                long price = changes.price(i);
+                switch (changes.type(i)) {
+                    case INSERT:
+                        assertFalse(levels.containsKey(price));
+                        levels.put(price, changes.size(i));
+                        break;
+                    case UPDATE:
+                        assertNotEquals(changes.size(i), levels.put(price, changes.size(i)));
+                        break;
+                    default:
+                        assertEquals(0, changes.size(i));
+                        assertTrue(levels.remove(price) != null);
+                }
+                // 先买盘后卖盘
+                assertTrue(side.ordinal() >= lastSide.ordinal());
+                lastSide = side;
+            }
+            for (Side side : Side.values()) {
+                TreeMap<Long, Long> levels = mirror.get(side);
+                assertEquals(levels.size(), book.depth(side));
+                for (Map.Entry<Long, Long> level : levels.entrySet()) {
+                    assertEquals(level.getValue(), book.sizeAt(side, level.getKey()));
+                }
+            }
+        }
+
+        // 小数位数变化: 原有档位全部删除后重新插入
+        OrderBookSnapshot rescaled = new OrderBookSnapshot();
+        rescaled.clear(PairScale.of(3));
+        rescaled.setResult(true);
+        rescaled.add(Side.BID, 100_000, 1);
+        int before = book.depth(Side.BID) + book.depth(Side.ASK);
+        assertEquals(before + 1, book.apply(rescaled, changes));
+        int deletes = 0;
+        for (int i = 0; i < changes.count(); i++) {
+            if (changes.type(i) == LevelChange.INSERT) {
+                assertEquals(100_000, changes.price(i));
+            } else {
+                assertEquals(LevelChange.DELETE, changes.type(i));
+                deletes++;
+            }
+        }
+        assertEquals(before, deletes);
+
+        // 未排序的快照不输出变化
+        assertThrows(IllegalArgumentException.class, () -> book.apply(snapshot(new long[][]{{1, 1}, {3, 1}, {2, 1}}, new long[][]{}), changes));
+        assertTrue(changes.isEmpty());
+        assertEquals(1, book.depth(Side.BID));
+    }
+
+    @Test
+    public void depthWithinBps() {
+        Random random = new Random(7);
+        OrderBook book = new OrderBook("eth_usdt");
+        for (int round = 0; round < 50; round++) {
+            List<long[]> asks = new ArrayList<>();
+            List<long[]> bids = new ArrayList<>();
+            long price = 180000;
+            for (int i = 0; i < 200; i++) {
+                price += 1 + random.nextInt(3);
+                if (random.nextInt(10) > 0) {
+                    asks.add(new long[]{price, 1 + random.nextInt(1_000_000)});
+                }
+            }
+            price = 179999;
+            for (int i = 0; i < 200; i++) {
+                price -= 1 + random.nextInt(3);
+                if (random.nextInt(10) > 0) {
+                    bids.add(new long[]{price, 1 + random.nextInt(1_000_000)});
+                }
+            }
+            book.apply(snapshot(asks.toArray(new long[0][]), bids.toArray(new long[0][])));
+            for (int bps : new int[]{0, 1, 5, 10, 25, 100}) {
+                long askLimit = asks.get(0)[0] + asks.get(0)[0] * bps / 10_000;
+                long bidLimit = bids.get(0)[0] - bids.get(0)[0] * bps / 10_000;
+                assertEquals(asks.stream().filter(l -> l[0] <= askLimit).mapToLong(l -> l[1]).sum(),
+                        book.depthWithinBps(Side.ASK, bps));
+                assertEquals(bids.stream().filter(l -> l[0] >= bidLimit).mapToLong(l -> l[1]).sum(),
+                        book.depthWithinBps(Side.BID, bps));
+            }
+        }
+    }
+
+    @Test
+    public void fromStub() throws Exception {
+        try (ExchangeStubServer stub = new ExchangeStubServer(2).recorded()) {
+            StockRestApi api = new StockRestApi(stub.getUrl());
+            OrderBookDecoder decoder = new OrderBookDecoder(ETH_USDT);
+            OrderBookSnapshot snapshot = new OrderBookSnapshot();
+            OrderBook book = new OrderBook("eth_usdt");
+            book.apply(api.orderBook("eth_usdt", decoder.into(snapshot)));
+            assertFalse(book.isEmpty());
+            assertEquals(500, book.depth(Side.ASK));
+            assertEquals(0, book.apply(api.orderBook("eth_usdt", decoder.into(snapshot))));
+        }
+    }
+
+    @Test
+    public void allocation() throws Exception {
+        byte[] body = ExchangeStubServer.payload("orderBook").getBytes(StandardCharsets.UTF_8);
+        ByteArrayInputStream in = new ByteArrayInputStream(body);
+        OrderBookDecoder decoder = new OrderBookDecoder(ETH_USDT);
+        OrderBookSnapshot snapshot = new OrderBookSnapshot();
+        OrderBook book = new OrderBook("eth_usdt");
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long tid = Thread.currentThread().getId();
+        int rounds = 2_000;
+        long sink = 0;
+        for (int i = 0; i < rounds; i++) {
+            in.reset();
+            sink += book.apply(decoder.decode(in, snapshot));
+        }
+        long start = bean.getThreadAllocatedBytes(tid);
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            in.reset();
+            sink += book.apply(decoder.decode(in, snapshot)) + book.depthWithinBps(Side.BID, 10);
+        }
+        long nanos = (System.nanoTime() - startNanos) / rounds;
+        long bytes = (bean.getThreadAllocatedBytes(tid) - start) / rounds;
+        log.info("orderBook {} bytes, 1000 levels: decode + apply {} us, {} B/op ({})", body.length, nanos / 1000, bytes, sink);
+        assertTrue(bytes <= 64, "decode + apply " + bytes + " B/op");
+    }
+}
@@ -0,0 +1,118 @@
+package com.gate.rest.market;
+
+import com.gate.rest.entity.PairScale;
+import com.gate.rest.stock.impl.StockRestApi;
+import com.gate.rest.stub.ExchangeStubServer;
+import com.gate.rest.util.FixedPoint;
+import com.gate.rest.util.JsonTool;
+import com.google.gson.reflect.TypeToken;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/28 上午11:00
+ * @description：交易对注册表: id 分配, 名称查找与元数据
+ * @modified By：
+ * @version: $
+ */
+@Log4j2
+class SymbolRegistryTest {
+
+    static SymbolRegistry recorded() {
+        return SymbolRegistry.fromJson(ExchangeStubServer.payload("pairs"), ExchangeStubServer.payload("marketinfo"));
+    }
+
+    @Test
+    public void idsFollowPairs() {
+        SymbolRegistry symbols = recorded();
+        List<String> pairs = JsonTool.jsonToObject(ExchangeStubServer.payload("pairs"), new TypeToken<List<String>>() {
+        }.getType());
+        Map<String, PairScale> scales = PairScale.fromMarketInfo(ExchangeStubServer.payload("marketinfo"));
+        assertEquals(pairs.size(), symbols.size());
+        for (int id = 0; id < pairs.size(); id++) {
+            String name = pairs.get(id);
+            assertEquals(name, symbols.name(id));
+            assertEquals(id, symbols.idOf(name));
+            assertEquals(id, symbols.idOf(new StringBuilder(name)));
+            byte[] bytes = ("\"" + name + "\"").getBytes(StandardCharsets.US_ASCII);
+            assertEquals(id, symbols.idOf(bytes, 1, bytes.length - 2));
+            PairScale scale = scales.get(name);
+            assertEquals(scale.getPriceScale(), symbols.priceScale(id));
+            assertEquals(scale.getVolumeScale(), symbols.volumeScale(id));
+            assertEquals(scale.getMinAmount(), symbols.minAmount(id));
+        }
+        int eth = symbols.require("eth_usdt");
+        assertEquals(2, symbols.priceScale(eth));
+        assertEquals(FixedPoint.parse("0.0001", 8), symbols.minAmount(eth));
+        assertEquals(SymbolRegistry.NOT_FOUND, symbols.idOf("eth_usd"));
+        assertEquals(SymbolRegistry.NOT_FOUND, symbols.idOf(new StringBuilder("usdt_eth")));
+        assertFalse(symbols.contains(""));
+        assertThrows(IllegalArgumentException.class, () -> symbols.require("nope_usdt"));
+    }
+
+    @Test
+    public void collidingHashes() {
+        // "Aa" 与 "BB" 的 hashCode 相同
+        SymbolRegistry symbols = SymbolRegistry.of(Arrays.asList("Aa", "BB", "AaAa", "BBBB", "AaBB"), Collections.emptyMap());
+        assertEquals(1, symbols.idOf("BB"));
+        assertEquals(4, symbols.idOf(new StringBuilder("AaBB")));
+        assertEquals(SymbolRegistry.NOT_FOUND, symbols.idOf("BBAa"));
+        assertEquals(SymbolRegistry.DEFAULT_PRICE_SCALE, symbols.priceScale(0));
+        assertThrows(IllegalArgumentException.class, () -> SymbolRegistry.of(Arrays.asList("Aa", "Aa"), Collections.emptyMap()));
+    }
+
+    @Test
+    public void fromStub() throws Exception {
+        try (ExchangeStubServer stub = new ExchangeStubServer(2).recorded()) {
+            SymbolRegistry symbols = SymbolRegistry.load(new StockRestApi(stub.getUrl()));
+            assertEquals(recorded().size(), symbols.size());
+            assertTrue(symbols.contains("supe_usdt"));
+        }
+    }
+
+    @Test
+    public void lookupDoesNotAllocate() {
+        SymbolRegistry symbols = recorded();
+        String[] names = new String[symbols.size()];
+        byte[][] bytes = new byte[symbols.size()][];
+        for (int id = 0; id < names.length; id++) {
+            // 不同的 String 实例, 与注册表中的不是同一个对象
+            names[id] = new String(symbols.name(id).toCharArray());
+            bytes[id] = names[id].getBytes(StandardCharsets.US_ASCII);
+        }
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long tid = Thread.currentThread().getId();
+        long sink = 0;
+        for (int round = 0; round < 2_000; round++) {
+            for (int id = 0; id < names.length; id++) {
+                sink += symbols.idOf(names[id]) + symbols.idOf(bytes[id], 0, bytes[id].length);
+            }
+        }
+        int rounds = 200;
+        long start = bean.getThreadAllocatedBytes(tid);
+        long startNanos = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            for (int id = 0; id < names.length; id++) {
+                sink += symbols.idOf(names[id]) + symbols.idOf(bytes[id], 0, bytes[id].length);
+            }
+        }
+        long lookups = 2L * rounds * names.length;
+        long nanos = (System.nanoTime() - startNanos) / lookups;
+        long bytesAllocated = bean.getThreadAllocatedBytes(tid) - start;
+        log.info("{} symbols: {} ns/lookup, {} bytes for {} lookups ({})", names.length, nanos, bytesAllocated, lookups, sink);
+        assertTrue(bytesAllocated < 1024, bytesAllocated + " bytes");
+    }
+}
@@ -0,0 +1,212 @@
+package com.gate.rest.market;
+
+import com.gate.rest.entity.PairScale;
+import com.gate.rest.stock.impl.StockRestApi;
+import com.gate.rest.stub.ExchangeStubServer;
+import com.gate.rest.util.FixedPoint;
+import com.gate.rest.util.JsonTool;
+import com.google.gson.reflect.TypeToken;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/28 下午4:00
+ * @description：tickers 列式快照: 解码结果, 双缓冲发布, 跨交易对扫描
+ * @modified By：
+ * @version: $
+ */
+@Log4j2
+class TickersStoreTest {
+
+    static ByteArrayInputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void everyRecordedTicker() throws Exception {
+        SymbolRegistry symbols = SymbolRegistryTest.recorded();
+        TickersStore store = new TickersStore(symbols);
+        TickerColumns columns = store.update(stream(ExchangeStubServer.payload("tickers")));
+        Map<String, Map<String, String>> tickers = JsonTool.jsonToObject(ExchangeStubServer.payload("tickers"),
+                new TypeToken<Map<String, Map<String, String>>>() {
+                }.getType());
+        assertEquals(tickers.size(), columns.count());
+        assertEquals(1, columns.getSequence());
+        for (Map.Entry<String, Map<String, String>> entry : tickers.entrySet()) {
+            int id = symbols.require(entry.getKey());
+            int p = symbols.priceScale(id);
+            int v = PairScale.TICKER_VOLUME_SCALE;
+            Map<String, String> expected = entry.getValue();
+            assertTrue(columns.has(id));
+            assertEquals(FixedPoint.parse(expected.get("last"), p), columns.last(id), entry.getKey());
+            assertEquals(FixedPoint.parse(expected.get("lowestAsk"), p), columns.lowestAsk(id));
+            assertEquals(FixedPoint.parse(expected.get("highestBid"), p), columns.highestBid(id));
+            assertEquals(FixedPoint.parse(expected.get("high24hr"), p), columns.high24hr(id));
+            assertEquals(FixedPoint.parse(expected.get("low24hr"), p), columns.low24hr(id));
+            assertEquals(FixedPoint.parse(expected.get("baseVolume"), v), columns.baseVolume(id));
+            assertEquals(FixedPoint.parse(expected.get("quoteVolume"), v), columns.quoteVolume(id));
+            assertEquals(FixedPoint.parse(expected.get("percentChange"), PairScale.PERCENT_SCALE), columns.percentChange(id));
+        }
+    }
+
+    @Test
+    public void crossPairScans() throws Exception {
+        SymbolRegistry symbols = SymbolRegistryTest.recorded();
+        TickersStore store = new TickersStore(symbols);
+        TickerColumns columns = store.update(stream(ExchangeStubServer.payload("tickers")));
+        int[] present = IntStream.range(0, columns.size()).filter(columns::has).toArray();
+
+        int[] gainers = new int[10];
+        assertEquals(10, columns.topMovers(gainers, true));
+        int[] expected = IntStream.of(present).boxed()
+                .sorted(Comparator.comparingLong(columns::percentChange).reversed())
+                .mapToInt(Integer::intValue).limit(10).toArray();
+        assertArrayEquals(IntStream.of(expected).mapToLong(columns::percentChange).toArray(),
+                IntStream.of(gainers).mapToLong(columns::percentChange).toArray());
+
+        int[] losers = new int[5];
+        assertEquals(5, columns.topMovers(losers, false));
+        long min = IntStream.of(present).mapToLong(columns::percentChange).min().getAsLong();
+        assertEquals(min, columns.percentChange(losers[0]));
+
+        int[] spreads = new int[3];
+        assertEquals(3, columns.widestSpreads(spreads));
+        double widest = IntStream.of(present).mapToDouble(columns::spreadBps).filter(d -> !Double.isNaN(d)).max().getAsDouble();
+        assertEquals(widest, columns.spreadBps(spreads[0]));
+        assertTrue(columns.spreadBps(spreads[1]) <= widest && columns.spreadBps(spreads[2]) <= columns.spreadBps(spreads[1]));
+
+        // 比交易对多的 out
+        int[] all = new int[present.length + 10];
+        assertEquals(present.length, columns.topMovers(all, true));
+    }
+
+    @Test
+    public void doubleBuffered() throws Exception {
+        SymbolRegistry symbols = SymbolRegistry.of(Arrays.asList("eth_usdt", "btc_usdt"),
+                Collections.singletonMap("eth_usdt", PairScale.of(2)));
+        TickersStore store = new TickersStore(symbols);
+        assertEquals(0, store.current().getSequence());
+        int eth = symbols.idOf("eth_usdt");
+        int btc = symbols.idOf("btc_usdt");
+
+        TickerColumns first = store.update(stream("{\"eth_usdt\":{\"result\":\"true\",\"last\":\"1800.5\",\"lowestAsk\":\"1801\",\"highestBid\":\"1800\"},"
+                + "\"xyz_usdt\":{\"result\":\"true\",\"last\":\"1\"}}"));
+        assertSame(first, store.current());
+        long stamp = first.stamp();
+        assertEquals(1800_50, first.last(eth));
+        assertFalse(first.has(btc));
+        assertEquals(1, store.getUnknownSymbols());
+        assertEquals(10_000.0 * 2 * 100 / (180100 + 180000), first.spreadBps(eth), 1e-9);
+
+        // 下一次轮询写入另一个缓冲, 先前取得的快照不变
+        TickerColumns second = store.update(stream("{\"eth_usdt\":{\"result\":\"true\",\"last\":\"1790\"},\"btc_usdt\":{\"result\":\"false\"}}"));
+        assertNotSame(first, second);
+        assertTrue(first.validate(stamp));
+        assertEquals(1800_50, first.last(eth));
+        assertEquals(1790_00, second.last(eth));
+        assertFalse(second.has(btc));
+        assertTrue(Double.isNaN(second.spreadBps(eth)));
+
+        // 再一次轮询改写了 first, 持有 first 的读取方通过 validate 发现
+        assertSame(first, store.update(stream("{}")));
+        assertFalse(first.validate(stamp));
+        assertEquals(0, first.count());
+
+        // 解析失败不发布
+        assertThrows(IOException.class, () -> store.update(stream("{\"eth_usdt\":{\"last\":")));
+        assertSame(first, store.current());
+        assertEquals(3, store.getSequence());
+    }
+
+    /**
+     * SHIB / PEPE 等交易对的 24 小时成交量在 1e12 以上, 不能使整个快照解码失败
+     */
+    @Test
+    public void largeVolumes() throws Exception {
+        SymbolRegistry symbols = SymbolRegistry.of(Arrays.asList("shib_usdt", "pepe_usdt", "btc_usdt"),
+                Collections.singletonMap("shib_usdt", PairScale.of(8)));
+        TickersStore store = new TickersStore(symbols);
+        TickerColumns columns = store.update(stream("{\"shib_usdt\":{\"result\":\"true\",\"last\":\"0.00001234\","
+                + "\"baseVolume\":\"10000000000000\",\"quoteVolume\":\"123456789.123456\"},"
+                + "\"pepe_usdt\":{\"result\":\"true\",\"last\":\"0.000001\",\"baseVolume\":\"-99999999999999999999999\",\"quoteVolume\":\"100000000000000000000\"},"
+                + "\"btc_usdt\":{\"result\":\"true\",\"last\":\"60000\",\"quoteVolume\":\"28166231201.019196\"}}"));
+        assertEquals(3, columns.count());
+        int shib = symbols.idOf("shib_usdt");
+        assertEquals(1234, columns.last(shib));
+        assertEquals(10_000_000_000_000_0000L, columns.baseVolume(shib));
+        assertEquals(123456789_1235L, columns.quoteVolume(shib));
+        assertEquals(Long.MAX_VALUE, columns.quoteVolume(symbols.idOf("pepe_usdt")));
+        assertEquals(-Long.MAX_VALUE, columns.baseVolume(symbols.idOf("pepe_usdt")));
+        assertEquals(28166231201_0192L, columns.quoteVolume(symbols.idOf("btc_usdt")));
+        assertEquals(1, store.getSequence());
+
+        // 价格超出范围仍然是解析失败, 不发布
+        assertThrows(IOException.class, () -> store.update(stream("{\"shib_usdt\":{\"last\":\"123456789012\"}}")));
+        assertSame(columns, store.current());
+    }
+
+    @Test
+    public void fromStub() throws Exception {
+        try (ExchangeStubServer stub = new ExchangeStubServer(2).recorded()) {
+            StockRestApi api = new StockRestApi(stub.getUrl());
+            TickersStore store = new TickersStore(SymbolRegistry.load(api));
+            TickerColumns columns = api.tickers(store.decoder());
+            assertSame(columns, store.current());
+            assertEquals(store.getSymbols().size(), columns.count());
+        }
+    }
+
+    @Test
+    public void allocation() throws Exception {
+        byte[] body = ExchangeStubServer.payload("tickers").getBytes(StandardCharsets.UTF_8);
+        ByteArrayInputStream in = new ByteArrayInputStream(body);
+        TickersStore store = new TickersStore(SymbolRegistryTest.recorded());
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long tid = Thread.currentThread().getId();
+        int rounds = 500;
+        int[] top = new int[10];
+        long sink = 0;
+        for (int i = 0; i < rounds; i++) {
+            in.reset();
+            sink += store.update(in).topMovers(top, true);
+        }
+        long start = bean.getThreadAllocatedBytes(tid);
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            in.reset();
+            sink += store.update(in).topMovers(top, true);
+        }
+        long nanos = (System.nanoTime() - startNanos) / rounds;
+        long bytes = (bean.getThreadAllocatedBytes(tid) - start) / rounds;
+
+        String json = ExchangeStubServer.payload("tickers");
+        start = bean.getThreadAllocatedBytes(tid);
+        for (int i = 0; i < 20; i++) {
+            Map<String, Map<String, String>> maps = JsonTool.jsonToObject(json, new TypeToken<Map<String, Map<String, String>>>() {
+            }.getType());
+            sink += maps.size();
+        }
+        long mapBytes = (bean.getThreadAllocatedBytes(tid) - start) / 20;
+        log.info("tickers {} bytes: columnar {} us, {} B/op; Gson maps {} B/op ({})", body.length, nanos / 1000, bytes, mapBytes, sink);
+        assertTrue(bytes <= 64, "columnar decode " + bytes + " B/op");
+    }
+}
@@ -0,0 +1,194 @@
+package com.gate.rest.market;
+
+import com.gate.rest.base.PollerConfig;
+import com.gate.rest.entity.PairScale;
+import com.gate.rest.stock.impl.StockRestApi;
+import com.gate.rest.stub.ExchangeStubServer;
+import com.gate.rest.util.CallExecutors;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/30 下午2:00
+ * @description：tradeHistory 增量同步: 去重, 缺口, 环形缓冲, 按成交速率调整轮询间隔
+ * @modified By：
+ * @version: $
+ */
+@Log4j2
+class TradeSyncTest {
+
+    static ByteArrayInputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * id 从 to 到 from 递减的一次响应, 与交易所的顺序相同
+     */
+    static String window(long from, long to) {
+        StringBuilder sb = new StringBuilder("{\"elapsed\":\"3ms\",\"result\":\"true\",\"data\":[");
+        for (long id = to; id >= from; id--) {
+            if (id != to) {
+                sb.append(',');
+            }
+            sb.append("{\"tradeID\":\"").append(id)
+                    .append("\",\"date\":\"2023-11-14 22:15:14\",\"timestamp\":\"").append(1_700_000_000 + id / 10)
+                    .append("\",\"type\":\"").append(id % 2 == 0 ? "buy" : "sell")
+                    .append("\",\"rate\":\"1800.").append(id % 100)
+                    .append("\",\"amount\":\"0.5\",\"total\":\"900\"}");
+        }
+        return sb.append("]}").toString();
+    }
+
+    static PollerConfig config(int capacity) {
+        PollerConfig config = new PollerConfig();
+        config.setTradeTapeCapacity(capacity);
+        return config;
+    }
+
+    static SymbolRegistry eth() {
+        return SymbolRegistry.of(Collections.singletonList("eth_usdt"), Collections.singletonMap("eth_usdt", PairScale.of(2)));
+    }
+
+    @Test
+    public void recordedPayload() throws Exception {
+        SymbolRegistry symbols = SymbolRegistryTest.recorded();
+        TradeSync sync = new TradeSync(symbols, config(4096));
+        int id = symbols.require("eth_usdt");
+        assertEquals(80, sync.apply(id, stream(ExchangeStubServer.payload("tradeHistory"))));
+        TradeTape tape = sync.tape(id);
+        assertEquals(80, tape.size());
+        assertEquals(11190000L, tape.tradeId(0));
+        assertEquals(11190079L, tape.tradeId(79));
+        assertEquals(11190079L, tape.getLastTradeId());
+        int scale = symbols.priceScale(id);
+        assertEquals(1799_65 * (long) Math.pow(10, scale - 2), tape.price(79));
+        assertEquals(1_700_000_114_000L, tape.timestampMillis(79));
+        assertFalse(tape.buy(79));
+        assertTrue(tape.buy(78));
+        for (long seq = 1; seq < tape.getTotal(); seq++) {
+            assertTrue(tape.tradeId(seq) > tape.tradeId(seq - 1));
+        }
+
+        // 同一窗口再来一次全部重叠
+        assertEquals(0, sync.apply(id, stream(ExchangeStubServer.payload("tradeHistory"))));
+        assertEquals(80, tape.getTotal());
+        assertEquals(80, tape.getDuplicates());
+        assertEquals(0, tape.getGaps());
+    }
+
+    @Test
+    public void overlapAndGap() throws Exception {
+        SymbolRegistry symbols = eth();
+        TradeSync sync = new TradeSync(symbols, config(128));
+        TradeTape tape = sync.tape("eth_usdt");
+        assertEquals(128, tape.capacity());
+        assertEquals(-1, tape.getLastTradeId());
+
+        assertEquals(80, sync.apply(0, stream(window(1, 80))));
+        assertEquals(40, sync.apply(0, stream(window(41, 120))));
+        assertEquals(0, tape.getGaps());
+        assertEquals(40, tape.getDuplicates());
+        // 与上次没有重叠: 121 ~ 199 可能漏掉
+        assertEquals(80, sync.apply(0, stream(window(200, 279))));
+        assertEquals(1, tape.getGaps());
+        assertEquals(1, sync.getGaps());
+        assertEquals(200, sync.getTrades());
+
+        // 环形缓冲只保留最近 128 笔
+        assertEquals(200, tape.getTotal());
+        assertEquals(128, tape.size());
+        assertEquals(72, tape.firstSequence());
+        assertEquals(73, tape.tradeId(72));
+        assertEquals(120, tape.tradeId(119));
+        assertEquals(200, tape.tradeId(120));
+        assertEquals(279, tape.tradeId(199));
+        assertEquals(1800_79, tape.price(199));
+        assertThrows(IndexOutOfBoundsException.class, () -> tape.tradeId(71));
+        assertThrows(IndexOutOfBoundsException.class, () -> tape.tradeId(200));
+    }
+
+    @Test
+    public void failedResponsesLeaveTape() throws Exception {
+        TradeSync sync = new TradeSync(eth(), config(128));
+        assertEquals(80, sync.apply(0, stream(window(1, 80))));
+        assertEquals(0, sync.apply(0, stream("{\"result\":\"false\",\"message\":\"error\"}")));
+        assertThrows(IOException.class, () -> sync.apply(0, stream(window(50, 100).substring(0, 300))));
+        TradeTape tape = sync.tape(0);
+        assertEquals(80, tape.getTotal());
+        assertEquals(0, tape.getGaps());
+        // 乱序响应与窗口内重复的成交
+        assertEquals(3, sync.apply(0, stream("{\"result\":\"true\",\"data\":[{\"tradeID\":\"82\"},{\"tradeID\":\"81\"},"
+                + "{\"tradeID\":\"83\"},{\"tradeID\":\"82\"},{\"tradeID\":\"80\"}]}")));
+        assertEquals(83, tape.getLastTradeId());
+        assertEquals(81, tape.tradeId(80));
+    }
+
+    @Test
+    public void fromStub() throws Exception {
+        try (ExchangeStubServer stub = new ExchangeStubServer(2).recorded()) {
+            StockRestApi api = new StockRestApi(stub.getUrl());
+            SymbolRegistry symbols = SymbolRegistry.load(api);
+            TradeSync sync = new TradeSync(symbols, config(1024));
+            int id = symbols.require("eth_usdt");
+            assertEquals(80, (int) api.tradeHistory("eth_usdt", sync.decoder(id)));
+            assertEquals(0, (int) api.tradeHistory("eth_usdt", sync.decoder(id)));
+            assertEquals(80, sync.tape(id).size());
+        }
+    }
+
+    /**
+     * 每秒 400 笔成交, 窗口 80 笔: 初始 1s 的间隔出现缺口, 之后间隔收敛到窗口一半所需的时间(约 100ms),
+     * 不再有缺口, 请求数也远少于一直按最小间隔轮询
+     */
+    @Test
+    public void pollsFastEnoughToCloseGaps() throws Exception {
+        long start = System.nanoTime();
+        StockRestApi api = new StockRestApi("http://127.0.0.1:1") {
+            @Override
+            public String tradeHistory(String symbol) {
+                long last = (System.nanoTime() - start) * 400 / 1_000_000_000L + 100;
+                return window(last - 79, last);
+            }
+        };
+        SymbolRegistry symbols = eth();
+        PollerConfig config = config(8192);
+        config.setRequestsPerSecond(200);
+        config.setTradeHistory(new PollerConfig.Cadence(1000, 10, 5000));
+        TradeSync sync = new TradeSync(symbols, config);
+        ExecutorService executor = CallExecutors.newPlatformExecutor(2);
+        try (MarketPoller poller = new MarketPoller(api, symbols, config, sync)) {
+            sync.attach(poller);
+            poller.setExecutor(executor);
+            poller.subscribe(MarketPoller.Channel.TRADE_HISTORY, "eth_usdt");
+            poller.start();
+            Thread.sleep(4000);
+            TradeTape tape = sync.tape(0);
+            long polls = poller.polls(MarketPoller.Channel.TRADE_HISTORY, 0);
+            long interval = poller.targetIntervalMillis(MarketPoller.Channel.TRADE_HISTORY, 0);
+            log.info("{} polls, {} trades, {} gaps, {} duplicates, rate {}/s, interval {} ms",
+                    polls, tape.getTotal(), tape.getGaps(), tape.getDuplicates(), sync.tradesPerSecond(0), interval);
+            assertEquals(1, tape.getGaps(), "gaps " + tape.getGaps());
+            assertTrue(interval >= 50 && interval <= 200, "interval " + interval);
+            assertTrue(polls < 4000 / 20, "polls " + polls);
+            // 收敛之后的成交连续
+            long tail = Math.min(tape.size(), 800);
+            for (long seq = tape.getTotal() - tail + 1; seq < tape.getTotal(); seq++) {
+                assertEquals(tape.tradeId(seq - 1) + 1, tape.tradeId(seq));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.gate.rest.stock.impl;
+
+import com.gate.rest.base.CacheConfig;
+import lombok.extern.log4j.Log4j2;
+import org.apache.http.HttpException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/27 下午4:10
+ * @description：行情缓存: 有效期, 提前刷新, 失败时返回旧值, 淘汰与落盘
+ * @modified By：
+ * @version: $
+ */
+@Log4j2
+class CachingStockRestApiTest {
+
+    /**
+     * 返回带调用序号的响应, failing 为 true 时抛出异常
+     */
+    static class CountingApi extends StockRestApi {
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicBoolean failing = new AtomicBoolean();
+        volatile String body;
+        volatile long delayMillis;
+
+        CountingApi() {
+            super("http://127.0.0.1:1");
+        }
+
+        String next(String name) throws IOException {
+            int call = calls.incrementAndGet();
+            if (delayMillis > 0) {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+            if (failing.get()) {
+                throw new IOException("connect refused");
+            }
+            return body != null ? body : "{\"result\":\"true\",\"" + name + "\":" + call + "}";
+        }
+
+        @Override
+        public String pairs() throws IOException {
+            return next("pairs");
+        }
+
+        @Override
+        public String marketInfo() throws IOException {
+            return next("marketInfo");
+        }
+
+        @Override
+        public String tickers() throws IOException {
+            return next("tickers");
+        }
+
+        @Override
+        public String ticker(String symbol) throws IOException {
+            return next(symbol);
+        }
+
+        @Override
+        public String orderBook(String symbol) throws IOException {
+            return next(symbol);
+        }
+    }
+
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    CachingStockRestApi cache(CountingApi api, CacheConfig config) {
+        CachingStockRestApi cache = new CachingStockRestApi(api, config);
+        cache.setRefreshExecutor(executor);
+        return cache;
+    }
+
+    @Test
+    public void hitsWithinTtl() throws Exception {
+        CountingApi api = new CountingApi();
+        CachingStockRestApi cache = cache(api, new CacheConfig());
+        for (int i = 0; i < 10; i++) {
+            assertEquals("{\"result\":\"true\",\"tickers\":1}", cache.tickers());
+            assertEquals("{\"result\":\"true\",\"eth_usdt\":2}", cache.ticker("eth_usdt"));
+        }
+        assertEquals(2, api.calls.get());
+        assertEquals(18, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(2, cache.getLoadCount());
+
+        // orderBook 默认不缓存
+        cache.orderBook("eth_usdt");
+        cache.orderBook("eth_usdt");
+        assertEquals(4, api.calls.get());
+
+        cache.invalidate(CachingStockRestApi.Endpoint.TICKERS, null);
+        assertEquals("{\"result\":\"true\",\"tickers\":5}", cache.tickers());
+    }
+
+    @Test
+    public void refreshAhead() throws Exception {
+        CountingApi api = new CountingApi();
+        CacheConfig config = new CacheConfig();
+        config.setTickersTtlMillis(400);
+        config.setRefreshAheadRatio(0.5);
+        CachingStockRestApi cache = cache(api, config);
+        assertEquals("{\"result\":\"true\",\"tickers\":1}", cache.tickers());
+        Thread.sleep(250);
+        // 后台刷新较慢, 读取方仍立即拿到当前值
+        api.delayMillis = 100;
+        long start = System.nanoTime();
+        assertEquals("{\"result\":\"true\",\"tickers\":1}", cache.tickers());
+        assertEquals("{\"result\":\"true\",\"tickers\":1}", cache.tickers());
+        assertTrue(System.nanoTime() - start < 50_000_000L);
+        long deadline = System.currentTimeMillis() + 2000;
+        while (cache.getRefreshes() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, cache.getRefreshes());
+        assertEquals(2, api.calls.get());
+        assertEquals("{\"result\":\"true\",\"tickers\":2}", cache.tickers());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void staleWhileError() throws Exception {
+        CountingApi api = new CountingApi();
+        CacheConfig config = new CacheConfig();
+        config.setTickerTtlMillis(50);
+        config.setMaxStaleMillis(300);
+        CachingStockRestApi cache = cache(api, config);
+        String first = cache.ticker("eth_usdt");
+        Thread.sleep(60);
+
+        api.failing.set(true);
+        assertEquals(first, cache.ticker("eth_usdt"));
+        assertEquals(1, cache.getStaleHits());
+
+        // 错误响应不缓存, 同样返回旧值
+        api.failing.set(false);
+        api.body = "{\"result\":\"false\",\"code\":5,\"message\":\"Error: invalid key or sign\"}";
+        assertEquals(first, cache.ticker("eth_usdt"));
+        assertEquals(2, cache.getStaleHits());
+        assertEquals(2, cache.getFailures());
+        // 没有旧值时原样返回错误响应
+        assertEquals(api.body, cache.ticker("btc_usdt"));
+
+        Thread.sleep(350);
+        api.body = null;
+        api.failing.set(true);
+        assertThrows(IOException.class, () -> cache.ticker("eth_usdt"));
+        api.failing.set(false);
+        assertEquals("{\"result\":\"true\",\"eth_usdt\":6}", cache.ticker("eth_usdt"));
+    }
+
+    @Test
+    public void evictsLeastRecentlyRead() throws Exception {
+        CountingApi api = new CountingApi();
+        CacheConfig config = new CacheConfig();
+        config.setMaxEntries(3);
+        CachingStockRestApi cache = cache(api, config);
+        cache.ticker("a_usdt");
+        Thread.sleep(2);
+        cache.ticker("b_usdt");
+        Thread.sleep(2);
+        cache.ticker("c_usdt");
+        Thread.sleep(2);
+        cache.ticker("a_usdt");
+        Thread.sleep(2);
+        cache.ticker("d_usdt");
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.getEvictions());
+        int calls = api.calls.get();
+        cache.ticker("a_usdt");
+        cache.ticker("d_usdt");
+        assertEquals(calls, api.calls.get());
+        cache.ticker("b_usdt");
+        assertEquals(calls + 1, api.calls.get());
+    }
+
+    @Test
+    public void persistsReferenceData(@TempDir Path dir) throws Exception {
+        CountingApi api = new CountingApi();
+        CacheConfig config = new CacheConfig();
+        config.setPersistDir(dir.toString());
+        CachingStockRestApi cache = cache(api, config);
+        String pairs = cache.pairs();
+        String marketInfo = cache.marketInfo();
+        cache.tickers();
+        assertTrue(Files.isRegularFile(dir.resolve("pairs.json")));
+        assertTrue(Files.isRegularFile(dir.resolve("marketInfo.json")));
+        assertEquals(2, Files.list(dir).count());
+
+        // 重启后不再请求
+        CountingApi restarted = new CountingApi();
+        restarted.failing.set(true);
+        CachingStockRestApi reloaded = cache(restarted, config);
+        assertEquals(pairs, reloaded.pairs());
+        assertEquals(marketInfo, reloaded.marketInfo());
+        assertEquals(0, restarted.calls.get());
+        assertThrows(IOException.class, reloaded::tickers);
+    }
+
+    @Test
+    public void privateCallsPassThrough() throws HttpException, IOException {
+        CountingApi api = new CountingApi() {
+            @Override
+            public String openOrders() throws IOException {
+                return next("openOrders");
+            }
+        };
+        CachingStockRestApi cache = cache(api, new CacheConfig());
+        cache.openOrders();
+        cache.openOrders();
+        assertEquals(2, api.calls.get());
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,291 @@
+package com.gate.rest.stock.impl;
+
+import com.gate.rest.base.PollerConfig;
+import com.gate.rest.entity.PairScale;
+import com.gate.rest.entity.Ticker;
+import com.gate.rest.market.MarketPoller;
+import com.gate.rest.market.OrderBookDecoder;
+import com.gate.rest.market.OrderBookSnapshot;
+import com.gate.rest.market.Side;
+import com.gate.rest.market.SymbolRegistry;
+import com.gate.rest.market.TickerColumns;
+import com.gate.rest.market.TickersStore;
+import com.gate.rest.market.TradeSync;
+import com.gate.rest.store.TickQuery;
+import com.gate.rest.store.TickStore;
+import com.gate.rest.store.TickWriter;
+import com.gate.rest.util.CallExecutors;
+import com.gate.rest.util.DateUtil;
+import com.gate.rest.util.JsonTool;
+import com.gate.rest.util.TickerDecoder;
+import com.gate.rest.util.VirtualClock;
+import com.google.gson.reflect.TypeToken;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/11/04 下午2:00
+ * @description：历史回放: 生产环境的解码器可以直接使用, 结果只由虚拟时间决定, 倍速时钟, 回放速度
+ * @modified By：
+ * @version: $
+ */
+@Log4j2
+class ReplayStockRestApiTest {
+
+    static final long T0 = LocalDate.of(2026, 11, 1).toEpochDay() * TimeUnit.DAYS.toMillis(1);
+
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    public void resetClock() {
+        DateUtil.setClock(null);
+    }
+
+    static SymbolRegistry symbols(int pairs) {
+        List<String> names = new ArrayList<>();
+        Map<String, PairScale> scales = new HashMap<>();
+        for (int i = 0; i < pairs; i++) {
+            names.add("pair" + i + "_usdt");
+            scales.put("pair" + i + "_usdt", PairScale.of(2 + i % 4));
+        }
+        return SymbolRegistry.of(names, scales);
+    }
+
+    /**
+     * 每 5 秒每个交易对一条 ticker, 一条买一卖一与 3 笔成交
+     */
+    static TickStore record(Path dir, SymbolRegistry symbols, long millis) throws Exception {
+        TickStore store = TickStore.open(dir, 16L * 1024 * 1024);
+        long tradeId = 1;
+        try (TickWriter writer = store.writer(symbols)) {
+            for (long t = T0; t < T0 + millis; t += 5_000) {
+                for (int id = 0; id < symbols.size(); id++) {
+                    long price = 10_000 + id * 10 + (t - T0) / 5_000 % 50;
+                    writer.ticker(id, t, price, price - 1, price + 1, 5_0000_0000L + t % 1000, 7_0000_0000L, -125 + id);
+                    writer.topOfBook(id, t + 1, price - 1, 3_0000_0000L, price + 1, 2_5000_0000L);
+                    for (int k = 0; k < 3; k++) {
+                        writer.trade(id, t + 2 + k, tradeId++, price + k, 1000_0000L + k, k == 1);
+                    }
+                }
+            }
+        }
+        return store;
+    }
+
+    static InputStream in(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void decodesWithProductionDecoders() throws Exception {
+        SymbolRegistry symbols = symbols(5);
+        TickStore store = record(dir, symbols, 60_000);
+        VirtualClock clock = VirtualClock.asFastAsPossible(T0 + 19_999);
+        DateUtil.setClock(clock);
+        try (TickQuery query = new TickQuery(store, 2);
+             ReplayStockRestApi api = new ReplayStockRestApi(query, 30_000)) {
+            assertEquals("2026-11-01 00:00:19", DateUtil.getUTCDateTime());
+
+            SymbolRegistry loaded = SymbolRegistry.load(api);
+            assertEquals(5, loaded.size());
+            assertEquals(3, loaded.priceScale(loaded.idOf("pair1_usdt")));
+
+            // 第 15 秒的一轮
+            Ticker ticker = new TickerDecoder(symbols.scale(1)).decode(in(api.ticker("pair1_usdt")));
+            assertTrue(ticker.isResult());
+            assertEquals(10_000 + 10 + 3, ticker.getLast());
+            assertEquals(10_000 + 10 + 3 - 1, ticker.getHighestBid());
+            assertEquals(-124, ticker.getPercentChange());
+
+            TradeSync trades = new TradeSync(symbols, new PollerConfig());
+            assertEquals(12, trades.apply(1, in(api.tradeHistory("pair1_usdt"))));
+            // 第 20 秒的一轮写在 20000 ~ 20004 毫秒
+            clock.advanceTo(T0 + 20_004);
+            assertEquals(3, trades.apply(1, in(api.tradeHistory("pair1_usdt"))));
+            assertEquals(0, trades.tape(1).getGaps());
+
+            OrderBookSnapshot book = new OrderBookDecoder(symbols.scale(1)).decode(in(api.orderBook("pair1_usdt")));
+            assertEquals(1, book.count(Side.BID));
+            assertEquals(10_000 + 10 + 4 - 1, book.price(Side.BID, 0));
+            assertEquals(2_5000_0000L, book.size(Side.ASK, 0));
+
+            TickersStore tickers = new TickersStore(symbols);
+            TickerColumns columns = tickers.update(in(api.tickers()));
+            assertEquals(5, columns.count());
+            assertEquals(10_000 + 40 + 4, columns.last(4));
+            assertEquals(7_0000_0000L, columns.quoteVolume(4));
+
+            assertTrue(api.ticker("nope_usdt").contains("\"result\":\"false\""));
+            // 私有接口与交易所出错时一样返回 result false
+            assertTrue(api.buy(null, "pair1_usdt", "1", "1").contains("\"result\":\"false\""));
+            assertTrue(api.balance(null).contains("\"result\":\"false\""));
+
+            Map<String, Object> list = JsonTool.jsonToObject(api.marketList(), new TypeToken<Map<String, Object>>() {
+            }.getType());
+            assertEquals("true", list.get("result"));
+            List<?> data = (List<?>) list.get("data");
+            assertEquals(5, data.size());
+            Map<?, ?> pair4 = (Map<?, ?>) data.get(4);
+            assertEquals("pair4_usdt", pair4.get("pair"));
+            assertEquals("PAIR4", pair4.get("curr_a"));
+            assertEquals("USDT", pair4.get("curr_b"));
+            assertEquals("100.44", pair4.get("rate"));
+            assertEquals("70000.0000", pair4.get("vol_b"));
+            assertEquals("0.0121", pair4.get("rate_percent"));
+            assertEquals("down", pair4.get("trend"));
+        }
+    }
+
+    /**
+     * 同一虚拟时间的响应与之前调用的次数和间隔无关, 时钟回到过去时重新读取
+     */
+    @Test
+    public void deterministicAtVirtualTime() throws Exception {
+        SymbolRegistry symbols = symbols(3);
+        TickStore store = record(dir, symbols, 120_000);
+        long at = T0 + 97_003;
+        String expected;
+        try (TickQuery query = new TickQuery(store, 2)) {
+            DateUtil.setClock(VirtualClock.asFastAsPossible(at));
+            try (ReplayStockRestApi api = new ReplayStockRestApi(query, 120_000)) {
+                expected = api.tradeHistory("pair2_usdt") + api.tickers() + api.orderBook("pair0_usdt");
+            }
+            VirtualClock clock = VirtualClock.asFastAsPossible(T0);
+            DateUtil.setClock(clock);
+            try (ReplayStockRestApi api = new ReplayStockRestApi(query, 120_000)) {
+                for (long t = T0; t < at; t += 777) {
+                    clock.sleepUntil(t);
+                    api.tickers();
+                    api.tradeHistory("pair2_usdt");
+                }
+                clock.sleepUntil(at);
+                assertEquals(expected, api.tradeHistory("pair2_usdt") + api.tickers() + api.orderBook("pair0_usdt"));
+
+                // 新的时钟回到过去
+                DateUtil.setClock(VirtualClock.asFastAsPossible(T0 + 10_000));
+                assertTrue(api.tradeHistory("pair2_usdt").contains("\"timestamp\":\"" + (T0 + 5_000) / 1000 + "\""));
+                assertFalse(api.tradeHistory("pair2_usdt").contains("\"timestamp\":\"" + (T0 + 10_000) / 1000 + "\""));
+            }
+        }
+    }
+
+    @Test
+    public void scaledClock() throws Exception {
+        VirtualClock clock = VirtualClock.scaled(T0, 1000);
+        DateUtil.setClock(clock);
+        long start = System.nanoTime();
+        clock.sleepUntil(T0 + 2_000);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(clock.millis() >= T0 + 2_000);
+        assertTrue(elapsed < 1_000, "slept " + elapsed + " ms");
+        assertTrue(DateUtil.currentTimeMillis() >= T0 + 2_000);
+
+        clock.advanceTo(T0 + 3_600_000);
+        assertTrue(clock.millis() >= T0 + 3_600_000);
+        assertEquals(LocalDate.of(2026, 11, 1), DateUtil.getUTCLocalDate());
+        assertThrows(IllegalArgumentException.class, () -> VirtualClock.scaled(T0, 0));
+
+        VirtualClock manual = VirtualClock.asFastAsPossible(T0);
+        manual.sleepUntil(T0 + 5_000);
+        manual.advanceTo(T0);
+        assertEquals(T0 + 5_000, manual.millis());
+    }
+
+    /**
+     * 300 个交易对 1 小时的行情, 每 5 秒(虚拟时间)取一次 tickers 与 20 个交易对的成交, 按耗时估算回放一天所需时间
+     */
+    @Test
+    public void replaysFasterThanRealTime() throws Exception {
+        SymbolRegistry symbols = symbols(300);
+        long millis = TimeUnit.HOURS.toMillis(1);
+        TickStore store = record(dir, symbols, millis);
+        VirtualClock clock = VirtualClock.asFastAsPossible(T0);
+        DateUtil.setClock(clock);
+        TickersStore tickers = new TickersStore(symbols);
+        TradeSync trades = new TradeSync(symbols, new PollerConfig());
+        try (TickQuery query = new TickQuery(store, 0);
+             ReplayStockRestApi api = new ReplayStockRestApi(query, 10_000)) {
+            long start = System.nanoTime();
+            for (long t = T0; t < T0 + millis; t += 5_000) {
+                clock.sleepUntil(t + 10);
+                tickers.update(in(api.tickers()));
+                for (int id = 0; id < 20; id++) {
+                    trades.apply(id, in(api.tradeHistory(symbols.name(id))));
+                }
+            }
+            long nanos = System.nanoTime() - start;
+            long perDay = nanos * 24 / 1_000_000;
+            log.info("replayed {} records of 1 hour in {} ms, one day ~ {} s", api.getApplied(), nanos / 1_000_000, perDay / 1000);
+            assertEquals(720L * 300 * 5, api.getApplied());
+            assertEquals(0, trades.tape(0).getGaps());
+            assertEquals(720L * 3, trades.tape(0).getTotal());
+            assertTrue(perDay < TimeUnit.MINUTES.toMillis(10), "one day would take " + perDay + " ms");
+        }
+    }
+
+    /**
+     * 不需要调用方循环: MarketPoller 直接轮询回放接口, 尽快模式下由轮询器推进虚拟时间.
+     * 间隔与成交速率按虚拟时间计, 10 分钟的成交全部同步且没有缺口
+     */
+    @Test
+    public void pollerDrivesVirtualTime() throws Exception {
+        SymbolRegistry symbols = symbols(3);
+        TickStore store = record(dir, symbols, 600_000);
+        VirtualClock clock = VirtualClock.asFastAsPossible(T0);
+        DateUtil.setClock(clock);
+        PollerConfig config = new PollerConfig();
+        config.setTradeHistory(new PollerConfig.Cadence(5_000, 1_000, 60_000));
+        TradeSync trades = new TradeSync(symbols, config);
+        ExecutorService executor = CallExecutors.newPlatformExecutor(2);
+        long start = System.nanoTime();
+        try (TickQuery query = new TickQuery(store, 2);
+             ReplayStockRestApi api = new ReplayStockRestApi(query, 30_000);
+             MarketPoller poller = new MarketPoller(api, symbols, config, trades)) {
+            trades.attach(poller);
+            poller.setExecutor(executor);
+            for (int id = 0; id < symbols.size(); id++) {
+                poller.subscribe(MarketPoller.Channel.TRADE_HISTORY, symbols.name(id));
+            }
+            poller.start();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+            while (clock.millis() < T0 + 700_000 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            poller.close();
+            long realMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            log.info("{} virtual ms in {} real ms, {} polls", clock.millis() - T0, realMillis, poller.getRequests());
+            assertTrue(clock.millis() >= T0 + 700_000, "virtual time " + (clock.millis() - T0));
+            for (int id = 0; id < symbols.size(); id++) {
+                assertEquals(120L * 3, trades.tape(id).getTotal());
+                assertEquals(0, trades.tape(id).getGaps());
+                // 每 5 秒 3 笔, 按真实时间会是每秒数千笔; 记录结束后没有新成交, 估计逐步下降
+                double rate = trades.tradesPerSecond(id);
+                assertTrue(rate > 0 && rate < 1.2, "rate " + rate);
+                assertTrue(poller.achievedIntervalMillis(MarketPoller.Channel.TRADE_HISTORY, id) >= 1_000);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
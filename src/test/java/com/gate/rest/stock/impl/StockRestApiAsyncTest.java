@@ -0,0 +1,123 @@
+package com.gate.rest.stock.impl;
+
+import com.gate.rest.base.RateLimitConfig;
+import com.gate.rest.stock.IStockRestApiAsync;
+import com.gate.rest.stub.ExchangeStubServer;
+import com.gate.rest.util.EndpointGroup;
+import com.gate.rest.util.HttpUtilManager;
+import com.gate.rest.util.RateLimitExceededException;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/19 上午11:02
+ * @description：少量事件循环线程维持大量并发 ticker/orderBook 请求
+ * @modified By：
+ * @version: $
+ */
+@Log4j2
+class StockRestApiAsyncTest {
+
+    static final String TICKER = "{\"quoteVolume\":\"1711.56084969\",\"baseVolume\":\"15089.268588503\",\"highestBid\":\"8.8001\",\"high24hr\":\"9.2096\",\"last\":\"8.8148\",\"lowestAsk\":\"8.8148\",\"elapsed\":\"7ms\",\"result\":\"true\",\"low24hr\":\"8.6229\",\"percentChange\":\"-1.08\"}";
+    static final String ORDER_BOOK = "{\"result\":\"true\",\"asks\":[[\"8.8148\",\"12.5\"],[\"8.8150\",\"3\"]],\"bids\":[[\"8.8001\",\"7\"],[\"8.7990\",\"1.2\"]]}";
+    static final int IN_FLIGHT = Integer.getInteger("gate.load.requests", 2000);
+
+    static ExchangeStubServer stub;
+
+    @BeforeAll
+    static void start() throws Exception {
+        stub = new ExchangeStubServer(512)
+                .body("/api2/1/ticker/", TICKER)
+                .body("/api2/1/orderBook/", ORDER_BOOK)
+                .latency(200);
+        // 并发测试不受客户端限流影响
+        RateLimitConfig rateLimit = new RateLimitConfig();
+        rateLimit.setEnabled(false);
+        HttpUtilManager.rateLimiter.configure(rateLimit);
+    }
+
+    @AfterAll
+    static void stop() {
+        stub.close();
+        HttpUtilManager.rateLimiter.configure(new RateLimitConfig());
+    }
+
+    @Test
+    public void thousandsInFlight() throws Exception {
+        IStockRestApiAsync api = new StockRestApiAsync(stub.getUrl());
+        long start = System.nanoTime();
+        List<CompletableFuture<String>> futures = new ArrayList<>(IN_FLIGHT);
+        for (int i = 0; i < IN_FLIGHT; i++) {
+            String symbol = "pair" + (i % 500) + "_usdt";
+            futures.add(i % 2 == 0 ? api.ticker(symbol) : api.orderBook(symbol));
+        }
+        // 所有请求均已发出, 调用线程未被阻塞
+        long submitMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(2, TimeUnit.MINUTES);
+        long totalMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        for (int i = 0; i < IN_FLIGHT; i++) {
+            assertEquals(i % 2 == 0 ? TICKER : ORDER_BOOK, futures.get(i).get());
+        }
+        long eventLoopThreads = Thread.getAllStackTraces().keySet().stream()
+                .filter(t -> t.getName().startsWith("gate-http-async-"))
+                .count();
+        log.info("{} requests, submit {}ms, total {}ms, event loop threads {}", IN_FLIGHT, submitMillis, totalMillis, eventLoopThreads);
+        assertTrue(eventLoopThreads <= 4, "event loop threads: " + eventLoopThreads);
+    }
+
+    /**
+     * 异步接口同样经过 HttpUtilManager.rateLimiter, 超出排队上限的请求不会发出
+     */
+    @Test
+    public void throttledByClientRateLimit() throws Exception {
+        RateLimitConfig rateLimit = new RateLimitConfig();
+        rateLimit.setPublicMarket(new RateLimitConfig.Limit(2, 1, 2, 10_000));
+        HttpUtilManager.rateLimiter.configure(rateLimit);
+        try {
+            IStockRestApiAsync api = new StockRestApiAsync(stub.getUrl());
+            long rejectedBefore = HttpUtilManager.rateLimiter.getRejected(EndpointGroup.PUBLIC_MARKET);
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                futures.add(api.ticker("pair" + i + "_usdt"));
+            }
+            int sent = 0;
+            for (CompletableFuture<String> future : futures) {
+                try {
+                    assertEquals(TICKER, future.get(10, TimeUnit.SECONDS));
+                    sent++;
+                } catch (ExecutionException e) {
+                    assertInstanceOf(RateLimitExceededException.class, e.getCause());
+                }
+            }
+            assertEquals(3, sent);
+            assertEquals(2, HttpUtilManager.rateLimiter.getRejected(EndpointGroup.PUBLIC_MARKET) - rejectedBefore);
+        } finally {
+            RateLimitConfig disabled = new RateLimitConfig();
+            disabled.setEnabled(false);
+            HttpUtilManager.rateLimiter.configure(disabled);
+        }
+    }
+
+    @Test
+    public void signFailureCompletesExceptionally() {
+        IStockRestApiAsync api = new StockRestApiAsync(stub.getUrl());
+        // openOrders 不带密钥, 签名失败应通过 future 返回而不是直接抛出
+        assertTrue(api.openOrders().isCompletedExceptionally());
+        // 非法的交易对无法组成 URI, 同样不直接抛出
+        assertTrue(api.ticker("eth usdt").isCompletedExceptionally());
+    }
+}
@@ -0,0 +1,167 @@
+package com.gate.rest.stock.impl;
+
+import com.gate.rest.base.GateConfig;
+import com.gate.rest.base.RateLimitConfig;
+import com.gate.rest.entity.PairScale;
+import com.gate.rest.stub.ExchangeStubServer;
+import com.gate.rest.stub.LoadDriver;
+import com.gate.rest.util.HttpUtilManager;
+import com.gate.rest.util.JsonTool;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/24 下午4:00
+ * @description：StockRestApi 对接本地桩服务: 全部接口, 签名校验, 注入错误/限流, 行情轮询与下单混合压测
+ * @modified By：
+ * @version: $
+ */
+@Log4j2
+class StockRestApiStubTest {
+
+    static final String KEY = "stub-key";
+    static final String SECRET = "stub-secret";
+    static final int POLLERS = Integer.getInteger("gate.load.pollers", 16);
+    static final int TRADERS = Integer.getInteger("gate.load.traders", 2);
+    static final int SECONDS = Integer.getInteger("gate.load.seconds", 3);
+
+    static GateConfig gateConfig;
+
+    @BeforeAll
+    static void start() {
+        gateConfig = new GateConfig();
+        gateConfig.setKey(KEY);
+        gateConfig.setSecret(SECRET);
+        // 压测不受客户端限流影响
+        RateLimitConfig rateLimit = new RateLimitConfig();
+        rateLimit.setEnabled(false);
+        HttpUtilManager.rateLimiter.configure(rateLimit);
+    }
+
+    @AfterAll
+    static void stop() {
+        HttpUtilManager.rateLimiter.configure(new RateLimitConfig());
+    }
+
+    static boolean ok(String result) {
+        return result.contains("\"result\":\"true\"") || result.startsWith("[");
+    }
+
+    static Map<String, String> credentials(Map<String, String> params) {
+        Map<String, String> withCredentials = new HashMap<>(params);
+        withCredentials.put("key", KEY);
+        withCredentials.put("secret", SECRET);
+        return withCredentials;
+    }
+
+    @Test
+    public void everyEndpoint() throws Exception {
+        try (ExchangeStubServer stub = new ExchangeStubServer(4).recorded().credentials(KEY, SECRET)) {
+            StockRestApi api = new StockRestApi(stub.getUrl());
+            assertTrue(api.pairs().contains("\"eth_btc\""));
+            assertTrue(ok(api.marketInfo()));
+            assertTrue(ok(api.marketList()));
+            assertTrue(ok(api.tickers()));
+            String ticker = api.ticker("eth_btc");
+            assertTrue(ok(ticker));
+            assertTrue(JsonTool.toObject(ticker).getValue("elapsed").endsWith("ms"));
+            assertTrue(ok(api.orderBook("eth_usdt")));
+            assertTrue(ok(api.tradeHistory("eth_usdt")));
+            assertTrue(api.ticker("nope_usdt").contains("invalid currency pair"));
+
+            assertTrue(ok(api.balance(gateConfig)));
+            assertTrue(ok(api.depositAddress(gateConfig, "ETH")));
+            assertTrue(ok(api.depositsWithdrawals(gateConfig, "1699990000", "1700000000")));
+            String order = api.buy(gateConfig, "eth_usdt", "1795.5", "0.5");
+            assertEquals("1795.5", JsonTool.toObject(order).getValue("rate"));
+            assertTrue(ok(api.sell(gateConfig, "eth_usdt", "1805.5", "0.5")));
+            // 定点数下单, 数值直接写入签名缓冲区
+            String fixed = api.sell(gateConfig, "eth_usdt", 1805_50, 50000000, PairScale.of(2));
+            assertEquals("1805.5", JsonTool.toObject(fixed).getValue("rate"));
+            assertEquals("0.5", JsonTool.toObject(fixed).getValue("leftAmount"));
+
+            // 以下接口 StockRestApi 未带凭证, 直接按同样的参数签名调用
+            HttpUtilManager httpUtil = HttpUtilManager.getInstance();
+            String pre = stub.getUrl();
+            assertTrue(ok(httpUtil.doRequest("data", "post", pre + api.CANCELORDER_URL,
+                    credentials(api.orderNumberParams("1089727", "eth_usdt")))));
+            assertTrue(ok(httpUtil.doRequest("data", "post", pre + api.CANCELALLORDERS_URL,
+                    credentials(api.cancelAllOrdersParams("1", "eth_usdt")))));
+            assertTrue(ok(httpUtil.doRequest("data", "post", pre + api.GETORDER_URL,
+                    credentials(api.orderNumberParams("1089727", "eth_usdt")))));
+            assertTrue(ok(httpUtil.doRequest("data", "post", pre + api.OPENORDERS_URL, credentials(Map.of()))));
+            assertTrue(ok(httpUtil.doRequest("data", "post", pre + api.MYTRADEHISTORY_URL,
+                    credentials(api.orderNumberParams("1089727", "eth_usdt")))));
+            assertTrue(ok(httpUtil.doRequest("data", "post", pre + api.WITHDRAW_URL,
+                    credentials(api.withdrawParams("USDT", "100", "0x5a4b3c2d1e0f")))));
+            assertEquals(0, stub.authFailures());
+        }
+    }
+
+    @Test
+    public void rejectsBadSignature() throws Exception {
+        try (ExchangeStubServer stub = new ExchangeStubServer(2).recorded().credentials(KEY, SECRET)) {
+            StockRestApi api = new StockRestApi(stub.getUrl());
+            GateConfig wrong = new GateConfig();
+            wrong.setKey(KEY);
+            wrong.setSecret("not-the-secret");
+            assertTrue(api.balance(wrong).contains("invalid key or sign"));
+            assertEquals(1, stub.authFailures());
+        }
+    }
+
+    @Test
+    public void injectedErrorsAndThrottling() throws Exception {
+        try (ExchangeStubServer stub = new ExchangeStubServer(2).recorded()) {
+            StockRestApi api = new StockRestApi(stub.getUrl());
+            stub.errorRate(1);
+            assertTrue(api.pairs().contains("service unavailable"));
+            assertEquals(1, stub.injectedErrors());
+
+            stub.errorRate(0).throttle(1, 2);
+            int rejected = 0;
+            for (int i = 0; i < 5; i++) {
+                if (api.marketInfo().contains("too many requests")) {
+                    rejected++;
+                }
+            }
+            assertEquals(3, rejected);
+            assertEquals(3, stub.throttledCount());
+        }
+    }
+
+    @Test
+    public void pollersAndTraders() throws Exception {
+        try (ExchangeStubServer stub = new ExchangeStubServer(POLLERS + TRADERS).recorded().credentials(KEY, SECRET)
+                .latency(5).jitter(5)) {
+            StockRestApi api = new StockRestApi(stub.getUrl());
+            List<String> pairs = JsonTool.jsonToObject(ExchangeStubServer.payload("pairs"), List.class);
+            List<LoadDriver.Role> roles = new LoadDriver()
+                    .role("poller", POLLERS, (worker, i) -> {
+                        String pair = pairs.get((int) ((worker * 7919 + i) % pairs.size()));
+                        return ok(i % 4 == 0 ? api.orderBook(pair) : api.ticker(pair));
+                    })
+                    .role("trader", TRADERS, 20, (worker, i) -> ok(i % 2 == 0
+                            ? api.buy(gateConfig, "eth_usdt", "1795.5", "0.01")
+                            : api.sell(gateConfig, "eth_usdt", "1805.5", "0.01")))
+                    .run(SECONDS, TimeUnit.SECONDS);
+            log.info("stub requests: {}, connections: {}", stub.requestCount(), stub.connectionCount());
+            for (LoadDriver.Role role : roles) {
+                assertTrue(role.count() > 0);
+                assertEquals(0, role.failures());
+            }
+            assertEquals(0, stub.authFailures());
+        }
+    }
+}
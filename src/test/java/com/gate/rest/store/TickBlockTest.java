@@ -0,0 +1,218 @@
+package com.gate.rest.store;
+
+import com.gate.rest.market.SymbolRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/11/02 下午2:00
+ * @description：压缩归档: 与原始记录一致, 压缩率, 按时间范围跳块
+ * @modified By：
+ * @version: $
+ */
+@Log4j2
+class TickBlockTest {
+
+    static final long T0 = TickStoreTest.T0;
+
+    @TempDir
+    Path dir;
+
+    /**
+     * 约 300 个交易对每 5 秒一次行情, 价格与成交量小幅随机游走
+     */
+    static long simulate(TickBlockWriter writer, int pairs, int rounds, long seed) throws IOException {
+        Random random = new Random(seed);
+        long[] last = new long[pairs];
+        long[] volume = new long[pairs];
+        for (int i = 0; i < pairs; i++) {
+            last[i] = 1_000 + random.nextInt(5_000_000);
+            volume[i] = 1_000_000 + random.nextInt(100_000_000);
+        }
+        for (int r = 0; r < rounds; r++) {
+            long ts = T0 + r * 5_000L;
+            for (int i = 0; i < pairs; i++) {
+                if (random.nextInt(4) != 0) {
+                    last[i] += random.nextInt(21) - 10;
+                    volume[i] += random.nextInt(1_000);
+                }
+                writer.append(TickType.TICKER, "pair_" + i, 4, 2, ts + random.nextInt(50),
+                        last[i], last[i] - 1, last[i] + 1, volume[i], volume[i] * last[i] / 10_000, last[i] % 1_000 - 500);
+            }
+        }
+        return (long) pairs * rounds;
+    }
+
+    @Test
+    public void roundTripFromStore() throws Exception {
+        SymbolRegistry symbols = TickStoreTest.symbols();
+        TickStore store = TickStore.open(dir.resolve("raw"), 1 << 20);
+        try (TickWriter writer = store.writer(symbols)) {
+            for (int i = 0; i < 10_000; i++) {
+                int id = i % 3;
+                switch (i % 5) {
+                    case 0:
+                        writer.ticker(id, T0 + i, 1800_00 + i % 7, 1799_00, 1801_00, i, -i, -125);
+                        break;
+                    case 1:
+                        writer.topOfBook(id, T0 + i, 35000_0 - i, 12, 35001_0 + i, 7);
+                        break;
+                    default:
+                        writer.trade(id, T0 + i, 11190079 + i, 1799_65 + (i & 15), i * 31L, (i & 1) == 0);
+                }
+            }
+            // 第二天的记录不在该日期的归档中
+            writer.trade(0, T0 + TimeUnit.DAYS.toMillis(1), 1, 1, 1, true);
+        }
+        Path file = dir.resolve("20261101.blk");
+        assertEquals(10_000, TickBlockWriter.archive(store, LocalDate.of(2026, 11, 1), file));
+
+        TickCursor cursor = store.cursor();
+        try (TickBlockReader reader = TickBlockReader.open(file)) {
+            assertEquals(3, reader.blocks());
+            assertEquals(10_000, reader.records());
+            for (int i = 0; i < 10_000; i++) {
+                assertTrue(cursor.next());
+                assertTrue(reader.next(), "record " + i);
+                assertEquals(cursor.type(), reader.type());
+                assertEquals(cursor.symbol(), reader.symbol());
+                assertEquals(cursor.priceScale(), reader.priceScale());
+                assertEquals(cursor.volumeScale(), reader.volumeScale());
+                assertEquals(cursor.timestampMillis(), reader.timestampMillis());
+                for (int f = 0; f < TickBlockWriter.FIELDS; f++) {
+                    assertEquals(cursor.field(f), reader.field(f), "record " + i + " field " + f);
+                }
+            }
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    public void compressesTickers() throws Exception {
+        Path file = dir.resolve("tickers.blk");
+        long records;
+        try (TickBlockWriter writer = TickBlockWriter.open(file)) {
+            records = simulate(writer, 300, 720, 7);
+        }
+        long raw = records * TickStore.RECORD_BYTES;
+        long size = Files.size(file);
+        log.info("{} tickers: {} bytes raw, {} bytes archived, {} bytes/record, ratio {}%",
+                records, raw, size, size / (double) records, size * 100 / raw);
+        assertTrue(size * 4 < raw, "archived " + size + " of " + raw);
+
+        Random random = new Random(7);
+        long[] last = new long[300];
+        for (int i = 0; i < 300; i++) {
+            last[i] = 1_000 + random.nextInt(5_000_000);
+            random.nextInt(100_000_000);
+        }
+        try (TickBlockReader reader = TickBlockReader.open(file)) {
+            assertEquals(records, reader.records());
+            // 解码吞吐
+            long sum = 0;
+            long start = System.nanoTime();
+            while (reader.next()) {
+                sum += reader.last();
+            }
+            long nanos = System.nanoTime() - start;
+            log.info("decoded {} records in {} ms, {} M records/s", records, nanos / 1_000_000, records * 1000 / nanos);
+            assertTrue(sum > 0);
+
+            reader.rewind();
+            assertTrue(reader.next());
+            assertEquals("pair_0", reader.symbol());
+            assertEquals(4, reader.priceScale());
+            assertEquals(2, reader.volumeScale());
+            assertEquals(reader.last() - 1, reader.highestBid());
+        }
+    }
+
+    @Test
+    public void rangeSkipsBlocks() throws Exception {
+        Path file = dir.resolve("range.blk");
+        try (TickBlockWriter writer = new TickBlockWriter(Files.newOutputStream(file), 1_000)) {
+            simulate(writer, 100, 600, 11);
+        }
+        try (TickBlockReader reader = TickBlockReader.open(file)) {
+            assertEquals(60, reader.blocks());
+            for (int i = 1; i < reader.blocks(); i++) {
+                assertTrue(reader.blockMinTime(i) >= reader.blockMinTime(i - 1));
+            }
+            // 第 100 到 110 轮, 共 10 轮
+            long from = T0 + 100 * 5_000L;
+            long to = T0 + 110 * 5_000L;
+            reader.range(from, to);
+            int n = 0;
+            while (reader.next()) {
+                assertTrue(reader.timestampMillis() >= from && reader.timestampMillis() < to);
+                n++;
+            }
+            assertEquals(1_000, n);
+            log.info("range decoded {} of {} blocks", reader.getDecodedBlocks(), reader.blocks());
+            assertTrue(reader.getDecodedBlocks() <= 3, "decoded " + reader.getDecodedBlocks());
+
+            reader.range(T0 + 600 * 5_000L, Long.MAX_VALUE);
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    public void rejectsUnclosedFile() throws Exception {
+        Path file = dir.resolve("open.blk");
+        TickBlockWriter writer = TickBlockWriter.open(file);
+        simulate(writer, 10, 10, 3);
+        assertThrows(IOException.class, () -> TickBlockReader.open(file));
+        writer.close();
+        assertThrows(IllegalStateException.class,
+                () -> writer.append(TickType.TRADE, "x", 0, 0, T0, 0, 0, 0, 0, 0, 0));
+        try (TickBlockReader reader = TickBlockReader.open(file)) {
+            assertEquals(100, reader.records());
+        }
+    }
+
+    /**
+     * 还在写入的日期不能归档; 归档写入临时文件后原子替换, 目录中不会出现不完整的 .blk
+     */
+    @Test
+    public void archivesOnlySealedDays() throws Exception {
+        SymbolRegistry symbols = TickStoreTest.symbols();
+        TickStore store = TickStore.open(dir, 1 << 20);
+        LocalDate day = LocalDate.of(2026, 11, 1);
+        assertFalse(store.sealed(day));
+        try (TickWriter writer = store.writer(symbols)) {
+            for (int i = 0; i < 100; i++) {
+                writer.trade(i % 3, T0 + i, i, 1799_65, 1, true);
+            }
+            assertFalse(store.sealed(day));
+            assertThrows(IllegalStateException.class, () -> TickBlockWriter.archive(store, day, store.archive(day)));
+            assertTrue(store.archives().isEmpty());
+
+            // 写入方滚动到下一天后该日期结束
+            writer.trade(0, T0 + TimeUnit.DAYS.toMillis(1), 100, 1799_65, 1, true);
+            assertTrue(store.sealed(day));
+            assertFalse(store.sealed(day.plusDays(1)));
+            assertEquals(100, TickBlockWriter.archive(store, day, store.archive(day)));
+        }
+        assertEquals(1, store.archives().size());
+        try (java.util.stream.Stream<Path> files = Files.list(dir)) {
+            assertFalse(files.anyMatch(p -> p.getFileName().toString().endsWith(".tmp")));
+        }
+        try (TickBlockReader reader = TickBlockReader.open(store.archive(day))) {
+            assertEquals(100, reader.records());
+        }
+    }
+}
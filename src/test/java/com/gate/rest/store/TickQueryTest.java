@@ -0,0 +1,221 @@
+package com.gate.rest.store;
+
+import com.gate.rest.entity.PairScale;
+import com.gate.rest.market.SymbolRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/11/03 下午2:00
+ * @description：行情历史查询: 结果与逐条读取一致(原始段与归档混合), 索引跳过, 正在写入的段, 按时间点取最后一条
+ * @modified By：
+ * @version: $
+ */
+@Log4j2
+class TickQueryTest {
+
+    static final long DAY = TimeUnit.DAYS.toMillis(1);
+    static final long T0 = LocalDate.of(2026, 11, 1).toEpochDay() * DAY;
+    static final int PAIRS = 20;
+    static final int DAYS = 6;
+    /** 每个交易对每 30 秒一条 ticker 与一条成交 **/
+    static final long STEP = 30_000;
+
+    @TempDir
+    Path dir;
+
+    static SymbolRegistry symbols() {
+        List<String> names = new ArrayList<>();
+        Map<String, PairScale> scales = new HashMap<>();
+        for (int i = 0; i < PAIRS; i++) {
+            names.add("pair" + i + "_usdt");
+            scales.put("pair" + i + "_usdt", PairScale.of(i % 5));
+        }
+        return SymbolRegistry.of(names, scales);
+    }
+
+    /**
+     * 写入 DAYS 天的数据, 前一半的日期压缩为归档(原始段保留, 查询时应只读归档)
+     */
+    static TickStore history(Path dir) throws Exception {
+        TickStore store = TickStore.open(dir, 50_000L * TickStore.RECORD_BYTES);
+        try (TickWriter writer = store.writer(symbols())) {
+            long tradeId = 0;
+            for (long t = T0; t < T0 + DAYS * DAY; t += STEP) {
+                for (int id = 0; id < PAIRS; id++) {
+                    long price = 1_000 + id * 100 + (t / STEP) % 37;
+                    writer.ticker(id, t + id, price, price - 1, price + 1, t / STEP, id, -id);
+                    writer.trade(id, t + id + 5, tradeId++, price, id + 1, (t / STEP & 1) == 0);
+                }
+                if (t == T0 + 3 * DAY) {
+                    // 前一天迟到的成交写在第 3 天的段中
+                    writer.trade(3, t - 7, -1, 999, 1, true);
+                }
+            }
+        }
+        for (int d = 0; d < DAYS / 2; d++) {
+            LocalDate day = LocalDate.ofEpochDay(T0 / DAY + d);
+            TickBlockWriter.archive(store, day, store.archive(day));
+        }
+        return store;
+    }
+
+    /** 逐条读取原始段得到的预期结果 **/
+    static List<String> expected(TickStore store, String symbol, long from, long to, TickType type) throws Exception {
+        List<String> rows = new ArrayList<>();
+        TickCursor cursor = store.cursor();
+        while (cursor.next()) {
+            if (cursor.type() == type && cursor.symbol().equals(symbol)
+                    && cursor.timestampMillis() >= from && cursor.timestampMillis() < to) {
+                rows.add(row(cursor));
+            }
+        }
+        return rows;
+    }
+
+    static String row(TickRecord r) {
+        return r.type() + " " + r.symbol() + " " + r.priceScale() + " " + r.timestampMillis() + " "
+                + r.field(0) + " " + r.field(1) + " " + r.field(2) + " " + r.field(3) + " " + r.field(4) + " " + r.field(5);
+    }
+
+    @Test
+    public void selectMatchesCursor() throws Exception {
+        TickStore store = history(dir);
+        assertEquals(DAYS / 2, store.archives().size());
+        try (TickQuery query = new TickQuery(store, 4)) {
+            // 跨归档与原始段, 包括迟到的成交
+            long from = T0 + 2 * DAY - 3_600_000;
+            long to = T0 + 3 * DAY + 3_600_000;
+            List<String> expected = expected(store, "pair3_usdt", from, to, TickType.TRADE);
+            List<String> actual = new ArrayList<>();
+            long start = System.nanoTime();
+            try (TickResult result = query.select(Collections.singleton("pair3_usdt"), from, to, TickType.TRADE)) {
+                while (result.next()) {
+                    actual.add(row(result));
+                }
+                log.info("{} trades from {} scans in {} us", result.getRead(), result.getScans(),
+                        (System.nanoTime() - start) / 1000);
+            }
+            assertEquals(expected.size(), actual.size());
+            Collections.sort(expected);
+            Collections.sort(actual);
+            assertEquals(expected, actual);
+            assertTrue(actual.stream().anyMatch(r -> r.contains(" -1 999 ")));
+
+            // 全部交易对全部类型
+            try (TickResult all = query.select(null, T0, T0 + DAYS * DAY)) {
+                while (all.next()) {
+                    assertTrue(all.timestampMillis() >= T0);
+                }
+                assertEquals(DAYS * (DAY / STEP) * PAIRS * 2 + 1, all.getRead());
+            }
+        }
+    }
+
+    @Test
+    public void indexSkipsChunks() throws Exception {
+        TickStore store = history(dir);
+        try (TickQuery query = new TickQuery(store, 2, 1024)) {
+            long from = T0 + 4 * DAY + 3_600_000;
+            long to = from + 60_000;
+            int n = 0;
+            try (TickResult result = query.select(Arrays.asList("pair0_usdt", "pair1_usdt"), from, to, TickType.TICKER)) {
+                while (result.next()) {
+                    assertTrue(result.timestampMillis() >= from && result.timestampMillis() < to);
+                    n++;
+                }
+                // 一分钟 80 条记录, 最多跨两组
+                log.info("{} records from {} scans", n, result.getScans());
+                assertTrue(result.getScans() <= 2, "scans " + result.getScans());
+            }
+            assertEquals(4, n);
+
+            // 归档的日期按块跳过
+            try (TickResult result = query.select(null, T0 + DAY, T0 + DAY + 1)) {
+                assertTrue(result.next());
+                assertEquals("pair0_usdt", result.symbol());
+                assertFalse(result.next());
+                assertEquals(1, result.getScans());
+            }
+
+            // 提前结束
+            try (TickResult result = query.select(null, T0, Long.MAX_VALUE)) {
+                assertTrue(result.next());
+            }
+        }
+    }
+
+    @Test
+    public void seesLiveSegment() throws Exception {
+        TickStore store = TickStore.open(dir, 1 << 20);
+        SymbolRegistry symbols = symbols();
+        try (TickQuery query = new TickQuery(store, 2, 16);
+             TickWriter writer = store.writer(symbols)) {
+            for (int i = 0; i < 100; i++) {
+                writer.trade(i % 2, T0 + i, i, i, 1, true);
+            }
+            assertEquals(50, count(query.select(Collections.singleton("pair0_usdt"), T0, T0 + DAY)));
+            for (int i = 100; i < 250; i++) {
+                writer.trade(i % 2, T0 + i, i, i, 1, true);
+            }
+            assertEquals(125, count(query.select(Collections.singleton("pair0_usdt"), T0, T0 + DAY)));
+            assertEquals(250, count(query.select(null, T0, T0 + DAY, TickType.TRADE)));
+            assertEquals(0, count(query.select(null, T0, T0 + DAY, TickType.TICKER)));
+        }
+    }
+
+    static long count(TickResult result) {
+        try (TickResult r = result) {
+            while (r.next()) {
+                assertEquals(TickType.TRADE, r.type());
+            }
+            return r.getRead();
+        }
+    }
+
+    @Test
+    public void latestTickers() throws Exception {
+        TickStore store = history(dir);
+        try (TickQuery query = new TickQuery(store, 4)) {
+            for (long at : new long[]{T0 + DAY + 12_345_678, T0 + 4 * DAY + 5, T0 + DAYS * DAY}) {
+                Map<String, String> expected = new TreeMap<>();
+                TickCursor cursor = store.cursor();
+                while (cursor.next()) {
+                    if (cursor.type() == TickType.TICKER && cursor.timestampMillis() <= at) {
+                        expected.put(cursor.symbol(), row(cursor));
+                    }
+                }
+                List<String> actual = new ArrayList<>();
+                long start = System.nanoTime();
+                try (TickResult latest = query.latest(TickType.TICKER, at, TimeUnit.MINUTES.toMillis(5))) {
+                    while (latest.next()) {
+                        actual.add(row(latest));
+                    }
+                }
+                log.info("latest at {}: {} pairs in {} us", at, actual.size(), (System.nanoTime() - start) / 1000);
+                assertEquals(new ArrayList<>(expected.values()), actual);
+            }
+            // 回看窗口内没有数据
+            try (TickResult none = query.latest(TickType.TICKER, T0 - 1, DAY)) {
+                assertFalse(none.next());
+            }
+        }
+    }
+}
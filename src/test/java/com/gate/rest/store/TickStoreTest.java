@@ -0,0 +1,316 @@
+package com.gate.rest.store;
+
+import com.gate.rest.entity.PairScale;
+import com.gate.rest.market.SymbolRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/11/01 下午2:00
+ * @description：行情落盘: 读写一致, 段滚动, 边写边读, 进程崩溃后恢复, 追加不分配
+ * @modified By：
+ * @version: $
+ */
+@Log4j2
+class TickStoreTest {
+
+    static final long DAY = TimeUnit.DAYS.toMillis(1);
+    static final long T0 = LocalDate.of(2026, 11, 1).toEpochDay() * DAY + 3_600_000;
+
+    @TempDir
+    Path dir;
+
+    static SymbolRegistry symbols() {
+        Map<String, PairScale> scales = new HashMap<>();
+        scales.put("eth_usdt", PairScale.of(2));
+        scales.put("btc_usdt", PairScale.of(1));
+        return SymbolRegistry.of(Arrays.asList("eth_usdt", "btc_usdt", "doge_usdt"), scales);
+    }
+
+    @Test
+    public void roundTrip() throws Exception {
+        SymbolRegistry symbols = symbols();
+        TickStore store = TickStore.open(dir, 1 << 20);
+        int eth = symbols.idOf("eth_usdt");
+        int btc = symbols.idOf("btc_usdt");
+        try (TickWriter writer = store.writer(symbols)) {
+            assertThrows(IllegalStateException.class, () -> store.writer(symbols));
+            writer.ticker(eth, T0, 1800_25, 1800_20, 1800_30, 1_000, 2_000, -125);
+            writer.topOfBook(btc, T0 + 1, 35000_5, 12, 35001_0, 7);
+            writer.trade(eth, T0 + 2, 11190079, 1799_65, 1_145821, false);
+            writer.trade(eth, T0 + 3, 11190080, 1799_66, 2, true);
+            // 名称记录每个交易对一条
+            assertEquals(6, writer.getWritten());
+        }
+        TickCursor cursor = store.cursor();
+        assertTrue(cursor.next());
+        assertEquals(TickType.TICKER, cursor.type());
+        assertEquals("eth_usdt", cursor.symbol());
+        assertEquals(2, cursor.priceScale());
+        assertEquals(T0, cursor.timestampMillis());
+        assertEquals(1800_25, cursor.last());
+        assertEquals(1800_20, cursor.highestBid());
+        assertEquals(1800_30, cursor.lowestAsk());
+        assertEquals(1_000, cursor.baseVolume());
+        assertEquals(2_000, cursor.quoteVolume());
+        assertEquals(-125, cursor.percentChange());
+
+        assertTrue(cursor.next());
+        assertEquals(TickType.TOP_OF_BOOK, cursor.type());
+        assertEquals("btc_usdt", cursor.symbol());
+        assertEquals(1, cursor.priceScale());
+        assertEquals(35000_5, cursor.bidPrice());
+        assertEquals(12, cursor.bidSize());
+        assertEquals(35001_0, cursor.askPrice());
+        assertEquals(7, cursor.askSize());
+
+        assertTrue(cursor.next());
+        assertEquals(TickType.TRADE, cursor.type());
+        assertEquals(11190079, cursor.tradeId());
+        assertEquals(1799_65, cursor.price());
+        assertEquals(1_145821, cursor.amount());
+        assertFalse(cursor.buy());
+        assertTrue(cursor.next());
+        assertTrue(cursor.buy());
+        assertFalse(cursor.next());
+        assertEquals(4, cursor.getRead());
+
+        // 关闭后可以再打开写入方, 从末尾继续
+        try (TickWriter writer = store.writer(symbols)) {
+            writer.trade(eth, T0 + 4, 11190081, 1799_70, 1, true);
+        }
+        assertTrue(cursor.next());
+        assertEquals(11190081, cursor.tradeId());
+        assertEquals("eth_usdt", cursor.symbol());
+    }
+
+    @Test
+    public void rollsBySizeAndDay() throws Exception {
+        SymbolRegistry symbols = symbols();
+        TickStore store = TickStore.open(dir, 8 * TickStore.RECORD_BYTES);
+        try (TickWriter writer = store.writer(symbols)) {
+            for (int i = 0; i < 20; i++) {
+                writer.trade(i % 2, T0 + i, i, 100 + i, 1, true);
+            }
+            writer.trade(0, T0 + DAY, 20, 120, 1, true);
+            // 迟到的前一天的成交写在当前段中
+            writer.trade(1, T0 + 21, 21, 121, 1, true);
+        }
+        List<String> names = new ArrayList<>();
+        for (Path p : store.segments()) {
+            names.add(p.getFileName().toString());
+        }
+        log.info("segments {}", names);
+        assertEquals("ticks-20261101-000.dat", names.get(0));
+        assertEquals("ticks-20261102-000.dat", names.get(names.size() - 1));
+        assertTrue(names.size() >= 4);
+
+        TickCursor cursor = store.cursor();
+        for (int i = 0; i < 22; i++) {
+            assertTrue(cursor.next(), "record " + i);
+            assertEquals(i, cursor.tradeId());
+            assertEquals(100 + i, cursor.price());
+            assertEquals(i % 2 == 0 ? "eth_usdt" : "btc_usdt", cursor.symbol());
+        }
+        assertFalse(cursor.next());
+
+        TickCursor secondDay = store.cursor(LocalDate.of(2026, 11, 2));
+        assertNull(secondDay.segment());
+        assertTrue(secondDay.next());
+        assertEquals(20, secondDay.tradeId());
+        assertEquals("ticks-20261102-000.dat", secondDay.segment());
+        assertTrue(secondDay.next());
+        assertEquals("btc_usdt", secondDay.symbol());
+        assertFalse(store.cursor(LocalDate.of(2026, 11, 3)).next());
+    }
+
+    /**
+     * 一天超过 1000 个段后 -1000 按字符串排在 -999 之前, 段必须按段号的数值排序, 否则恢复与读取都会错位
+     */
+    @Test
+    public void ordersSegmentsPastNineHundredNinetyNine() throws Exception {
+        SymbolRegistry symbols = symbols();
+        TickStore store = TickStore.open(dir, 4 * TickStore.RECORD_BYTES);
+        Files.createFile(dir.resolve(TickStore.segmentName(LocalDate.of(2026, 11, 1).toEpochDay(), 997)));
+        try (TickWriter writer = store.writer(symbols)) {
+            for (int i = 0; i < 10; i++) {
+                writer.trade(0, T0 + i, i, 100 + i, 1, true);
+            }
+        }
+        // 重新打开时从段号最大的段继续写
+        try (TickWriter writer = store.writer(symbols)) {
+            for (int i = 10; i < 20; i++) {
+                writer.trade(0, T0 + i, i, 100 + i, 1, true);
+            }
+        }
+        List<Path> segments = store.segments();
+        assertEquals("ticks-20261101-997.dat", segments.get(0).getFileName().toString());
+        for (int k = 1; k < segments.size(); k++) {
+            assertEquals(997 + k, TickStore.indexOf(segments.get(k).getFileName().toString()));
+        }
+        assertTrue(segments.size() > 4);
+
+        TickCursor cursor = store.cursor();
+        for (int i = 0; i < 20; i++) {
+            assertTrue(cursor.next(), "record " + i);
+            assertEquals(i, cursor.tradeId());
+        }
+        assertFalse(cursor.next());
+        try (TickQuery query = new TickQuery(store, 1); TickResult trades = query.select(null, T0, T0 + 20, TickType.TRADE)) {
+            for (int i = 0; i < 20; i++) {
+                assertTrue(trades.next(), "record " + i);
+                assertEquals(i, trades.tradeId());
+            }
+            assertFalse(trades.next());
+        }
+    }
+
+    /**
+     * 写入线程不停追加(跨多个段), 读取线程同时读取, 读到的每条记录都完整且连续
+     */
+    @Test
+    public void readWhileWriting() throws Exception {
+        SymbolRegistry symbols = symbols();
+        TickStore store = TickStore.open(dir, 4096 * TickStore.RECORD_BYTES);
+        int total = 200_000;
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread writerThread = new Thread(() -> {
+            try (TickWriter writer = store.writer(symbols)) {
+                for (int i = 0; i < total; i++) {
+                    writer.trade(i % 3, T0 + i / 10, i, i * 3L, i * 7L, (i & 1) == 0);
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        writerThread.start();
+        TickCursor cursor = store.cursor();
+        long expected = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (expected < total && System.nanoTime() < deadline) {
+            if (!cursor.next()) {
+                Thread.yield();
+                continue;
+            }
+            assertEquals(expected, cursor.tradeId());
+            assertEquals(expected * 3, cursor.price());
+            assertEquals(expected * 7, cursor.amount());
+            assertEquals(symbols.name((int) (expected % 3)), cursor.symbol());
+            expected++;
+        }
+        writerThread.join();
+        assertNull(failure.get());
+        assertEquals(total, expected);
+        assertFalse(cursor.next());
+    }
+
+    /**
+     * 写入后直接结束进程(不关闭不刷盘), 重新打开后已提交的记录都在, 写了一半的记录被覆盖
+     */
+    @Test
+    public void survivesProcessCrash() throws Exception {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                CrashingWriter.class.getName(), dir.toString(), "5000")
+                .redirectErrorStream(true)
+                .redirectOutput(new File(dir.toFile(), "child.log"))
+                .start();
+        assertTrue(process.waitFor(60, TimeUnit.SECONDS));
+        assertEquals(7, process.exitValue());
+
+        TickStore store = TickStore.open(dir, 1 << 20);
+        Path segment = store.segments().get(0);
+        // 模拟崩溃时写了一半的下一条记录: 字段已写, 类型还没写
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            ByteBuffer partial = ByteBuffer.allocate(TickStore.RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            partial.putLong(8, -1).putLong(16, -1);
+            channel.write(partial, (5000 + 1) * TickStore.RECORD_BYTES);
+        }
+        TickCursor cursor = store.cursor();
+        for (int i = 0; i < 5000; i++) {
+            assertTrue(cursor.next());
+            assertEquals(i, cursor.tradeId());
+        }
+        assertFalse(cursor.next());
+
+        try (TickWriter writer = store.writer(symbols())) {
+            writer.trade(0, T0, 5000, 5000, 1, true);
+        }
+        // 名称记录覆盖了写了一半的记录
+        assertTrue(cursor.next());
+        assertEquals(5000, cursor.tradeId());
+        assertEquals(T0, cursor.timestampMillis());
+        assertFalse(cursor.next());
+    }
+
+    static final class CrashingWriter {
+        public static void main(String[] args) throws Exception {
+            TickStore store = TickStore.open(Paths.get(args[0]), 1 << 20);
+            TickWriter writer = store.writer(symbols());
+            int n = Integer.parseInt(args[1]);
+            for (int i = 0; i < n; i++) {
+                writer.trade(0, T0, i, i, 1, true);
+            }
+            Runtime.getRuntime().halt(7);
+        }
+    }
+
+    @Test
+    public void appendDoesNotAllocate() throws Exception {
+        SymbolRegistry symbols = symbols();
+        TickStore store = TickStore.open(dir, 64L * 1024 * 1024);
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long tid = Thread.currentThread().getId();
+        try (TickWriter writer = store.writer(symbols)) {
+            int n = 500_000;
+            for (int i = 0; i < n; i++) {
+                writer.trade(i % 3, T0, i, i, i, true);
+            }
+            long start = bean.getThreadAllocatedBytes(tid);
+            long startNanos = System.nanoTime();
+            for (int i = 0; i < n; i++) {
+                writer.trade(i % 3, T0, i, i, i, true);
+            }
+            long nanos = System.nanoTime() - startNanos;
+            long bytes = bean.getThreadAllocatedBytes(tid) - start;
+            log.info("{} trades: {} ns/record, {} M records/s, {} bytes allocated", n, nanos / n, n * 1000L / nanos, bytes);
+            assertTrue(bytes < 1024, "allocated " + bytes);
+        }
+        TickCursor cursor = store.cursor();
+        long start = bean.getThreadAllocatedBytes(tid);
+        long sum = 0;
+        while (cursor.next()) {
+            sum += cursor.price();
+        }
+        long bytes = bean.getThreadAllocatedBytes(tid) - start;
+        assertEquals(1_000_000, cursor.getRead());
+        assertEquals(2 * (499_999L * 500_000 / 2), sum);
+        assertTrue(bytes < 64 * 1024, "cursor allocated " + bytes);
+    }
+}
@@ -0,0 +1,322 @@
+package com.gate.rest.stub;
+
+import com.gate.rest.util.HttpUtilManager;
+import com.gate.rest.util.JsonTool;
+import com.gate.rest.util.TokenBucket;
+import com.google.gson.reflect.TypeToken;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/18 上午11:05
+ * @description：本地交易所桩服务, 用于离线压测 HttpUtilManager / StockRestApi.
+ * recorded() 后按录制的报文响应 StockRestApi 的全部 /api2/1 接口; credentials() 后校验私有接口的 Key/Sign;
+ * latency / jitter / errorRate / throttle 注入延迟, 错误与限流
+ * @modified By：
+ * @version: $
+ */
+@Log4j2
+public class ExchangeStubServer implements AutoCloseable {
+
+    static {
+        // keep-alive 连接上关闭 Nagle, 否则响应体会被延迟 ACK 拖慢约40ms
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        // 默认仅保留200 个空闲连接, 超出的会被服务端关闭, 高并发压测时客户端会拿到失效连接
+        System.setProperty("sun.net.httpserver.maxIdleConnections", "20000");
+    }
+
+    static final String PRIVATE_PREFIX = "/api2/1/private/";
+
+    /**
+     * 按请求路径与请求体(x-www-form-urlencoded)生成响应报文
+     */
+    @FunctionalInterface
+    public interface Route {
+        String respond(String path, Map<String, String> form);
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, Route> routes = new ConcurrentHashMap<>();
+    /** 记录客户端连接(远端端口), 用于确认 keep-alive 连接复用 **/
+    private final Set<Integer> remotePorts = ConcurrentHashMap.newKeySet();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong authFailures = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicLong orderNumbers = new AtomicLong(1089726);
+    private volatile long latencyMillis;
+    private volatile long jitterMillis;
+    private volatile double errorRate;
+    private volatile TokenBucket throttle;
+    private volatile String key;
+    private volatile String secret;
+
+    public ExchangeStubServer(int threads) throws IOException {
+        this(Executors.newFixedThreadPool(threads));
+    }
+
+    public ExchangeStubServer(ExecutorService executor) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 4096);
+        this.executor = executor;
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * 设置某个路径(前缀匹配)返回的报文
+     */
+    public ExchangeStubServer body(String pathPrefix, String body) {
+        return route(pathPrefix, (path, form) -> body);
+    }
+
+    /**
+     * 设置某个路径(前缀匹配)的响应, 多个前缀匹配时使用最长的一个
+     */
+    public ExchangeStubServer route(String pathPrefix, Route route) {
+        routes.put(pathPrefix, route);
+        return this;
+    }
+
+    /**
+     * 按 src/test/resources/payload 中录制的报文响应 StockRestApi 的全部接口.
+     * ticker / orderBook / tradeHistory 只接受 pairs.json 中的交易对
+     */
+    public ExchangeStubServer recorded() {
+        String tickers = payload("tickers");
+        Map<String, Object> tickerMap = JsonTool.jsonToObject(tickers, new TypeToken<Map<String, Object>>() {
+        }.getType());
+        String orderBook = payload("orderBook");
+        String tradeHistory = payload("tradeHistory");
+
+        body("/api2/1/pairs", payload("pairs"));
+        body("/api2/1/marketinfo", payload("marketinfo"));
+        body("/api2/1/marketlist", payload("marketList"));
+        body("/api2/1/tickers", tickers);
+        Map<String, String> tickerJson = new HashMap<>();
+        tickerMap.forEach((pair, ticker) -> {
+            String json = JsonTool.mapToJson(ticker);
+            tickerJson.put(pair, json.substring(0, json.length() - 1));
+        });
+        route("/api2/1/ticker/", (path, form) -> {
+            String ticker = tickerJson.get(pair(path));
+            if (ticker == null) {
+                return invalidPair(path);
+            }
+            return ticker + ",\"elapsed\":\"" + (1 + ThreadLocalRandom.current().nextInt(9)) + "ms\"}";
+        });
+        route("/api2/1/orderBook/", (path, form) -> tickerMap.containsKey(pair(path)) ? orderBook : invalidPair(path));
+        route("/api2/1/tradeHistory/", (path, form) -> tickerMap.containsKey(pair(path)) ? tradeHistory : invalidPair(path));
+
+        body(PRIVATE_PREFIX + "balances", payload("balances"));
+        body(PRIVATE_PREFIX + "depositAddress", payload("depositAddress"));
+        body(PRIVATE_PREFIX + "depositsWithdrawals", payload("depositsWithdrawals"));
+        route(PRIVATE_PREFIX + "buy", this::placeOrder);
+        route(PRIVATE_PREFIX + "sell", this::placeOrder);
+        body(PRIVATE_PREFIX + "cancelOrder", "{\"result\":\"true\",\"code\":0,\"message\":\"Success\"}");
+        body(PRIVATE_PREFIX + "cancelAllOrders", "{\"result\":\"true\",\"code\":0,\"message\":\"Success\"}");
+        body(PRIVATE_PREFIX + "getOrder", payload("getOrder"));
+        body(PRIVATE_PREFIX + "openOrders", payload("openOrders"));
+        body(PRIVATE_PREFIX + "tradeHistory", payload("myTradeHistory"));
+        body(PRIVATE_PREFIX + "withdraw", "{\"result\":\"true\",\"message\":\"Success\"}");
+        return this;
+    }
+
+    /**
+     * 私有接口校验 Key 请求头, 以及 Sign = HmacSHA512(secret, 请求体)
+     */
+    public ExchangeStubServer credentials(String key, String secret) {
+        this.key = key;
+        this.secret = secret;
+        return this;
+    }
+
+    public ExchangeStubServer latency(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+        return this;
+    }
+
+    /**
+     * 在 latency 之上增加 [0, jitterMillis) 的随机延迟
+     */
+    public ExchangeStubServer jitter(long jitterMillis) {
+        this.jitterMillis = jitterMillis;
+        return this;
+    }
+
+    /**
+     * 按比例返回 503
+     */
+    public ExchangeStubServer errorRate(double errorRate) {
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    /**
+     * 服务端限流, 超出时返回 429. permitsPerSecond <= 0 关闭
+     */
+    public ExchangeStubServer throttle(double permitsPerSecond, int burst) {
+        this.throttle = permitsPerSecond > 0 ? new TokenBucket(permitsPerSecond, burst) : null;
+        return this;
+    }
+
+    public int connectionCount() {
+        return remotePorts.size();
+    }
+
+    public long requestCount() {
+        return requests.get();
+    }
+
+    public long authFailures() {
+        return authFailures.get();
+    }
+
+    public long injectedErrors() {
+        return injectedErrors.get();
+    }
+
+    public long throttledCount() {
+        return throttled.get();
+    }
+
+    public static String payload(String name) {
+        try (InputStream in = ExchangeStubServer.class.getResourceAsStream("/payload/" + name + ".json")) {
+            if (in == null) {
+                throw new IllegalArgumentException("no payload " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String pair(String path) {
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    private static String invalidPair(String path) {
+        return "{\"result\":\"false\",\"code\":8,\"message\":\"Error: invalid currency pair " + pair(path) + "\"}";
+    }
+
+    private String placeOrder(String path, Map<String, String> form) {
+        String type = path.endsWith("/sell") ? "sell" : "buy";
+        String rate = form.getOrDefault("rate", "0");
+        String amount = form.getOrDefault("amount", "0");
+        return "{\"result\":\"true\",\"orderNumber\":\"" + orderNumbers.incrementAndGet() + "\",\"type\":\"" + type
+                + "\",\"currencyPair\":\"" + form.getOrDefault("currencyPair", "") + "\",\"rate\":\"" + rate
+                + "\",\"leftAmount\":\"" + amount + "\",\"filledAmount\":\"0\",\"filledRate\":\"0\",\"message\":\"Success\"}";
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        remotePorts.add(exchange.getRemoteAddress().getPort());
+        requests.incrementAndGet();
+        byte[] requestBody;
+        try (InputStream in = exchange.getRequestBody()) {
+            requestBody = in.readAllBytes();
+        }
+        long delay = latencyMillis + (jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis) : 0);
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        String path = exchange.getRequestURI().getPath();
+        TokenBucket throttle = this.throttle;
+        if (throttle != null && throttle.tryAcquire(System.nanoTime(), 0) > 0) {
+            throttled.incrementAndGet();
+            send(exchange, 429, "{\"result\":\"false\",\"code\":21,\"message\":\"Error: too many requests\"}");
+            return;
+        }
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            injectedErrors.incrementAndGet();
+            send(exchange, 503, "{\"result\":\"false\",\"message\":\"Error: service unavailable\"}");
+            return;
+        }
+        String body = new String(requestBody, StandardCharsets.UTF_8);
+        if (secret != null && path.startsWith(PRIVATE_PREFIX) && !authorized(exchange, body)) {
+            authFailures.incrementAndGet();
+            send(exchange, 401, "{\"result\":\"false\",\"code\":7,\"message\":\"Error: invalid key or sign\"}");
+            return;
+        }
+        Route route = null;
+        int matched = -1;
+        for (Map.Entry<String, Route> entry : routes.entrySet()) {
+            if (path.startsWith(entry.getKey()) && entry.getKey().length() > matched) {
+                route = entry.getValue();
+                matched = entry.getKey().length();
+            }
+        }
+        if (route == null) {
+            send(exchange, 404, "{\"result\":\"false\",\"message\":\"no stub for " + path + "\"}");
+            return;
+        }
+        send(exchange, 200, route.respond(path, parseForm(body)));
+    }
+
+    private boolean authorized(HttpExchange exchange, String body) {
+        String sign = exchange.getRequestHeaders().getFirst("Sign");
+        return key.equals(exchange.getRequestHeaders().getFirst("Key"))
+                && sign != null && sign.equals(HttpUtilManager.sign(secret, body));
+    }
+
+    private static Map<String, String> parseForm(String body) {
+        Map<String, String> form = new HashMap<>();
+        if (body.isEmpty()) {
+            return form;
+        }
+        for (String pair : body.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            form.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return form;
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json;charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
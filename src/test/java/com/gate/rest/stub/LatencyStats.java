@@ -0,0 +1,49 @@
+package com.gate.rest.stub;
+
+import java.util.Arrays;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/18 上午11:20
+ * @description：请求耗时统计(纳秒), 输出 p50/p99
+ * @modified By：
+ * @version: $
+ */
+public class LatencyStats {
+
+    private final long[] samples;
+    private int count;
+
+    public LatencyStats(int capacity) {
+        samples = new long[capacity];
+    }
+
+    public synchronized void record(long nanos) {
+        if (count < samples.length) {
+            samples[count++] = nanos;
+        }
+    }
+
+    public synchronized int count() {
+        return count;
+    }
+
+    /**
+     * @param percentile 0-100
+     * @return 对应分位耗时, 单位微秒
+     */
+    public synchronized long percentileMicros(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))] / 1000;
+    }
+
+    @Override
+    public String toString() {
+        return "n=" + count() + ", p50=" + percentileMicros(50) + "us, p99=" + percentileMicros(99) + "us";
+    }
+}
@@ -0,0 +1,143 @@
+package com.gate.rest.stub;
+
+import lombok.extern.log4j.Log4j2;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/24 下午3:10
+ * @description：压测驱动: 按角色(行情轮询/下单等)启动若干线程持续调用, 统计吞吐量与耗时分位
+ * @modified By：
+ * @version: $
+ */
+@Log4j2
+public class LoadDriver {
+
+    /**
+     * 一次调用, 返回 false 或抛出异常记为失败
+     */
+    @FunctionalInterface
+    public interface Call {
+        boolean call(int worker, long iteration) throws Exception;
+    }
+
+    public static class Role {
+        final String name;
+        final int threads;
+        final Call call;
+        /** 两次调用之间的间隔, 0 表示不间断 **/
+        final long pauseMillis;
+        final LatencyStats latency = new LatencyStats(1 << 20);
+        final AtomicLong failures = new AtomicLong();
+        final AtomicInteger loggedFailures = new AtomicInteger();
+        volatile long elapsedNanos;
+
+        Role(String name, int threads, long pauseMillis, Call call) {
+            this.name = name;
+            this.threads = threads;
+            this.pauseMillis = pauseMillis;
+            this.call = call;
+        }
+
+        public int count() {
+            return latency.count();
+        }
+
+        public long failures() {
+            return failures.get();
+        }
+
+        public double throughput() {
+            return elapsedNanos == 0 ? 0 : count() * 1e9 / elapsedNanos;
+        }
+
+        public long percentileMicros(double percentile) {
+            return latency.percentileMicros(percentile);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-10s threads=%-4d ops=%-7d failures=%-5d %9.1f ops/s  p50=%dus p99=%dus p99.9=%dus",
+                    name, threads, count(), failures(), throughput(),
+                    percentileMicros(50), percentileMicros(99), percentileMicros(99.9));
+        }
+    }
+
+    private final List<Role> roles = new ArrayList<>();
+
+    public LoadDriver role(String name, int threads, Call call) {
+        return role(name, threads, 0, call);
+    }
+
+    public LoadDriver role(String name, int threads, long pauseMillis, Call call) {
+        roles.add(new Role(name, threads, pauseMillis, call));
+        return this;
+    }
+
+    public List<Role> getRoles() {
+        return roles;
+    }
+
+    /**
+     * 所有角色同时运行 duration 后停止, 返回各角色统计
+     */
+    public List<Role> run(long duration, TimeUnit unit) throws Exception {
+        int threads = roles.stream().mapToInt(r -> r.threads).sum();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        long deadline = start + unit.toNanos(duration);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Role role : roles) {
+                for (int w = 0; w < role.threads; w++) {
+                    int worker = w;
+                    futures.add(executor.submit(() -> {
+                        work(role, worker, deadline);
+                        return null;
+                    }));
+                }
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - start;
+        for (Role role : roles) {
+            role.elapsedNanos = elapsed;
+            log.info("{}", role);
+        }
+        return roles;
+    }
+
+    private static void work(Role role, int worker, long deadline) throws InterruptedException {
+        for (long i = 0; System.nanoTime() - deadline < 0; i++) {
+            long begin = System.nanoTime();
+            boolean ok;
+            try {
+                ok = role.call.call(worker, i);
+            } catch (Exception e) {
+                ok = false;
+                if (role.loggedFailures.incrementAndGet() <= 3) {
+                    log.warn("{} call failed: {}", role.name, e.toString());
+                }
+            }
+            role.latency.record(System.nanoTime() - begin);
+            if (!ok) {
+                role.failures.incrementAndGet();
+            }
+            if (role.pauseMillis > 0) {
+                Thread.sleep(role.pauseMillis);
+            }
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.gate.rest.util;
+
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/25 下午5:20
+ * @description：long 定点数运算与 BigDecimal 对照
+ * @modified By：
+ * @version: $
+ */
+@Log4j2
+class Decimal64Test {
+
+    static final RoundingMode[] MODES = {RoundingMode.UP, RoundingMode.DOWN, RoundingMode.CEILING, RoundingMode.FLOOR,
+            RoundingMode.HALF_UP, RoundingMode.HALF_DOWN, RoundingMode.HALF_EVEN};
+
+    static final BigInteger LONG_MIN = BigInteger.valueOf(Long.MIN_VALUE);
+    static final BigInteger LONG_MAX = BigInteger.valueOf(Long.MAX_VALUE);
+
+    /** 期望值, 超出 long 时为 null **/
+    static Long expected(BigDecimal value, int scale, RoundingMode mode) {
+        BigInteger unscaled = value.setScale(scale, mode).unscaledValue();
+        return unscaled.compareTo(LONG_MIN) < 0 || unscaled.compareTo(LONG_MAX) > 0 ? null : unscaled.longValue();
+    }
+
+    static long randomValue(Random random) {
+        switch (random.nextInt(4)) {
+            case 0:
+                return random.nextInt(2000) - 1000;
+            case 1:
+                return random.nextInt();
+            case 2:
+                return random.nextLong() >> random.nextInt(40);
+            default:
+                return random.nextLong();
+        }
+    }
+
+    @Test
+    public void multiplyAndDivideMatchBigDecimal() {
+        Random random = new Random(20261025);
+        int overflows = 0;
+        for (int i = 0; i < 200_000; i++) {
+            long a = randomValue(random);
+            long b = randomValue(random);
+            int aScale = random.nextInt(19);
+            int bScale = random.nextInt(19);
+            int scale = random.nextInt(19);
+            RoundingMode mode = MODES[random.nextInt(MODES.length)];
+            BigDecimal x = BigDecimal.valueOf(a, aScale);
+            BigDecimal y = BigDecimal.valueOf(b, bScale);
+
+            Long product = expected(x.multiply(y), scale, mode);
+            String context = a + "e-" + aScale + " * " + b + "e-" + bScale + " -> " + scale + " " + mode;
+            if (product == null) {
+                overflows++;
+                assertThrows(ArithmeticException.class, () -> Decimal64.multiply(a, aScale, b, bScale, scale, mode), context);
+            } else {
+                assertEquals(product.longValue(), Decimal64.multiply(a, aScale, b, bScale, scale, mode), context);
+            }
+
+            if (b == 0 || Math.abs(scale + bScale - aScale) > 18) {
+                continue;
+            }
+            BigInteger exact = x.divide(y, scale, mode).unscaledValue();
+            Long quotient = exact.compareTo(LONG_MIN) < 0 || exact.compareTo(LONG_MAX) > 0 ? null : exact.longValue();
+            String divContext = a + "e-" + aScale + " / " + b + "e-" + bScale + " -> " + scale + " " + mode;
+            try {
+                long actual = Decimal64.divide(a, aScale, b, bScale, scale, mode);
+                assertEquals(quotient, Long.valueOf(actual), divContext);
+            } catch (ArithmeticException e) {
+                // 除数放大后超出 long 时不支持, 其余情况必须是结果溢出
+                if (scale + bScale - aScale >= 0) {
+                    assertEquals(null, quotient, divContext);
+                }
+            }
+        }
+        log.info("200000 random cases, {} overflowed", overflows);
+    }
+
+    @Test
+    public void rescaleAndIncrement() {
+        assertEquals(179550, Decimal64.rescale(1795_4999, 4, 2, RoundingMode.CEILING));
+        assertEquals(-179549, Decimal64.rescale(-1795_4999, 4, 2, RoundingMode.DOWN));
+        assertEquals(-179550, Decimal64.rescale(-1795_4999, 4, 2, RoundingMode.FLOOR));
+        assertEquals(2, Decimal64.rescale(25, 1, 0, RoundingMode.HALF_EVEN));
+        assertEquals(4, Decimal64.rescale(35, 1, 0, RoundingMode.HALF_EVEN));
+        assertThrows(ArithmeticException.class, () -> Decimal64.rescale(25, 1, 0, RoundingMode.UNNECESSARY));
+        assertThrows(ArithmeticException.class, () -> Decimal64.rescale(Long.MAX_VALUE / 5, 0, 1, RoundingMode.UNNECESSARY));
+
+        // 按 0.05 的 tick 取整
+        assertEquals(1795_50, Decimal64.roundToIncrement(1795_48, 5, RoundingMode.HALF_UP));
+        assertEquals(1795_45, Decimal64.roundToIncrement(1795_48, 5, RoundingMode.DOWN));
+        assertEquals(-1795_45, Decimal64.roundToIncrement(-1795_47, 5, RoundingMode.CEILING));
+        assertEquals(3_0000, Decimal64.roundToIncrement(2_9999, 1_0000, RoundingMode.UP));
+
+        assertEquals(0, Decimal64.compare(1795_5, 1, 1795_50000000L, 8));
+        assertEquals(-1, Decimal64.compare(1795_4, 1, 1795_50000000L, 8));
+        assertEquals(1, Decimal64.compare(Long.MAX_VALUE, 0, Long.MAX_VALUE, 18));
+        assertEquals(-1, Decimal64.compare(-Long.MAX_VALUE, 0, -1, 18));
+        assertEquals(1, Decimal64.compare(0, 2, -1, 8));
+        assertEquals(3_00000001L, Decimal64.add(1_5, 1, 1_50000001L, 8, 8, RoundingMode.HALF_UP));
+    }
+
+    @Test
+    public void format() {
+        byte[] buffer = new byte[Decimal64.maxFormattedLength(18)];
+        Map<String, long[]> cases = Map.of(
+                "1795.5", new long[]{1795_50, 2},
+                "1", new long[]{100, 2},
+                "0", new long[]{0, 8},
+                "-0.0001", new long[]{-1_0000, 8},
+                "0.0610169", new long[]{610169, 7},
+                "9223372036854775807", new long[]{Long.MAX_VALUE, 0},
+                "-9.223372036854775808", new long[]{Long.MIN_VALUE, 18});
+        cases.forEach((text, value) -> {
+            int length = Decimal64.format(value[0], (int) value[1], buffer, 0);
+            assertEquals(text, new String(buffer, 0, length, StandardCharsets.US_ASCII));
+            assertEquals(new BigDecimal(text).compareTo(BigDecimal.valueOf(value[0], (int) value[1])), 0);
+        });
+        assertEquals("12.34", Decimal64.toString(12_340000, 6));
+    }
+
+    @Test
+    public void formattedIntoSignedBody() {
+        RequestSigner signer = RequestSigner.of("stub-key", "stub-secret");
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("currencyPair", "eth_usdt");
+        params.put("rate", "1795.5");
+        params.put("amount", "0.01");
+        String expected;
+        try (RequestSigner.SignedBody body = signer.sign(params)) {
+            expected = body.signature();
+        }
+        try (RequestSigner.SignedBody body = signer.begin()
+                .param("currencyPair", "eth_usdt")
+                .param("rate", 1795_50, 2)
+                .param("amount", 1_000000, 8)
+                .sign()) {
+            assertEquals("currencyPair=eth_usdt&rate=1795.5&amount=0.01",
+                    new String(body.buffer(), 0, body.length(), StandardCharsets.US_ASCII));
+            assertEquals(expected, body.signature());
+            assertEquals("stub-key", body.key());
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.gate.rest.util;
+
+import com.gate.rest.base.RateLimitConfig;
+import com.gate.rest.stub.LatencyStats;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/22 下午4:30
+ * @description：按接口分组限流, 排队上限与交易优先
+ * @modified By：
+ * @version: $
+ */
+@Log4j2
+class EndpointRateLimiterTest {
+
+    static RateLimitConfig config(double publicRate, int publicBurst, int maxQueue, long maxWaitMillis) {
+        RateLimitConfig config = new RateLimitConfig();
+        config.setGlobal(new RateLimitConfig.Bucket(1000, 1000));
+        config.setTradingReserve(0);
+        config.setPublicMarket(new RateLimitConfig.Limit(publicRate, publicBurst, maxQueue, maxWaitMillis));
+        return config;
+    }
+
+    @Test
+    public void burstThenRate() throws Exception {
+        EndpointRateLimiter limiter = new EndpointRateLimiter(config(100, 10, 10, 1000));
+        long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire(EndpointGroup.PUBLIC_MARKET);
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(5));
+        assertEquals(0, limiter.getThrottled(EndpointGroup.PUBLIC_MARKET));
+
+        // 超出突发容量后按 100/s 放行
+        for (int i = 0; i < 20; i++) {
+            limiter.acquire(EndpointGroup.PUBLIC_MARKET);
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("30 permits at 100/s burst 10: {}ms", elapsed);
+        assertTrue(elapsed >= 180, "elapsed " + elapsed);
+        assertEquals(20, limiter.getThrottled(EndpointGroup.PUBLIC_MARKET));
+        // 其他分组不受影响
+        limiter.acquire(EndpointGroup.PRIVATE_QUERY);
+        assertEquals(0, limiter.getThrottled(EndpointGroup.PRIVATE_QUERY));
+    }
+
+    @Test
+    public void boundedQueue() throws Exception {
+        EndpointRateLimiter limiter = new EndpointRateLimiter(config(10, 1, 2, 10_000));
+        limiter.acquire(EndpointGroup.PUBLIC_MARKET);
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                futures.add(executor.submit(() -> {
+                    limiter.acquire(EndpointGroup.PUBLIC_MARKET);
+                    return null;
+                }));
+            }
+            int rejected = 0;
+            for (Future<?> future : futures) {
+                try {
+                    future.get(5, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    assertInstanceOf(RateLimitExceededException.class, e.getCause());
+                    rejected++;
+                }
+            }
+            // 最多2 个请求排队, 其余立即拒绝
+            assertTrue(rejected >= 4, "rejected " + rejected);
+            assertEquals(rejected, limiter.getRejected(EndpointGroup.PUBLIC_MARKET));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void maxWait() throws Exception {
+        EndpointRateLimiter limiter = new EndpointRateLimiter(config(1, 1, 10, 100));
+        limiter.acquire(EndpointGroup.PUBLIC_MARKET);
+        long start = System.nanoTime();
+        RateLimitExceededException e = assertThrows(RateLimitExceededException.class,
+                () -> limiter.acquire(EndpointGroup.PUBLIC_MARKET));
+        assertEquals(EndpointGroup.PUBLIC_MARKET, e.getGroup());
+        // 预计等待超过上限时不必等到超时
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    public void tradingJumpsAheadOfPolling() throws Exception {
+        RateLimitConfig config = new RateLimitConfig();
+        // 行情分组自身额度大于总限额, 轮询可以把总限额用完
+        config.setGlobal(new RateLimitConfig.Bucket(200, 20));
+        config.setTradingReserve(5);
+        config.setPublicMarket(new RateLimitConfig.Limit(10_000, 1000, 1000, 60_000));
+        config.setPrivateTrading(new RateLimitConfig.Limit(20, 5, 50, 2000));
+        EndpointRateLimiter limiter = new EndpointRateLimiter(config);
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong polls = new AtomicLong();
+        ExecutorService pollers = Executors.newFixedThreadPool(8);
+        LatencyStats trading = new LatencyStats(20);
+        try {
+            for (int i = 0; i < 8; i++) {
+                pollers.submit(() -> {
+                    while (running.get()) {
+                        limiter.acquire(EndpointGroup.PUBLIC_MARKET);
+                        polls.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            Thread.sleep(200);
+            for (int i = 0; i < 20; i++) {
+                long start = System.nanoTime();
+                limiter.acquire(EndpointGroup.PRIVATE_TRADING);
+                trading.record(System.nanoTime() - start);
+                Thread.sleep(50);
+            }
+        } finally {
+            running.set(false);
+            pollers.shutdownNow();
+        }
+        log.info("polls: {}, throttled: {}, trading acquire: {}", polls.get(),
+                limiter.getThrottled(EndpointGroup.PUBLIC_MARKET), trading);
+        assertTrue(limiter.getThrottled(EndpointGroup.PUBLIC_MARKET) > 0);
+        // 轮询占满总限额时下单仍不需要等待
+        assertEquals(0, limiter.getThrottled(EndpointGroup.PRIVATE_TRADING));
+        assertTrue(trading.percentileMicros(99) < 5_000);
+    }
+
+    /**
+     * 异步请求与同步请求共用令牌桶, 等待期间不占用调用线程, 排队上限与最长等待相同
+     */
+    @Test
+    public void asyncSharesBudget() throws Exception {
+        EndpointRateLimiter limiter = new EndpointRateLimiter(config(100, 10, 20, 1000));
+        long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire(EndpointGroup.PUBLIC_MARKET);
+        }
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(limiter.acquireAsync(EndpointGroup.PUBLIC_MARKET));
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(20, limiter.getWaiting(EndpointGroup.PUBLIC_MARKET));
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsed >= 180, "elapsed " + elapsed);
+        assertEquals(20, limiter.getThrottled(EndpointGroup.PUBLIC_MARKET));
+        assertEquals(0, limiter.getWaiting(EndpointGroup.PUBLIC_MARKET));
+
+        EndpointRateLimiter queue = new EndpointRateLimiter(config(10, 1, 2, 10_000));
+        assertTrue(queue.acquireAsync(EndpointGroup.PUBLIC_MARKET).isDone());
+        int rejected = 0;
+        for (int i = 0; i < 6; i++) {
+            if (queue.acquireAsync(EndpointGroup.PUBLIC_MARKET).isCompletedExceptionally()) {
+                rejected++;
+            }
+        }
+        assertEquals(4, rejected);
+
+        EndpointRateLimiter wait = new EndpointRateLimiter(config(1, 1, 10, 100));
+        wait.acquire(EndpointGroup.PUBLIC_MARKET);
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> wait.acquireAsync(EndpointGroup.PUBLIC_MARKET).get(1, TimeUnit.SECONDS));
+        assertInstanceOf(RateLimitExceededException.class, e.getCause());
+        assertEquals(1, wait.getRejected(EndpointGroup.PUBLIC_MARKET));
+    }
+
+    @Test
+    public void rejectsTradingReserveWithoutRoomForPolling() {
+        RateLimitConfig config = config(100, 10, 10, 1000);
+        config.setTradingReserve(1000);
+        assertThrows(IllegalArgumentException.class, () -> new EndpointRateLimiter(config));
+        config.setTradingReserve(-1);
+        assertThrows(IllegalArgumentException.class, () -> new EndpointRateLimiter(config));
+        config.setTradingReserve(999);
+        EndpointRateLimiter limiter = new EndpointRateLimiter(config);
+        config.setTradingReserve(1000);
+        assertThrows(IllegalArgumentException.class, () -> limiter.configure(config));
+    }
+
+    @Test
+    public void privateUrlGroups() {
+        assertEquals(EndpointGroup.PRIVATE_TRADING, EndpointGroup.ofPrivateUrl("https://data.gateio.io/api2/1/private/buy"));
+        assertEquals(EndpointGroup.PRIVATE_TRADING, EndpointGroup.ofPrivateUrl("https://data.gateio.io/api2/1/private/cancelOrder"));
+        assertEquals(EndpointGroup.PRIVATE_QUERY, EndpointGroup.ofPrivateUrl("https://data.gateio.io/api2/1/private/balances"));
+        assertEquals(EndpointGroup.PRIVATE_QUERY, EndpointGroup.ofPrivateUrl("https://data.gateio.io/api2/1/private/tradeHistory"));
+    }
+}
@@ -0,0 +1,148 @@
+package com.gate.rest.util;
+
+import com.gate.rest.base.RateLimitConfig;
+import com.gate.rest.stub.ExchangeStubServer;
+import com.gate.rest.stub.LatencyStats;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.message.BasicNameValuePair;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/18 上午11:32
+ * @description：签名私有接口压测, 对比每次新建 HttpClient 与共享连接池的下单往返耗时
+ * @modified By：
+ * @version: $
+ */
+@Log4j2
+class HttpUtilManagerLoadTest {
+
+    static final String ORDER_RESULT = "{\"result\":\"true\",\"orderNumber\":\"123456789\",\"rate\":\"8.4\",\"leftAmount\":\"0\",\"filledAmount\":\"1\",\"filledRate\":\"8.4\",\"message\":\"Success\"}";
+    static final int THREADS = Integer.getInteger("gate.load.threads", 8);
+    static final int REQUESTS = Integer.getInteger("gate.load.requests", 2000);
+
+    static ExchangeStubServer stub;
+
+    @BeforeAll
+    static void start() throws Exception {
+        stub = new ExchangeStubServer(16).body("/api2/1/private/", ORDER_RESULT);
+        // 压测不受客户端限流影响
+        RateLimitConfig rateLimit = new RateLimitConfig();
+        rateLimit.setEnabled(false);
+        HttpUtilManager.rateLimiter.configure(rateLimit);
+    }
+
+    @AfterAll
+    static void stop() {
+        stub.close();
+        HttpUtilManager.rateLimiter.configure(new RateLimitConfig());
+    }
+
+    static Map<String, String> orderParams() {
+        return Map.of("currencyPair", "eth_btc", "rate", "8.4", "amount", "1",
+                "key", "stub-key", "secret", "stub-secret");
+    }
+
+    @Test
+    public void pooledPrivateClient() throws Exception {
+        String url = stub.getUrl() + "/api2/1/private/buy";
+        HttpUtilManager httpUtil = HttpUtilManager.getInstance();
+        // 预热
+        for (int i = 0; i < 100; i++) {
+            httpUtil.doRequest("data", "post", url, orderParams());
+        }
+        int before = stub.connectionCount();
+
+        LatencyStats stats = run(() -> httpUtil.doRequest("data", "post", url, orderParams()));
+        log.info("pooled private client: {}", stats);
+
+        assertEquals(REQUESTS, stats.count());
+        // 连接全部复用, 不应为每个请求新建连接
+        assertTrue(stub.connectionCount() - before <= THREADS, "new connections: " + (stub.connectionCount() - before));
+        assertEquals(0, HttpUtilManager.privateCm.getTotalStats().getLeased());
+    }
+
+    /**
+     * 容器关闭只释放空闲连接, 静态共享的客户端之后仍然可用
+     */
+    @Test
+    public void usableAfterContainerShutdown() throws Exception {
+        String url = stub.getUrl() + "/api2/1/private/buy";
+        HttpUtilManager httpUtil = HttpUtilManager.getInstance();
+        assertEquals(ORDER_RESULT, httpUtil.doRequest("data", "post", url, orderParams()));
+        httpUtil.shutdown();
+        assertEquals(0, HttpUtilManager.privateCm.getTotalStats().getAvailable());
+        assertEquals(ORDER_RESULT, httpUtil.doRequest("data", "post", url, orderParams()));
+    }
+
+    @Test
+    public void clientPerRequest() throws Exception {
+        String url = stub.getUrl() + "/api2/1/private/buy";
+        // 改造前的做法: 每次请求新建 HttpClient 并重新签名 (此处额外关闭客户端, 避免压测时耗尽端口)
+        LatencyStats stats = run(() -> {
+            Mac mac = Mac.getInstance("HmacSHA512");
+            mac.init(new SecretKeySpec("stub-secret".getBytes(StandardCharsets.UTF_8), "HmacSHA512"));
+            String sign = Hex.encodeHexString(mac.doFinal("currencyPair=eth_btc".getBytes(StandardCharsets.UTF_8)));
+            try (CloseableHttpClient client = HttpClientBuilder.create().build()) {
+                HttpPost post = new HttpPost(url);
+                post.setEntity(new UrlEncodedFormEntity(List.of(new BasicNameValuePair("currencyPair", "eth_btc"))));
+                post.setHeader("Key", "stub-key");
+                post.setHeader("Sign", sign);
+                HttpResponse response = client.execute(post);
+                try (InputStream is = response.getEntity().getContent()) {
+                    return IOUtils.toString(is, "UTF-8");
+                }
+            }
+        });
+        log.info("client per request: {}", stats);
+        assertEquals(REQUESTS, stats.count());
+    }
+
+    static LatencyStats run(Future0 call) throws Exception {
+        LatencyStats stats = new LatencyStats(REQUESTS);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int i = 0; i < REQUESTS; i++) {
+                pool.submit(() -> {
+                    long start = System.nanoTime();
+                    String result = call.call();
+                    if (ORDER_RESULT.equals(result)) {
+                        stats.record(System.nanoTime() - start);
+                    }
+                    return result;
+                });
+            }
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(2, TimeUnit.MINUTES);
+        }
+        return stats;
+    }
+
+    interface Future0 {
+        String call() throws Exception;
+    }
+}
@@ -0,0 +1,46 @@
+package com.gate.rest.util;
+
+import com.gate.rest.stub.ExchangeStubServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/20 上午10:21
+ * @description：后台清理空闲连接, 连接池指标
+ * @modified By：
+ * @version: $
+ */
+@SpringBootTest(properties = "gate.http.evictor.idle-millis=0")
+@Log4j2
+class IdleConnectionEvictorTest {
+    @Autowired
+    IdleConnectionEvictor evictor;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    public void evictIdleConnections() throws Exception {
+        try (ExchangeStubServer stub = new ExchangeStubServer(4).body("/api2/1/pairs", "[\"eth_btc\"]")) {
+            HttpUtilManager httpUtil = HttpUtilManager.getInstance();
+            for (int i = 0; i < 10; i++) {
+                assertEquals("[\"eth_btc\"]", httpUtil.requestHttpGet(stub.getUrl(), "/api2/1/pairs", ""));
+            }
+            double available = meterRegistry.get("gate.http.pool.available").tag("pool", "public").gauge().value();
+            log.info("available before evict: {}", available);
+            assertTrue(available > 0);
+
+            evictor.evict();
+
+            assertEquals(0, meterRegistry.get("gate.http.pool.available").tag("pool", "public").gauge().value());
+            assertEquals(0, meterRegistry.get("gate.http.pool.leased").tag("pool", "private").gauge().value());
+        }
+    }
+}
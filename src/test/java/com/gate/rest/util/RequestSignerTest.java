@@ -0,0 +1,148 @@
+package com.gate.rest.util;
+
+import lombok.extern.log4j.Log4j2;
+import org.apache.http.client.utils.URLEncodedUtils;
+import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/23 上午10:05
+ * @description：私有接口签名器
+ * @modified By：
+ * @version: $
+ */
+@Log4j2
+class RequestSignerTest {
+
+    static Map<String, String> orderParams() {
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("key", "stub-key");
+        params.put("secret", "stub-secret");
+        params.put("currencyPair", "eth_btc");
+        params.put("rate", "0.0327");
+        params.put("amount", "1.5");
+        return params;
+    }
+
+    static String formEncode(Map<String, String> params) {
+        List<BasicNameValuePair> pairs = new ArrayList<>();
+        params.forEach((k, v) -> pairs.add(new BasicNameValuePair(k, v)));
+        return URLEncodedUtils.format(pairs, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void sameSignatureAsHttpUtilManager() throws Exception {
+        Map<String, String> params = orderParams();
+        RequestSigner signer = RequestSigner.of("stub-key", "stub-secret");
+        try (RequestSigner.SignedBody body = signer.sign(params)) {
+            String form = new String(body.buffer(), 0, body.length(), StandardCharsets.UTF_8);
+            // 普通参数编码前后一致, 与原签名结果相同
+            assertEquals(HttpUtilManager.buildPostData(params), form);
+            assertEquals(HttpUtilManager.sign("stub-secret", form), body.signature());
+            assertEquals(body.signature(), body.signHeader().getValue());
+            assertEquals("Sign: " + body.signature(), body.signHeader().getBuffer().toString());
+            assertEquals(form, EntityUtils.toString(body.entity()));
+        }
+    }
+
+    @Test
+    public void bodyIsFormEncoded() throws Exception {
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("address", "0xAbC def/+=&?");
+        params.put("memo", "提现 😀 ~!");
+        params.put("empty", "");
+        RequestSigner signer = RequestSigner.of("stub-key", "stub-secret");
+        try (RequestSigner.SignedBody body = signer.sign(params)) {
+            String form = new String(body.buffer(), 0, body.length(), StandardCharsets.US_ASCII);
+            assertEquals(formEncode(params), form);
+            // 签名覆盖实际发送的字节
+            assertEquals(HttpUtilManager.sign("stub-secret", form), body.signature());
+        }
+    }
+
+    @Test
+    public void cachedPerCredential() {
+        RequestSigner signer = RequestSigner.of("cache-key", "secret-1");
+        assertSame(signer, RequestSigner.of("cache-key", "secret-1"));
+        RequestSigner rotated = RequestSigner.of("cache-key", "secret-2");
+        assertTrue(signer != rotated);
+        assertSame(rotated, RequestSigner.of("cache-key", "secret-2"));
+        assertThrows(IllegalArgumentException.class, () -> RequestSigner.of("cache-key", ""));
+    }
+
+    @Test
+    public void concurrentSigning() throws Exception {
+        RequestSigner signer = RequestSigner.of("stub-key", "stub-secret");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 2000; i++) {
+                        Map<String, String> params = orderParams();
+                        params.put("amount", thread + "." + i);
+                        try (RequestSigner.SignedBody body = signer.sign(params)) {
+                            String form = new String(body.buffer(), 0, body.length(), StandardCharsets.UTF_8);
+                            assertEquals(HttpUtilManager.buildPostData(params), form);
+                            assertEquals(HttpUtilManager.sign("stub-secret", form), body.signature());
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void allocation() {
+        Map<String, String> params = orderParams();
+        RequestSigner signer = RequestSigner.of("stub-key", "stub-secret");
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long tid = Thread.currentThread().getId();
+        int rounds = 20_000;
+        long sink = 0;
+        for (int i = 0; i < rounds; i++) {
+            sink += HttpUtilManager.sign("stub-secret", HttpUtilManager.buildPostData(params)).length();
+            try (RequestSigner.SignedBody body = signer.sign(params)) {
+                sink += body.length();
+            }
+        }
+        long start = bean.getThreadAllocatedBytes(tid);
+        for (int i = 0; i < rounds; i++) {
+            sink += HttpUtilManager.sign("stub-secret", HttpUtilManager.buildPostData(params)).length();
+        }
+        long legacy = (bean.getThreadAllocatedBytes(tid) - start) / rounds;
+        start = bean.getThreadAllocatedBytes(tid);
+        for (int i = 0; i < rounds; i++) {
+            try (RequestSigner.SignedBody body = signer.sign(params)) {
+                sink += body.length();
+            }
+        }
+        long cached = (bean.getThreadAllocatedBytes(tid) - start) / rounds;
+        log.info("sign allocation: new Mac + String {} B/op, RequestSigner {} B/op ({})", legacy, cached, sink);
+        assertTrue(cached * 10 < legacy, "RequestSigner " + cached + " B/op");
+    }
+}
@@ -0,0 +1,144 @@
+package com.gate.rest.util;
+
+import com.gate.rest.stock.impl.StockRestApi;
+import com.gate.rest.stub.ExchangeStubServer;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/22 上午9:40
+ * @description：相同请求合并
+ * @modified By：
+ * @version: $
+ */
+@Log4j2
+class SingleFlightTest {
+    static final String TICKER = "{\"result\":\"true\",\"last\":\"0.0327\",\"lowestAsk\":\"0.03275\",\"highestBid\":\"0.0327\"}";
+
+    @Test
+    public void concurrentCallsShareOneExecution() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> flight.execute("eth_btc", () -> {
+                    executions.incrementAndGet();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new IOException(e);
+                    }
+                    return "ok";
+                })));
+            }
+            while (flight.getMisses() + flight.getInflightHits() < 8) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+            for (Future<String> future : futures) {
+                assertEquals("ok", future.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, executions.get());
+        assertEquals(1, flight.getMisses());
+        assertEquals(7, flight.getInflightHits());
+
+        // 窗口为0, 调用结束后不再复用
+        assertEquals("again", flight.execute("eth_btc", () -> "again"));
+        assertEquals(2, flight.getMisses());
+    }
+
+    @Test
+    public void reuseWindow() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>(200);
+        AtomicInteger executions = new AtomicInteger();
+        SingleFlight.Call<String> call = () -> "v" + executions.incrementAndGet();
+
+        assertEquals("v1", flight.execute("tickers", call));
+        assertEquals("v1", flight.execute("tickers", call));
+        assertEquals("v2", flight.execute("pairs", call));
+        assertEquals(1, flight.getWindowHits());
+
+        Thread.sleep(250);
+        assertEquals("v3", flight.execute("tickers", call));
+        assertEquals(3, flight.getMisses());
+    }
+
+    @Test
+    public void failuresAreSharedButNotReused() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>(60_000);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(() -> flight.execute("ticker", () -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                throw new IOException("exchange down");
+            }));
+            while (flight.getMisses() == 0) {
+                Thread.sleep(1);
+            }
+            Future<String> follower = executor.submit(() -> flight.execute("ticker", () -> "unused"));
+            while (flight.getInflightHits() == 0) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+            assertInstanceOf(IOException.class, assertThrows(ExecutionException.class, leader::get).getCause());
+            assertInstanceOf(IOException.class, assertThrows(ExecutionException.class, follower::get).getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals("recovered", flight.execute("ticker", () -> "recovered"));
+        assertEquals(2, flight.getMisses());
+    }
+
+    @Test
+    public void coalescePublicGets() throws Exception {
+        try (ExchangeStubServer stub = new ExchangeStubServer(4).body("/api2/1/ticker/", TICKER).latency(200)) {
+            StockRestApi api = new StockRestApi(stub.getUrl());
+            long misses = HttpUtilManager.coalescer.getMisses();
+            ExecutorService executor = Executors.newFixedThreadPool(16);
+            try {
+                List<Future<String>> futures = new ArrayList<>();
+                for (int i = 0; i < 16; i++) {
+                    futures.add(executor.submit(() -> api.ticker("eth_btc")));
+                }
+                for (Future<String> future : futures) {
+                    assertEquals(TICKER, future.get(10, TimeUnit.SECONDS));
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+            log.info("16 concurrent ticker calls -> {} requests, coalescer misses +{}",
+                    stub.requestCount(), HttpUtilManager.coalescer.getMisses() - misses);
+            // 线程启动有先后, 可能在第一个请求结束后才进入, 但远少于16 次
+            assertEquals(stub.requestCount(), HttpUtilManager.coalescer.getMisses() - misses);
+            assertTrue(stub.requestCount() <= 2);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.gate.rest.util;
+
+import com.gate.rest.stock.impl.StockRestApi;
+import com.gate.rest.stub.ExchangeStubServer;
+import com.google.gson.reflect.TypeToken;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/21 下午2:05
+ * @description：响应体直接流入解析器 与 先读成 String 再解析 的内存分配对比
+ * @modified By：
+ * @version: $
+ */
+@Log4j2
+class StreamDecoderAllocationTest {
+    static final Type MAP_TYPE = new TypeToken<Map<String, Object>>() {
+    }.getType();
+
+    static final int WARMUP = 20;
+    static final int ROUNDS = 50;
+
+    static byte[] payload(String name) throws IOException {
+        try (InputStream in = StreamDecoderAllocationTest.class.getResourceAsStream("/payload/" + name)) {
+            return IOUtils.toByteArray(in);
+        }
+    }
+
+    static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    static long bytesPerCall(byte[] body, StreamDecoder<?> decoder) throws IOException {
+        for (int i = 0; i < WARMUP; i++) {
+            decoder.decode(new ByteArrayInputStream(body));
+        }
+        long start = allocatedBytes();
+        for (int i = 0; i < ROUNDS; i++) {
+            decoder.decode(new ByteArrayInputStream(body));
+        }
+        return (allocatedBytes() - start) / ROUNDS;
+    }
+
+    void compare(String name) throws IOException {
+        byte[] body = payload(name);
+        long buffered = bytesPerCall(body, in -> JsonTool.jsonToObject(StreamDecoder.UTF8_STRING.decode(in), MAP_TYPE));
+        long streamed = bytesPerCall(body, JsonTool.decoder(MAP_TYPE));
+        log.info("{} ({} bytes): String 解析 {} B/次, 流式解析 {} B/次, 节省 {}%",
+                name, body.length, buffered, streamed, (buffered - streamed) * 100 / buffered);
+        assertTrue(streamed < buffered);
+    }
+
+    @Test
+    public void tickers() throws Exception {
+        compare("tickers.json");
+    }
+
+    @Test
+    public void orderBook() throws Exception {
+        compare("orderBook.json");
+    }
+
+    @Test
+    public void marketList() throws Exception {
+        compare("marketList.json");
+    }
+
+    @Test
+    public void decodeFromResponse() throws Exception {
+        String tickers = new String(payload("tickers.json"), StandardCharsets.UTF_8);
+        try (ExchangeStubServer stub = new ExchangeStubServer(2).body("/api2/1/tickers", tickers)) {
+            StockRestApi api = new StockRestApi(stub.getUrl());
+            Map<String, Object> decoded = api.tickers(JsonTool.decoder(MAP_TYPE));
+            assertEquals(JsonTool.jsonToObject(tickers, MAP_TYPE), decoded);
+            assertEquals(tickers, api.tickers());
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.gate.rest.util;
+
+import com.gate.rest.entity.PairScale;
+import com.gate.rest.entity.Price;
+import com.gate.rest.entity.Ticker;
+import com.gate.rest.stock.impl.StockRestApi;
+import com.gate.rest.stub.ExchangeStubServer;
+import com.google.gson.reflect.TypeToken;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/25 下午2:10
+ * @description：定点数行情解码
+ * @modified By：
+ * @version: $
+ */
+@Log4j2
+class TickerDecoderTest {
+
+    static long scaled(String value, int scale) {
+        return new BigDecimal(value).setScale(scale, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    static Ticker decode(String json, PairScale scale) throws Exception {
+        return new TickerDecoder(scale).decode(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void fixedPoint() {
+        assertEquals(610169, FixedPoint.parse("0.0610169", 7));
+        assertEquals(-108, FixedPoint.parse("-1.08", 2));
+        assertEquals(1800_00, FixedPoint.parse("1800", 2));
+        assertEquals(15089_26858850L, FixedPoint.parse("15089.268588503", 8));
+        assertEquals(15089_26858851L, FixedPoint.parse("15089.268588505", 8));
+        assertEquals("0.0610169", FixedPoint.toString(610169, 7));
+        assertEquals("-1.08", FixedPoint.toString(-108, 2));
+        assertEquals(-11, FixedPoint.rescale(-108, 2, 1));
+        assertThrows(ArithmeticException.class, () -> FixedPoint.parse("92233720368.54775808", 8));
+        assertThrows(NumberFormatException.class, () -> FixedPoint.parse("1e5", 2));
+    }
+
+    @Test
+    public void everyRecordedTicker() throws Exception {
+        Map<String, PairScale> scales = PairScale.fromMarketInfo(ExchangeStubServer.payload("marketinfo"));
+        Map<String, Map<String, String>> tickers = JsonTool.jsonToObject(ExchangeStubServer.payload("tickers"),
+                new TypeToken<Map<String, Map<String, String>>>() {
+                }.getType());
+        assertEquals(tickers.keySet(), scales.keySet());
+        for (Map.Entry<String, Map<String, String>> entry : tickers.entrySet()) {
+            PairScale scale = scales.get(entry.getKey());
+            Map<String, String> expected = entry.getValue();
+            Ticker ticker = decode(JsonTool.mapToJson(expected), scale);
+            int p = scale.getPriceScale();
+            int v = PairScale.TICKER_VOLUME_SCALE;
+            assertTrue(ticker.isResult());
+            assertEquals(scaled(expected.get("last"), p), ticker.getLast(), entry.getKey());
+            assertEquals(scaled(expected.get("lowestAsk"), p), ticker.getLowestAsk());
+            assertEquals(scaled(expected.get("highestBid"), p), ticker.getHighestBid());
+            assertEquals(scaled(expected.get("high24hr"), p), ticker.getHigh24hr());
+            assertEquals(scaled(expected.get("low24hr"), p), ticker.getLow24hr());
+            assertEquals(scaled(expected.get("baseVolume"), v), ticker.getBaseVolume());
+            assertEquals(scaled(expected.get("quoteVolume"), v), ticker.getQuoteVolume());
+            assertEquals(scaled(expected.get("percentChange"), PairScale.PERCENT_SCALE), ticker.getPercentChange());
+            assertEquals(new BigDecimal(expected.get("last")).compareTo(ticker.lastDecimal()), 0);
+        }
+    }
+
+    @Test
+    public void elapsedAndErrors() throws Exception {
+        PairScale scale = PairScale.of(4);
+        String json = "{ \"quoteVolume\": \"1711.56084969\", \"baseVolume\": \"15089.268588503\",\n"
+                + "  \"highestBid\": \"8.8001\", \"high24hr\": 9.2096, \"last\": \"8.8148\", \"lowestAsk\": \"8.8148\",\n"
+                + "  \"elapsed\": \"7ms\", \"result\": \"true\", \"extra\": {\"a\": [1, \"}\"]},\n"
+                + "  \"low24hr\": \"8.6229\", \"percentChange\": \"-1.08\" }";
+        Ticker ticker = decode(json, scale);
+        assertEquals(88148, ticker.getLast());
+        assertEquals(92096, ticker.getHigh24hr());
+        assertEquals(-10800, ticker.getPercentChange());
+        assertEquals(7000, ticker.getElapsedMicros());
+        assertEquals(147, ticker.spread());
+        Price price = ticker.toPrice();
+        assertEquals("8.8148", price.getLast());
+        assertEquals("7ms", price.getElapsed());
+        assertEquals("15089.2686", price.getBaseVolume());
+
+        assertEquals(350, decode("{\"elapsed\":\"0.35ms\"}", scale).getElapsedMicros());
+        assertEquals(120, decode("{\"elapsed\":\"120us\"}", scale).getElapsedMicros());
+        assertEquals(2_000_000, decode("{\"elapsed\":\"2s\"}", scale).getElapsedMicros());
+
+        Ticker error = decode("{\"result\":\"false\",\"code\":8,\"message\":\"Error: invalid \\\"pair\\\"\"}", scale);
+        assertFalse(error.isResult());
+        assertEquals(0, error.getLast());
+        assertThrows(java.io.EOFException.class, () -> decode("{\"last\":\"1.2\"", scale));
+    }
+
+    /**
+     * SHIB / PEPE 等交易对的 24 小时成交量在 1e12 以上; 超出 long 的成交量饱和, 超出范围的价格抛出 IOException 而不是 ArithmeticException
+     */
+    @Test
+    public void largeVolumes() throws Exception {
+        PairScale scale = PairScale.of(8);
+        Ticker ticker = decode("{\"last\":\"0.00001234\",\"baseVolume\":\"12345678901234.56789\","
+                + "\"quoteVolume\":\"123456789012345678901234\",\"result\":\"true\"}", scale);
+        assertEquals(1234, ticker.getLast());
+        assertEquals(12345678901234_5679L, ticker.getBaseVolume());
+        assertEquals("12345678901234.5679", ticker.toPrice().getBaseVolume());
+        assertEquals(Long.MAX_VALUE, ticker.getQuoteVolume());
+        assertTrue(ticker.isResult());
+
+        java.io.IOException e = assertThrows(java.io.IOException.class, () -> decode("{\"last\":\"123456789012\"}", scale));
+        assertTrue(e.getMessage().contains("8"), e.getMessage());
+    }
+
+    @Test
+    public void fromStub() throws Exception {
+        try (ExchangeStubServer stub = new ExchangeStubServer(2).recorded()) {
+            StockRestApi api = new StockRestApi(stub.getUrl());
+            Map<String, PairScale> scales = PairScale.fromMarketInfo(api.marketInfo());
+            Ticker ticker = new Ticker();
+            Ticker filled = api.ticker("eth_btc", new TickerDecoder(scales.get("eth_btc")).into(ticker));
+            assertSame(ticker, filled);
+            assertEquals(7, ticker.getPriceScale());
+            assertEquals(610169, ticker.getLast());
+            assertTrue(ticker.getElapsedMicros() >= 1000);
+        }
+    }
+
+    @Test
+    public void allocation() throws Exception {
+        byte[] body = JsonTool.mapToJson(JsonTool.jsonToObject(ExchangeStubServer.payload("tickers")).get("eth_usdt"))
+                .getBytes(StandardCharsets.UTF_8);
+        ByteArrayInputStream in = new ByteArrayInputStream(body);
+        TickerDecoder decoder = new TickerDecoder(PairScale.of(2));
+        Ticker ticker = new Ticker();
+        int rounds = 50_000;
+        long sink = 0;
+        for (int i = 0; i < rounds; i++) {
+            in.reset();
+            sink += decoder.decode(in, ticker).getLast();
+            sink += JsonTool.<Price>jsonToObject(new String(body, StandardCharsets.UTF_8), Price.class).getLast().length();
+        }
+        long start = StreamDecoderAllocationTest.allocatedBytes();
+        for (int i = 0; i < rounds; i++) {
+            in.reset();
+            sink += decoder.decode(in, ticker).getLast();
+        }
+        long direct = (StreamDecoderAllocationTest.allocatedBytes() - start) / rounds;
+        start = StreamDecoderAllocationTest.allocatedBytes();
+        for (int i = 0; i < rounds; i++) {
+            Price price = JsonTool.jsonToObject(new String(body, StandardCharsets.UTF_8), Price.class);
+            sink += new BigDecimal(price.getLast()).unscaledValue().longValue();
+        }
+        long gson = (StreamDecoderAllocationTest.allocatedBytes() - start) / rounds;
+        log.info("ticker decode: Gson Price + BigDecimal {} B/op, TickerDecoder {} B/op ({})", gson, direct, sink);
+        assertTrue(direct <= 64, "TickerDecoder " + direct + " B/op");
+    }
+}
@@ -0,0 +1,105 @@
+package com.gate.rest.util;
+
+import com.gate.rest.base.HttpPoolConfig;
+import com.gate.rest.base.RateLimitConfig;
+import com.gate.rest.stock.IStockRestApi;
+import com.gate.rest.stock.impl.StockRestApi;
+import com.gate.rest.stub.ExchangeStubServer;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * @author ：huang_fengge
+ * @date ：Created in 2026/10/19 下午3:10
+ * @description：虚拟线程与平台线程池的 fan-out 吞吐对比, 1k / 10k 并发请求.
+ * 需要 JDK 21: mvn -Pjdk21 test -Dtest=VirtualThreadFanOutBenchmarkTest
+ * @modified By：
+ * @version: $
+ */
+@Log4j2
+class VirtualThreadFanOutBenchmarkTest {
+
+    static final String TICKER = "{\"result\":\"true\",\"last\":\"8.8148\",\"lowestAsk\":\"8.8148\",\"highestBid\":\"8.8001\"}";
+    /** 对比用的平台线程池大小, 相当于调优后的常见配置 **/
+    static final int PLATFORM_THREADS = Integer.getInteger("gate.load.platform-threads", 200);
+    /** 受限于单进程文件句柄数, 客户端与桩服务共用本机 **/
+    static final int MAX_CONNECTIONS = Integer.getInteger("gate.load.connections", 4000);
+
+    static ExchangeStubServer stub;
+
+    @BeforeAll
+    static void start() throws Exception {
+        assumeTrue(CallExecutors.virtualThreadsSupported(), "virtual threads require Java 21");
+        stub = new ExchangeStubServer(CallExecutors.newVirtualThreadPerTaskExecutor())
+                .body("/api2/1/ticker/", TICKER)
+                .latency(50);
+        HttpPoolConfig config = new HttpPoolConfig();
+        config.setPublicPool(new HttpPoolConfig.Pool(MAX_CONNECTIONS, MAX_CONNECTIONS));
+        HttpUtilManager.applyPoolConfig(config);
+        // 压测不受客户端限流影响
+        RateLimitConfig rateLimit = new RateLimitConfig();
+        rateLimit.setEnabled(false);
+        HttpUtilManager.rateLimiter.configure(rateLimit);
+    }
+
+    @AfterAll
+    static void stop() {
+        if (stub != null) {
+            stub.close();
+            HttpUtilManager.applyPoolConfig(new HttpPoolConfig());
+            HttpUtilManager.rateLimiter.configure(new RateLimitConfig());
+        }
+    }
+
+    @Test
+    public void fanOut1k() throws Exception {
+        compare(1_000);
+    }
+
+    @Test
+    public void fanOut10k() throws Exception {
+        compare(10_000);
+    }
+
+    void compare(int concurrency) throws Exception {
+        List<String> symbols = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            symbols.add("p" + i + "_usdt");
+        }
+        // 预热连接池与JIT
+        run(symbols.subList(0, Math.min(500, concurrency)), CallExecutors.newPlatformExecutor(PLATFORM_THREADS));
+
+        double platform = run(symbols, CallExecutors.newPlatformExecutor(PLATFORM_THREADS));
+        double virtual = run(symbols, CallExecutors.newVirtualThreadPerTaskExecutor());
+        log.info("concurrency {}: platform({} threads) {} req/s, virtual {} req/s",
+                concurrency, PLATFORM_THREADS, Math.round(platform), Math.round(virtual));
+    }
+
+    static double run(List<String> symbols, ExecutorService executor) throws Exception {
+        HttpUtilManager.cm.closeIdleConnections(0, TimeUnit.MILLISECONDS);
+        StockRestApi api = new StockRestApi(stub.getUrl());
+        api.setCallExecutor(executor);
+        try {
+            long start = System.nanoTime();
+            // 按阻塞方式编写的 fan-out, 并发度由执行器决定
+            Map<String, String> tickers = api.fanOut(symbols, IStockRestApi::ticker);
+            long elapsed = System.nanoTime() - start;
+            assertEquals(symbols.size(), tickers.size());
+            tickers.values().forEach(t -> assertEquals(TICKER, t));
+            return symbols.size() * 1e9 / elapsed;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}